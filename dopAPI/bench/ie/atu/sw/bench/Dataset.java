@@ -0,0 +1,226 @@
+package ie.atu.sw.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.ExaminerType;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.ExternalExaminerAction;
+import ie.atu.sw.model.FileUtil;
+import ie.atu.sw.model.InternalExaminer;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.Question;
+import ie.atu.sw.model.Rules;
+import ie.atu.sw.model.Storage;
+import ie.atu.sw.model.StorageEngine;
+
+/**
+ * A synthetic data directory for one benchmark trial. The directory is created
+ * empty and made the {@link Storage} data directory; the trial then fills it
+ * with generated entities. Values are derived from a fixed seed so that every
+ * run measures the same data.
+ *
+ * <p>
+ * Entities are written as legacy list files in a single pass, which both
+ * storage engines can read: the legacy engine uses them directly and the binary
+ * engine imports them the first time a repository is opened. This keeps the
+ * set-up of large datasets linear in their size.
+ */
+public class Dataset implements AutoCloseable {
+	private final Path directory;
+	private final SplittableRandom random = new SplittableRandom(42);
+
+	/**
+	 * Creates an empty data directory and points the storage layer at it.
+	 *
+	 * @throws IOException If the directory cannot be created.
+	 */
+	public Dataset() throws IOException {
+		directory = Files.createTempDirectory("atu-bench");
+		System.setProperty(Storage.DATA_DIR_PROPERTY, directory.toString());
+		Storage.use(null);
+	}
+
+	/**
+	 * Returns the random source used for generated values.
+	 *
+	 * @return The seeded random source.
+	 */
+	public SplittableRandom random() {
+		return random;
+	}
+
+	/**
+	 * Returns a file in the data directory.
+	 *
+	 * @param fileName The file name.
+	 * @return The path of the file.
+	 */
+	public Path file(String fileName) {
+		return directory.resolve(fileName);
+	}
+
+	/**
+	 * Opens a fresh storage engine over the data directory, discarding the
+	 * engine, its caches and its indexes from any earlier call.
+	 *
+	 * @param engineName The engine name, {@code binary} or {@code legacy}.
+	 * @return The opened engine.
+	 */
+	public StorageEngine open(String engineName) {
+		StorageEngine engine = Storage.createEngine(engineName);
+		Storage.use(engine);
+		return engine;
+	}
+
+	/**
+	 * Writes values as the legacy list file of a repository.
+	 *
+	 * @param repositoryName The repository name, for example
+	 *                       {@link StorageEngine#MODULES}.
+	 * @param values         The values to write.
+	 */
+	public void writeList(String repositoryName, List<?> values) {
+		FileUtil.saveToFile(file(repositoryName + ".dat").toString(), values);
+	}
+
+	/**
+	 * Generates internal examiners.
+	 *
+	 * @param count The number of examiners.
+	 * @return The examiners.
+	 */
+	public List<InternalExaminer> internalExaminers(int count) {
+		List<InternalExaminer> examiners = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			examiners.add(new InternalExaminer("Internal Examiner " + i, ExaminerType.INTERNAL, department(),
+					"School of Science", "internal" + i + "@atu.ie", 10_000 + i));
+		}
+		return examiners;
+	}
+
+	/**
+	 * Generates external examiners.
+	 *
+	 * @param count The number of examiners.
+	 * @return The examiners.
+	 */
+	public List<ExternalExaminer> externalExaminers(int count) {
+		List<ExternalExaminer> examiners = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			examiners.add(new ExternalExaminer("External Examiner " + i, ExaminerType.EXTERNAL, department(),
+					"University " + random.nextInt(50)));
+		}
+		return examiners;
+	}
+
+	/**
+	 * Generates modules, each taught by a random internal examiner and examined by
+	 * a random external examiner.
+	 *
+	 * @param count     The number of modules.
+	 * @param internals The internal examiners to choose from.
+	 * @param externals The external examiners to choose from.
+	 * @return The modules.
+	 */
+	public List<ModuleInfo> modules(int count, List<InternalExaminer> internals, List<ExternalExaminer> externals) {
+		List<ModuleInfo> modules = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			modules.add(new ModuleInfo(moduleCode(i), "Module " + i, 20 + random.nextInt(200), "P" + (i % 40),
+					"Programme " + (i % 40), 1 + random.nextInt(4), "School of Science", department(),
+					internals.get(random.nextInt(internals.size())), externals.get(random.nextInt(externals.size()))));
+		}
+		return modules;
+	}
+
+	/**
+	 * Generates examination papers for a module. Every paper has the maximum
+	 * number of questions and its marks add up to the required total.
+	 *
+	 * @param moduleCode The module the papers belong to.
+	 * @param count      The number of papers.
+	 * @return The papers.
+	 */
+	public List<ExaminationPaper> papers(String moduleCode, int count) {
+		List<ExaminationPaper> papers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			papers.add(paper(moduleCode, moduleCode + "-paper-" + i));
+		}
+		return papers;
+	}
+
+	/**
+	 * Generates actions recorded against random papers.
+	 *
+	 * @param count     The number of actions.
+	 * @param paperIds  The papers the actions are recorded against.
+	 * @param externals The external examiners to choose from.
+	 * @return The actions.
+	 */
+	public List<ExternalExaminerAction> actions(int count, List<String> paperIds, List<ExternalExaminer> externals) {
+		ExternalExaminerActions[] kinds = ExternalExaminerActions.values();
+		List<ExternalExaminerAction> actions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			actions.add(new ExternalExaminerAction(moduleCode(0), externals.get(random.nextInt(externals.size())),
+					"Comment " + i, kinds[random.nextInt(kinds.length)], paperIds.get(random.nextInt(paperIds.size()))));
+		}
+		return actions;
+	}
+
+	/**
+	 * Returns the code of the module with the given number.
+	 *
+	 * @param number The module number.
+	 * @return The module code.
+	 */
+	public static String moduleCode(int number) {
+		return String.format("M%06d", number);
+	}
+
+	/**
+	 * Restores the default data directory and deletes the trial's files.
+	 */
+	@Override
+	public void close() {
+		Storage.use(null);
+		System.clearProperty(Storage.DATA_DIR_PROPERTY);
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error deleting " + directory, e);
+		}
+	}
+
+	private ExaminationPaper paper(String moduleCode, String paperId) {
+		int questionCount = Rules.DEFAULT_MAX_QUESTIONS;
+		List<Question> questions = new ArrayList<>(questionCount);
+		int remaining = Rules.DEFAULT_TOTAL_MARKS;
+		for (int q = 0; q < questionCount; q++) {
+			int marks = q == questionCount - 1 ? remaining : Rules.DEFAULT_TOTAL_MARKS / questionCount;
+			remaining -= marks;
+			questions.add(new Question("Question " + (q + 1) + " of " + paperId,
+					List.of("Explain part a.", "Discuss part b."), marks));
+		}
+		return new ExaminationPaper(paperId, moduleCode, yesNo(), yesNo(), yesNo(), yesNo(), yesNo(), yesNo(), yesNo(),
+				yesNo(), yesNo(), questionCount, Rules.DEFAULT_REQUIRED_ANSWERS, questions, new ArrayList<>());
+	}
+
+	private String yesNo() {
+		return random.nextBoolean() ? "Yes" : "No";
+	}
+
+	private String department() {
+		return "Department " + random.nextInt(12);
+	}
+}
@@ -0,0 +1,116 @@
+package ie.atu.sw.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.ExaminerServiceImpl;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminerAction;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleInfoFileHandler;
+import ie.atu.sw.model.Storage;
+
+/**
+ * Measures how the throughput of durable action recording grows with the
+ * number of concurrent callers. Every benchmark thread records external
+ * examiner actions through
+ * {@link ExaminerServiceImpl#recordAction(String, String, ExternalExaminerActions, String)},
+ * which returns only once the action has been forced to disk by the group
+ * committer, so the score is the number of durable actions per second.
+ *
+ * <p>
+ * Runs 16 threads by default; compare concurrency levels with JMH's thread
+ * option, for example
+ * {@code gradle jmh --args='-t 1 GroupCommitThroughput'} and {@code -t 64}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(16)
+public class GroupCommitThroughput {
+
+	/**
+	 * A generated workload of 32 modules with 512 papers, and the service that
+	 * records the actions.
+	 */
+	@State(Scope.Benchmark)
+	public static class Workload {
+		@Param({ "binary" })
+		public String engine;
+
+		private Dataset dataset;
+		private final List<ExaminationPaper> papers = new ArrayList<>();
+		private final List<String> examiners = new ArrayList<>();
+		private ExaminerServiceImpl service;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			dataset.open(engine);
+			new WorkloadGenerator(11, 20, 8, 32, 512, 0, 1).generate();
+			for (ModuleInfo module : ModuleInfoFileHandler.loadModuleInfo()) {
+				for (ExaminationPaper paper : Storage.engine().papers(module.moduleCode()).values()) {
+					papers.add(paper);
+					examiners.add(ExaminerUtil.examinerId(module.getExternalExaminer()));
+				}
+			}
+			service = new ExaminerServiceImpl(new Scanner(""));
+		}
+
+		@TearDown
+		public void tearDown() {
+			service.close();
+			dataset.close();
+		}
+	}
+
+	/**
+	 * The papers one benchmark thread picks, seeded by the thread's index.
+	 */
+	@State(Scope.Thread)
+	public static class Caller {
+		private SplittableRandom random;
+
+		@Setup
+		public void setUp(ThreadParams thread) {
+			random = new SplittableRandom(thread.getThreadIndex());
+		}
+	}
+
+	/**
+	 * Records a comment on a random paper and waits until it is durable.
+	 *
+	 * @param workload The papers and service.
+	 * @param caller   The calling thread's random source.
+	 * @return The recorded action.
+	 */
+	@Benchmark
+	public ExternalExaminerAction recordAction(Workload workload, Caller caller) {
+		int p = caller.random.nextInt(workload.papers.size());
+		return workload.service.recordAction(workload.examiners.get(p), workload.papers.get(p).paperId(),
+				ExternalExaminerActions.ADD_COMMENT, "Throughput comment");
+	}
+}
@@ -0,0 +1,137 @@
+package ie.atu.sw.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleInfoFileHandler;
+import ie.atu.sw.model.Storage;
+import ie.atu.sw.model.StringTable;
+
+/**
+ * Measures the time to load a whole dataset and the heap it retains. A
+ * workload is generated into a fresh data directory; before every load the
+ * storage engine is reopened, so that nothing generated is still referenced,
+ * and then every module, every examiner and every paper with its actions is
+ * loaded and held. The score is the load time; the heap in use after a full
+ * collection, measured outside the timed load, is reported as the
+ * {@code retainedMegabytes} counter, with the number of {@link StringTable}
+ * entries as {@code stringTableEntries}.
+ *
+ * <p>
+ * Run it once as it is and once with
+ * {@code -jvmArgsAppend -Datu.strings.canonical=false} to see what sharing the
+ * repeated strings saves.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LoadFootprint {
+
+	/**
+	 * The generated data directory.
+	 */
+	@State(Scope.Benchmark)
+	public static class Workload {
+		@Param({ "binary" })
+		public String engine;
+		@Param({ "400" })
+		public int modules;
+		@Param({ "20000" })
+		public int papers;
+		@Param({ "100000" })
+		public long actions;
+
+		private Dataset dataset;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			dataset.open(engine);
+			new WorkloadGenerator(7, 120, 40, modules, papers, actions, 1).generate();
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * The loaded records, held until the heap is measured, and the counters
+	 * reported with the score.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		public double retainedMegabytes;
+		public long stringTableEntries;
+
+		private final List<Object> loaded = new ArrayList<>();
+		private long before;
+
+		@Setup(Level.Invocation)
+		public void reopen(Workload workload) {
+			workload.dataset.open(workload.engine);
+			before = usedHeap();
+		}
+
+		@TearDown(Level.Invocation)
+		public void measure() {
+			retainedMegabytes = (usedHeap() - before) / 1048576.0;
+			stringTableEntries = StringTable.size();
+			loaded.clear();
+		}
+	}
+
+	/**
+	 * Loads every module, examiner and paper.
+	 *
+	 * @param footprint Holds what was loaded.
+	 * @return The number of actions loaded.
+	 */
+	@Benchmark
+	public int load(Footprint footprint) {
+		List<ModuleInfo> modules = ModuleInfoFileHandler.loadModuleInfo();
+		footprint.loaded.add(modules);
+		footprint.loaded.add(ExaminerUtil.loadExaminers());
+		int actions = 0;
+		for (ModuleInfo module : modules) {
+			List<ExaminationPaper> papers = Storage.engine().papers(module.moduleCode()).values();
+			footprint.loaded.add(papers);
+			for (ExaminationPaper paper : papers) {
+				actions += paper.actions().size();
+			}
+		}
+		return actions;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
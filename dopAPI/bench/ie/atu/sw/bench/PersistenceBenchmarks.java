@@ -0,0 +1,450 @@
+package ie.atu.sw.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.ExaminationPaperServiceImpl;
+import ie.atu.sw.model.ExaminerServiceImpl;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.ExternalExaminerAction;
+import ie.atu.sw.model.FileUtil;
+import ie.atu.sw.model.InternalExaminer;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleInfoFileHandler;
+import ie.atu.sw.model.PaperHeader;
+import ie.atu.sw.model.PaperIndex;
+import ie.atu.sw.model.ReportServiceImpl;
+import ie.atu.sw.model.Storage;
+import ie.atu.sw.model.StorageEngine;
+
+/**
+ * JMH benchmarks for the persistence and lookup paths of the application, each
+ * run against synthetic datasets of 10, 1,000 and 100,000 entities. Storage-backed
+ * benchmarks also take the storage engine as a parameter, {@code binary} by
+ * default.
+ *
+ * <p>
+ * Run with JMH's command line options, for example
+ * {@code gradle jmh --args='-p size=10,1000 -p engine=binary,legacy -rf json load'}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmarks {
+	private static final int REPORT_MODULES = 100;
+
+	/**
+	 * A list of papers saved as a legacy list file.
+	 */
+	@State(Scope.Benchmark)
+	public static class PaperList {
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+		private List<ExaminationPaper> papers;
+		private String fileName;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			papers = dataset.papers(Dataset.moduleCode(0), size);
+			fileName = dataset.file("papers.dat").toString();
+			FileUtil.saveToFile(fileName, papers);
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link FileUtil#saveToFile} of a list of papers.
+	 *
+	 * @param state The papers.
+	 * @return The saved papers.
+	 */
+	@Benchmark
+	public List<ExaminationPaper> fileUtilSave(PaperList state) {
+		FileUtil.saveToFile(state.fileName, state.papers);
+		return state.papers;
+	}
+
+	/**
+	 * {@link FileUtil#loadFromFile} of a list of papers.
+	 *
+	 * @param state The papers.
+	 * @return The loaded papers.
+	 */
+	@Benchmark
+	public List<ExaminationPaper> fileUtilLoad(PaperList state) {
+		return FileUtil.loadFromFile(state.fileName);
+	}
+
+	/**
+	 * A data directory holding examiners and modules, reopened by every
+	 * operation so that each one reads from disk.
+	 */
+	@State(Scope.Benchmark)
+	public static class People {
+		@Param({ "binary" })
+		public String engine;
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			List<Object> examiners = new ArrayList<>(size);
+			examiners.addAll(dataset.internalExaminers(size / 2));
+			examiners.addAll(dataset.externalExaminers(size - size / 2));
+			dataset.writeList(StorageEngine.EXAMINERS, examiners);
+			dataset.writeList(StorageEngine.MODULES, dataset.modules(size, dataset.internalExaminers(10),
+					dataset.externalExaminers(Math.max(1, size / 10))));
+			// The binary engine imports the legacy lists on first open.
+			dataset.open(engine);
+			ExaminerUtil.loadExaminers();
+			ModuleInfoFileHandler.loadModuleInfo();
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link ExaminerUtil#loadExaminers()} from a freshly opened engine.
+	 *
+	 * @param state The data directory.
+	 * @return The examiners.
+	 */
+	@Benchmark
+	public Object loadExaminers(People state) {
+		state.dataset.open(state.engine);
+		return ExaminerUtil.loadExaminers();
+	}
+
+	/**
+	 * {@link ModuleInfoFileHandler#loadModuleInfo()} from a freshly opened
+	 * engine.
+	 *
+	 * @param state The data directory.
+	 * @return The modules.
+	 */
+	@Benchmark
+	public List<ModuleInfo> loadModuleInfo(People state) {
+		state.dataset.open(state.engine);
+		return ModuleInfoFileHandler.loadModuleInfo();
+	}
+
+	/**
+	 * One module holding {@code size} papers, with an examiner service to record
+	 * actions on them. Papers are visited in turn and restored before every
+	 * iteration, so the recorded actions do not keep growing them.
+	 */
+	@State(Scope.Benchmark)
+	public static class ActionTarget {
+		@Param({ "binary" })
+		public String engine;
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+		private String moduleCode;
+		private ExternalExaminer examiner;
+		private List<ExaminationPaper> papers;
+		private PaperIndex paperIndex;
+		private ExaminerServiceImpl service;
+		private final Set<Integer> touched = new HashSet<>();
+		private int next;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			moduleCode = Dataset.moduleCode(0);
+			List<ExternalExaminer> externals = dataset.externalExaminers(1);
+			List<InternalExaminer> internals = dataset.internalExaminers(1);
+			examiner = externals.get(0);
+			papers = dataset.papers(moduleCode, size);
+			dataset.writeList(StorageEngine.MODULES, dataset.modules(1, internals, externals));
+			dataset.writeList(moduleCode + StorageEngine.PAPERS_SUFFIX, papers);
+			dataset.open(engine);
+			paperIndex = Storage.paperIndex();
+			paperIndex.find(papers.get(0).paperId(), moduleCode);
+			service = new ExaminerServiceImpl(new Scanner(""));
+		}
+
+		@Setup(Level.Iteration)
+		public void restore() {
+			for (int i : touched) {
+				paperIndex.save(papers.get(i));
+			}
+			touched.clear();
+			next = 0;
+		}
+
+		@TearDown
+		public void tearDown() {
+			service.close();
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link ExaminerServiceImpl#recordActionForPaper} on the next paper of the
+	 * module.
+	 *
+	 * @param state The module and service.
+	 * @return The recorded action.
+	 */
+	@Benchmark
+	public ExternalExaminerAction recordActionForPaper(ActionTarget state) {
+		int i = state.next++ % state.papers.size();
+		state.touched.add(i);
+		String paperId = state.papers.get(i).paperId();
+		ExternalExaminerAction action = new ExternalExaminerAction(state.moduleCode, state.examiner,
+				"Benchmark comment", ExternalExaminerActions.ADD_COMMENT, paperId);
+		state.service.recordActionForPaper(paperId, state.moduleCode, action);
+		return action;
+	}
+
+	/**
+	 * {@code size} modules, with one external examiner for every ten modules.
+	 */
+	@State(Scope.Benchmark)
+	public static class ExaminedModules {
+		@Param({ "binary" })
+		public String engine;
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+		private List<ExternalExaminer> externals;
+		private ExaminerServiceImpl service;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			externals = dataset.externalExaminers(Math.max(1, size / 10));
+			dataset.writeList(StorageEngine.MODULES, dataset.modules(size, dataset.internalExaminers(10), externals));
+			dataset.open(engine);
+			service = new ExaminerServiceImpl(new Scanner(""));
+			service.close();
+			service.findModulesForExaminer(externals.get(0));
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link ExaminerServiceImpl#findModulesForExaminer} of a random external
+	 * examiner.
+	 *
+	 * @param state The modules.
+	 * @return The examiner's module codes.
+	 */
+	@Benchmark
+	public List<String> findModulesForExaminer(ExaminedModules state) {
+		return state.service.findModulesForExaminer(
+				state.externals.get(state.dataset.random().nextInt(state.externals.size())));
+	}
+
+	/**
+	 * {@code size} actions spread across one paper for every five actions.
+	 */
+	@State(Scope.Benchmark)
+	public static class ActionList {
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+		private List<ExternalExaminerAction> actions;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			List<String> paperIds = new ArrayList<>();
+			for (ExaminationPaper paper : dataset.papers(Dataset.moduleCode(0), Math.max(1, size / 5))) {
+				paperIds.add(paper.paperId());
+			}
+			actions = dataset.actions(size, paperIds, dataset.externalExaminers(10));
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link ExaminerServiceImpl#groupActionsByPaper}, the grouping behind
+	 * {@code listActionsPerPaper}.
+	 *
+	 * @param state The actions.
+	 * @return The actions grouped by paper.
+	 */
+	@Benchmark
+	public Object groupActionsByPaper(ActionList state) {
+		return ExaminerServiceImpl.groupActionsByPaper(state.actions);
+	}
+
+	/**
+	 * One module holding {@code size} papers.
+	 */
+	@State(Scope.Benchmark)
+	public static class ModulePapers {
+		@Param({ "binary" })
+		public String engine;
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+		private ExaminationPaperServiceImpl service;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			String moduleCode = Dataset.moduleCode(0);
+			dataset.writeList(moduleCode + StorageEngine.PAPERS_SUFFIX, dataset.papers(moduleCode, size));
+			dataset.open(engine);
+			service = new ExaminationPaperServiceImpl(new Scanner(""));
+			service.getPaperHeaders(moduleCode);
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link ExaminationPaperServiceImpl#getExaminationPapers} of the module,
+	 * which is served from the paper cache after the first call. Run with
+	 * {@code -jvmArgsAppend -Datu.paper.cache.mb=0} to decode every question and
+	 * action on each call instead.
+	 *
+	 * @param state The module.
+	 * @return The papers.
+	 */
+	@Benchmark
+	public List<ExaminationPaper> listPapers(ModulePapers state) {
+		return state.service.getExaminationPapers(Dataset.moduleCode(0));
+	}
+
+	/**
+	 * {@link ExaminationPaperServiceImpl#getPaperHeaders} of the module, which
+	 * reads only the paper headers.
+	 *
+	 * @param state The module.
+	 * @return The headers.
+	 */
+	@Benchmark
+	public List<PaperHeader> listPaperHeaders(ModulePapers state) {
+		return state.service.getPaperHeaders(Dataset.moduleCode(0));
+	}
+
+	/**
+	 * {@code size} papers spread across up to {@value #REPORT_MODULES} modules.
+	 */
+	@State(Scope.Benchmark)
+	public static class SpreadPapers {
+		@Param({ "binary" })
+		public String engine;
+		@Param({ "10", "1000", "100000" })
+		public int size;
+
+		private Dataset dataset;
+		private ReportServiceImpl reports;
+		private ExaminationPaperServiceImpl papers;
+
+		@Setup
+		public void setUp() throws IOException {
+			dataset = new Dataset();
+			int moduleCount = Math.min(size, REPORT_MODULES);
+			List<ModuleInfo> modules = dataset.modules(moduleCount, dataset.internalExaminers(20),
+					dataset.externalExaminers(20));
+			dataset.writeList(StorageEngine.MODULES, modules);
+			for (ModuleInfo module : modules) {
+				dataset.writeList(module.moduleCode() + StorageEngine.PAPERS_SUFFIX,
+						dataset.papers(module.moduleCode(), size / moduleCount));
+			}
+			dataset.open(engine);
+			reports = new ReportServiceImpl();
+			papers = new ExaminationPaperServiceImpl(new Scanner(""));
+			reports.getBoardReport();
+			papers.searchQuestions("part", 20);
+			papers.findAllDuplicateQuestions();
+		}
+
+		@TearDown
+		public void tearDown() {
+			dataset.close();
+		}
+	}
+
+	/**
+	 * {@link ReportServiceImpl#getBoardReport()} over every paper.
+	 *
+	 * @param state The papers.
+	 * @return The report.
+	 */
+	@Benchmark
+	public Object boardReport(SpreadPapers state) {
+		return state.reports.getBoardReport();
+	}
+
+	/**
+	 * {@link ExaminationPaperServiceImpl#searchQuestions(String, int)} ranking the
+	 * best 20 of the question parts that contain a common phrase.
+	 *
+	 * @param state The papers.
+	 * @return The hits.
+	 */
+	@Benchmark
+	public Object searchQuestions(SpreadPapers state) {
+		return state.papers.searchQuestions("\"discuss part\" question", 20);
+	}
+
+	/**
+	 * {@link ExaminationPaperServiceImpl#findAllDuplicateQuestions()} scanning
+	 * the similarity buckets of every paper.
+	 *
+	 * @param state The papers.
+	 * @return The duplicates.
+	 */
+	@Benchmark
+	public Object findAllDuplicateQuestions(SpreadPapers state) {
+		return state.papers.findAllDuplicateQuestions();
+	}
+}
@@ -0,0 +1,345 @@
+package ie.atu.sw.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+import ie.atu.sw.model.ActionJournal;
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.ExaminerType;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.ExternalExaminerAction;
+import ie.atu.sw.model.InternalExaminer;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleInfoFileHandler;
+import ie.atu.sw.model.PaperIndex;
+import ie.atu.sw.model.Question;
+import ie.atu.sw.model.RecordCodecs;
+import ie.atu.sw.model.Rules;
+import ie.atu.sw.model.Storage;
+import ie.atu.sw.model.StorageEngine;
+
+/**
+ * Generates a realistic population of examiners, modules, examination papers
+ * and external examiner actions and writes it through the active
+ * {@link Storage} engine, so that production scale can be reproduced without
+ * using the console menu.
+ *
+ * <p>
+ * Generation is deterministic: every module draws its values from its own
+ * random source derived from the seed and the module's number, and actions are
+ * appended to the journal in module order, so the same seed and sizes always
+ * produce the same data whatever the number of threads. Modules are generated
+ * and their papers written in parallel, in chunks, across a fork/join pool.
+ *
+ * <p>
+ * Every paper follows the default {@link Rules}: it has between
+ * {@link Rules#DEFAULT_MIN_QUESTIONS} and {@link Rules#DEFAULT_MAX_QUESTIONS}
+ * questions whose marks add up to {@link Rules#DEFAULT_TOTAL_MARKS}. Actions on
+ * a paper are taken by its module's external examiner: comments followed by a
+ * final approval or rejection.
+ */
+public class WorkloadGenerator {
+	private static final int CHUNK_MODULES = 64;
+	private static final int MAX_PARTS = 5;
+
+	private static final String[] FIRST_NAMES = { "Aoife", "Ciara", "Niamh", "Siobhan", "Orla", "Roisin", "Emma",
+			"Sarah", "Laura", "Grainne", "Sean", "Liam", "Conor", "Padraig", "Eoin", "Cian", "Darragh", "Michael",
+			"John", "David", "Fiona", "Maeve", "Declan", "Ronan" };
+	private static final String[] LAST_NAMES = { "Murphy", "Kelly", "O'Sullivan", "Walsh", "Smith", "O'Brien",
+			"Byrne", "Ryan", "O'Connor", "O'Neill", "Reilly", "Doyle", "McCarthy", "Gallagher", "Doherty", "Kennedy",
+			"Lynch", "Murray", "Quinn", "Moore", "McLoughlin", "Carroll", "Connolly", "Daly" };
+	private static final String[][] SCHOOLS = {
+			{ "School of Science and Computing", "Computer Science & Applied Physics", "COMP" },
+			{ "School of Science and Computing", "Mathematics & Statistics", "MATH" },
+			{ "School of Engineering", "Mechanical & Industrial Engineering", "MECH" },
+			{ "School of Engineering", "Electronic & Electrical Engineering", "ELEC" },
+			{ "School of Business", "Accounting & Finance", "ACCT" },
+			{ "School of Business", "Management & Marketing", "MGMT" },
+			{ "School of Design", "Creative Media", "MDIA" } };
+	private static final String[] INSTITUTIONS = { "University of Galway", "Trinity College Dublin",
+			"University College Cork", "Dublin City University", "University of Limerick", "Maynooth University",
+			"Ulster University", "Queen's University Belfast", "University of Edinburgh", "University of Leeds" };
+	private static final String[] TOPICS = { "Data Structures", "Algorithms", "Databases", "Operating Systems",
+			"Networks", "Software Design", "Thermodynamics", "Statistics", "Linear Algebra", "Control Systems",
+			"Financial Accounting", "Marketing", "Digital Media", "Machine Learning", "Security", "Calculus" };
+	private static final String[] LEVELS = { "Introduction to", "Principles of", "Applied", "Advanced" };
+	private static final String[] STEMS = { "Explain", "Describe", "Compare", "Evaluate", "Calculate", "Design",
+			"Justify", "Outline" };
+	private static final String[] COMMENTS = { "Please clarify the wording of question 2.",
+			"Marking scheme is consistent with the learning outcomes.", "Consider rebalancing the marks.",
+			"Part (b) overlaps with last year's paper.", "Well structured paper.",
+			"Check the allowed materials against the module descriptor." };
+
+	private final long seed;
+	private final int internalExaminers;
+	private final int externalExaminers;
+	private final int modules;
+	private final int papers;
+	private final long actions;
+	private final int threads;
+
+	/**
+	 * Creates a generator for a population of the given size.
+	 *
+	 * @param seed              The seed all generated values are derived from.
+	 * @param internalExaminers The number of internal examiners.
+	 * @param externalExaminers The number of external examiners.
+	 * @param modules           The number of modules.
+	 * @param papers            The number of examination papers, spread evenly
+	 *                          over the modules.
+	 * @param actions           The number of external examiner actions, spread
+	 *                          evenly over the papers.
+	 * @param threads           The number of threads to generate with.
+	 */
+	public WorkloadGenerator(long seed, int internalExaminers, int externalExaminers, int modules, int papers,
+			long actions, int threads) {
+		if (internalExaminers < 1 || externalExaminers < 1 || modules < 1 || papers < 0 || actions < 0
+				|| (actions > 0 && papers == 0) || threads < 1) {
+			throw new IllegalArgumentException("Invalid workload size");
+		}
+		this.seed = seed;
+		this.internalExaminers = internalExaminers;
+		this.externalExaminers = externalExaminers;
+		this.modules = modules;
+		this.papers = papers;
+		this.actions = actions;
+		this.threads = threads;
+	}
+
+	/**
+	 * Generates the workload into the data directory of the active storage engine.
+	 *
+	 * @throws IOException If the action journal cannot be written.
+	 */
+	public void generate() throws IOException {
+		SplittableRandom examinerRandom = new SplittableRandom(seed);
+		List<InternalExaminer> internals = new ArrayList<>(internalExaminers);
+		for (int i = 0; i < internalExaminers; i++) {
+			internals.add(internalExaminer(examinerRandom, i));
+			ExaminerUtil.addExaminer(internals.get(i));
+		}
+		List<ExternalExaminer> externals = new ArrayList<>(externalExaminers);
+		for (int i = 0; i < externalExaminers; i++) {
+			externals.add(externalExaminer(examinerRandom, i));
+			ExaminerUtil.addExaminer(externals.get(i));
+		}
+
+		List<ModuleInfo> moduleList = new ArrayList<>(modules);
+		for (int i = 0; i < modules; i++) {
+			moduleList.add(module(random(i), i, internals, externals));
+			ModuleInfoFileHandler.saveModule(moduleList.get(i));
+		}
+
+		// The journal is compacted by the application itself; a threshold the
+		// generator never reaches keeps the bulk load to plain appends.
+		ActionJournal journal = new ActionJournal(Storage.file(StorageEngine.ACTIONS + ".dat").getPath(),
+				RecordCodecs.actions(), Integer.MAX_VALUE);
+		PaperIndex paperIndex = Storage.paperIndex();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			for (int chunkStart = 0; chunkStart < modules; chunkStart += CHUNK_MODULES) {
+				int start = chunkStart;
+				int end = Math.min(modules, start + CHUNK_MODULES);
+				List<List<ExternalExaminerAction>> chunk = pool.submit(() -> IntStream.range(start, end).parallel()
+						.mapToObj(i -> writePapers(moduleList.get(i), i, paperIndex)).toList()).get();
+				for (List<ExternalExaminerAction> moduleActions : chunk) {
+					for (ExternalExaminerAction action : moduleActions) {
+						journal.append(action);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Workload generation interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Workload generation failed", e.getCause());
+		} finally {
+			pool.shutdown();
+			journal.close();
+		}
+	}
+
+	/**
+	 * Generates and stores the papers of one module, each carrying its actions.
+	 *
+	 * @return The actions recorded on the module's papers, in order.
+	 */
+	private List<ExternalExaminerAction> writePapers(ModuleInfo module, int moduleNumber, PaperIndex paperIndex) {
+		SplittableRandom random = random(moduleNumber).split();
+		ExternalExaminer examiner = (ExternalExaminer) module.externalExaminer();
+		List<ExternalExaminerAction> moduleActions = new ArrayList<>();
+
+		int first = share(papers, modules, moduleNumber);
+		int count = share(papers, modules, moduleNumber + 1) - first;
+		for (int p = 0; p < count; p++) {
+			int paperNumber = first + p;
+			String paperId = UUID.nameUUIDFromBytes((seed + ":" + paperNumber).getBytes(StandardCharsets.UTF_8))
+					.toString();
+			long actionCount = share(actions, papers, paperNumber + 1) - share(actions, papers, paperNumber);
+			List<ExternalExaminerAction> paperActions = new ArrayList<>((int) actionCount);
+			for (long a = 0; a < actionCount; a++) {
+				ExternalExaminerActions kind = a < actionCount - 1 ? ExternalExaminerActions.ADD_COMMENT
+						: random.nextInt(5) == 0 ? ExternalExaminerActions.REJECT : ExternalExaminerActions.APPROVE;
+				paperActions.add(new ExternalExaminerAction(module.moduleCode(), examiner,
+						COMMENTS[random.nextInt(COMMENTS.length)], kind, paperId));
+			}
+			paperIndex.save(paper(random, module, paperId, paperActions));
+			moduleActions.addAll(paperActions);
+		}
+		return moduleActions;
+	}
+
+	private ExaminationPaper paper(SplittableRandom random, ModuleInfo module, String paperId,
+			List<ExternalExaminerAction> paperActions) {
+		int questionCount = random.nextInt(Rules.DEFAULT_MIN_QUESTIONS, Rules.DEFAULT_MAX_QUESTIONS + 1);
+		int[] marks = marks(random, questionCount);
+		List<Question> questions = new ArrayList<>(questionCount);
+		for (int q = 0; q < questionCount; q++) {
+			int partCount = random.nextInt(1, MAX_PARTS + 1);
+			List<String> parts = new ArrayList<>(partCount);
+			for (int part = 0; part < partCount; part++) {
+				parts.add(STEMS[random.nextInt(STEMS.length)] + " " + topic(module) + " concept " + (part + 1) + ".");
+			}
+			questions.add(new Question(STEMS[random.nextInt(STEMS.length)] + " the following aspects of "
+					+ topic(module) + ".", parts, marks[q]));
+		}
+		return new ExaminationPaper(paperId, module.moduleCode(), yesNo(random), yesNo(random), yesNo(random),
+				yesNo(random), yesNo(random), yesNo(random), yesNo(random), yesNo(random), yesNo(random), questionCount,
+				Math.min(Rules.DEFAULT_REQUIRED_ANSWERS, questionCount), questions, paperActions);
+	}
+
+	/**
+	 * Splits the total marks into multiples of five, at least five per question.
+	 */
+	private static int[] marks(SplittableRandom random, int questionCount) {
+		int[] marks = new int[questionCount];
+		int units = Rules.DEFAULT_TOTAL_MARKS / 5;
+		for (int q = 0; q < questionCount; q++) {
+			marks[q] = 1;
+		}
+		for (int unit = questionCount; unit < units; unit++) {
+			marks[random.nextInt(questionCount)]++;
+		}
+		for (int q = 0; q < questionCount; q++) {
+			marks[q] *= 5;
+		}
+		marks[questionCount - 1] += Rules.DEFAULT_TOTAL_MARKS - units * 5;
+		return marks;
+	}
+
+	private static InternalExaminer internalExaminer(SplittableRandom random, int number) {
+		String[] school = SCHOOLS[random.nextInt(SCHOOLS.length)];
+		String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+		String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+		return new InternalExaminer(first + " " + last + " " + number, ExaminerType.INTERNAL, school[1], school[0],
+				(first + "." + last.replace("'", "") + number + "@atu.ie").toLowerCase(), 10_000 + number);
+	}
+
+	private static ExternalExaminer externalExaminer(SplittableRandom random, int number) {
+		String[] school = SCHOOLS[random.nextInt(SCHOOLS.length)];
+		return new ExternalExaminer(
+				FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+						+ " " + number,
+				ExaminerType.EXTERNAL, school[1], INSTITUTIONS[random.nextInt(INSTITUTIONS.length)]);
+	}
+
+	/**
+	 * Generates a module whose internal examiner belongs to the module's
+	 * department where one does.
+	 */
+	private static ModuleInfo module(SplittableRandom random, int number, List<InternalExaminer> internals,
+			List<ExternalExaminer> externals) {
+		String[] school = SCHOOLS[number % SCHOOLS.length];
+		InternalExaminer internal = internals.get(random.nextInt(internals.size()));
+		for (int attempt = 0; attempt < 8 && !internal.department().equals(school[1]); attempt++) {
+			internal = internals.get(random.nextInt(internals.size()));
+		}
+		int year = random.nextInt(1, 5);
+		String title = LEVELS[Math.min(year - 1, LEVELS.length - 1)] + " " + TOPICS[random.nextInt(TOPICS.length)];
+		int programme = random.nextInt(1, 20);
+		return new ModuleInfo(String.format("%s%05d", school[2], number), title, random.nextInt(15, 250),
+				String.format("AL_K%s_B%02d", school[2].substring(0, 2), programme),
+				"Bachelor of " + school[1] + " " + programme, year, school[0], school[1], internal,
+				externals.get(random.nextInt(externals.size())));
+	}
+
+	private static String topic(ModuleInfo module) {
+		return module.moduleTitle().substring(module.moduleTitle().indexOf(' ') + 1).toLowerCase();
+	}
+
+	private static String yesNo(SplittableRandom random) {
+		return random.nextBoolean() ? "Yes" : "No";
+	}
+
+	/**
+	 * Returns the first of the items given to a bucket when {@code total} items are
+	 * spread as evenly as possible over {@code buckets} buckets.
+	 */
+	private static int share(int total, int buckets, int bucket) {
+		return (int) share((long) total, buckets, bucket);
+	}
+
+	private static long share(long total, int buckets, int bucket) {
+		return total / buckets * bucket + Math.min(bucket, total % buckets);
+	}
+
+	private SplittableRandom random(int moduleNumber) {
+		return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + moduleNumber);
+	}
+
+	/**
+	 * Generates a workload into the data directory selected by the
+	 * {@code atu.data.dir} and {@code atu.storage} system properties. Refuses to
+	 * run against a data directory that already holds modules.
+	 *
+	 * <p>
+	 * Options: {@code [--seed n] [--internal-examiners n] [--external-examiners n]
+	 * [--modules n] [--papers n] [--actions n] [--threads n]}.
+	 *
+	 * @param args The command line options.
+	 * @throws IOException If the workload cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		long seed = 42;
+		int internalExaminers = 1_500;
+		int externalExaminers = 300;
+		int modules = 2_000;
+		int papers = 20_000;
+		long actions = 1_000_000;
+		int threads = Runtime.getRuntime().availableProcessors();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--seed" -> seed = Long.parseLong(args[++i]);
+			case "--internal-examiners" -> internalExaminers = Integer.parseInt(args[++i]);
+			case "--external-examiners" -> externalExaminers = Integer.parseInt(args[++i]);
+			case "--modules" -> modules = Integer.parseInt(args[++i]);
+			case "--papers" -> papers = Integer.parseInt(args[++i]);
+			case "--actions" -> actions = Long.parseLong(args[++i]);
+			case "--threads" -> threads = Integer.parseInt(args[++i]);
+			default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		if (Storage.engine().modules().size() > 0) {
+			System.err.println("Data directory " + Storage.file("").getAbsolutePath()
+					+ " already holds modules; choose an empty one with -D" + Storage.DATA_DIR_PROPERTY);
+			return;
+		}
+		long started = System.nanoTime();
+		new WorkloadGenerator(seed, internalExaminers, externalExaminers, modules, papers, actions, threads)
+				.generate();
+		Storage.use(null);
+		System.out.printf("Generated %d examiners, %d modules, %d papers and %d actions in %.1f s%n",
+				internalExaminers + externalExaminers, modules, papers, actions,
+				(System.nanoTime() - started) / 1e9);
+	}
+}
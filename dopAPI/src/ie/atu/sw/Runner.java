@@ -1,28 +1,43 @@
 package ie.atu.sw;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
 import ie.atu.sw.model.ExaminationPaperServiceImpl;
 import ie.atu.sw.model.ExaminerUtil;
 import ie.atu.sw.model.ExaminerServiceImpl;
+import ie.atu.sw.model.Metrics;
 import ie.atu.sw.model.ModuleInfo;
-import ie.atu.sw.model.ModuleInfoFileHandler;
 import ie.atu.sw.model.ModuleServiceImpl;
+import ie.atu.sw.model.ReportServiceImpl;
+import ie.atu.sw.model.Storage;
 import ie.atu.sw.services.ExaminationPaperService;
 import ie.atu.sw.services.ExternalExaminerService;
 import ie.atu.sw.services.ModuleService;
+import ie.atu.sw.services.ReportService;
 
 /**
  * Main runner class for the ATU System for Approving Examination Papers. This
  * class handles the user interface and interaction, allowing users to perform
- * actions related to examiners, modules, and examination papers.
+ * actions related to examiners, modules, and examination papers. It is a thin
+ * console adapter: one scanner is shared by every service, and the services'
+ * interactive methods gather input and then delegate to their non-interactive
+ * counterparts, which can also be called directly by batch jobs or servers.
+ *
+ * <p>
+ * Nothing is loaded up front: every screen reads what it shows from storage,
+ * whose repositories open from their latest snapshot and replay only the
+ * records written since. Storage is checkpointed periodically and on exit.
+ * The metrics collected by {@link Metrics} can be shown at any time, in the
+ * Prometheus text format.
  */
 public class Runner {
 
 	private final ModuleService moduleService;
 	private final ExaminationPaperService paperService;
 	private final ExternalExaminerService examinerService;
+	private final ReportService reportService;
 	private final Scanner scanner;
 
 	/**
@@ -31,13 +46,15 @@ public class Runner {
 	 * @param moduleService   The service for managing modules.
 	 * @param paperService    The service for managing examination papers.
 	 * @param examinerService The service for managing external examiner actions.
+	 * @param reportService   The service producing board reports.
 	 * @param scanner         The scanner for reading user input.
 	 */
 	public Runner(ModuleService moduleService, ExaminationPaperService paperService,
-			ExternalExaminerService examinerService, Scanner scanner) {
+			ExternalExaminerService examinerService, ReportService reportService, Scanner scanner) {
 		this.moduleService = moduleService;
 		this.paperService = paperService;
 		this.examinerService = examinerService;
+		this.reportService = reportService;
 		this.scanner = scanner;
 	}
 
@@ -48,7 +65,8 @@ public class Runner {
 	 */
 	public void start() {
 		boolean running = true;
-		List<ModuleInfo> moduleInfoList = ModuleInfoFileHandler.loadModuleInfo();
+		// Modules created in this session; each is stored as soon as it is created.
+		List<ModuleInfo> moduleInfoList = new ArrayList<>();
 
 		while (running) {
 
@@ -68,13 +86,20 @@ public class Runner {
 			System.out.println("7. Record External Examiner Action");
 			System.out.println("8. List Action per Examiner");
 			System.out.println("9. List Action per Paper");
-			System.out.println("10. Exit");
+			System.out.println("10. List Papers by Status");
+			System.out.println("11. Board Reports");
+			System.out.println("12. Search Questions");
+			System.out.println("13. Find Duplicate Questions");
+			System.out.println("14. Edit Examiner");
+			System.out.println("15. Show Metrics");
+			System.out.println("16. Exit");
 			System.out.print("Choose an option: ");
 
 			int choice = scanner.nextInt();
+			scanner.nextLine();
 			switch (choice) {
 			case 1:
-				ExaminerUtil.createExaminer();
+				ExaminerUtil.createExaminer(scanner);
 				break;
 			case 2:
 				ExaminerUtil.displayAllExaminers();
@@ -107,7 +132,26 @@ public class Runner {
 				examinerService.listActionsPerPaper();
 				break;
 			case 10:
-				ModuleInfoFileHandler.saveModuleInfo(moduleInfoList);
+				paperService.listPapersByStatus();
+				break;
+			case 11:
+				reportService.printBoardReport();
+				break;
+			case 12:
+				paperService.searchQuestions();
+				break;
+			case 13:
+				paperService.listDuplicateQuestions();
+				break;
+			case 14:
+				ExaminerUtil.editExaminer(scanner);
+				break;
+			case 15:
+				System.out.print("\n" + Metrics.prometheus());
+				break;
+			case 16:
+				Storage.checkpoint();
+				System.out.println("\n\tAll files saved successfully.");
 				System.out.println("\n************************************************************");
 				System.out.println("*                                                          *");
 				System.out.println("*                         GOOD BYE!                        *");
@@ -127,12 +171,15 @@ public class Runner {
 	 * @param args Command-line arguments (not used in this application).
 	 */
 	public static void main(String[] args) {
-		ModuleService moduleService = new ModuleServiceImpl();
-		ExaminationPaperService paperService = new ExaminationPaperServiceImpl();
-		ExternalExaminerService examinerService = new ExaminerServiceImpl();
 		Scanner scanner = new Scanner(System.in);
-
-		Runner runner = new Runner(moduleService, paperService, examinerService, scanner);
+		ModuleService moduleService = new ModuleServiceImpl(scanner);
+		ExaminationPaperService paperService = new ExaminationPaperServiceImpl(scanner);
+		ExternalExaminerService examinerService = new ExaminerServiceImpl(scanner);
+		ReportService reportService = new ReportServiceImpl();
+
+		Storage.startCheckpoints();
+		Storage.startWatching();
+		Runner runner = new Runner(moduleService, paperService, examinerService, reportService, scanner);
 		runner.start();
 	}
 }
@@ -0,0 +1,23 @@
+package ie.atu.sw.enums;
+
+import java.io.Serializable;
+
+/**
+ * Enumeration representing the review status of an examination paper, as
+ * decided by the latest approval or rejection recorded by its external
+ * examiner.
+ */
+public enum PaperStatus implements Serializable {
+	/**
+	 * Status of a paper that has not been approved or rejected yet.
+	 */
+	PENDING,
+	/**
+	 * Status of a paper whose latest decision is an approval.
+	 */
+	APPROVED,
+	/**
+	 * Status of a paper whose latest decision is a rejection.
+	 */
+	REJECTED
+}
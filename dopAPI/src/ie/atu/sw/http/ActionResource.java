@@ -0,0 +1,69 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+import ie.atu.sw.services.ExternalExaminerService;
+
+/**
+ * The {@code /api/actions} resource.
+ * <ul>
+ * <li>{@code GET /api/actions} lists the recorded actions a page at a time,
+ * as {@code {"items": [...], "nextCursor": ...}}. The optional {@code cursor}
+ * query parameter is the {@code nextCursor} of the previous page, and
+ * {@code limit} is the page size (default 100, at most 1000).</li>
+ * <li>{@code POST /api/actions} records an action from {@code paperId},
+ * {@code action} (one of {@link ExternalExaminerActions}) and {@code comment}.
+ * An external examiner records actions as themselves: {@code examinerId} may be
+ * left out, and any other examiner's ID is refused with 403. Members of staff
+ * record an action on behalf of the examiner given by {@code examinerId}.</li>
+ * </ul>
+ */
+public class ActionResource extends ApiHandler {
+	private final ExternalExaminerService examinerService;
+
+	/**
+	 * Creates the resource.
+	 *
+	 * @param examinerService The service managing external examiner actions.
+	 */
+	public ActionResource(ExternalExaminerService examinerService) {
+		this.examinerService = examinerService;
+	}
+
+	@Override
+	protected Response handle(String method, List<String> path, HttpExchange exchange) throws IOException {
+		if (method.equals("GET") && path.isEmpty()) {
+			return ok(ApiJson.page(new JsonWriter(),
+					examinerService.getActions(query(exchange, "cursor"), limit(exchange)), ApiJson::action));
+		}
+		if (method.equals("POST") && path.isEmpty()) {
+			Map<String, Object> body = body(exchange);
+			ExternalExaminerActions action = ExternalExaminerActions.valueOf(string(body, "action"));
+			return created(ApiJson.action(new JsonWriter(), examinerService.recordAction(examinerId(exchange, body),
+					string(body, "paperId"), action, string(body, "comment"))));
+		}
+		throw notFound(method, path);
+	}
+
+	@Override
+	protected boolean examinersMayWrite() {
+		return true;
+	}
+
+	private static String examinerId(HttpExchange exchange, Map<String, Object> body) {
+		if (isStaff(exchange)) {
+			return string(body, "examinerId");
+		}
+		String caller = principal(exchange);
+		Object examinerId = body.get("examinerId");
+		if (examinerId != null && !caller.equals(examinerId)) {
+			throw new ApiException(403, "Examiners may only record their own actions");
+		}
+		return caller;
+	}
+}
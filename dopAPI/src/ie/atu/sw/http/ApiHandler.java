@@ -0,0 +1,323 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpPrincipal;
+
+/**
+ * Base class of the JSON resources of the {@link ApiServer}. Splits the request
+ * path below the resource's context into segments, lets the subclass produce a
+ * response and maps exceptions to status codes: {@link ApiException} carries
+ * its own status, {@link IllegalArgumentException} (invalid input, as thrown by
+ * the services) becomes 400 and anything else 500. Request bodies larger than
+ * {@value #MAX_BODY_BYTES} bytes are refused with 413.
+ *
+ * <p>
+ * Requests reach a resource only once the {@link TokenAuthenticator} has
+ * authenticated them. Members of staff may use every method; an external
+ * examiner may read, and change only the resources that
+ * {@link #examinersMayWrite() allow it}, anything else being refused with 403.
+ */
+public abstract class ApiHandler implements HttpHandler {
+	/**
+	 * The page size of listings when the request gives no {@code limit}.
+	 */
+	protected static final int DEFAULT_PAGE_LIMIT = 100;
+	/**
+	 * The largest request body read, in bytes.
+	 */
+	protected static final int MAX_BODY_BYTES = 1024 * 1024;
+
+	/**
+	 * Handles a request to the resource.
+	 *
+	 * @param method   The HTTP method.
+	 * @param path     The decoded path segments below the resource's context.
+	 * @param exchange The exchange, for reading the request body.
+	 * @return The response to send.
+	 * @throws IOException If the request body cannot be read.
+	 */
+	protected abstract Response handle(String method, List<String> path, HttpExchange exchange) throws IOException;
+
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+		Response response;
+		try {
+			authorize(exchange);
+			response = handle(exchange.getRequestMethod(), segments(exchange), exchange);
+		} catch (ApiException e) {
+			response = error(e.status(), e.getMessage());
+		} catch (IllegalArgumentException e) {
+			response = error(400, e.getMessage());
+		} catch (UncheckedIOException e) {
+			System.err.println("Storage error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+			response = error(500, "Storage error");
+		} catch (RuntimeException e) {
+			System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+			response = error(500, "Internal error");
+		}
+
+		byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(response.status(), body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Returns whether external examiners may use methods other than {@code GET}
+	 * on the resource. The resource is then responsible for limiting them to
+	 * their own data.
+	 *
+	 * @return {@code false} unless overridden.
+	 */
+	protected boolean examinersMayWrite() {
+		return false;
+	}
+
+	/**
+	 * Returns whether the caller is a member of staff.
+	 *
+	 * @param exchange The exchange.
+	 * @return {@code true} for members of staff, {@code false} for external
+	 *         examiners.
+	 */
+	protected static boolean isStaff(HttpExchange exchange) {
+		return ApiTokens.STAFF.equals(principal(exchange));
+	}
+
+	/**
+	 * Returns the authenticated caller.
+	 *
+	 * @param exchange The exchange.
+	 * @return {@link ApiTokens#STAFF} or the caller's examiner ID.
+	 * @throws ApiException If the request was not authenticated.
+	 */
+	protected static String principal(HttpExchange exchange) {
+		HttpPrincipal principal = exchange.getPrincipal();
+		if (principal == null) {
+			throw new ApiException(401, "Not authenticated");
+		}
+		return principal.getUsername();
+	}
+
+	private void authorize(HttpExchange exchange) {
+		if (!isStaff(exchange) && !exchange.getRequestMethod().equals("GET") && !examinersMayWrite()) {
+			throw new ApiException(403, "Only members of staff may " + exchange.getRequestMethod() + " "
+					+ exchange.getRequestURI().getPath());
+		}
+	}
+
+	/**
+	 * Reads the request body as a JSON object.
+	 *
+	 * @param exchange The exchange.
+	 * @return The members of the object.
+	 * @throws IOException If the body cannot be read.
+	 * @throws ApiException If the body is larger than {@link #MAX_BODY_BYTES}.
+	 * @throws IllegalArgumentException If the body is not a JSON object.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static Map<String, Object> body(HttpExchange exchange) throws IOException {
+		byte[] bytes = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+		if (bytes.length > MAX_BODY_BYTES) {
+			throw new ApiException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+		}
+		Object body = JsonParser.parse(new String(bytes, StandardCharsets.UTF_8));
+		if (!(body instanceof Map)) {
+			throw new IllegalArgumentException("Request body must be a JSON object");
+		}
+		return (Map<String, Object>) body;
+	}
+
+	/**
+	 * Returns a required string member.
+	 *
+	 * @param object The JSON object.
+	 * @param name   The member name.
+	 * @return The value.
+	 * @throws IllegalArgumentException If the member is missing or not a string.
+	 */
+	protected static String string(Map<String, Object> object, String name) {
+		if (!(object.get(name) instanceof String value)) {
+			throw new IllegalArgumentException("Missing string '" + name + "'");
+		}
+		return value;
+	}
+
+	/**
+	 * Returns a required integer member.
+	 *
+	 * @param object The JSON object.
+	 * @param name   The member name.
+	 * @return The value.
+	 * @throws IllegalArgumentException If the member is missing or not an integer.
+	 */
+	protected static int integer(Map<String, Object> object, String name) {
+		if (!(object.get(name) instanceof Long value) || value != value.intValue()) {
+			throw new IllegalArgumentException("Missing integer '" + name + "'");
+		}
+		return value.intValue();
+	}
+
+	/**
+	 * Returns an optional boolean member.
+	 *
+	 * @param object The JSON object.
+	 * @param name   The member name.
+	 * @return The value, or false if the member is missing.
+	 */
+	protected static boolean bool(Map<String, Object> object, String name) {
+		return Boolean.TRUE.equals(object.get(name));
+	}
+
+	/**
+	 * Returns a required array member.
+	 *
+	 * @param object The JSON object.
+	 * @param name   The member name.
+	 * @return The elements.
+	 * @throws IllegalArgumentException If the member is missing or not an array.
+	 */
+	protected static List<?> array(Map<String, Object> object, String name) {
+		if (!(object.get(name) instanceof List<?> value)) {
+			throw new IllegalArgumentException("Missing array '" + name + "'");
+		}
+		return value;
+	}
+
+	/**
+	 * Returns an optional query parameter.
+	 *
+	 * @param exchange The exchange.
+	 * @param name     The parameter name.
+	 * @return The decoded value of the first such parameter, or null if there is
+	 *         none.
+	 */
+	protected static String query(HttpExchange exchange, String name) {
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return null;
+		}
+		for (String parameter : query.split("&")) {
+			int equals = parameter.indexOf('=');
+			String key = equals < 0 ? parameter : parameter.substring(0, equals);
+			if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+				return equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the page size requested by the {@code limit} query parameter.
+	 *
+	 * @param exchange The exchange.
+	 * @return The limit, or {@link #DEFAULT_PAGE_LIMIT} if none is given.
+	 * @throws IllegalArgumentException If the limit is not a number.
+	 */
+	protected static int limit(HttpExchange exchange) {
+		String limit = query(exchange, "limit");
+		if (limit == null) {
+			return DEFAULT_PAGE_LIMIT;
+		}
+		try {
+			return Integer.parseInt(limit);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid limit: " + limit);
+		}
+	}
+
+	/**
+	 * Returns a 200 response.
+	 *
+	 * @param json The response body.
+	 * @return The response.
+	 */
+	protected static Response ok(JsonWriter json) {
+		return new Response(200, json.toString());
+	}
+
+	/**
+	 * Returns a 201 response.
+	 *
+	 * @param json The response body.
+	 * @return The response.
+	 */
+	protected static Response created(JsonWriter json) {
+		return new Response(201, json.toString());
+	}
+
+	/**
+	 * Returns the exception for an unknown path or unsupported method.
+	 *
+	 * @param method The HTTP method.
+	 * @param path   The path segments.
+	 * @return The exception to throw.
+	 */
+	protected static ApiException notFound(String method, List<String> path) {
+		return new ApiException(404, "No resource for " + method + " /" + String.join("/", path));
+	}
+
+	private static Response error(int status, String message) {
+		return new Response(status, new JsonWriter().beginObject().member("error", message).endObject().toString());
+	}
+
+	private static List<String> segments(HttpExchange exchange) {
+		String path = exchange.getRequestURI().getPath().substring(exchange.getHttpContext().getPath().length());
+		List<String> segments = new ArrayList<>();
+		for (String segment : path.split("/")) {
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * A response status and JSON body.
+	 *
+	 * @param status The HTTP status code.
+	 * @param body   The JSON body.
+	 */
+	protected record Response(int status, String body) {
+	}
+
+	/**
+	 * An error with the HTTP status it is reported with.
+	 */
+	protected static class ApiException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		private final int status;
+
+		/**
+		 * Creates the exception.
+		 *
+		 * @param status  The HTTP status code.
+		 * @param message The error message.
+		 */
+		public ApiException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+
+		/**
+		 * Returns the HTTP status code.
+		 *
+		 * @return The status code.
+		 */
+		public int status() {
+			return status;
+		}
+	}
+}
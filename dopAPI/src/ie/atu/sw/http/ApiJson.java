@@ -0,0 +1,263 @@
+package ie.atu.sw.http;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import ie.atu.sw.model.BoardReport;
+import ie.atu.sw.model.DuplicateQuestion;
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.PaperHeader;
+import ie.atu.sw.model.PaperStatusView;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.ExternalExaminerAction;
+import ie.atu.sw.model.InternalExaminer;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.Page;
+import ie.atu.sw.model.Question;
+import ie.atu.sw.model.ReportRow;
+import ie.atu.sw.model.SearchHit;
+import ie.atu.sw.services.Examiner;
+
+/**
+ * Writes the model types as JSON. Member names follow the record components of
+ * the model, and examiners carry the ID they are stored under.
+ */
+public class ApiJson {
+
+	private ApiJson() {
+	}
+
+	/**
+	 * Writes an examiner, or null.
+	 *
+	 * @param json     The writer.
+	 * @param examiner The examiner.
+	 * @return The writer.
+	 */
+	public static JsonWriter examiner(JsonWriter json, Examiner examiner) {
+		if (examiner == null) {
+			return json.value((String) null);
+		}
+		json.beginObject().member("id", ExaminerUtil.examinerId(examiner))
+				.member("type", String.valueOf(examiner.getType())).member("name", examiner.getName())
+				.member("department", examiner.getDepartment());
+		if (examiner instanceof InternalExaminer internal) {
+			json.member("school", internal.school()).member("email", internal.email()).member("crn", internal.crn());
+		} else if (examiner instanceof ExternalExaminer external) {
+			json.member("institution", external.institution());
+		}
+		return json.endObject();
+	}
+
+	/**
+	 * Writes a module.
+	 *
+	 * @param json   The writer.
+	 * @param module The module.
+	 * @return The writer.
+	 */
+	public static JsonWriter module(JsonWriter json, ModuleInfo module) {
+		json.beginObject().member("moduleCode", module.moduleCode()).member("moduleTitle", module.moduleTitle())
+				.member("registrations", module.registrations()).member("programCode", module.programCode())
+				.member("programTitle", module.programTitle()).member("year", module.year())
+				.member("school", module.school()).member("department", module.department());
+		examiner(json.name("internalExaminer"), module.internalExaminer());
+		examiner(json.name("externalExaminer"), module.externalExaminer());
+		return json.endObject();
+	}
+
+	/**
+	 * Writes an examination paper with its questions and actions.
+	 *
+	 * @param json  The writer.
+	 * @param paper The paper.
+	 * @return The writer.
+	 */
+	public static JsonWriter paper(JsonWriter json, ExaminationPaper paper) {
+		json.beginObject().member("paperId", paper.paperId()).member("moduleCode", paper.moduleCode())
+				.member("allowLogTables", paper.allowLogTables())
+				.member("allowActuarialTables", paper.allowActuarialTables())
+				.member("allowStatisticalTables", paper.allowStatisticalTables())
+				.member("allowGraphPaper", paper.allowGraphPaper())
+				.member("allowDictionaries", paper.allowDictionaries())
+				.member("allowAttachedAnswerSheet", paper.allowAttachedAnswerSheet())
+				.member("allowThermodynamicTables", paper.allowThermodynamicTables())
+				.member("allowNonProgrammableCalculators", paper.allowNonProgrammableCalculators())
+				.member("allowRateTables", paper.allowRateTables()).member("totalQuestions", paper.totalQuestions())
+				.member("requiredAnswers", paper.requiredAnswers());
+		json.name("questions").beginArray();
+		for (Question question : paper.questions()) {
+			json.beginObject().member("questionText", question.questionText()).name("parts").beginArray();
+			for (String part : question.parts()) {
+				json.value(part);
+			}
+			json.endArray().member("marks", question.marks()).endObject();
+		}
+		json.endArray();
+		actions(json.name("actions"), paper.actions());
+		return json.endObject();
+	}
+
+	/**
+	 * Writes the header of an examination paper: its identity, counts and status.
+	 *
+	 * @param json   The writer.
+	 * @param header The paper header.
+	 * @return The writer.
+	 */
+	public static JsonWriter paperHeader(JsonWriter json, PaperHeader header) {
+		return json.beginObject().member("paperId", header.paperId()).member("moduleCode", header.moduleCode())
+				.member("totalQuestions", header.totalQuestions()).member("requiredAnswers", header.requiredAnswers())
+				.member("questionCount", header.questionCount()).member("actionCount", header.actionCount())
+				.member("status", header.status().name()).endObject();
+	}
+
+	/**
+	 * Writes the status view of an examination paper: its latest decision, the
+	 * number of approvals, rejections and comments, and the last examiner.
+	 *
+	 * @param json The writer.
+	 * @param view The status view.
+	 * @return The writer.
+	 */
+	public static JsonWriter paperStatus(JsonWriter json, PaperStatusView view) {
+		return json.beginObject().member("paperId", view.paperId()).member("moduleCode", view.moduleCode())
+				.member("status", view.status().name()).member("approvals", view.approvals())
+				.member("rejections", view.rejections()).member("comments", view.comments())
+				.member("lastExaminerId", view.lastExaminerId()).endObject();
+	}
+
+	/**
+	 * Writes a match of a question search.
+	 *
+	 * @param json The writer.
+	 * @param hit  The match.
+	 * @return The writer.
+	 */
+	public static JsonWriter searchHit(JsonWriter json, SearchHit hit) {
+		return json.beginObject().member("paperId", hit.paperId()).member("moduleCode", hit.moduleCode())
+				.member("question", hit.question()).member("part", hit.part()).member("score", hit.score())
+				.endObject();
+	}
+
+	/**
+	 * Writes a pair of near-duplicate questions.
+	 *
+	 * @param json      The writer.
+	 * @param duplicate The pair.
+	 * @return The writer.
+	 */
+	public static JsonWriter duplicate(JsonWriter json, DuplicateQuestion duplicate) {
+		return json.beginObject().member("paperId", duplicate.paperId()).member("moduleCode", duplicate.moduleCode())
+				.member("question", duplicate.question()).member("duplicatePaperId", duplicate.duplicatePaperId())
+				.member("duplicateModuleCode", duplicate.duplicateModuleCode())
+				.member("duplicateQuestion", duplicate.duplicateQuestion())
+				.member("similarity", duplicate.similarity()).endObject();
+	}
+
+	/**
+	 * Writes a list of near-duplicate question pairs as an array.
+	 *
+	 * @param json       The writer.
+	 * @param duplicates The pairs.
+	 * @return The writer.
+	 */
+	public static JsonWriter duplicates(JsonWriter json, List<DuplicateQuestion> duplicates) {
+		json.beginArray();
+		for (DuplicateQuestion duplicate : duplicates) {
+			duplicate(json, duplicate);
+		}
+		return json.endArray();
+	}
+
+	/**
+	 * Writes an external examiner action.
+	 *
+	 * @param json   The writer.
+	 * @param action The action.
+	 * @return The writer.
+	 */
+	public static JsonWriter action(JsonWriter json, ExternalExaminerAction action) {
+		json.beginObject().member("moduleCode", action.getModuleCode()).member("paperId", action.getPaperId())
+				.member("action", String.valueOf(action.getAction())).member("comment", action.getComment());
+		examiner(json.name("examiner"), action.getExaminer());
+		return json.endObject();
+	}
+
+	/**
+	 * Writes a list of external examiner actions as an array.
+	 *
+	 * @param json    The writer.
+	 * @param actions The actions.
+	 * @return The writer.
+	 */
+	public static JsonWriter actions(JsonWriter json, List<ExternalExaminerAction> actions) {
+		json.beginArray();
+		for (ExternalExaminerAction action : actions) {
+			action(json, action);
+		}
+		return json.endArray();
+	}
+
+	/**
+	 * Writes the board report as an object holding an array of rows for each
+	 * grouping and the row of the totals.
+	 *
+	 * @param json   The writer.
+	 * @param report The report.
+	 * @return The writer.
+	 */
+	public static JsonWriter report(JsonWriter json, BoardReport report) {
+		json.beginObject();
+		reportRows(json.name("bySchool"), report.bySchool());
+		reportRows(json.name("byDepartment"), report.byDepartment());
+		reportRows(json.name("byProgram"), report.byProgram());
+		reportRows(json.name("byExternalExaminer"), report.byExternalExaminer());
+		reportRow(json.name("totals"), report.totals());
+		return json.endObject();
+	}
+
+	/**
+	 * Writes one row of the board report, with its approval and rejection rates.
+	 *
+	 * @param json The writer.
+	 * @param row  The row.
+	 * @return The writer.
+	 */
+	public static JsonWriter reportRow(JsonWriter json, ReportRow row) {
+		return json.beginObject().member("group", row.group()).member("modules", row.modules())
+				.member("papers", row.papers()).member("approved", row.approved()).member("rejected", row.rejected())
+				.member("pending", row.pending()).member("approvals", row.approvals())
+				.member("rejections", row.rejections()).member("comments", row.comments())
+				.member("approvalRate", row.approvalRate()).member("rejectionRate", row.rejectionRate())
+				.member("registrations", row.registrations())
+				.member("registrationsCovered", row.registrationsCovered()).endObject();
+	}
+
+	private static void reportRows(JsonWriter json, List<ReportRow> rows) {
+		json.beginArray();
+		for (ReportRow row : rows) {
+			reportRow(json, row);
+		}
+		json.endArray();
+	}
+
+	/**
+	 * Writes a page of a listing as an object holding the {@code items} and the
+	 * {@code nextCursor}, which is null on the last page.
+	 *
+	 * @param <T>  The type of item listed.
+	 * @param json The writer.
+	 * @param page The page.
+	 * @param item Writes one item.
+	 * @return The writer.
+	 */
+	public static <T> JsonWriter page(JsonWriter json, Page<T> page, BiConsumer<JsonWriter, T> item) {
+		json.beginObject().name("items").beginArray();
+		for (T value : page.items()) {
+			item.accept(json, value);
+		}
+		return json.endArray().member("nextCursor", page.nextCursor()).endObject();
+	}
+}
@@ -0,0 +1,185 @@
+package ie.atu.sw.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+import ie.atu.sw.model.ExaminationPaperServiceImpl;
+import ie.atu.sw.model.ExaminerServiceImpl;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.ModuleServiceImpl;
+import ie.atu.sw.model.ReportServiceImpl;
+import ie.atu.sw.model.Storage;
+import ie.atu.sw.services.ExaminationPaperService;
+import ie.atu.sw.services.ExternalExaminerService;
+import ie.atu.sw.services.ModuleService;
+import ie.atu.sw.services.ReportService;
+
+/**
+ * Embedded HTTP server exposing modules, examiners, examination papers and
+ * external examiner actions as JSON, so that several members of staff can work
+ * at once instead of sharing the console menu. Every request is handled on its
+ * own virtual thread and calls the same services as the console.
+ *
+ * <p>
+ * The resources are {@link ModuleResource} under {@code /api/modules},
+ * {@link ExaminerResource} under {@code /api/examiners}, {@link PaperResource}
+ * under {@code /api/papers} and {@link ActionResource} under
+ * {@code /api/actions}. {@link SearchResource} searches the examination
+ * questions under {@code /api/search}, and {@link ReportResource} serves the
+ * board report under {@code /api/reports}. {@link MetricsResource} serves the application's
+ * metrics under {@code /metrics}.
+ *
+ * <p>
+ * Every request must carry a bearer token issued with {@code --issue-token};
+ * see {@link ApiTokens}. Started from {@link #main(String[])}, the server
+ * listens on the loopback interface only unless another address is given in
+ * the {@code atu.http.bind} system property.
+ */
+public class ApiServer {
+	/**
+	 * System property holding the port the server listens on when started from
+	 * {@link #main(String[])}.
+	 */
+	public static final String PORT_PROPERTY = "atu.http.port";
+	/**
+	 * System property holding the address the server listens on when started
+	 * from {@link #main(String[])}, for example {@code 0.0.0.0} for every
+	 * interface. Without it only the loopback interface is used.
+	 */
+	public static final String BIND_PROPERTY = "atu.http.bind";
+	/**
+	 * System property holding the path of the token file; by default it is
+	 * {@value ApiTokens#FILE_NAME} in the data directory.
+	 */
+	public static final String TOKENS_PROPERTY = "atu.http.tokens";
+	private static final String ISSUE_TOKEN = "--issue-token";
+	private static final int DEFAULT_PORT = 8080;
+	private static final int BACKLOG = 1024;
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	/**
+	 * Creates a server bound to the given address. The server does not accept
+	 * requests until it is started.
+	 *
+	 * @param address         The address to listen on; port 0 picks a free port.
+	 * @param tokens          The tokens callers authenticate with.
+	 * @param moduleService   The service managing modules.
+	 * @param paperService    The service managing examination papers.
+	 * @param examinerService The service managing external examiner actions.
+	 * @param reportService   The service producing board reports.
+	 * @throws IOException If the address cannot be bound.
+	 */
+	public ApiServer(InetSocketAddress address, ApiTokens tokens, ModuleService moduleService,
+			ExaminationPaperService paperService, ExternalExaminerService examinerService, ReportService reportService)
+			throws IOException {
+		server = HttpServer.create(address, BACKLOG);
+		TokenAuthenticator authenticator = new TokenAuthenticator(tokens);
+		server.createContext("/api/modules", new ModuleResource(moduleService, paperService))
+				.setAuthenticator(authenticator);
+		server.createContext("/api/examiners", new ExaminerResource()).setAuthenticator(authenticator);
+		server.createContext("/api/papers", new PaperResource(paperService, examinerService))
+				.setAuthenticator(authenticator);
+		server.createContext("/api/actions", new ActionResource(examinerService)).setAuthenticator(authenticator);
+		server.createContext("/api/search", new SearchResource(paperService)).setAuthenticator(authenticator);
+		server.createContext("/api/reports", new ReportResource(reportService)).setAuthenticator(authenticator);
+		server.createContext("/metrics", new MetricsResource()).setAuthenticator(authenticator);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops accepting requests and waits up to the given time for requests in
+	 * progress to finish.
+	 *
+	 * @param delaySeconds The longest time to wait, in seconds.
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.close();
+	}
+
+	/**
+	 * Returns the port the server listens on.
+	 *
+	 * @return The port.
+	 */
+	public int port() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Starts the server on the port given as the first argument, the
+	 * {@code atu.http.port} system property or 8080, and runs until the process
+	 * is stopped. Storage is checkpointed periodically and when the process stops,
+	 * and the data directory is watched for changes made by other instances.
+	 *
+	 * <p>
+	 * Given {@code --issue-token staff} or {@code --issue-token <examinerId>}
+	 * instead, issues a token for a member of staff or an external examiner,
+	 * prints it and exits.
+	 *
+	 * @param args An optional port number, or {@code --issue-token} and a
+	 *             principal.
+	 * @throws IOException If the port cannot be bound.
+	 */
+	public static void main(String[] args) throws IOException {
+		ApiTokens tokens = new ApiTokens(tokensFile());
+		if (args.length > 0 && args[0].equals(ISSUE_TOKEN)) {
+			issueToken(tokens, args);
+			return;
+		}
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+		String bind = System.getProperty(BIND_PROPERTY);
+		InetAddress address = bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind);
+		ExaminerServiceImpl examinerService = new ExaminerServiceImpl();
+		ApiServer server = new ApiServer(new InetSocketAddress(address, port), tokens, new ModuleServiceImpl(),
+				new ExaminationPaperServiceImpl(), examinerService, new ReportServiceImpl());
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.stop(2);
+			examinerService.close();
+			Storage.checkpoint();
+		}));
+		Storage.startCheckpoints();
+		Storage.startWatching();
+		server.start();
+		System.out.println("ATU examination paper API listening on " + address.getHostAddress() + " port "
+				+ server.port());
+		if (tokens.isEmpty()) {
+			System.out.println("No API tokens have been issued; issue one with " + ISSUE_TOKEN + " staff");
+		}
+	}
+
+	private static File tokensFile() {
+		String path = System.getProperty(TOKENS_PROPERTY);
+		return path == null ? Storage.file(ApiTokens.FILE_NAME) : new File(path);
+	}
+
+	private static void issueToken(ApiTokens tokens, String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: " + ISSUE_TOKEN + " " + ApiTokens.STAFF + "|<examinerId>");
+			System.exit(2);
+		}
+		String principal = args[1];
+		if (!principal.equals(ApiTokens.STAFF)
+				&& !(ExaminerUtil.findExaminer(principal) instanceof ExternalExaminer)) {
+			System.err.println("No external examiner with ID " + principal);
+			System.exit(1);
+		}
+		System.out.println(tokens.issue(principal));
+	}
+}
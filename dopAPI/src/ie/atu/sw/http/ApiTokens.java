@@ -0,0 +1,153 @@
+package ie.atu.sw.http;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The bearer tokens accepted by the {@link ApiServer}. Each token stands for a
+ * principal: {@value #STAFF}, for members of staff, or the ID of an external
+ * examiner, who may then record actions only as themselves. Only the SHA-256
+ * hash of each token is kept, in a properties file mapping the hash to its
+ * principal, so the file does not hold usable credentials. The file is read
+ * again whenever it changes, so tokens issued by another process are accepted
+ * without a restart.
+ */
+public class ApiTokens {
+	/**
+	 * The principal of members of staff.
+	 */
+	public static final String STAFF = "staff";
+	/**
+	 * The name of the token file in the data directory.
+	 */
+	public static final String FILE_NAME = "api_tokens.properties";
+	private static final int TOKEN_BYTES = 32;
+
+	private final File file;
+	private final SecureRandom random = new SecureRandom();
+	private final ReentrantLock lock = new ReentrantLock();
+	private Properties principals = new Properties();
+	private long loadedModified = -1;
+	private long loadedLength = -1;
+
+	/**
+	 * Creates the tokens kept in the given file, which need not exist yet.
+	 *
+	 * @param file The token file.
+	 */
+	public ApiTokens(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Returns the principal a token stands for.
+	 *
+	 * @param token The token presented by the caller.
+	 * @return {@link #STAFF}, an examiner ID, or {@code null} if the token is
+	 *         unknown.
+	 * @throws UncheckedIOException If the token file cannot be read.
+	 */
+	public String principal(String token) {
+		lock.lock();
+		try {
+			reloadIfChanged();
+			return principals.getProperty(hash(token));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns whether any token has been issued.
+	 *
+	 * @return {@code true} if at least one token is accepted.
+	 * @throws UncheckedIOException If the token file cannot be read.
+	 */
+	public boolean isEmpty() {
+		lock.lock();
+		try {
+			reloadIfChanged();
+			return principals.isEmpty();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Issues a new token for a principal and saves its hash. The token itself is
+	 * returned once and not stored.
+	 *
+	 * @param principal {@link #STAFF} or an examiner ID.
+	 * @return The new token.
+	 * @throws UncheckedIOException If the token file cannot be written.
+	 */
+	public String issue(String principal) {
+		byte[] bytes = new byte[TOKEN_BYTES];
+		random.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		lock.lock();
+		try {
+			reloadIfChanged();
+			Properties updated = new Properties();
+			updated.putAll(principals);
+			updated.setProperty(hash(token), principal);
+			File temp = new File(file.getPath() + ".tmp");
+			try (OutputStream out = new FileOutputStream(temp)) {
+				updated.store(out, "SHA-256 token hash = principal");
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			principals = updated;
+			loadedModified = file.lastModified();
+			loadedLength = file.length();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.unlock();
+		}
+		return token;
+	}
+
+	private void reloadIfChanged() {
+		long modified = file.lastModified();
+		long length = file.length();
+		if (modified == loadedModified && length == loadedLength) {
+			return;
+		}
+		Properties loaded = new Properties();
+		if (file.exists()) {
+			try (InputStream in = new FileInputStream(file)) {
+				loaded.load(in);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		principals = loaded;
+		loadedModified = modified;
+		loadedLength = length;
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import ie.atu.sw.model.ExaminerExistsException;
+import ie.atu.sw.model.ExaminerType;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.InternalExaminer;
+import ie.atu.sw.services.Examiner;
+
+/**
+ * The {@code /api/examiners} resource. Examiners are addressed by the ID they
+ * are stored under, see {@link ExaminerUtil#examinerId}, URL encoded.
+ * <ul>
+ * <li>{@code GET /api/examiners} lists every examiner.</li>
+ * <li>{@code GET /api/examiners/{id}} returns one examiner.</li>
+ * <li>{@code POST /api/examiners} creates an examiner from {@code type},
+ * {@code name} and {@code department}, plus {@code school}, {@code email} and
+ * {@code crn} for an internal examiner or {@code institution} for an external
+ * one. If an examiner with the same details exists the request is refused with
+ * 409, also when two requests race to create it.</li>
+ * <li>{@code PUT /api/examiners/{id}} replaces the details of an examiner from
+ * the same members, keeping its ID. The type cannot be changed: a request
+ * giving another type is refused with 400.</li>
+ * </ul>
+ */
+public class ExaminerResource extends ApiHandler {
+
+	@Override
+	protected Response handle(String method, List<String> path, HttpExchange exchange) throws IOException {
+		if (method.equals("GET") && path.isEmpty()) {
+			List<Examiner> examiners = ExaminerUtil.loadExaminers();
+			JsonWriter json = new JsonWriter().beginArray();
+			for (Examiner examiner : examiners == null ? List.<Examiner>of() : examiners) {
+				ApiJson.examiner(json, examiner);
+			}
+			return ok(json.endArray());
+		}
+		if (method.equals("GET") && path.size() == 1) {
+			Examiner examiner = ExaminerUtil.findExaminer(path.get(0));
+			if (examiner == null) {
+				throw new ApiException(404, "No examiner with ID " + path.get(0));
+			}
+			return ok(ApiJson.examiner(new JsonWriter(), examiner));
+		}
+		if (method.equals("POST") && path.isEmpty()) {
+			Examiner examiner = examiner(body(exchange));
+			try {
+				ExaminerUtil.addNewExaminer(examiner);
+			} catch (ExaminerExistsException e) {
+				throw new ApiException(409, e.getMessage());
+			}
+			return created(ApiJson.examiner(new JsonWriter(), examiner));
+		}
+		if (method.equals("PUT") && path.size() == 1) {
+			if (ExaminerUtil.findExaminer(path.get(0)) == null) {
+				throw new ApiException(404, "No examiner with ID " + path.get(0));
+			}
+			Examiner examiner = examiner(body(exchange));
+			ExaminerUtil.updateExaminer(path.get(0), examiner);
+			return ok(ApiJson.examiner(new JsonWriter(), examiner));
+		}
+		throw notFound(method, path);
+	}
+
+	private static Examiner examiner(Map<String, Object> body) {
+		ExaminerType type = ExaminerType.valueOf(string(body, "type"));
+		String name = string(body, "name");
+		String department = string(body, "department");
+		return type == ExaminerType.INTERNAL
+				? new InternalExaminer(name, type, department, string(body, "school"), string(body, "email"),
+						integer(body, "crn"))
+				: new ExternalExaminer(name, type, department, string(body, "institution"));
+	}
+}
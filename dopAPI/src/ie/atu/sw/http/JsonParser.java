@@ -0,0 +1,204 @@
+package ie.atu.sw.http;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal recursive descent JSON parser for request bodies. Objects become
+ * {@link Map}s, arrays become {@link List}s, integral numbers become
+ * {@link Long}s and other numbers {@link Double}s. Objects and arrays may be
+ * nested at most {@value #MAX_DEPTH} deep, so that a hostile document cannot
+ * exhaust the stack.
+ */
+public class JsonParser {
+	/**
+	 * The deepest nesting of objects and arrays accepted.
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	private final String text;
+	private int position;
+	private int depth;
+
+	private JsonParser(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Parses a JSON document.
+	 *
+	 * @param text The document.
+	 * @return The parsed value.
+	 * @throws IllegalArgumentException If the document is not valid JSON or is
+	 *                                  nested deeper than {@link #MAX_DEPTH}.
+	 */
+	public static Object parse(String text) {
+		JsonParser parser = new JsonParser(text);
+		Object value = parser.value();
+		parser.skipWhitespace();
+		if (parser.position != text.length()) {
+			throw parser.error("Unexpected trailing content");
+		}
+		return value;
+	}
+
+	private Object value() {
+		skipWhitespace();
+		if (position >= text.length()) {
+			throw error("Unexpected end of document");
+		}
+		char c = text.charAt(position);
+		if ((c == '{' || c == '[') && depth == MAX_DEPTH) {
+			throw error("Nested deeper than " + MAX_DEPTH);
+		}
+		return switch (c) {
+		case '{' -> object();
+		case '[' -> array();
+		case '"' -> string();
+		case 't' -> literal("true", Boolean.TRUE);
+		case 'f' -> literal("false", Boolean.FALSE);
+		case 'n' -> literal("null", null);
+		default -> number();
+		};
+	}
+
+	private Map<String, Object> object() {
+		Map<String, Object> object = new LinkedHashMap<>();
+		position++;
+		skipWhitespace();
+		if (peek() == '}') {
+			position++;
+			return object;
+		}
+		depth++;
+		while (true) {
+			skipWhitespace();
+			if (peek() != '"') {
+				throw error("Expected member name");
+			}
+			String name = string();
+			skipWhitespace();
+			expect(':');
+			object.put(name, value());
+			skipWhitespace();
+			if (peek() == ',') {
+				position++;
+			} else {
+				expect('}');
+				depth--;
+				return object;
+			}
+		}
+	}
+
+	private List<Object> array() {
+		List<Object> array = new ArrayList<>();
+		position++;
+		skipWhitespace();
+		if (peek() == ']') {
+			position++;
+			return array;
+		}
+		depth++;
+		while (true) {
+			array.add(value());
+			skipWhitespace();
+			if (peek() == ',') {
+				position++;
+			} else {
+				expect(']');
+				depth--;
+				return array;
+			}
+		}
+	}
+
+	private String string() {
+		StringBuilder value = new StringBuilder();
+		position++;
+		while (true) {
+			if (position >= text.length()) {
+				throw error("Unterminated string");
+			}
+			char c = text.charAt(position++);
+			if (c == '"') {
+				return value.toString();
+			}
+			if (c != '\\') {
+				value.append(c);
+				continue;
+			}
+			if (position >= text.length()) {
+				throw error("Unterminated string");
+			}
+			char escape = text.charAt(position++);
+			switch (escape) {
+			case '"', '\\', '/' -> value.append(escape);
+			case 'b' -> value.append('\b');
+			case 'f' -> value.append('\f');
+			case 'n' -> value.append('\n');
+			case 'r' -> value.append('\r');
+			case 't' -> value.append('\t');
+			case 'u' -> {
+				if (position + 4 > text.length()) {
+					throw error("Invalid unicode escape");
+				}
+				try {
+					value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+				} catch (NumberFormatException e) {
+					throw error("Invalid unicode escape");
+				}
+				position += 4;
+			}
+			default -> throw error("Invalid escape");
+			}
+		}
+	}
+
+	private Object number() {
+		int start = position;
+		while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+			position++;
+		}
+		String number = text.substring(start, position);
+		try {
+			if (number.contains(".") || number.contains("e") || number.contains("E")) {
+				return Double.parseDouble(number);
+			}
+			return Long.parseLong(number);
+		} catch (NumberFormatException e) {
+			throw error("Invalid value");
+		}
+	}
+
+	private Object literal(String literal, Object value) {
+		if (!text.startsWith(literal, position)) {
+			throw error("Invalid value");
+		}
+		position += literal.length();
+		return value;
+	}
+
+	private void expect(char c) {
+		if (peek() != c) {
+			throw error("Expected '" + c + "'");
+		}
+		position++;
+	}
+
+	private char peek() {
+		return position < text.length() ? text.charAt(position) : 0;
+	}
+
+	private void skipWhitespace() {
+		while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+			position++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException("Invalid JSON at offset " + position + ": " + message);
+	}
+}
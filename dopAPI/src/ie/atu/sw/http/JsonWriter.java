@@ -0,0 +1,192 @@
+package ie.atu.sw.http;
+
+/**
+ * Minimal streaming JSON writer. Values are appended in document order and the
+ * writer inserts the separators between them.
+ */
+public class JsonWriter {
+	private final StringBuilder out = new StringBuilder(256);
+	private boolean needsComma;
+
+	/**
+	 * Starts an object.
+	 *
+	 * @return This writer.
+	 */
+	public JsonWriter beginObject() {
+		separate();
+		out.append('{');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Ends the current object.
+	 *
+	 * @return This writer.
+	 */
+	public JsonWriter endObject() {
+		out.append('}');
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Starts an array.
+	 *
+	 * @return This writer.
+	 */
+	public JsonWriter beginArray() {
+		separate();
+		out.append('[');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Ends the current array.
+	 *
+	 * @return This writer.
+	 */
+	public JsonWriter endArray() {
+		out.append(']');
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes the name of the next object member.
+	 *
+	 * @param name The member name.
+	 * @return This writer.
+	 */
+	public JsonWriter name(String name) {
+		separate();
+		quote(name);
+		out.append(':');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Writes a string value, or null.
+	 *
+	 * @param value The value.
+	 * @return This writer.
+	 */
+	public JsonWriter value(String value) {
+		separate();
+		if (value == null) {
+			out.append("null");
+		} else {
+			quote(value);
+		}
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a number value.
+	 *
+	 * @param value The value.
+	 * @return This writer.
+	 */
+	public JsonWriter value(long value) {
+		separate();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a fractional number value.
+	 *
+	 * @param value The value, which must be finite.
+	 * @return This writer.
+	 */
+	public JsonWriter value(double value) {
+		separate();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a boolean value.
+	 *
+	 * @param value The value.
+	 * @return This writer.
+	 */
+	public JsonWriter value(boolean value) {
+		separate();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a named string member.
+	 *
+	 * @param name  The member name.
+	 * @param value The value.
+	 * @return This writer.
+	 */
+	public JsonWriter member(String name, String value) {
+		return name(name).value(value);
+	}
+
+	/**
+	 * Writes a named number member.
+	 *
+	 * @param name  The member name.
+	 * @param value The value.
+	 * @return This writer.
+	 */
+	public JsonWriter member(String name, long value) {
+		return name(name).value(value);
+	}
+
+	/**
+	 * Writes a named fractional number member.
+	 *
+	 * @param name  The member name.
+	 * @param value The value, which must be finite.
+	 * @return This writer.
+	 */
+	public JsonWriter member(String name, double value) {
+		return name(name).value(value);
+	}
+
+	@Override
+	public String toString() {
+		return out.toString();
+	}
+
+	private void separate() {
+		if (needsComma) {
+			out.append(',');
+		}
+	}
+
+	private void quote(String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"' -> out.append("\\\"");
+			case '\\' -> out.append("\\\\");
+			case '\n' -> out.append("\\n");
+			case '\r' -> out.append("\\r");
+			case '\t' -> out.append("\\t");
+			default -> {
+				if (c < 0x20) {
+					out.append(String.format("\\u%04x", (int) c));
+				} else {
+					out.append(c);
+				}
+			}
+			}
+		}
+		out.append('"');
+	}
+}
@@ -0,0 +1,33 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import ie.atu.sw.model.Metrics;
+
+/**
+ * The {@code /metrics} resource. {@code GET /metrics} returns every metric in
+ * {@link Metrics} in the Prometheus text exposition format, for scraping.
+ */
+public class MetricsResource implements HttpHandler {
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+		if (!exchange.getRequestMethod().equals("GET") || !exchange.getRequestURI().getPath().equals("/metrics")) {
+			exchange.sendResponseHeaders(404, -1);
+			exchange.close();
+			return;
+		}
+		byte[] body = Metrics.prometheus().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
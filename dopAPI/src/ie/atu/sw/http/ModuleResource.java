@@ -0,0 +1,77 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleSpec;
+import ie.atu.sw.services.ExaminationPaperService;
+import ie.atu.sw.services.ModuleService;
+
+/**
+ * The {@code /api/modules} resource.
+ * <ul>
+ * <li>{@code GET /api/modules} lists every module.</li>
+ * <li>{@code GET /api/modules/{code}} returns one module.</li>
+ * <li>{@code GET /api/modules/{code}/papers} lists the headers of the module's
+ * papers a page at a time, paged like {@code GET /api/actions}; {@code GET
+ * /api/papers/{id}} returns a paper in full.</li>
+ * <li>{@code POST /api/modules} creates a module from the members of
+ * {@link ModuleSpec}.</li>
+ * </ul>
+ */
+public class ModuleResource extends ApiHandler {
+	private final ModuleService moduleService;
+	private final ExaminationPaperService paperService;
+
+	/**
+	 * Creates the resource.
+	 *
+	 * @param moduleService The service managing modules.
+	 * @param paperService  The service managing examination papers.
+	 */
+	public ModuleResource(ModuleService moduleService, ExaminationPaperService paperService) {
+		this.moduleService = moduleService;
+		this.paperService = paperService;
+	}
+
+	@Override
+	protected Response handle(String method, List<String> path, HttpExchange exchange) throws IOException {
+		if (method.equals("GET") && path.isEmpty()) {
+			JsonWriter json = new JsonWriter().beginArray();
+			for (ModuleInfo module : moduleService.getAllModules()) {
+				ApiJson.module(json, module);
+			}
+			return ok(json.endArray());
+		}
+		if (method.equals("GET") && path.size() == 1) {
+			return ok(ApiJson.module(new JsonWriter(), module(path.get(0))));
+		}
+		if (method.equals("GET") && path.size() == 2 && path.get(1).equals("papers")) {
+			module(path.get(0));
+			return ok(ApiJson.page(new JsonWriter(),
+					paperService.getPaperHeaders(path.get(0), query(exchange, "cursor"), limit(exchange)),
+					ApiJson::paperHeader));
+		}
+		if (method.equals("POST") && path.isEmpty()) {
+			Map<String, Object> body = body(exchange);
+			ModuleSpec spec = new ModuleSpec(string(body, "moduleCode"), string(body, "moduleTitle"),
+					integer(body, "registrations"), string(body, "programCode"), string(body, "programTitle"),
+					integer(body, "year"), string(body, "school"), string(body, "department"),
+					string(body, "internalExaminerId"), string(body, "externalExaminerId"));
+			return created(ApiJson.module(new JsonWriter(), moduleService.createModule(spec)));
+		}
+		throw notFound(method, path);
+	}
+
+	private ModuleInfo module(String moduleCode) {
+		ModuleInfo module = moduleService.getModuleInfo(moduleCode);
+		if (module == null) {
+			throw new ApiException(404, "No module with code " + moduleCode);
+		}
+		return module;
+	}
+}
@@ -0,0 +1,121 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import ie.atu.sw.enums.PaperStatus;
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.PaperSpec;
+import ie.atu.sw.model.PaperStatusView;
+import ie.atu.sw.model.Question;
+import ie.atu.sw.services.ExaminationPaperService;
+import ie.atu.sw.services.ExternalExaminerService;
+
+/**
+ * The {@code /api/papers} resource.
+ * <ul>
+ * <li>{@code GET /api/papers?status=PENDING} lists the status views of the
+ * papers in a status a page at a time, paged like {@code GET /api/actions}.</li>
+ * <li>{@code GET /api/papers/{id}} returns one paper.</li>
+ * <li>{@code GET /api/papers/{id}/actions} lists the actions recorded on the
+ * paper.</li>
+ * <li>{@code GET /api/papers/{id}/duplicates} lists the questions of earlier
+ * papers that the paper's questions closely resemble.</li>
+ * <li>{@code GET /api/papers/{id}/status} returns the paper's status view:
+ * its latest decision, decision and comment counts, and last examiner.</li>
+ * <li>{@code POST /api/papers} adds a paper from the members of
+ * {@link PaperSpec}; each question has {@code questionText}, {@code parts} and
+ * {@code marks}, and allowances that are left out are not allowed.</li>
+ * </ul>
+ */
+public class PaperResource extends ApiHandler {
+	private final ExaminationPaperService paperService;
+	private final ExternalExaminerService examinerService;
+
+	/**
+	 * Creates the resource.
+	 *
+	 * @param paperService    The service managing examination papers.
+	 * @param examinerService The service managing external examiner actions.
+	 */
+	public PaperResource(ExaminationPaperService paperService, ExternalExaminerService examinerService) {
+		this.paperService = paperService;
+		this.examinerService = examinerService;
+	}
+
+	@Override
+	protected Response handle(String method, List<String> path, HttpExchange exchange) throws IOException {
+		if (method.equals("GET") && path.isEmpty()) {
+			return ok(ApiJson.page(new JsonWriter(), paperService.getPapersByStatus(status(exchange),
+					query(exchange, "cursor"), limit(exchange)), ApiJson::paperStatus));
+		}
+		if (method.equals("GET") && path.size() == 1) {
+			return ok(ApiJson.paper(new JsonWriter(), paper(path.get(0))));
+		}
+		if (method.equals("GET") && path.size() == 2 && path.get(1).equals("actions")) {
+			paper(path.get(0));
+			return ok(ApiJson.actions(new JsonWriter(), examinerService.getActionsForPaper(path.get(0))));
+		}
+		if (method.equals("GET") && path.size() == 2 && path.get(1).equals("duplicates")) {
+			paper(path.get(0));
+			return ok(ApiJson.duplicates(new JsonWriter(), paperService.findDuplicateQuestions(path.get(0))));
+		}
+		if (method.equals("GET") && path.size() == 2 && path.get(1).equals("status")) {
+			PaperStatusView view = paperService.getPaperStatus(path.get(0));
+			if (view == null) {
+				throw new ApiException(404, "No examination paper with ID " + path.get(0));
+			}
+			return ok(ApiJson.paperStatus(new JsonWriter(), view));
+		}
+		if (method.equals("POST") && path.isEmpty()) {
+			Map<String, Object> body = body(exchange);
+			List<Question> questions = new ArrayList<>();
+			for (Object element : array(body, "questions")) {
+				if (!(element instanceof Map<?, ?> map)) {
+					throw new IllegalArgumentException("Each question must be a JSON object");
+				}
+				@SuppressWarnings("unchecked")
+				Map<String, Object> question = (Map<String, Object>) map;
+				List<String> parts = new ArrayList<>();
+				for (Object part : array(question, "parts")) {
+					if (!(part instanceof String text)) {
+						throw new IllegalArgumentException("Each part must be a string");
+					}
+					parts.add(text);
+				}
+				questions.add(new Question(string(question, "questionText"), parts, integer(question, "marks")));
+			}
+			PaperSpec spec = new PaperSpec(string(body, "moduleCode"), bool(body, "allowLogTables"),
+					bool(body, "allowActuarialTables"), bool(body, "allowStatisticalTables"),
+					bool(body, "allowGraphPaper"), bool(body, "allowDictionaries"),
+					bool(body, "allowAttachedAnswerSheet"), bool(body, "allowThermodynamicTables"),
+					bool(body, "allowNonProgrammableCalculators"), bool(body, "allowRateTables"), questions);
+			return created(ApiJson.paper(new JsonWriter(), paperService.addExaminationPaper(spec)));
+		}
+		throw notFound(method, path);
+	}
+
+	private static PaperStatus status(HttpExchange exchange) {
+		String status = query(exchange, "status");
+		if (status == null) {
+			throw new IllegalArgumentException("Missing query parameter: status");
+		}
+		try {
+			return PaperStatus.valueOf(status.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid status: " + status);
+		}
+	}
+
+	private ExaminationPaper paper(String paperId) {
+		ExaminationPaper paper = paperService.findExaminationPaper(paperId);
+		if (paper == null) {
+			throw new ApiException(404, "No examination paper with ID " + paperId);
+		}
+		return paper;
+	}
+}
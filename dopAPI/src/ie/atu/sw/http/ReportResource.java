@@ -0,0 +1,35 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import ie.atu.sw.services.ReportService;
+
+/**
+ * The {@code /api/reports} resource. {@code GET /api/reports} returns the board
+ * report: one row per school, department, programme and external examiner, with
+ * paper counts, approval and rejection rates and registrations covered, and a
+ * row of totals.
+ */
+public class ReportResource extends ApiHandler {
+	private final ReportService reportService;
+
+	/**
+	 * Creates the resource.
+	 *
+	 * @param reportService The service producing board reports.
+	 */
+	public ReportResource(ReportService reportService) {
+		this.reportService = reportService;
+	}
+
+	@Override
+	protected Response handle(String method, List<String> path, HttpExchange exchange) throws IOException {
+		if (method.equals("GET") && path.isEmpty()) {
+			return ok(ApiJson.report(new JsonWriter(), reportService.getBoardReport()));
+		}
+		throw notFound(method, path);
+	}
+}
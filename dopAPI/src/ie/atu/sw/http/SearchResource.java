@@ -0,0 +1,54 @@
+package ie.atu.sw.http;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import ie.atu.sw.model.SearchHit;
+import ie.atu.sw.services.ExaminationPaperService;
+
+/**
+ * The {@code /api/search} resource.
+ * <ul>
+ * <li>{@code GET /api/search?q=...} searches the text and parts of every
+ * examination question and returns the best matches as an array of
+ * {@code paperId}, {@code moduleCode}, {@code question}, {@code part} (0 for
+ * the question text) and {@code score}. Words in double quotes must appear as
+ * a phrase, and {@code limit} is the number of matches (default 100, at most
+ * 1000).</li>
+ * <li>{@code GET /api/search/duplicates} lists every pair of near-duplicate
+ * questions in different papers.</li>
+ * </ul>
+ */
+public class SearchResource extends ApiHandler {
+	private final ExaminationPaperService paperService;
+
+	/**
+	 * Creates the resource.
+	 *
+	 * @param paperService The service managing examination papers.
+	 */
+	public SearchResource(ExaminationPaperService paperService) {
+		this.paperService = paperService;
+	}
+
+	@Override
+	protected Response handle(String method, List<String> path, HttpExchange exchange) throws IOException {
+		if (method.equals("GET") && path.isEmpty()) {
+			String query = query(exchange, "q");
+			if (query == null) {
+				throw new IllegalArgumentException("Missing query parameter: q");
+			}
+			JsonWriter json = new JsonWriter().beginArray();
+			for (SearchHit hit : paperService.searchQuestions(query, limit(exchange))) {
+				ApiJson.searchHit(json, hit);
+			}
+			return ok(json.endArray());
+		}
+		if (method.equals("GET") && path.size() == 1 && path.get(0).equals("duplicates")) {
+			return ok(ApiJson.duplicates(new JsonWriter(), paperService.findAllDuplicateQuestions()));
+		}
+		throw notFound(method, path);
+	}
+}
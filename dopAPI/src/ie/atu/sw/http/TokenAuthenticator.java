@@ -0,0 +1,44 @@
+package ie.atu.sw.http;
+
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+/**
+ * Authenticates requests by the bearer token in their {@code Authorization}
+ * header. A request without a known token is refused with 401 before it
+ * reaches a resource; otherwise the exchange's principal is the one the token
+ * stands for, see {@link ApiTokens}.
+ */
+class TokenAuthenticator extends Authenticator {
+	/**
+	 * The realm of the principals of authenticated requests.
+	 */
+	static final String REALM = "atu";
+	private static final String SCHEME = "Bearer ";
+
+	private final ApiTokens tokens;
+
+	/**
+	 * Creates an authenticator accepting the given tokens.
+	 *
+	 * @param tokens The accepted tokens.
+	 */
+	TokenAuthenticator(ApiTokens tokens) {
+		this.tokens = tokens;
+	}
+
+	@Override
+	public Result authenticate(HttpExchange exchange) {
+		String header = exchange.getRequestHeaders().getFirst("Authorization");
+		String principal = null;
+		if (header != null && header.regionMatches(true, 0, SCHEME, 0, SCHEME.length())) {
+			principal = tokens.principal(header.substring(SCHEME.length()).trim());
+		}
+		if (principal == null) {
+			exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer realm=\"" + REALM + "\"");
+			return new Failure(401);
+		}
+		return new Success(new HttpPrincipal(principal, REALM));
+	}
+}
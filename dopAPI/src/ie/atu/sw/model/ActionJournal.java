@@ -0,0 +1,794 @@
+package ie.atu.sw.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal for external examiner actions. Every recorded action is
+ * written as a single framed record at the end of the journal file, so the cost
+ * of recording an action does not depend on how many actions already exist.
+ * The journal sits next to the snapshot file
+ * ({@code external_examiner_actions.dat}), and both are replayed in order.
+ *
+ * <p>
+ * Each frame is laid out as {@code [int length][int crc32][payload]}. A frame
+ * that is incomplete or fails its checksum marks the torn tail of a crashed
+ * write and is truncated away on replay, or when the journal is opened for
+ * appending, so that new frames never land behind it. The snapshot holds the same frames
+ * after an 8 byte header ({@code "ATUJ"} and a format version), so it can be
+ * streamed and merged one frame at a time; a snapshot still in the original
+ * serialized list format is read whole and rewritten as frames by the next
+ * compaction.
+ *
+ * <p>
+ * Once enough frames have been appended the journal is compacted in the
+ * background: the active journal is sealed, a fresh one is opened for new
+ * appends, and the sealed segment is merged into the snapshot. The merge is
+ * committed by renaming files in an order that {@link #replay()} can always
+ * recover from.
+ *
+ * <p>
+ * Several processes may share the journal. Appends, seals, the renames that
+ * commit a merge and reads of the segments are done holding a {@link LockFile}
+ * on {@code <snapshot>.lock}, and an append first reopens the journal if another
+ * process has sealed the file it had open. A compaction holds a second lock
+ * file, {@code <snapshot>.compact.lock}, from sealing to the end of the merge,
+ * so only one process compacts at a time, and an interrupted compaction is
+ * only recovered while no process is compacting.
+ */
+public class ActionJournal {
+	private static final int DEFAULT_COMPACT_THRESHOLD = 1024;
+	private static final int FRAME_HEADER_BYTES = 8;
+	private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+	private static final int SNAPSHOT_MAGIC = 0x4154554A;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final int SNAPSHOT_HEADER_BYTES = 8;
+	private static final int SERIALIZATION_MAGIC = 0xACED;
+	private static final int READ_BUFFER_BYTES = 64 * 1024;
+	private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+	private final File snapshotFile;
+	private final File journalFile;
+	private final File sealedFile;
+	private final File mergedFile;
+	private final File tempSnapshotFile;
+	private final LockFile journalLock;
+	private final LockFile compactionLock;
+	private final RecordCodec<ExternalExaminerAction> codec;
+	private final int compactThreshold;
+	private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "action-journal-compactor");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private FileChannel journal;
+	private Object journalKey;
+	private final ReentrantLock lock = new ReentrantLock();
+	private int framesSinceCompaction;
+	private boolean compacting;
+
+	/**
+	 * Creates a journal for the given snapshot file, compacting every 1024
+	 * appended actions.
+	 *
+	 * @param snapshotFileName The list-based snapshot file the journal belongs to.
+	 */
+	public ActionJournal(String snapshotFileName) {
+		this(snapshotFileName, RecordCodecs.actions(), DEFAULT_COMPACT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a journal for the given snapshot file.
+	 *
+	 * @param snapshotFileName The list-based snapshot file the journal belongs to.
+	 * @param codec            The codec used to encode each frame's payload.
+	 * @param compactThreshold Number of appended frames that triggers a background
+	 *                         compaction.
+	 */
+	public ActionJournal(String snapshotFileName, RecordCodec<ExternalExaminerAction> codec, int compactThreshold) {
+		this.snapshotFile = new File(snapshotFileName);
+		this.journalFile = new File(snapshotFileName + ".journal");
+		this.sealedFile = new File(snapshotFileName + ".journal.sealed");
+		this.mergedFile = new File(snapshotFileName + ".journal.merged");
+		this.tempSnapshotFile = new File(snapshotFileName + ".tmp");
+		this.journalLock = new LockFile(new File(snapshotFileName + ".lock"));
+		this.compactionLock = new LockFile(new File(snapshotFileName + ".compact.lock"));
+		this.codec = codec;
+		this.compactThreshold = compactThreshold;
+	}
+
+	/**
+	 * Appends one action to the journal as a single sequential write. Schedules a
+	 * background compaction once the compaction threshold has been reached.
+	 *
+	 * @param action The action to append.
+	 * @throws IOException If the frame could not be written.
+	 */
+	public void append(ExternalExaminerAction action) throws IOException {
+		appendAll(List.of(action));
+	}
+
+	/**
+	 * Appends a batch of actions to the journal as a single sequential write.
+	 * Schedules a background compaction once the compaction threshold has been
+	 * reached.
+	 *
+	 * @param actions The actions to append, in the order they were recorded.
+	 * @throws IOException If the frames could not be written.
+	 */
+	public void appendAll(List<ExternalExaminerAction> actions) throws IOException {
+		List<byte[]> payloads = new ArrayList<>(actions.size());
+		int size = 0;
+		for (ExternalExaminerAction action : actions) {
+			byte[] payload = encode(action);
+			payloads.add(payload);
+			size += FRAME_HEADER_BYTES + payload.length;
+		}
+
+		ByteBuffer frames = ByteBuffer.allocate(size);
+		for (byte[] payload : payloads) {
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			frames.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+		}
+		frames.flip();
+
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		lock.lock();
+		try {
+			journalLock.lock();
+			try {
+				FileChannel channel = currentJournal();
+				while (frames.hasRemaining()) {
+					channel.write(frames);
+				}
+			} finally {
+				journalLock.unlock();
+			}
+			Metrics.bytesWritten(journalFile.getName()).add(size);
+
+			framesSinceCompaction += actions.size();
+			if (framesSinceCompaction >= compactThreshold && !compacting) {
+				compactAsync();
+			}
+		} finally {
+			lock.unlock();
+			event.finish("append", journalFile, actions.size(), size);
+		}
+	}
+
+	/**
+	 * Forces every frame appended so far to the storage device.
+	 *
+	 * @throws IOException If the journal could not be forced.
+	 */
+	public void sync() throws IOException {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		lock.lock();
+		try {
+			if (journal != null) {
+				journal.force(false);
+			}
+		} finally {
+			lock.unlock();
+			event.finish("sync", journalFile, 0, 0);
+		}
+	}
+
+	/**
+	 * Replays the snapshot followed by every journal segment, in the order the
+	 * actions were recorded. Finishes any compaction interrupted by a crash and
+	 * truncates a torn tail off the active journal.
+	 *
+	 * @return All recorded actions.
+	 * @throws IOException If the snapshot or the journal cannot be read.
+	 */
+	public List<ExternalExaminerAction> replay() throws IOException {
+		lock.lock();
+		try {
+			journalLock.lock();
+			try {
+				recover();
+
+				List<ExternalExaminerAction> actions = new ArrayList<>();
+				try (Stream<ExternalExaminerAction> snapshot = readSnapshot()) {
+					snapshot.forEachOrdered(actions::add);
+				}
+				if (sealedFile.exists()) {
+					readFrames(sealedFile, actions);
+				}
+				long validLength = readFrames(journalFile, actions);
+				if (journalFile.exists() && validLength < journalFile.length()) {
+					truncateTornTail(currentJournal(), validLength);
+				}
+				return actions;
+			} finally {
+				journalLock.unlock();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Streams every recorded action, in the order the actions were recorded,
+	 * decoding one frame at a time so that memory use does not grow with the
+	 * number of actions. The segments are opened when this method is called, so
+	 * the stream sees the actions recorded up to then even if a compaction
+	 * renames the files while it is read. The stream must be closed.
+	 *
+	 * @param skip The number of leading actions to skip without decoding them.
+	 * @return A stream of the actions.
+	 * @throws IOException If a segment cannot be opened.
+	 */
+	public Stream<ExternalExaminerAction> stream(long skip) throws IOException {
+		List<ExternalExaminerAction> legacySnapshot = null;
+		List<FrameReader> segments = new ArrayList<>(3);
+		lock.lock();
+		try {
+			journalLock.lock();
+		} catch (IOException e) {
+			lock.unlock();
+			throw e;
+		}
+		try {
+			recover();
+			if (isLegacySnapshot()) {
+				legacySnapshot = readLegacySnapshot();
+			} else if (snapshotFile.exists() && snapshotFile.length() > 0) {
+				segments.add(snapshotFrames());
+			}
+			if (sealedFile.exists()) {
+				segments.add(new FrameReader(sealedFile, 0, sealedFile.length()));
+			}
+			if (journalFile.exists()) {
+				segments.add(new FrameReader(journalFile, 0, journalFile.length()));
+			}
+		} catch (IOException | RuntimeException e) {
+			segments.forEach(FrameReader::closeQuietly);
+			throw e;
+		} finally {
+			journalLock.unlock();
+			lock.unlock();
+		}
+
+		long remaining = skip;
+		Stream<ExternalExaminerAction> actions = Stream.empty();
+		if (legacySnapshot != null) {
+			int from = (int) Math.min(remaining, legacySnapshot.size());
+			remaining -= from;
+			actions = legacySnapshot.subList(from, legacySnapshot.size()).stream();
+		}
+		try {
+			for (FrameReader segment : segments) {
+				remaining -= segment.skip(remaining);
+			}
+		} catch (IOException e) {
+			segments.forEach(FrameReader::closeQuietly);
+			throw e;
+		}
+		for (FrameReader segment : segments) {
+			actions = Stream.concat(actions, frames(segment));
+		}
+		return actions;
+	}
+
+	/**
+	 * Seals the active journal and merges it into the snapshot on the background
+	 * compactor thread. Appends continue against a fresh journal while the merge
+	 * runs. Does nothing if a compaction is already in progress, in this process
+	 * or another.
+	 */
+	public void compactAsync() {
+		lock.lock();
+		try {
+			if (compacting) {
+				return;
+			}
+			compacting = true;
+		} finally {
+			lock.unlock();
+		}
+		compactor.execute(() -> {
+			try {
+				compact();
+			} catch (IOException e) {
+				System.err.println("Error compacting action journal: " + e.getMessage());
+			} finally {
+				lock.lock();
+				compacting = false;
+				lock.unlock();
+			}
+		});
+	}
+
+	/**
+	 * Closes the active journal file once any running compaction has finished.
+	 */
+	public void close() {
+		// Wait without holding the lock, which the compaction needs to commit.
+		compactor.shutdown();
+		try {
+			if (!compactor.awaitTermination(1, TimeUnit.MINUTES)) {
+				System.err.println("Action journal compaction did not finish in time.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		lock.lock();
+		try {
+			if (journal != null) {
+				try {
+					journal.close();
+				} catch (IOException e) {
+					System.err.println("Error closing action journal: " + e.getMessage());
+				}
+				journal = null;
+			}
+			journalLock.close();
+			compactionLock.close();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the active journal, opening it if needed, or reopening it if another
+	 * process has sealed the file it had open. When the journal is opened its
+	 * frames are checked and a torn tail left by a crashed write is truncated, so
+	 * that appended frames follow the last intact one. Must be called while
+	 * holding the journal lock and the lock file.
+	 */
+	private FileChannel currentJournal() throws IOException {
+		if (journal != null && !Objects.equals(FileStamp.of(journalFile).fileKey(), journalKey)) {
+			// Frames appended but not yet synced moved with the sealed segment.
+			journal.force(false);
+			journal.close();
+			journal = null;
+		}
+		if (journal == null) {
+			FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			try {
+				truncateTornTail(channel, validLength(journalFile));
+				journalKey = FileStamp.of(journalFile).fileKey();
+			} catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+			journal = channel;
+		}
+		return journal;
+	}
+
+	private void truncateTornTail(FileChannel channel, long validLength) throws IOException {
+		if (validLength < channel.size()) {
+			System.err.println("Truncating torn tail of " + journalFile.getName() + " at byte " + validLength);
+			channel.truncate(validLength);
+		}
+	}
+
+	/**
+	 * Seals the active journal and merges it into the snapshot, holding the
+	 * compaction lock file throughout. Does nothing if another process is
+	 * compacting.
+	 */
+	private void compact() throws IOException {
+		if (!compactionLock.tryLock()) {
+			lock.lock();
+			framesSinceCompaction = 0;
+			lock.unlock();
+			return;
+		}
+		try {
+			lock.lock();
+			try {
+				journalLock.lock();
+				try {
+					recover();
+				} finally {
+					journalLock.unlock();
+				}
+			} finally {
+				lock.unlock();
+			}
+			if (sealedFile.exists()) {
+				// A previous merge never completed; finish it before sealing again.
+				mergeSealed();
+			}
+			if (seal()) {
+				mergeSealed();
+			}
+		} finally {
+			compactionLock.unlock();
+		}
+	}
+
+	/**
+	 * Moves the active journal aside so that it can be merged. Must be called while
+	 * holding the compaction lock file.
+	 *
+	 * @return true if there was anything to seal.
+	 */
+	private boolean seal() throws IOException {
+		lock.lock();
+		try {
+			journalLock.lock();
+			try {
+				if (journal != null) {
+					// Frames appended but not yet synced move with the sealed segment.
+					journal.force(false);
+					journal.close();
+					journal = null;
+				}
+				framesSinceCompaction = 0;
+				if (!journalFile.exists() || journalFile.length() == 0) {
+					return false;
+				}
+				Files.move(journalFile.toPath(), sealedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				return true;
+			} finally {
+				journalLock.unlock();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Merges the sealed segment into the snapshot. The new snapshot is written to a
+	 * temporary file by copying the frames of the current snapshot and the sealed
+	 * segment one at a time, and forced to disk. The sealed segment is then
+	 * renamed to mark it as merged, the snapshot is swapped in and the merged
+	 * segment is deleted last. Only the renames happen under the journal lock and
+	 * lock file, so a concurrent replay never sees the sealed segment and the new
+	 * snapshot at the same time. Must be called while holding the compaction lock
+	 * file.
+	 */
+	private void mergeSealed() throws IOException {
+		try (FileOutputStream file = new FileOutputStream(tempSnapshotFile);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, COPY_BUFFER_BYTES))) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			if (isLegacySnapshot()) {
+				for (ExternalExaminerAction action : readLegacySnapshot()) {
+					codec.beforeImport(action);
+					writeFrame(out, encode(action));
+				}
+			} else if (snapshotFile.exists() && snapshotFile.length() > SNAPSHOT_HEADER_BYTES) {
+				copyFrames(snapshotFrames(), out);
+			}
+			copyFrames(new FrameReader(sealedFile, 0, sealedFile.length()), out);
+			out.flush();
+			file.getFD().sync();
+		}
+		Metrics.bytesWritten(snapshotFile.getName()).add(tempSnapshotFile.length());
+		lock.lock();
+		try {
+			journalLock.lock();
+			try {
+				Files.move(sealedFile.toPath(), mergedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				Files.move(tempSnapshotFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+				Files.delete(mergedFile.toPath());
+			} finally {
+				journalLock.unlock();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Completes or rolls back a compaction that was interrupted by a crash. Does
+	 * nothing while this or another process is compacting, since the temporary
+	 * snapshot is then still being written. Must be called while holding the
+	 * journal lock and the lock file.
+	 */
+	private void recover() throws IOException {
+		if (!compactionLock.tryLock()) {
+			return;
+		}
+		try {
+			if (mergedFile.exists()) {
+				// The sealed segment is already part of the new snapshot.
+				if (tempSnapshotFile.exists()) {
+					Files.move(tempSnapshotFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+				Files.delete(mergedFile.toPath());
+			} else {
+				Files.deleteIfExists(tempSnapshotFile.toPath());
+			}
+		} finally {
+			compactionLock.unlock();
+		}
+	}
+
+	/**
+	 * Opens the snapshot as a stream of actions. A snapshot in the original
+	 * serialized list format is read whole; it is rewritten as frames by the next
+	 * compaction.
+	 */
+	private Stream<ExternalExaminerAction> readSnapshot() throws IOException {
+		if (!snapshotFile.exists() || snapshotFile.length() == 0) {
+			return Stream.empty();
+		}
+		if (isLegacySnapshot()) {
+			return readLegacySnapshot().stream();
+		}
+		return frames(snapshotFrames());
+	}
+
+	/**
+	 * Opens the frames of a snapshot written by {@link #mergeSealed()}, after
+	 * checking its header.
+	 */
+	private FrameReader snapshotFrames() throws IOException {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(snapshotFile))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+				throw new IOException("Unsupported action snapshot format in " + snapshotFile.getName());
+			}
+		} catch (EOFException e) {
+			throw new IOException("Truncated action snapshot " + snapshotFile.getName(), e);
+		}
+		return new FrameReader(snapshotFile, SNAPSHOT_HEADER_BYTES, snapshotFile.length());
+	}
+
+	private boolean isLegacySnapshot() throws IOException {
+		if (!snapshotFile.exists() || snapshotFile.length() < 2) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(new FileInputStream(snapshotFile))) {
+			return in.readUnsignedShort() == SERIALIZATION_MAGIC;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ExternalExaminerAction> readLegacySnapshot() throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+			Metrics.bytesRead(snapshotFile.getName()).add(snapshotFile.length());
+			return new ArrayList<>((List<ExternalExaminerAction>) in.readObject());
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Unreadable action snapshot " + snapshotFile.getName(), e);
+		}
+	}
+
+	/**
+	 * Reads every intact frame of a journal segment into the given list.
+	 *
+	 * @return The length of the valid prefix of the segment.
+	 */
+	private long readFrames(File segment, List<ExternalExaminerAction> actions) throws IOException {
+		if (!segment.exists()) {
+			return 0;
+		}
+		try (FrameReader frames = new FrameReader(segment, 0, segment.length())) {
+			byte[] payload;
+			while ((payload = frames.next()) != null) {
+				actions.add(decode(payload));
+			}
+			return frames.validLength();
+		}
+	}
+
+	/**
+	 * Checks every frame of a journal segment without decoding it.
+	 *
+	 * @return The length of the valid prefix of the segment.
+	 */
+	private static long validLength(File segment) throws IOException {
+		try (FrameReader frames = new FrameReader(segment, 0, segment.length())) {
+			while (frames.next() != null) {
+				// Only the checksums are needed.
+			}
+			return frames.validLength();
+		}
+	}
+
+	private static void copyFrames(FrameReader frames, DataOutputStream out) throws IOException {
+		try (frames) {
+			byte[] payload;
+			while ((payload = frames.next()) != null) {
+				writeFrame(out, payload);
+			}
+		}
+	}
+
+	private static void writeFrame(DataOutputStream out, byte[] payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		out.writeInt(payload.length);
+		out.writeInt((int) crc.getValue());
+		out.write(payload);
+	}
+
+	/**
+	 * Streams the actions decoded from a frame reader, closing the reader with
+	 * the stream.
+	 */
+	private Stream<ExternalExaminerAction> frames(FrameReader frames) {
+		Iterator<ExternalExaminerAction> iterator = new Iterator<>() {
+			private byte[] next = advance();
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public ExternalExaminerAction next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				try {
+					ExternalExaminerAction action = decode(next);
+					next = advance();
+					return action;
+				} catch (IOException e) {
+					throw new UncheckedIOException("Error reading " + frames.segment.getName(), e);
+				}
+			}
+
+			private byte[] advance() {
+				try {
+					return frames.next();
+				} catch (IOException e) {
+					throw new UncheckedIOException("Error reading " + frames.segment.getName(), e);
+				}
+			}
+		};
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(frames::closeQuietly);
+	}
+
+	private byte[] encode(ExternalExaminerAction action) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		codec.write(action, new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+
+	private ExternalExaminerAction decode(byte[] payload) throws IOException {
+		return codec.read(new DataInputStream(new ByteArrayInputStream(payload)));
+	}
+
+	/**
+	 * Reads the frames of one segment in order, up to a length fixed when the
+	 * reader is opened. Stops at the first incomplete or corrupt frame.
+	 */
+	private static final class FrameReader implements Closeable {
+		private final File segment;
+		private final DataInputStream in;
+		private final long limit;
+		private long position;
+		private long counted;
+
+		FrameReader(File segment, long start, long limit) throws IOException {
+			this.segment = segment;
+			this.limit = limit;
+			this.position = start;
+			this.counted = start;
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment), READ_BUFFER_BYTES));
+			try {
+				in.skipNBytes(start);
+			} catch (IOException e) {
+				in.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Reads and verifies the next frame.
+		 *
+		 * @return The frame's payload, or null at the end of the intact frames.
+		 */
+		byte[] next() throws IOException {
+			if (position + FRAME_HEADER_BYTES > limit) {
+				return null;
+			}
+			try {
+				int length = in.readInt();
+				int checksum = in.readInt();
+				if (length < 0 || length > MAX_FRAME_BYTES || position + FRAME_HEADER_BYTES + length > limit) {
+					return null;
+				}
+				byte[] payload = new byte[length];
+				in.readFully(payload);
+				CRC32 crc = new CRC32();
+				crc.update(payload);
+				if ((int) crc.getValue() != checksum) {
+					return null;
+				}
+				position += FRAME_HEADER_BYTES + length;
+				return payload;
+			} catch (EOFException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Skips frames without reading their payloads.
+		 *
+		 * @param count The largest number of frames to skip.
+		 * @return The number of frames skipped.
+		 */
+		long skip(long count) throws IOException {
+			long skipped = 0;
+			try {
+				while (skipped < count && position + FRAME_HEADER_BYTES <= limit) {
+					int length = in.readInt();
+					in.readInt();
+					if (length < 0 || length > MAX_FRAME_BYTES || position + FRAME_HEADER_BYTES + length > limit) {
+						break;
+					}
+					in.skipNBytes(length);
+					position += FRAME_HEADER_BYTES + length;
+					skipped++;
+				}
+			} catch (EOFException e) {
+				// The rest of the segment is a torn frame.
+			}
+			return skipped;
+		}
+
+		/**
+		 * Returns the offset just past the last intact frame read.
+		 *
+		 * @return The length of the valid prefix of the segment.
+		 */
+		long validLength() {
+			return position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			// Count what was read since the last close, so closing twice is harmless.
+			Metrics.bytesRead(segment.getName()).add(position - counted);
+			counted = position;
+			in.close();
+		}
+
+		void closeQuietly() {
+			try {
+				close();
+			} catch (IOException e) {
+				System.err.println("Error closing " + segment.getName() + ": " + e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package ie.atu.sw.model;
+
+/**
+ * Thrown when an external examiner action was committed to the action journal
+ * but could not then be applied to its examination paper. The action is
+ * durable and listed with every other action, so it must not be submitted
+ * again; only the paper is missing it.
+ */
+public class ActionNotAppliedException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the exception.
+	 *
+	 * @param paperId The ID of the paper the action was not applied to.
+	 * @param cause   Why the paper could not be saved.
+	 */
+	public ActionNotAppliedException(String paperId, Throwable cause) {
+		super("Action committed to the journal but not applied to paper " + paperId + ": " + cause.getMessage(),
+				cause);
+	}
+}
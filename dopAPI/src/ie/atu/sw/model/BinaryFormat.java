@@ -0,0 +1,130 @@
+package ie.atu.sw.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitive encodings shared by the hand-written record codecs: unsigned
+ * variable-length integers and nullable, length-prefixed UTF-8 strings.
+ *
+ * <p>
+ * Every top-level record written by a binary codec starts with a format
+ * version byte. Records written by {@link SerializedRecordCodec} start with the
+ * high byte of their length, which is 0 for any realistic record, so a leading
+ * 0 identifies a record written before the binary codecs existed and lets it
+ * be read through the serialization codec instead.
+ */
+public class BinaryFormat {
+	/**
+	 * First byte of a record written by {@link SerializedRecordCodec}.
+	 */
+	public static final int SERIALIZED_RECORD = 0;
+
+	private BinaryFormat() {
+	}
+
+	/**
+	 * Writes an unsigned variable-length integer, 7 bits per byte.
+	 *
+	 * @param out   The output to write to.
+	 * @param value The non-negative value to write.
+	 * @throws IOException If the value cannot be written.
+	 */
+	public static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Reads an unsigned variable-length integer.
+	 *
+	 * @param in The input to read from.
+	 * @return The value read.
+	 * @throws IOException If the value cannot be read or is malformed.
+	 */
+	public static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	/**
+	 * Writes a nullable string as its UTF-8 byte length plus one (0 for null)
+	 * followed by the bytes.
+	 *
+	 * @param out   The output to write to.
+	 * @param value The string to write, or null.
+	 * @throws IOException If the string cannot be written.
+	 */
+	public static void writeString(DataOutput out, String value) throws IOException {
+		if (value == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length + 1);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeString(DataOutput, String)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The string read, or null.
+	 * @throws IOException If the string cannot be read.
+	 */
+	public static String readString(DataInput in) throws IOException {
+		int length = readVarInt(in);
+		if (length == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length - 1];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeString(DataOutput, String)} and
+	 * returns its {@link StringTable} instance. Only for fields with few distinct
+	 * values, such as module codes and examiner details.
+	 *
+	 * @param in The input to read from.
+	 * @return The canonical string read, or null.
+	 * @throws IOException If the string cannot be read.
+	 */
+	public static String readCanonicalString(DataInput in) throws IOException {
+		return StringTable.canonical(readString(in));
+	}
+
+	/**
+	 * Reads the remainder of a record written by {@link SerializedRecordCodec},
+	 * whose first byte has already been consumed as the version byte.
+	 *
+	 * @param <V> The type of the record.
+	 * @param in  The input positioned after the first byte.
+	 * @return The deserialized record.
+	 * @throws IOException If the record cannot be read.
+	 */
+	public static <V> V readSerialized(DataInput in) throws IOException {
+		int length = (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+		byte[] bytes = new byte[length + 4];
+		bytes[1] = (byte) (length >>> 16);
+		bytes[2] = (byte) (length >>> 8);
+		bytes[3] = (byte) length;
+		in.readFully(bytes, 4, length);
+		return new SerializedRecordCodec<V>().read(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+}
@@ -0,0 +1,72 @@
+package ie.atu.sw.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Storage engine that keeps every repository in an append-only binary record
+ * log ({@code <name>.db}). Writing a record appends only that record and
+ * reading one record is a single positional read, so the cost of an operation
+ * does not grow with the size of the repository. Existing {@code <name>.dat}
+ * list files are imported the first time a repository is opened. Papers refer
+ * to their questions, which are stored once in the {@link QuestionBank}, and
+ * modules and actions refer to their examiners through the
+ * {@link ExaminerRegistry}.
+ */
+public class BinaryStorageEngine implements StorageEngine {
+	private final Map<String, LogRepository<?>> repositories = new ConcurrentHashMap<>();
+	private volatile QuestionBank questionBank;
+	private volatile ExaminerRegistry examinerRegistry;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <V> Repository<V> open(String name, RecordCodec<V> codec, Function<? super V, String> keyFunction) {
+		return (Repository<V>) repositories.computeIfAbsent(name, n -> new LogRepository<>(Storage.file(n + ".db"),
+				Storage.file(n + ".dat"), codec, keyFunction));
+	}
+
+	@Override
+	public Map<String, Repository<?>> openRepositories() {
+		return new HashMap<>(repositories);
+	}
+
+	@Override
+	public QuestionBank questionBank() {
+		QuestionBank bank = questionBank;
+		if (bank == null) {
+			synchronized (this) {
+				if (questionBank == null) {
+					questionBank = new QuestionBank(open(QUESTIONS, RecordCodecs.questions(), QuestionBank::questionId));
+				}
+				bank = questionBank;
+			}
+		}
+		return bank;
+	}
+
+	@Override
+	public ExaminerRegistry examinerRegistry() {
+		ExaminerRegistry registry = examinerRegistry;
+		if (registry == null) {
+			synchronized (this) {
+				if (examinerRegistry == null) {
+					examinerRegistry = new ExaminerRegistry(examiners(), examinerAliases(), true);
+				}
+				registry = examinerRegistry;
+			}
+		}
+		return registry;
+	}
+
+	@Override
+	public void close() {
+		for (LogRepository<?> repository : repositories.values()) {
+			repository.close();
+		}
+		repositories.clear();
+		questionBank = null;
+		examinerRegistry = null;
+	}
+}
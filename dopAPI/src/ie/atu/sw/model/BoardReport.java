@@ -0,0 +1,25 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The board-level report of the examination papers: approval and rejection
+ * rates and registrations covered per school, department and programme, and
+ * the papers each external examiner is responsible for. Built by the
+ * {@link ReportEngine}.
+ *
+ * @param bySchool           One row per {@link ModuleInfo#school()}, sorted by
+ *                           school.
+ * @param byDepartment       One row per {@link ModuleInfo#department()}, sorted
+ *                           by department.
+ * @param byProgram          One row per {@link ModuleInfo#programCode()}, sorted
+ *                           by programme code.
+ * @param byExternalExaminer One row per external examiner ID, see
+ *                           {@link ExaminerUtil#examinerId}, sorted by ID.
+ * @param totals             The row of every module together.
+ */
+public record BoardReport(List<ReportRow> bySchool, List<ReportRow> byDepartment, List<ReportRow> byProgram,
+		List<ReportRow> byExternalExaminer, ReportRow totals) implements Serializable {
+	private static final long serialVersionUID = 1L;
+}
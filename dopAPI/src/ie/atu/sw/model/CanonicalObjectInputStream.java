@@ -0,0 +1,64 @@
+package ie.atu.sw.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+
+/**
+ * Object input stream that replaces the repeated fields of the model records it
+ * reads with their {@link StringTable} instances. Serialization gives every
+ * record its own copy of each string, so without this a list of modules holds
+ * one copy of its school's name per module.
+ *
+ * <p>
+ * Modules, examiners, papers and external examiner actions are rebuilt with
+ * canonical module codes, programme details, schools, departments,
+ * institutions, examiner names and allowances. Titles, comments, e-mail
+ * addresses and everything else are kept as they were read.
+ */
+final class CanonicalObjectInputStream extends ObjectInputStream {
+	/**
+	 * Creates a stream reading serialized objects from an input stream.
+	 *
+	 * @param in The input stream to read from.
+	 * @throws IOException If the stream header cannot be read.
+	 */
+	CanonicalObjectInputStream(InputStream in) throws IOException {
+		super(in);
+		enableResolveObject(true);
+	}
+
+	@Override
+	protected Object resolveObject(Object obj) {
+		if (obj instanceof ModuleInfo m) {
+			return new ModuleInfo(canonical(m.moduleCode()), m.moduleTitle(), m.registrations(),
+					canonical(m.programCode()), canonical(m.programTitle()), m.year(), canonical(m.school()),
+					canonical(m.department()), m.internalExaminer(), m.externalExaminer());
+		}
+		if (obj instanceof InternalExaminer e) {
+			return new InternalExaminer(canonical(e.name()), e.type(), canonical(e.department()),
+					canonical(e.school()), e.email(), e.crn());
+		}
+		if (obj instanceof ExternalExaminer e) {
+			return new ExternalExaminer(canonical(e.name()), e.type(), canonical(e.department()),
+					canonical(e.institution()));
+		}
+		if (obj instanceof ExaminationPaper p) {
+			return new ExaminationPaper(p.paperId(), canonical(p.moduleCode()), canonical(p.allowLogTables()),
+					canonical(p.allowActuarialTables()), canonical(p.allowStatisticalTables()),
+					canonical(p.allowGraphPaper()), canonical(p.allowDictionaries()),
+					canonical(p.allowAttachedAnswerSheet()), canonical(p.allowThermodynamicTables()),
+					canonical(p.allowNonProgrammableCalculators()), canonical(p.allowRateTables()),
+					p.totalQuestions(), p.requiredAnswers(), p.questions(), p.actions());
+		}
+		if (obj instanceof ExternalExaminerAction a) {
+			return new ExternalExaminerAction(canonical(a.getModuleCode()), a.getExaminer(), a.getComment(),
+					a.getAction(), a.getPaperId());
+		}
+		return obj;
+	}
+
+	private static String canonical(String value) {
+		return StringTable.canonical(value);
+	}
+}
@@ -0,0 +1,133 @@
+package ie.atu.sw.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the data directory for files created, changed or deleted, and
+ * reports which repositories they belong to. Several instances of the
+ * application can then share one data directory: each instance refreshes
+ * only the repositories and caches whose files another instance changed, and
+ * keeps everything else warm.
+ *
+ * <p>
+ * A writer touches a file several times in a row, so events are collected
+ * until none arrives for {@value #SETTLE_MILLIS} ms, or for at most
+ * {@value #MAX_BATCH_MILLIS} ms, and the repositories are then reported
+ * together from a daemon thread. The events of this process's own writes are
+ * reported too; the repositories tell them apart by the size and modification
+ * time of their files. If the watch service loses events, every repository with
+ * a file in the directory is reported.
+ */
+public class DataDirectoryWatcher implements AutoCloseable {
+	private static final long SETTLE_MILLIS = 50;
+	private static final long MAX_BATCH_MILLIS = 500;
+
+	private final Path directory;
+	private final WatchService watchService;
+	private final Consumer<Set<String>> listener;
+
+	/**
+	 * Starts watching a directory.
+	 *
+	 * @param directory The data directory.
+	 * @param listener  Receives the names of the repositories whose files
+	 *                  changed.
+	 * @throws IOException If the directory cannot be watched.
+	 */
+	public DataDirectoryWatcher(File directory, Consumer<Set<String>> listener) throws IOException {
+		this.directory = directory.toPath();
+		this.listener = listener;
+		this.watchService = this.directory.getFileSystem().newWatchService();
+		this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		Thread thread = new Thread(this::run, "data-directory-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Returns the repository a data file belongs to: the file name without its
+	 * {@code .db} or {@code .dat} extension. Index snapshots and temporary files
+	 * belong to none.
+	 *
+	 * @param fileName The name of the file, without its directory.
+	 * @return The repository name, or null if the file is not a repository file.
+	 */
+	public static String repositoryName(String fileName) {
+		if (fileName.endsWith(".db")) {
+			return fileName.substring(0, fileName.length() - ".db".length());
+		}
+		if (fileName.endsWith(".dat")) {
+			return fileName.substring(0, fileName.length() - ".dat".length());
+		}
+		return null;
+	}
+
+	/**
+	 * Stops watching the directory.
+	 */
+	@Override
+	public void close() {
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			System.err.println("Error closing the watch on " + directory + ": " + e.getMessage());
+		}
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				Set<String> changed = new LinkedHashSet<>();
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BATCH_MILLIS);
+				do {
+					collect(key, changed);
+					key.reset();
+				} while (System.nanoTime() < deadline
+						&& (key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+				if (changed.isEmpty()) {
+					continue;
+				}
+				try {
+					listener.accept(changed);
+				} catch (RuntimeException e) {
+					System.err.println("Error refreshing " + changed + ": " + e.getMessage());
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// The watch was closed.
+		}
+	}
+
+	private void collect(WatchKey key, Set<String> changed) {
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				String[] fileNames = directory.toFile().list();
+				for (String fileName : fileNames == null ? new String[0] : fileNames) {
+					addRepository(fileName, changed);
+				}
+			} else {
+				addRepository(event.context().toString(), changed);
+			}
+		}
+	}
+
+	private static void addRepository(String fileName, Set<String> changed) {
+		String name = repositoryName(fileName);
+		if (name != null) {
+			changed.add(name);
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+
+/**
+ * A pair of near-duplicate questions in two examination papers, as found by
+ * the {@link QuestionSimilarityIndex}. The question is the one in the paper
+ * added later; the duplicate is the one it resembles in an earlier paper.
+ *
+ * @param paperId             The paper holding the question.
+ * @param moduleCode          The module of that paper.
+ * @param question            The number of the question in its paper, from 1.
+ * @param duplicatePaperId    The earlier paper holding the duplicate.
+ * @param duplicateModuleCode The module of the earlier paper.
+ * @param duplicateQuestion   The number of the duplicate in its paper, from 1.
+ * @param similarity          The estimated Jaccard similarity of the two
+ *                            questions' word shingles, from 0 to 1.
+ */
+public record DuplicateQuestion(String paperId, String moduleCode, int question, String duplicatePaperId,
+		String duplicateModuleCode, int duplicateQuestion, double similarity) implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String toString() {
+		return String.format("Question %d of %s (%s) is %.0f%% similar to question %d of %s (%s)", question, paperId,
+				moduleCode, similarity * 100, duplicateQuestion, duplicatePaperId, duplicateModuleCode);
+	}
+}
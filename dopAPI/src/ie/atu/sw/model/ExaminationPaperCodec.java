@@ -0,0 +1,139 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary {@link RecordCodec} for {@link ExaminationPaper}. A record is a
+ * version byte followed by the paper ID, module code, the nine allowances
+ * packed into one bitmask, the question counts, the questions and the
+ * external examiner actions.
+ *
+ * <p>
+ * Each question is written as a reference into the {@link QuestionBank}, which
+ * stores it once however many papers use it, and the examiner of each action
+ * as a reference into the {@link ExaminerRegistry}. Records of version 2, which
+ * embed the examiner of every action, and of version 1, which also embed every
+ * question, are still read.
+ *
+ * <p>
+ * Allowances are stored as a single bit each: set for {@code "Yes"} and clear
+ * for anything else, and decoded back to {@code "Yes"} or {@code "No"}.
+ */
+public class ExaminationPaperCodec implements RecordCodec<ExaminationPaper> {
+	/**
+	 * Current format version.
+	 */
+	public static final int VERSION = 3;
+
+	private static final int EMBEDDED_EXAMINERS_VERSION = 2;
+	private static final int EMBEDDED_QUESTIONS_VERSION = 1;
+	private static final String YES = "Yes";
+	private static final String NO = "No";
+
+	private final QuestionBank questionBank;
+	private final ExternalExaminerActionCodec actionCodec;
+
+	/**
+	 * Creates a codec that stores the questions of papers in a question bank and
+	 * refers to the examiners of their actions by ID.
+	 *
+	 * @param questionBank     The bank holding the questions the records refer to.
+	 * @param examinerRegistry The registry holding the examiners the records
+	 *                         refer to.
+	 */
+	public ExaminationPaperCodec(QuestionBank questionBank, ExaminerRegistry examinerRegistry) {
+		this.questionBank = questionBank;
+		this.actionCodec = new ExternalExaminerActionCodec(() -> examinerRegistry);
+	}
+
+	@Override
+	public void write(ExaminationPaper paper, DataOutput out) throws IOException {
+		out.writeByte(VERSION);
+		BinaryFormat.writeString(out, paper.paperId());
+		BinaryFormat.writeString(out, paper.moduleCode());
+		out.writeShort(allowanceBits(paper));
+		BinaryFormat.writeVarInt(out, paper.totalQuestions());
+		BinaryFormat.writeVarInt(out, paper.requiredAnswers());
+
+		BinaryFormat.writeVarInt(out, paper.questions().size());
+		for (Question question : paper.questions()) {
+			questionBank.writeReference(question, out);
+		}
+		BinaryFormat.writeVarInt(out, paper.actions().size());
+		for (ExternalExaminerAction action : paper.actions()) {
+			actionCodec.writeFields(action, out);
+		}
+	}
+
+	@Override
+	public void beforeImport(ExaminationPaper paper) {
+		for (ExternalExaminerAction action : paper.actions()) {
+			actionCodec.beforeImport(action);
+		}
+	}
+
+	@Override
+	public ExaminationPaper read(DataInput in) throws IOException {
+		int version = in.readUnsignedByte();
+		if (version == BinaryFormat.SERIALIZED_RECORD) {
+			return BinaryFormat.readSerialized(in);
+		}
+		if (version != VERSION && version != EMBEDDED_EXAMINERS_VERSION && version != EMBEDDED_QUESTIONS_VERSION) {
+			throw new IOException("Unsupported examination paper format version " + version);
+		}
+
+		String paperId = BinaryFormat.readString(in);
+		String moduleCode = BinaryFormat.readCanonicalString(in);
+		int allowances = in.readUnsignedShort();
+		int totalQuestions = BinaryFormat.readVarInt(in);
+		int requiredAnswers = BinaryFormat.readVarInt(in);
+
+		int questionCount = BinaryFormat.readVarInt(in);
+		List<Question> questions = new ArrayList<>(questionCount);
+		for (int i = 0; i < questionCount; i++) {
+			questions.add(version == EMBEDDED_QUESTIONS_VERSION ? QuestionCodec.readFields(in)
+					: questionBank.readReference(in));
+		}
+		int actionCount = BinaryFormat.readVarInt(in);
+		List<ExternalExaminerAction> actions = new ArrayList<>(actionCount);
+		int actionVersion = version == VERSION ? ExternalExaminerActionCodec.VERSION
+				: ExternalExaminerActionCodec.EMBEDDED_EXAMINER_VERSION;
+		for (int i = 0; i < actionCount; i++) {
+			actions.add(actionCodec.readFields(in, actionVersion));
+		}
+
+		return new ExaminationPaper(paperId, moduleCode, allowance(allowances, 0), allowance(allowances, 1),
+				allowance(allowances, 2), allowance(allowances, 3), allowance(allowances, 4), allowance(allowances, 5),
+				allowance(allowances, 6), allowance(allowances, 7), allowance(allowances, 8), totalQuestions,
+				requiredAnswers, questions, actions);
+	}
+
+	/**
+	 * Packs the nine allowances of a paper into a bitmask, in declaration order
+	 * starting at bit 0.
+	 *
+	 * @param paper The paper.
+	 * @return The allowance bitmask.
+	 */
+	public static int allowanceBits(ExaminationPaper paper) {
+		String[] allowances = { paper.allowLogTables(), paper.allowActuarialTables(),
+				paper.allowStatisticalTables(), paper.allowGraphPaper(), paper.allowDictionaries(),
+				paper.allowAttachedAnswerSheet(), paper.allowThermodynamicTables(),
+				paper.allowNonProgrammableCalculators(), paper.allowRateTables() };
+		int bits = 0;
+		for (int i = 0; i < allowances.length; i++) {
+			if (YES.equals(allowances[i])) {
+				bits |= 1 << i;
+			}
+		}
+		return bits;
+	}
+
+	private static String allowance(int bits, int index) {
+		return (bits & (1 << index)) != 0 ? YES : NO;
+	}
+}
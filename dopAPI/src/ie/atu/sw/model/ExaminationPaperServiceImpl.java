@@ -1,15 +1,22 @@
 package ie.atu.sw.model;
 
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
+import ie.atu.sw.enums.PaperStatus;
 import ie.atu.sw.services.ExaminationPaperService;
 
 /**
@@ -20,9 +27,30 @@ import ie.atu.sw.services.ExaminationPaperService;
 
 public class ExaminationPaperServiceImpl implements ExaminationPaperService, Serializable {
 	private static final long serialVersionUID = 1L;
+	private static final LongAdder addExaminationPaperCalls = Metrics.calls("addExaminationPaper");
 
-	private final Scanner scanner = new Scanner(System.in);
-	private final Map<String, ExaminationPaper> papers = new HashMap<>();
+	private static final int STREAM_PAGE_SIZE = 256;
+	private static final int LISTING_BUFFER_CHARS = 64 * 1024;
+	private static final int SEARCH_RESULTS = 20;
+
+	private final Scanner scanner;
+	private final Map<String, ExaminationPaper> papers = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs the service reading user input from standard input.
+	 */
+	public ExaminationPaperServiceImpl() {
+		this(new Scanner(System.in));
+	}
+
+	/**
+	 * Constructs the service reading user input from the given scanner.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 */
+	public ExaminationPaperServiceImpl(Scanner scanner) {
+		this.scanner = scanner;
+	}
 
 	/**
      * Adds a new examination paper based on user inputs.
@@ -31,8 +59,6 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
      */
 	@Override
 	public void addExaminationPaper() {
-		int reqAnswers = Rules.DEFAULT_REQUIRED_ANSWERS;
-		String paperId = UUID.randomUUID().toString();
 		List<ModuleInfo> moduleInfoList = ModuleInfoFileHandler.loadModuleInfo();
 
 		if (moduleInfoList.isEmpty()) {
@@ -46,15 +72,15 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
 			return;
 		}
 
-		String allowLogTables = getUserChoice("Allow Log Tables");
-		String allowActuarialTables = getUserChoice("Allow Actuarial Tables");
-		String allowStatisticalTables = getUserChoice("Allow Statistical Tables");
-		String allowGraphPaper = getUserChoice("Allow Graph Paper");
-		String allowDictionaries = getUserChoice("Allow Dictionaries");
-		String allowAttachedAnswerSheet = getUserChoice("Allow Attached Answer Sheet");
-		String allowThermodynamicTables = getUserChoice("Allow Thermodynamic Tables");
-		String allowCalculators = getUserChoice("Allow Non-Programmable Calculators");
-		String allowRateTables = getUserChoice("Allow Rate Tables");
+		boolean allowLogTables = getUserChoice("Allow Log Tables");
+		boolean allowActuarialTables = getUserChoice("Allow Actuarial Tables");
+		boolean allowStatisticalTables = getUserChoice("Allow Statistical Tables");
+		boolean allowGraphPaper = getUserChoice("Allow Graph Paper");
+		boolean allowDictionaries = getUserChoice("Allow Dictionaries");
+		boolean allowAttachedAnswerSheet = getUserChoice("Allow Attached Answer Sheet");
+		boolean allowThermodynamicTables = getUserChoice("Allow Thermodynamic Tables");
+		boolean allowCalculators = getUserChoice("Allow Non-Programmable Calculators");
+		boolean allowRateTables = getUserChoice("Allow Rate Tables");
 
 		List<Question> questions = new ArrayList<>();
 		int totalMarksAllocated = 0;
@@ -78,19 +104,95 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
 			}
 		}
 
-		if (totalMarksAllocated != Rules.DEFAULT_TOTAL_MARKS) {
-			System.out.println("Error: Total marks for all questions must add up to " + Rules.DEFAULT_TOTAL_MARKS);
-			return;
+		try {
+			ExaminationPaper paper = addExaminationPaper(new PaperSpec(selectedModule.moduleCode(), allowLogTables, allowActuarialTables,
+					allowStatisticalTables, allowGraphPaper, allowDictionaries, allowAttachedAnswerSheet,
+					allowThermodynamicTables, allowCalculators, allowRateTables, questions));
+			System.out.println("\t\nExamination paper added successfully.");
+			for (DuplicateQuestion duplicate : findDuplicateQuestions(paper.paperId())) {
+				System.out.println("\tWarning: " + duplicate);
+			}
+		} catch (IllegalArgumentException e) {
+			System.out.println("Error: " + e.getMessage());
+		} catch (UncheckedIOException e) {
+			System.err.println("Error saving examination paper for module " + selectedModule.moduleCode() + ": "
+					+ e.getMessage());
 		}
+	}
 
-		ExaminationPaper paper = new ExaminationPaper(paperId, selectedModule.moduleCode(), allowLogTables,
-				allowActuarialTables, allowStatisticalTables, allowGraphPaper, allowDictionaries,
-				allowAttachedAnswerSheet, allowThermodynamicTables, allowCalculators, allowRateTables, questions.size(),
-				reqAnswers, questions, new ArrayList<>());
+	/**
+	 * Adds a new examination paper without user interaction. The paper gets a new
+	 * random ID and the default number of required answers.
+	 *
+	 * @param spec The module, allowances and questions of the paper.
+	 * @return The stored ExaminationPaper.
+	 * @throws IllegalArgumentException If the module does not exist or the
+	 *                                  questions break the examination rules:
+	 *                                  each question needs a text, between
+	 *                                  {@value Rules#DEFAULT_MIN_PARTS} and
+	 *                                  {@value Rules#DEFAULT_MAX_PARTS}
+	 *                                  non-blank parts and at least one mark.
+	 * @throws UncheckedIOException     If the paper could not be stored.
+	 */
+	@Override
+	public ExaminationPaper addExaminationPaper(PaperSpec spec) {
+		addExaminationPaperCalls.increment();
+		if (spec.moduleCode() == null || Storage.engine().modules().get(spec.moduleCode()) == null) {
+			throw new IllegalArgumentException("Module " + spec.moduleCode() + " does not exist.");
+		}
+		List<Question> questions = spec.questions();
+		if (questions == null || questions.isEmpty() || questions.size() > Rules.DEFAULT_MAX_QUESTIONS) {
+			throw new IllegalArgumentException(
+					"An examination paper must have between 1 and " + Rules.DEFAULT_MAX_QUESTIONS + " questions.");
+		}
+		int totalMarks = 0;
+		for (int i = 0; i < questions.size(); i++) {
+			validateQuestion(i + 1, questions.get(i));
+			totalMarks += questions.get(i).marks();
+		}
+		if (totalMarks != Rules.DEFAULT_TOTAL_MARKS) {
+			throw new IllegalArgumentException(
+					"Total marks for all questions must add up to " + Rules.DEFAULT_TOTAL_MARKS);
+		}
 
+		String paperId = UUID.randomUUID().toString();
+		ExaminationPaper paper = new ExaminationPaper(paperId, spec.moduleCode(), yesNo(spec.allowLogTables()),
+				yesNo(spec.allowActuarialTables()), yesNo(spec.allowStatisticalTables()),
+				yesNo(spec.allowGraphPaper()), yesNo(spec.allowDictionaries()),
+				yesNo(spec.allowAttachedAnswerSheet()), yesNo(spec.allowThermodynamicTables()),
+				yesNo(spec.allowNonProgrammableCalculators()), yesNo(spec.allowRateTables()), questions.size(),
+				Rules.DEFAULT_REQUIRED_ANSWERS, new ArrayList<>(questions), new ArrayList<>());
+
+		saveExaminationPaperToFile(spec.moduleCode(), paper);
 		papers.put(paperId, paper);
-		saveExaminationPaperToFile(selectedModule.moduleCode(), paper);
-		System.out.println("\t\nExamination paper added successfully.");
+		return paper;
+	}
+
+	private static void validateQuestion(int number, Question question) {
+		if (question == null) {
+			throw new IllegalArgumentException("Question " + number + " is missing.");
+		}
+		if (question.questionText() == null || question.questionText().isBlank()) {
+			throw new IllegalArgumentException("Question " + number + " must have a text.");
+		}
+		List<String> parts = question.parts();
+		if (parts == null || parts.size() < Rules.DEFAULT_MIN_PARTS || parts.size() > Rules.DEFAULT_MAX_PARTS) {
+			throw new IllegalArgumentException("Question " + number + " must have between "
+					+ Rules.DEFAULT_MIN_PARTS + " and " + Rules.DEFAULT_MAX_PARTS + " parts.");
+		}
+		for (String part : parts) {
+			if (part == null || part.isBlank()) {
+				throw new IllegalArgumentException("Question " + number + " has a blank part.");
+			}
+		}
+		if (question.marks() < 1 || question.marks() > Rules.DEFAULT_TOTAL_MARKS) {
+			throw new IllegalArgumentException(
+					"Question " + number + " must be worth between 1 and " + Rules.DEFAULT_TOTAL_MARKS + " marks.");
+		}
+	}
+
+	private static String yesNo(boolean allowed) {
+		return allowed ? "Yes" : "No";
 	}
 
 	private int getMarksForQuestion(int remainingMarks) {
@@ -148,41 +250,31 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
 	}
 
 	 /**
-     * Prompts the user with the given question and returns 'Yes' or 'No' based on the input.
-     * Only accepts 'Y' or 'N' as valid inputs and keeps prompting until valid input is received.
+     * Prompts the user with the given question and returns whether the answer was 'Y'.
+     * Any other input counts as 'N'.
      *
      * @param prompt The question to be asked from the user.
-     * @return 'Yes' if the user inputs 'Y', 'No' if the user inputs 'N'.
+     * @return true if the user inputs 'Y', false otherwise.
      */
-	private String getUserChoice(String prompt) {
+	private boolean getUserChoice(String prompt) {
 		System.out.println(prompt + " (Y/N): ");
 		String input = scanner.nextLine().trim();
-		return "Y".equalsIgnoreCase(input) ? "Yes" : "No";
+		return "Y".equalsIgnoreCase(input);
 	}
 
 	private void saveExaminationPaperToFile(String moduleCode, ExaminationPaper paper) {
-		String fileName = moduleCode + "_examination_papers.dat";
-		List<ExaminationPaper> papersList;
-
+		WorkflowEvent event = new WorkflowEvent();
+		event.begin();
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+		lock.lock();
 		try {
-			File file = new File(fileName);
-
-			if (!file.exists()) {
-				file.createNewFile();
-				papersList = new ArrayList<>();
-			} else {
-				papersList = FileUtil.loadFromFile(fileName);
-				if (papersList == null) {
-					papersList = new ArrayList<>();
-				}
-			}
-		} catch (Exception e) {
-			papersList = new ArrayList<>();
+			Storage.paperIndex().save(paper);
+			Storage.questionSearchIndex().paperAdded(paper);
+			Storage.questionSimilarityIndex().paperAdded(paper);
+		} finally {
+			lock.unlock();
+			event.finish("saveExaminationPaper", moduleCode, paper.paperId(), 1);
 		}
-
-		papersList.add(paper);
-
-		FileUtil.saveToFile(fileName, papersList);
 	}
 
 	@Override
@@ -190,16 +282,122 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
 		return papers.get(moduleCode);
 	}
 
+	@Override
+	public ExaminationPaper findExaminationPaper(String paperId) {
+		return Storage.paperIndex().find(paperId);
+	}
+
+	/**
+	 * Retrieves the examination papers of one module through the
+	 * {@link PaperCache}, so that only the first call for a module reads its
+	 * repository.
+	 *
+	 * @param moduleCode The code of the module.
+	 * @return A new list of the module's ExaminationPaper objects.
+	 */
+	@Override
+	public List<ExaminationPaper> getExaminationPapers(String moduleCode) {
+		return Storage.paperCache().papers(moduleCode);
+	}
+
+	/**
+	 * Retrieves the headers of one module's examination papers. Only the header
+	 * repository is read; no paper is loaded.
+	 *
+	 * @param moduleCode The code of the module.
+	 * @return A list of the module's PaperHeader objects.
+	 */
+	@Override
+	public List<PaperHeader> getPaperHeaders(String moduleCode) {
+		return Storage.paperIndex().headers(moduleCode);
+	}
+
+	/**
+	 * Retrieves one page of the headers of a module's examination papers. Only the
+	 * headers on the page are read.
+	 *
+	 * @param moduleCode The code of the module.
+	 * @param cursor     The cursor of the page, or null for the first page.
+	 * @param limit      The largest number of headers on the page.
+	 * @return The page.
+	 * @throws IllegalArgumentException If the cursor or limit is invalid.
+	 */
+	@Override
+	public Page<PaperHeader> getPaperHeaders(String moduleCode, String cursor, int limit) {
+		long position = Page.position(cursor);
+		Page.checkLimit(limit);
+		return Page.of(Storage.paperIndex().headers(moduleCode, position, limit + 1), position, limit);
+	}
+
+	/**
+	 * Retrieves the status view of an examination paper. The view is maintained
+	 * as actions are recorded, so the paper's actions are not read.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return The paper's status view, or null if there is no such paper.
+	 */
+	@Override
+	public PaperStatusView getPaperStatus(String paperId) {
+		return Storage.paperStatusIndex().view(paperId);
+	}
+
+	/**
+	 * Retrieves one page of the status views of the papers in a status. Only the
+	 * repository of that status is read.
+	 *
+	 * @param status The status.
+	 * @param cursor The cursor of the page, or null for the first page.
+	 * @param limit  The largest number of views on the page.
+	 * @return The page.
+	 * @throws IllegalArgumentException If the cursor or limit is invalid.
+	 */
+	@Override
+	public Page<PaperStatusView> getPapersByStatus(PaperStatus status, String cursor, int limit) {
+		long position = Page.position(cursor);
+		Page.checkLimit(limit);
+		return Page.of(Storage.paperStatusIndex().papersWith(status, position, limit + 1), position, limit);
+	}
+
+	/**
+	 * Streams every stored examination paper, module by module. Papers are read
+	 * one page at a time, so only a page of papers is held in memory.
+	 *
+	 * @return A stream of all ExaminationPaper objects.
+	 */
+	@Override
+	public Stream<ExaminationPaper> streamExaminationPapers() {
+		return ModuleInfoFileHandler.loadModuleInfo().stream().map(ModuleInfo::moduleCode)
+				.flatMap(moduleCode -> Page.<ExaminationPaper>stream((cursor, limit) -> {
+					long position = Page.position(cursor);
+					List<ExaminationPaper> page = Storage.engine().papers(moduleCode).values(position, limit + 1);
+					return Page.of(page, position, limit);
+				}, STREAM_PAGE_SIZE));
+	}
+
 	@Override
 	public void updateExaminationPaper(String moduleCode, ExaminationPaper paper) {
 		papers.put(moduleCode, paper);
 	}
 
+	/**
+	 * Retrieves every stored examination paper, module by module.
+	 *
+	 * @return A list of all ExaminationPaper objects.
+	 */
 	@Override
 	public List<ExaminationPaper> getAllExaminationPapers() {
-		return new ArrayList<>(papers.values());
+		List<ExaminationPaper> allPapers = new ArrayList<>();
+		for (ModuleInfo module : ModuleInfoFileHandler.loadModuleInfo()) {
+			allPapers.addAll(getExaminationPapers(module.moduleCode()));
+		}
+		return allPapers;
 	}
 
+	/**
+	 * Lists the examination papers of the modules the user enters, one line per
+	 * paper from its header, so that no questions or actions are loaded. Headers
+	 * are read a page at a time and rendered through one buffered writer.
+	 */
 	@Override
 	public void listAllExaminationPapers() {
 		while (true) {
@@ -212,28 +410,150 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
 			}
 
 			String moduleCode = input;
-			String fileName = moduleCode + "_examination_papers.dat";
-
-			File file = new File(fileName);
-			if (!file.exists()) {
-				System.out.println("\tNo examination papers found for module " + moduleCode
-						+ ". Choose Option 5 to Add Examination Paper." + "\n");
-				continue;
-			}
 
+			PrintWriter out = new PrintWriter(
+					new BufferedWriter(new OutputStreamWriter(System.out), LISTING_BUFFER_CHARS));
 			try {
-				List<ExaminationPaper> papersList = FileUtil.loadFromFile(fileName);
-				if (papersList != null && !papersList.isEmpty()) {
-					for (ExaminationPaper paper : papersList) {
-						System.out.println(paper);
+				Page<PaperHeader> page = getPaperHeaders(moduleCode, null, STREAM_PAGE_SIZE);
+				if (page.items().isEmpty()) {
+					out.println("\tNo examination papers found for module " + moduleCode
+							+ ". Choose Option 5 to Add Examination Paper." + "\n");
+				}
+				while (true) {
+					page.items().forEach(out::println);
+					if (page.nextCursor() == null) {
+						break;
 					}
-				} else {
-					System.out.println("\tNo examination papers available for module " + moduleCode + "\n");
+					page = getPaperHeaders(moduleCode, page.nextCursor(), STREAM_PAGE_SIZE);
 				}
-			} catch (Exception e) {
+			} catch (UncheckedIOException e) {
 				System.err.println("An error occurred while loading examination papers: " + e.getMessage());
 			}
+			// System.out stays open for the rest of the menu, so only flush.
+			out.flush();
+		}
+	}
+
+	/**
+	 * Searches the question search index. No examination paper is read.
+	 *
+	 * @param query The words to look for; words in double quotes must appear as
+	 *              a phrase.
+	 * @param limit The largest number of matches to return.
+	 * @return The matching question texts and parts, best first.
+	 * @throws IllegalArgumentException If the limit is invalid.
+	 */
+	@Override
+	public List<SearchHit> searchQuestions(String query, int limit) {
+		Page.checkLimit(limit);
+		return Storage.questionSearchIndex().search(query, limit);
+	}
+
+	/**
+	 * Searches the examination questions for the words the user enters and prints
+	 * the best {@value #SEARCH_RESULTS} matches, each followed by the matching
+	 * question.
+	 */
+	@Override
+	public void searchQuestions() {
+		System.out.println("\nEnter the words to search for (use double quotes for a phrase):");
+		String query = scanner.nextLine().trim();
+
+		List<SearchHit> hits;
+		try {
+			hits = searchQuestions(query, SEARCH_RESULTS);
+		} catch (UncheckedIOException e) {
+			System.err.println("An error occurred while searching the questions: " + e.getMessage());
+			return;
+		}
+		if (hits.isEmpty()) {
+			System.out.println("\tNo questions match \"" + query + "\".");
+			return;
+		}
+		for (SearchHit hit : hits) {
+			System.out.println(hit);
+		}
+	}
+
+	/**
+	 * Finds the questions of earlier papers that the questions of a paper
+	 * resemble, from the question similarity index. No paper is read.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return The near-duplicate questions.
+	 */
+	@Override
+	public List<DuplicateQuestion> findDuplicateQuestions(String paperId) {
+		return Storage.questionSimilarityIndex().duplicatesOf(paperId);
+	}
+
+	/**
+	 * Scans the question similarity index for near-duplicate questions in
+	 * different papers. No paper is read.
+	 *
+	 * @return The near-duplicate questions.
+	 */
+	@Override
+	public List<DuplicateQuestion> findAllDuplicateQuestions() {
+		return Storage.questionSimilarityIndex().allDuplicates();
+	}
+
+	/**
+	 * Lists every near-duplicate question, one line per pair, followed by the
+	 * number of pairs found.
+	 */
+	@Override
+	public void listDuplicateQuestions() {
+		List<DuplicateQuestion> duplicates;
+		try {
+			duplicates = findAllDuplicateQuestions();
+		} catch (UncheckedIOException e) {
+			System.err.println("An error occurred while comparing the questions: " + e.getMessage());
+			return;
+		}
+
+		PrintWriter out = new PrintWriter(
+				new BufferedWriter(new OutputStreamWriter(System.out), LISTING_BUFFER_CHARS));
+		duplicates.forEach(out::println);
+		out.println("\n\t" + duplicates.size() + " near-duplicate questions found.");
+		// System.out stays open for the rest of the menu, so only flush.
+		out.flush();
+	}
+
+	/**
+	 * Lists the papers in the status the user enters, one line per paper from its
+	 * status view, followed by the number of papers in each status.
+	 */
+	@Override
+	public void listPapersByStatus() {
+		System.out.println("\nEnter the status to list (PENDING, APPROVED or REJECTED):");
+		PaperStatus status;
+		try {
+			status = PaperStatus.valueOf(scanner.nextLine().trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			System.out.println("Invalid status. Please enter PENDING, APPROVED or REJECTED.");
+			return;
+		}
+
+		PrintWriter out = new PrintWriter(
+				new BufferedWriter(new OutputStreamWriter(System.out), LISTING_BUFFER_CHARS));
+		try {
+			Page<PaperStatusView> page = getPapersByStatus(status, null, STREAM_PAGE_SIZE);
+			while (true) {
+				page.items().forEach(out::println);
+				if (page.nextCursor() == null) {
+					break;
+				}
+				page = getPapersByStatus(status, page.nextCursor(), STREAM_PAGE_SIZE);
+			}
+			for (PaperStatus each : PaperStatus.values()) {
+				out.println("\t" + each + ": " + Storage.paperStatusIndex().count(each));
+			}
+		} catch (UncheckedIOException e) {
+			System.err.println("An error occurred while loading paper statuses: " + e.getMessage());
 		}
+		// System.out stays open for the rest of the menu, so only flush.
+		out.flush();
 	}
 
 	private Question addNewQuestion(int totalMarksForQuestion) {
@@ -242,7 +562,7 @@ public class ExaminationPaperServiceImpl implements ExaminationPaperService, Ser
 		int partCounter = 1;
 		int totalAssignedMarks = 0;
 
-		while (totalAssignedMarks < totalMarksForQuestion && partCounter <= 5) {
+		while (totalAssignedMarks < totalMarksForQuestion && partCounter <= Rules.DEFAULT_MAX_PARTS) {
 			System.out.println("Enter Part " + labelForPart(partCounter) + " of the question:");
 			String part = scanner.nextLine();
 
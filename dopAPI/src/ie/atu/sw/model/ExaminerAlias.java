@@ -0,0 +1,17 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+
+import ie.atu.sw.services.Examiner;
+
+/**
+ * An entry of the {@link StorageEngine#EXAMINER_ALIASES} repository: details an
+ * examiner had before an update, which still resolve to the examiner's ID, see
+ * {@link ExaminerRegistry}.
+ *
+ * @param examiner   The earlier details.
+ * @param examinerId The ID of the examiner that had them.
+ */
+public record ExaminerAlias(Examiner examiner, String examinerId) implements Serializable {
+	private static final long serialVersionUID = 1L;
+}
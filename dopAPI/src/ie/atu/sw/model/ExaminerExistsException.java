@@ -0,0 +1,29 @@
+package ie.atu.sw.model;
+
+/**
+ * Thrown when a new examiner is to be stored but an examiner with the same
+ * details is already stored.
+ */
+public class ExaminerExistsException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	private final String examinerId;
+
+	/**
+	 * Creates the exception.
+	 *
+	 * @param examinerId The ID of the stored examiner with the same details.
+	 */
+	public ExaminerExistsException(String examinerId) {
+		super("Examiner " + examinerId + " already has these details");
+		this.examinerId = examinerId;
+	}
+
+	/**
+	 * Returns the ID of the stored examiner with the same details.
+	 *
+	 * @return The examiner's ID.
+	 */
+	public String examinerId() {
+		return examinerId;
+	}
+}
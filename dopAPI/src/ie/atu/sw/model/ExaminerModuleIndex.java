@@ -0,0 +1,158 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ie.atu.sw.services.Examiner;
+
+/**
+ * Persistent reverse index from examiner to the modules the examiner is
+ * assigned to, as internal or external examiner. Looking up an examiner's
+ * modules is a single keyed read instead of a scan of every module.
+ *
+ * <p>
+ * The index is a repository of the active storage engine
+ * ({@code examiner_module_index}). It is kept up to date through
+ * {@link #moduleSaved(ModuleInfo, ModuleInfo)} whenever a module is written,
+ * and rebuilt from the module repository when it is empty or names examiners
+ * that are not stored, as when the examiner IDs were derived differently.
+ */
+public class ExaminerModuleIndex {
+	/**
+	 * Name of the repository holding the index.
+	 */
+	public static final String NAME = "examiner_module_index";
+
+	private final Repository<ExaminerModules> entries;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Opens the reverse index of a storage engine, building it if it is empty or
+	 * names examiners that are not stored.
+	 *
+	 * @param engine The storage engine holding the modules.
+	 */
+	public ExaminerModuleIndex(StorageEngine engine) {
+		this.entries = engine.open(NAME, RecordCodecs.examinerModules(), ExaminerModules::examinerKey);
+		ExaminerRegistry examiners = engine.examinerRegistry();
+		List<String> stale = new ArrayList<>();
+		for (String examinerId : entries.keys()) {
+			if (examiners.get(examinerId) == null) {
+				stale.add(examinerId);
+			}
+		}
+		if (entries.size() == 0 || !stale.isEmpty()) {
+			for (String examinerId : stale) {
+				entries.remove(examinerId);
+			}
+			for (ModuleInfo module : engine.modules().values()) {
+				update(entries, null, module);
+			}
+		}
+	}
+
+	/**
+	 * Returns the codes of the modules an examiner is assigned to.
+	 *
+	 * @param examiner The examiner.
+	 * @return A new list of module codes, empty if the examiner has no modules.
+	 */
+	public List<String> modulesFor(Examiner examiner) {
+		return modulesFor(ExaminerUtil.examinerId(examiner));
+	}
+
+	/**
+	 * Returns the codes of the modules the examiner with an ID is assigned to.
+	 *
+	 * @param examinerId The ID of the examiner.
+	 * @return A new list of module codes, empty if the examiner has no modules.
+	 */
+	public List<String> modulesFor(String examinerId) {
+		ExaminerModules entry = examinerId == null ? null : entries.get(examinerId);
+		return entry == null ? new ArrayList<>() : new ArrayList<>(entry.moduleCodes());
+	}
+
+	/**
+	 * Updates the index after a module has been written.
+	 *
+	 * @param previous The previously stored version of the module, or null if the
+	 *                 module is new.
+	 * @param current  The version of the module that was written.
+	 */
+	public void moduleSaved(ModuleInfo previous, ModuleInfo current) {
+		lock.lock();
+		try {
+			update(entries, previous, current);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves the modules of an examiner to the examiner's new ID, after the
+	 * examiner was moved to a new key.
+	 *
+	 * @param previousId The examiner's previous ID.
+	 * @param examinerId The examiner's ID from now on.
+	 */
+	public void examinerMoved(String previousId, String examinerId) {
+		lock.lock();
+		try {
+			ExaminerModules entry = entries.get(previousId);
+			if (entry == null) {
+				return;
+			}
+			entries.remove(previousId);
+			for (String moduleCode : entry.moduleCodes()) {
+				link(entries, examinerId, moduleCode);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static void update(Repository<ExaminerModules> entries, ModuleInfo previous, ModuleInfo current) {
+		String moduleCode = current.moduleCode();
+		List<String> currentIds = examinerIdsOf(current);
+		if (previous != null) {
+			for (String examinerId : examinerIdsOf(previous)) {
+				if (!currentIds.contains(examinerId)) {
+					unlink(entries, examinerId, moduleCode);
+				}
+			}
+		}
+		for (String examinerId : currentIds) {
+			link(entries, examinerId, moduleCode);
+		}
+	}
+
+	private static void link(Repository<ExaminerModules> entries, String key, String moduleCode) {
+		ExaminerModules entry = entries.get(key);
+		List<String> moduleCodes = entry == null ? new ArrayList<>() : new ArrayList<>(entry.moduleCodes());
+		if (!moduleCodes.contains(moduleCode)) {
+			moduleCodes.add(moduleCode);
+			entries.put(key, new ExaminerModules(key, moduleCodes));
+		}
+	}
+
+	private static void unlink(Repository<ExaminerModules> entries, String key, String moduleCode) {
+		ExaminerModules entry = entries.get(key);
+		if (entry != null && entry.moduleCodes().contains(moduleCode)) {
+			List<String> moduleCodes = new ArrayList<>(entry.moduleCodes());
+			moduleCodes.remove(moduleCode);
+			entries.put(key, new ExaminerModules(key, moduleCodes));
+		}
+	}
+
+	private static List<String> examinerIdsOf(ModuleInfo module) {
+		List<String> examinerIds = new ArrayList<>(2);
+		for (Examiner examiner : new Examiner[] { module.internalExaminer(), module.getExternalExaminer() }) {
+			String examinerId = ExaminerUtil.examinerId(examiner);
+			if (examinerId != null) {
+				examinerIds.add(examinerId);
+			}
+		}
+		return examinerIds;
+	}
+}
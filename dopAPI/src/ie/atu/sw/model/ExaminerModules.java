@@ -0,0 +1,15 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * An entry of the {@link ExaminerModuleIndex}: the modules an examiner is
+ * assigned to.
+ *
+ * @param examinerKey The examiner's ID, see {@link ExaminerUtil#examinerId}.
+ * @param moduleCodes The codes of the modules the examiner is assigned to.
+ */
+public record ExaminerModules(String examinerKey, List<String> moduleCodes) implements Serializable {
+	private static final long serialVersionUID = 1L;
+}
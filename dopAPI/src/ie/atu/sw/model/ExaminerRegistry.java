@@ -0,0 +1,398 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ie.atu.sw.services.Examiner;
+
+/**
+ * Registry of the stored examiners, in the {@link StorageEngine#EXAMINERS}
+ * repository. An examiner's ID is assigned once, when the examiner is
+ * registered: a random UUID, stored as the examiner's key in the repository.
+ * The ID says nothing about the examiner's details, so examiners with the same
+ * name and department are told apart, and it stays the same when the details
+ * are changed through {@link #update(String, Examiner)}, so modules and actions
+ * that refer to the examiner by ID follow the change without being rewritten.
+ * Repositories that store no keys, such as the legacy list files, derive the
+ * IDs from all of the examiners' details whenever they are loaded, see
+ * {@link ExaminerUtil#examinerKey(Examiner)}; a registry over one moves a
+ * changed examiner to its new key instead.
+ *
+ * <p>
+ * Examiners are looked up by ID only. The details an examiner had before an
+ * update stay mapped to its ID in the {@link StorageEngine#EXAMINER_ALIASES}
+ * repository, so copies kept in records written before the update are still
+ * attributed to it, by every process and after a restart; registering a new
+ * examiner with those details takes them over.
+ *
+ * <p>
+ * The binary codecs write the examiners of a module or an action as references
+ * through {@link #writeReference(Examiner, DataOutput)} and resolve them
+ * through {@link #readReference(DataInput)}. Only registered examiners can be
+ * referred to: examiners are registered explicitly, through
+ * {@link #register(Examiner)} or, for records imported from legacy files,
+ * {@link #importExaminer(Examiner)}, never as a side effect of writing a
+ * record. Every examiner is held in memory
+ * by ID and by value, so resolving a reference or finding the ID of an
+ * examiner is a hash lookup, and the records that refer to one examiner share
+ * one instance of it.
+ */
+public class ExaminerRegistry {
+	private static final int NONE = 0;
+	private static final int REFERENCE = 1;
+	private static final int EMBEDDED = 2;
+
+	private final Repository<Examiner> repository;
+	private final Repository<ExaminerAlias> aliases;
+	private final boolean stableIds;
+	private final SerializedRecordCodec<Examiner> embeddedCodec = new SerializedRecordCodec<>();
+	private final Map<String, Examiner> byId = new ConcurrentHashMap<>();
+	private final Map<Examiner, String> ids = new ConcurrentHashMap<>();
+	private final Map<Examiner, String> previousIds = new ConcurrentHashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Opens the registry over a repository of examiners keyed by ID, reading
+	 * every examiner and alias into memory.
+	 *
+	 * @param repository The repository holding the examiners.
+	 * @param aliases    The repository holding the earlier details of updated
+	 *                   examiners.
+	 * @param stableIds  Whether the repository stores the keys, so that an
+	 *                   examiner keeps its ID when its details change.
+	 */
+	public ExaminerRegistry(Repository<Examiner> repository, Repository<ExaminerAlias> aliases, boolean stableIds) {
+		this.repository = repository;
+		this.aliases = aliases;
+		this.stableIds = stableIds;
+		repository.scan(this::cache);
+		aliases.scan((key, alias) -> previousIds.put(alias.examiner(), alias.examinerId()));
+	}
+
+	/**
+	 * Stores a new examiner under a new ID, unless an equal examiner is already
+	 * stored.
+	 *
+	 * @param examiner The examiner to store.
+	 * @return The ID of the examiner.
+	 * @throws IllegalArgumentException If the IDs are not stable and a different
+	 *                                  examiner is stored under the examiner's
+	 *                                  key.
+	 */
+	public String register(Examiner examiner) {
+		String examinerId = ids.get(examiner);
+		if (examinerId != null) {
+			return examinerId;
+		}
+		lock.lock();
+		try {
+			examinerId = ids.get(examiner);
+			return examinerId != null ? examinerId : store(examiner);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stores a new examiner under a new ID. The check that no equal examiner is
+	 * stored and the store are one step under the registry's lock, after the
+	 * examiners stored by other processes have been read again.
+	 *
+	 * @param examiner The examiner to store.
+	 * @return The ID of the examiner.
+	 * @throws ExaminerExistsException  If an equal examiner is already stored.
+	 * @throws IllegalArgumentException If the IDs are not stable and a different
+	 *                                  examiner is stored under the examiner's
+	 *                                  key.
+	 */
+	public String registerNew(Examiner examiner) {
+		lock.lock();
+		try {
+			repository.refresh();
+			aliases.refresh();
+			refresh();
+			String examinerId = ids.get(examiner);
+			if (examinerId != null) {
+				throw new ExaminerExistsException(examinerId);
+			}
+			return store(examiner);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces the details of a stored examiner, keeping its ID unless the IDs
+	 * are not stable and the examiner's key changes. The previous details are
+	 * freed for other examiners and, until one takes them, resolve to the
+	 * examiner's ID.
+	 *
+	 * @param examinerId The ID of the examiner.
+	 * @param examiner   The new details, of the same kind and type as the stored
+	 *                   examiner.
+	 * @return The ID of the examiner from now on.
+	 * @throws IllegalArgumentException If no examiner has the ID, the kind or
+	 *                                  type would change, or another examiner is
+	 *                                  stored under the ID the examiner would
+	 *                                  take.
+	 */
+	public String update(String examinerId, Examiner examiner) {
+		lock.lock();
+		try {
+			Examiner current = byId.get(examinerId);
+			if (current == null) {
+				throw new IllegalArgumentException("No examiner with ID " + examinerId);
+			}
+			if (current.getClass() != examiner.getClass() || current.getType() != examiner.getType()) {
+				throw new IllegalArgumentException("The type of examiner " + examinerId + " cannot be changed from "
+						+ current.getType() + " to " + examiner.getType());
+			}
+			String existing = ids.get(examiner);
+			if (existing != null && !existing.equals(examinerId)) {
+				throw new IllegalArgumentException("Examiner " + existing + " already has these details");
+			}
+			String newId = stableIds ? examinerId : ExaminerUtil.examinerKey(examiner);
+			if (!newId.equals(examinerId)) {
+				if (byId.containsKey(newId)) {
+					throw new IllegalArgumentException("Examiner " + newId + " already exists");
+				}
+				repository.remove(examinerId);
+				byId.remove(examinerId);
+			}
+			repository.put(newId, examiner);
+			ids.remove(current);
+			cache(newId, examiner);
+			removeAlias(examiner);
+			if (!newId.equals(examinerId)) {
+				for (Map.Entry<Examiner, String> alias : previousIds.entrySet()) {
+					if (alias.getValue().equals(examinerId)) {
+						putAlias(alias.getKey(), newId);
+					}
+				}
+			}
+			if (!current.equals(examiner)) {
+				putAlias(current, newId);
+			}
+			return newId;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the examiners and aliases again, after another process sharing the
+	 * data directory changed the repositories, so that the examiners it added or
+	 * changed are found by ID and by value.
+	 */
+	public void refresh() {
+		lock.lock();
+		try {
+			Map<String, Examiner> current = new HashMap<>();
+			repository.scan(current::put);
+			byId.keySet().retainAll(current.keySet());
+			ids.entrySet().removeIf(entry -> !entry.getKey().equals(current.get(entry.getValue())));
+			current.forEach(this::cache);
+			Map<Examiner, String> currentAliases = new HashMap<>();
+			aliases.scan((key, alias) -> currentAliases.put(alias.examiner(), alias.examinerId()));
+			previousIds.keySet().retainAll(currentAliases.keySet());
+			previousIds.putAll(currentAliases);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves an examiner by ID.
+	 *
+	 * @param examinerId The ID of the examiner.
+	 * @return The examiner, or null if no examiner has that ID.
+	 */
+	public Examiner get(String examinerId) {
+		return examinerId == null ? null : byId.get(examinerId);
+	}
+
+	/**
+	 * Returns the ID of an examiner. A copy of an examiner kept in a record
+	 * written before the examiner was changed is given the examiner's ID.
+	 *
+	 * @param examiner The examiner, or null.
+	 * @return The examiner's ID, or null if the examiner is null or not
+	 *         registered.
+	 */
+	public String idOf(Examiner examiner) {
+		if (examiner == null) {
+			return null;
+		}
+		String examinerId = ids.get(examiner);
+		return examinerId != null ? examinerId : previousIds.get(examiner);
+	}
+
+	/**
+	 * Retrieves every stored examiner, in the order they were first stored.
+	 *
+	 * @return A new list of the examiners.
+	 */
+	public List<Examiner> examiners() {
+		List<Examiner> examiners = new ArrayList<>(byId.size());
+		for (String examinerId : repository.keys()) {
+			Examiner examiner = byId.get(examinerId);
+			if (examiner != null) {
+				examiners.add(examiner);
+			}
+		}
+		return examiners;
+	}
+
+	/**
+	 * Returns the number of stored examiners.
+	 *
+	 * @return The number of examiners.
+	 */
+	public int size() {
+		return byId.size();
+	}
+
+	/**
+	 * Registers an examiner met in a record imported from a legacy file, unless
+	 * it, or a copy from before an examiner was changed, is already registered.
+	 *
+	 * @param examiner The examiner, or null.
+	 */
+	void importExaminer(Examiner examiner) {
+		if (examiner != null && idOf(examiner) == null) {
+			register(examiner);
+		}
+	}
+
+	/**
+	 * Writes a reference to a registered examiner. A copy from before an
+	 * examiner was changed refers to the examiner. An examiner another process
+	 * registered is found by reading the repositories again. Every examiner is
+	 * written in full instead if the IDs are not stable, since the record could
+	 * outlive the ID.
+	 *
+	 * @param examiner The examiner, or null.
+	 * @param out      The output to write the reference to.
+	 * @throws IOException              If the reference cannot be written.
+	 * @throws IllegalArgumentException If the IDs are stable and the examiner is
+	 *                                  not registered.
+	 */
+	void writeReference(Examiner examiner, DataOutput out) throws IOException {
+		if (examiner == null) {
+			out.writeByte(NONE);
+			return;
+		}
+		String examinerId = stableIds ? registeredId(examiner) : null;
+		if (examinerId == null) {
+			out.writeByte(EMBEDDED);
+			embeddedCodec.write(examiner, out);
+			return;
+		}
+		out.writeByte(REFERENCE);
+		BinaryFormat.writeString(out, examinerId);
+	}
+
+	/**
+	 * Reads a reference written by {@link #writeReference(Examiner, DataOutput)}
+	 * and resolves it to its examiner.
+	 *
+	 * @param in The input to read the reference from.
+	 * @return The referenced examiner, or null.
+	 * @throws IOException If the reference cannot be read or the examiner is not
+	 *                     stored.
+	 */
+	Examiner readReference(DataInput in) throws IOException {
+		int kind = in.readUnsignedByte();
+		return switch (kind) {
+		case NONE -> null;
+		case REFERENCE -> {
+			String examinerId = BinaryFormat.readString(in);
+			Examiner examiner = byId.get(examinerId);
+			if (examiner == null) {
+				throw new IOException("Examiner " + examinerId + " is missing from the examiner registry");
+			}
+			yield examiner;
+		}
+		case EMBEDDED -> canonical(embeddedCodec.read(in));
+		default -> throw new IOException("Unknown examiner reference kind " + kind);
+		};
+	}
+
+	/**
+	 * Returns the registered instance of an examiner read in full, so that equal
+	 * examiners share one instance.
+	 *
+	 * @param <E>      The kind of examiner.
+	 * @param examiner The examiner, or null.
+	 * @return The registered examiner equal to it, or the examiner itself.
+	 */
+	@SuppressWarnings("unchecked")
+	<E extends Examiner> E canonical(E examiner) {
+		if (examiner == null) {
+			return null;
+		}
+		String examinerId = ids.get(examiner);
+		Examiner registered = examinerId == null ? null : byId.get(examinerId);
+		return registered != null && registered.equals(examiner) ? (E) registered : examiner;
+	}
+
+	/**
+	 * Returns the ID of a registered examiner.
+	 */
+	private String registeredId(Examiner examiner) {
+		String examinerId = idOf(examiner);
+		if (examinerId == null) {
+			repository.refresh();
+			aliases.refresh();
+			refresh();
+			examinerId = idOf(examiner);
+		}
+		if (examinerId == null) {
+			throw new IllegalArgumentException("Examiner " + examiner.getName() + " is not registered");
+		}
+		return examinerId;
+	}
+
+	/*
+	 * Stores an examiner no equal examiner is stored as, holding the lock.
+	 */
+	private String store(Examiner examiner) {
+		String examinerId = stableIds ? UUID.randomUUID().toString() : ExaminerUtil.examinerKey(examiner);
+		if (byId.containsKey(examinerId)) {
+			throw new IllegalArgumentException("Examiner " + examinerId + " already exists");
+		}
+		repository.put(examinerId, examiner);
+		cache(examinerId, examiner);
+		removeAlias(examiner);
+		return examinerId;
+	}
+
+	/*
+	 * The alias repository and map are changed together, holding the lock.
+	 */
+	private void putAlias(Examiner details, String examinerId) {
+		aliases.put(ExaminerUtil.examinerKey(details), new ExaminerAlias(details, examinerId));
+		previousIds.put(details, examinerId);
+	}
+
+	private void removeAlias(Examiner details) {
+		previousIds.remove(details);
+		String key = ExaminerUtil.examinerKey(details);
+		if (aliases.containsKey(key)) {
+			aliases.remove(key);
+		}
+	}
+
+	private void cache(String examinerId, Examiner examiner) {
+		byId.put(examinerId, examiner);
+		ids.put(examiner, examinerId);
+	}
+}
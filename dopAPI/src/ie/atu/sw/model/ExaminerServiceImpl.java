@@ -1,13 +1,28 @@
 package ie.atu.sw.model;
 
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import ie.atu.sw.enums.ExternalExaminerActions;
 import ie.atu.sw.services.Examiner;
@@ -21,10 +36,35 @@ import ie.atu.sw.services.ExternalExaminerService;
  */
 public class ExaminerServiceImpl implements ExternalExaminerService, Serializable {
 	private static final long serialVersionUID = 1L;
-	private final Scanner scanner = new Scanner(System.in);
-	private static final String externalExaminerActionsDataFile = "external_examiner_actions.dat";
-	private final Map<String, List<ExternalExaminerAction>> actionsByPaperId = new HashMap<>();
-	private final Map<String, Examiner> externalExaminers = new HashMap<>();
+	private static final LongAdder recordActionCalls = Metrics.calls("recordAction");
+	private static final LongAdder submitActionCalls = Metrics.calls("submitAction");
+	private final Scanner scanner;
+	private static final String ACTIONS_SNAPSHOT_FILE = StorageEngine.ACTIONS + ".dat";
+	private static final int GROUP_COMMIT_MAX_BATCH = 512;
+	private static final long GROUP_COMMIT_MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+	private static final long COMMIT_TIMEOUT_SECONDS = 30;
+	private static final int LISTING_BUFFER_CHARS = 64 * 1024;
+	private final transient ActionJournal actionJournal = new ActionJournal(
+			Storage.file(ACTIONS_SNAPSHOT_FILE).getPath());
+	private final transient GroupCommitter<ExternalExaminerAction> actionCommitter = new GroupCommitter<>(
+			"action-group-commit", this::commitActions, GROUP_COMMIT_MAX_BATCH, GROUP_COMMIT_MAX_DELAY_NANOS);
+
+	/**
+	 * Constructs the service reading user input from standard input.
+	 */
+	public ExaminerServiceImpl() {
+		this(new Scanner(System.in));
+	}
+
+	/**
+	 * Constructs the service. The action journal is not read until actions are
+	 * listed, and then only streamed.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 */
+	public ExaminerServiceImpl(Scanner scanner) {
+		this.scanner = scanner;
+	}
 
 	/**
 	 * Records an action taken by an external examiner on an examination paper. The
@@ -75,22 +115,17 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 
 		List<String> moduleCodesLinkedToExaminer = findModulesForExaminer(selectedExternalExaminer);
 
-		List<ExaminationPaper> papersForSelectedExaminer = new ArrayList<>();
+		List<PaperHeader> papersForSelectedExaminer = new ArrayList<>();
 
 		for (String moduleCode : moduleCodesLinkedToExaminer) {
-			String fileName = moduleCode + "_examination_papers.dat";
-			File file = new File(fileName);
+			List<PaperHeader> papers = Storage.paperIndex().headers(moduleCode);
 
-			if (!file.exists() || file.length() == 0) {
-				System.out.println("File not found or is empty: " + fileName);
+			if (papers.isEmpty()) {
+				System.out.println("No examination papers found for module: " + moduleCode);
 				continue;
 			}
 
-			List<ExaminationPaper> papers = FileUtil.loadFromFile(fileName);
-
-			if (papers != null) {
-				papersForSelectedExaminer.addAll(papers);
-			}
+			papersForSelectedExaminer.addAll(papers);
 		}
 
 		if (papersForSelectedExaminer.isEmpty()) {
@@ -100,7 +135,7 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 
 		System.out.println("Select an Examination Paper to record action:");
 		for (int i = 0; i < papersForSelectedExaminer.size(); i++) {
-			System.out.println((i + 1) + ". " + papersForSelectedExaminer.get(i).getPaperId());
+			System.out.println((i + 1) + ". " + papersForSelectedExaminer.get(i).paperId());
 		}
 
 		int paperChoice = scanner.nextInt();
@@ -111,7 +146,13 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 			return;
 		}
 
-		ExaminationPaper selectedPaper = papersForSelectedExaminer.get(paperChoice - 1);
+		// Only the selected paper is loaded in full.
+		String selectedPaperId = papersForSelectedExaminer.get(paperChoice - 1).paperId();
+		ExaminationPaper selectedPaper = Storage.paperIndex().find(selectedPaperId);
+		if (selectedPaper == null) {
+			System.out.println("Error: the selected paper could not be loaded.");
+			return;
+		}
 		System.out.println("PAPER SELECTED DESCRIPTION: \n" + selectedPaper.toString());
 
 		System.out.println("\tSelect Action for Selected Paper:");
@@ -119,150 +160,399 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 			System.out.println("\t" + (i + 1) + ". " + ExternalExaminerActions.values()[i]);
 		}
 
-		int actionChoice = scanner.nextInt();
-		ExternalExaminerActions selectedAction = ExternalExaminerActions.values()[actionChoice - 1];
-		scanner.nextLine();
+		ExternalExaminerActions selectedAction;
+		while (true) {
+			int actionChoice = scanner.nextInt();
+			scanner.nextLine();
+			if (actionChoice >= 1 && actionChoice <= ExternalExaminerActions.values().length) {
+				selectedAction = ExternalExaminerActions.values()[actionChoice - 1];
+				break;
+			}
+			System.out.println("Invalid selection. Please enter a valid number.");
+		}
 
-		switch (selectedAction) {
-		case ADD_COMMENT:
-			handleCommentAction(selectedPaper, selectedExternalExaminer, selectedPaper.getPaperId());
-			break;
-		case APPROVE:
-			handleApproveAction(selectedPaper, selectedExternalExaminer, selectedPaper.getPaperId());
-			break;
-		case REJECT:
-			handleRejectAction(selectedPaper, selectedExternalExaminer, selectedPaper.getPaperId());
-			break;
-		default:
-			System.out.println("Invalid action selected.");
-			break;
-		}
-
-		saveExternalExaminerActionsToFile();
+		handleAction(selectedPaper, selectedExternalExaminer, selectedAction);
 	}
 
 	/**
-     * Records a comment action for a specific examination paper.
-     *
-     * @param selectedPaper The examination paper the action is related to.
-     * @param selectedExaminer The external examiner performing the action.
-     * @param paperId The ID of the examination paper.
-     */
-	private void handleCommentAction(ExaminationPaper selectedPaper, ExternalExaminer selectedExaminer,
-			String paperId) {
-		System.out.println("Enter comment: ");
+	 * Prompts for the comment that goes with an action and records the action for
+	 * the selected paper.
+	 *
+	 * @param selectedPaper The examination paper the action is related to.
+	 * @param selectedExaminer The external examiner performing the action.
+	 * @param selectedAction The type of action being recorded.
+	 */
+	private void handleAction(ExaminationPaper selectedPaper, ExternalExaminer selectedExaminer,
+			ExternalExaminerActions selectedAction) {
+		String prompt = switch (selectedAction) {
+		case ADD_COMMENT -> "Enter comment: ";
+		case APPROVE -> "Enter approval comment: ";
+		case REJECT -> "Enter rejection comment: ";
+		};
+		String confirmation = switch (selectedAction) {
+		case ADD_COMMENT -> "Comment action recorded successfully.";
+		case APPROVE -> "Approval action recorded successfully.";
+		case REJECT -> "Rejection action recorded successfully.";
+		};
+
+		System.out.println(prompt);
 		String comment = scanner.nextLine();
+		try {
+			recordAction(ExaminerUtil.examinerId(selectedExaminer), selectedPaper.getPaperId(), selectedAction,
+					comment);
+			System.out.println(confirmation);
+		} catch (IllegalArgumentException e) {
+			System.out.println("Error: " + e.getMessage());
+		}
+	}
 
-		ExternalExaminerAction commentAction = new ExternalExaminerAction(selectedPaper.moduleCode(), selectedExaminer,
-				comment, ExternalExaminerActions.ADD_COMMENT, paperId);
+	/**
+	 * Records an action taken by an external examiner without user interaction.
+	 * The examiner must be the external examiner of the paper's module. Returns
+	 * once the action is durable; concurrent callers share one disk flush, see
+	 * {@link #submitAction}. Waits at most 30 seconds for the action's batch to
+	 * be committed.
+	 *
+	 * @param examinerId The ID of the external examiner.
+	 * @param paperId    The ID of the examination paper.
+	 * @param action     The type of action.
+	 * @param comment    The examiner's comment.
+	 * @return The recorded action.
+	 * @throws IllegalArgumentException If the examiner or paper does not exist,
+	 *                                  or the examiner is not the external
+	 *                                  examiner of the paper's module.
+	 * @throws java.io.UncheckedIOException If the action could not be written.
+	 * @throws ActionNotAppliedException If the action was committed to the
+	 *                                   journal but could not be applied to its
+	 *                                   paper.
+	 * @throws java.util.concurrent.RejectedExecutionException If the group
+	 *                                                         committer is
+	 *                                                         closed or has
+	 *                                                         failed.
+	 * @throws IllegalStateException If the action's batch was not committed in
+	 *                               time; the action may still be committed.
+	 */
+	@Override
+	public ExternalExaminerAction recordAction(String examinerId, String paperId, ExternalExaminerActions action,
+			String comment) {
+		recordActionCalls.increment();
+		try {
+			return submitAction(examinerId, paperId, action, comment)
+					.orTimeout(COMMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof IOException cause) {
+				throw new UncheckedIOException(cause);
+			}
+			if (e.getCause() instanceof TimeoutException) {
+				throw new IllegalStateException("Action on paper " + paperId + " was not committed within "
+						+ COMMIT_TIMEOUT_SECONDS + " seconds", e.getCause());
+			}
+			throw e;
+		}
+	}
 
-		recordActionForPaper(paperId, selectedPaper.getModuleCode(), commentAction);
-		System.out.println("Comment action recorded successfully.");
+	/**
+	 * Submits an action taken by an external examiner to the group committer.
+	 * Actions submitted within a couple of milliseconds of each other are
+	 * appended to the action journal in one write and forced to disk once, then
+	 * applied to their papers, and each caller's future completes when its batch
+	 * is durable.
+	 *
+	 * @param examinerId The ID of the external examiner.
+	 * @param paperId    The ID of the examination paper.
+	 * @param action     The type of action.
+	 * @param comment    The examiner's comment.
+	 * @return A future completed with the recorded action once it is durable.
+	 * @throws IllegalArgumentException If the examiner or paper does not exist,
+	 *                                  or the examiner is not the external
+	 *                                  examiner of the paper's module.
+	 */
+	@Override
+	public CompletableFuture<ExternalExaminerAction> submitAction(String examinerId, String paperId,
+			ExternalExaminerActions action, String comment) {
+		submitActionCalls.increment();
+		if (!(ExaminerUtil.findExaminer(examinerId) instanceof ExternalExaminer examiner)) {
+			throw new IllegalArgumentException("No external examiner with ID " + examinerId);
+		}
+		String moduleCode = Storage.paperIndex().moduleOf(paperId);
+		if (moduleCode == null) {
+			throw new IllegalArgumentException("No examination paper with ID " + paperId);
+		}
+		if (!findModulesForExaminer(examiner).contains(moduleCode)) {
+			throw new IllegalArgumentException(
+					examiner.getName() + " is not the external examiner of module " + moduleCode);
+		}
+
+		return actionCommitter.submit(new ExternalExaminerAction(moduleCode, examiner, comment, action, paperId));
 	}
 
 	/**
-	 * Handles the approval action for a specific examination paper.
+	 * Writes one batch of submitted actions. The locks of every module in the
+	 * batch are taken first and held throughout, followed by the modules' lock
+	 * files, so that other processes sharing the data directory do not rewrite
+	 * the same papers in between, and what this process holds of each module's
+	 * papers is brought up to date with their changes. Every paper is found and its new
+	 * actions are applied to it in memory; a module whose papers cannot be found
+	 * fails only its own actions. The remaining actions are then appended to the
+	 * journal as a single write and forced to disk before any paper is saved, so
+	 * that a batch whose journal write fails leaves no paper changed and can be
+	 * submitted again without duplicating an action. Each paper is then rewritten
+	 * once with all of its new actions, and the touched paper repositories and the
+	 * paper index are forced to disk once. An action whose paper cannot be saved
+	 * after the journal was forced fails with an
+	 * {@link ActionNotAppliedException}: it is committed and must not be
+	 * submitted again.
 	 *
-	 * @param selectedPaper The examination paper the approval action is related to.
-	 * @param selectedExaminer The external examiner performing the approval.
-	 * @param paperId The ID of the examination paper.
+	 * @param batch The actions, in the order they were submitted.
+	 * @throws GroupCommitter.PartialCommitException If some actions could not be
+	 *                                                committed or applied.
+	 * @throws IOException If a module's lock file could not be taken, or the
+	 *                     journal could not be written or forced; no paper has
+	 *                     been changed.
 	 */
-	private void handleApproveAction(ExaminationPaper selectedPaper, ExternalExaminer selectedExaminer,
-			String paperId) {
-		System.out.println("Enter approval comment: ");
-		String approvalComment = scanner.nextLine();
-		ExternalExaminerAction approveAction = new ExternalExaminerAction(selectedPaper.moduleCode(), selectedExaminer,
-				approvalComment, ExternalExaminerActions.APPROVE, paperId);
-		System.out.println(approveAction);
-		recordActionForPaper(paperId, selectedPaper.getModuleCode(), approveAction);
-		System.out.println("Approval action recorded successfully.");
+	private void commitActions(List<ExternalExaminerAction> batch)
+			throws IOException, GroupCommitter.PartialCommitException {
+		Map<String, Map<String, List<ExternalExaminerAction>>> byModule = new LinkedHashMap<>();
+		for (ExternalExaminerAction action : batch) {
+			byModule.computeIfAbsent(action.getModuleCode(), code -> new LinkedHashMap<>())
+					.computeIfAbsent(action.getPaperId(), id -> new ArrayList<>()).add(action);
+		}
+
+		PaperIndex paperIndex = Storage.paperIndex();
+		List<ReentrantLock> locks = Storage.moduleLocks().locksFor(byModule.keySet());
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+		List<LockFile> fileLocks = new ArrayList<>(byModule.size());
+		try {
+			for (String moduleCode : new TreeSet<>(byModule.keySet())) {
+				LockFile fileLock = ModuleLocks.fileLockFor(moduleCode);
+				try {
+					fileLock.lock();
+				} catch (IOException e) {
+					fileLock.close();
+					throw e;
+				}
+				fileLocks.add(fileLock);
+			}
+			Map<String, Exception> failedModules = new HashMap<>();
+			Map<String, List<ExaminationPaper>> updates = new LinkedHashMap<>();
+			for (Map.Entry<String, Map<String, List<ExternalExaminerAction>>> module : byModule.entrySet()) {
+				try {
+					paperIndex.refresh(module.getKey());
+					List<ExaminationPaper> updated = new ArrayList<>(module.getValue().size());
+					for (Map.Entry<String, List<ExternalExaminerAction>> paperActions : module.getValue().entrySet()) {
+						ExaminationPaper paper = paperIndex.find(paperActions.getKey(), module.getKey());
+						if (paper == null) {
+							throw new IllegalArgumentException(
+									"No examination paper with ID " + paperActions.getKey());
+						}
+						updated.add(withActions(paper, paperActions.getValue()));
+					}
+					updates.put(module.getKey(), updated);
+				} catch (RuntimeException e) {
+					failedModules.put(module.getKey(), e);
+				}
+			}
+
+			List<ExternalExaminerAction> applied = new ArrayList<>(batch.size());
+			Map<Integer, Exception> failures = new HashMap<>();
+			for (int i = 0; i < batch.size(); i++) {
+				Exception failure = failedModules.get(batch.get(i).getModuleCode());
+				if (failure == null) {
+					applied.add(batch.get(i));
+				} else {
+					failures.put(i, failure);
+				}
+			}
+			if (!applied.isEmpty()) {
+				actionJournal.appendAll(applied);
+				actionJournal.sync();
+				Map<String, RuntimeException> unapplied = savePapers(byModule, updates, paperIndex);
+				for (int i = 0; i < batch.size(); i++) {
+					ExternalExaminerAction action = batch.get(i);
+					RuntimeException cause = unapplied.get(action.getModuleCode());
+					if (cause != null) {
+						failures.put(i, new ActionNotAppliedException(action.getPaperId(), cause));
+					}
+				}
+			}
+			if (!failures.isEmpty()) {
+				throw new GroupCommitter.PartialCommitException(failures);
+			}
+		} finally {
+			for (LockFile fileLock : fileLocks.reversed()) {
+				fileLock.unlock();
+				fileLock.close();
+			}
+			for (ReentrantLock lock : locks) {
+				lock.unlock();
+			}
+		}
 	}
 
 	/**
-	 * Handles the rejection action for a specific examination paper.
+	 * Saves the updated papers of each module and forces them to disk, after
+	 * their actions were committed to the journal.
 	 *
-	 * @param selectedPaper The examination paper the rejection action is related to.
-	 * @param selectedExaminer The external examiner performing the rejection.
-	 * @param paperId The ID of the examination paper.
+	 * @return Why the papers of each module that could not be saved, or of every
+	 *         module if they could not be forced, are missing their actions.
 	 */
-	private void handleRejectAction(ExaminationPaper selectedPaper, ExternalExaminer selectedExaminer, String paperId) {
-		System.out.println("Enter rejection comment: ");
-		String rejectComment = scanner.nextLine();
-		ExternalExaminerAction rejectAction = new ExternalExaminerAction(selectedPaper.moduleCode(), selectedExaminer,
-				rejectComment, ExternalExaminerActions.REJECT, paperId);
-		recordActionForPaper(paperId, selectedPaper.getModuleCode(), rejectAction);
-		System.out.println("Rejection action recorded successfully.");
+	private static Map<String, RuntimeException> savePapers(
+			Map<String, Map<String, List<ExternalExaminerAction>>> byModule,
+			Map<String, List<ExaminationPaper>> updates, PaperIndex paperIndex) {
+		Map<String, RuntimeException> unapplied = new HashMap<>();
+		for (Map.Entry<String, List<ExaminationPaper>> module : updates.entrySet()) {
+			WorkflowEvent event = new WorkflowEvent();
+			event.begin();
+			try {
+				for (ExaminationPaper paper : module.getValue()) {
+					paperIndex.save(paper);
+				}
+			} catch (RuntimeException e) {
+				unapplied.put(module.getKey(), e);
+			}
+			int actions = 0;
+			for (List<ExternalExaminerAction> paperActions : byModule.get(module.getKey()).values()) {
+				actions += paperActions.size();
+			}
+			event.finish("commitActions", module.getKey(), null, actions);
+		}
+		Set<String> saved = new LinkedHashSet<>(updates.keySet());
+		saved.removeAll(unapplied.keySet());
+		try {
+			paperIndex.sync(saved);
+		} catch (RuntimeException e) {
+			for (String moduleCode : saved) {
+				unapplied.put(moduleCode, e);
+			}
+		}
+		return unapplied;
+	}
+
+	private static ExaminationPaper withActions(ExaminationPaper paper, List<ExternalExaminerAction> actions) {
+		List<ExternalExaminerAction> updatedActions = new ArrayList<>(paper.actions());
+		updatedActions.addAll(actions);
+		return new ExaminationPaper(paper.paperId(), paper.moduleCode(), paper.allowLogTables(),
+				paper.allowActuarialTables(), paper.allowStatisticalTables(), paper.allowGraphPaper(),
+				paper.allowDictionaries(), paper.allowAttachedAnswerSheet(), paper.allowThermodynamicTables(),
+				paper.allowNonProgrammableCalculators(), paper.allowRateTables(), paper.totalQuestions(),
+				paper.requiredAnswers(), paper.questions(), updatedActions);
 	}
 
 	/**
      * Finds and returns a list of module codes linked to a specific external examiner.
+     * The codes come from the {@link ExaminerModuleIndex}, so no module is loaded.
      *
      * @param examiner The external examiner whose linked modules are to be found.
      * @return A list of module codes associated with the given external examiner.
      */
 	public List<String> findModulesForExaminer(ExternalExaminer examiner) {
-		List<String> moduleCodes = new ArrayList<>();
-		List<ModuleInfo> allModules = ModuleInfoFileHandler.loadModuleInfo();
+		return Storage.examinerModuleIndex().modulesFor(examiner);
+	}
 
-		for (ModuleInfo module : allModules) {
-			if (module.getExternalExaminer().equals(examiner)) {
-				moduleCodes.add(module.moduleCode());
+	/**
+	 * Lists every recorded action. The actions are streamed from the journal and
+	 * rendered through one buffered writer, so memory use does not grow with the
+	 * number of actions.
+	 */
+	@Override
+	public void listAllExternalExaminerActions() {
+		PrintWriter out = new PrintWriter(
+				new BufferedWriter(new OutputStreamWriter(System.out), LISTING_BUFFER_CHARS));
+		try (Stream<ExternalExaminerAction> actions = streamActions()) {
+			Iterator<ExternalExaminerAction> iterator = actions.iterator();
+			if (iterator.hasNext()) {
+				out.println("List of External Examiner Actions:");
+				iterator.forEachRemaining(out::println);
+			} else {
+				out.println("No external examiner actions found.");
 			}
+		} catch (UncheckedIOException e) {
+			System.err.println("Error loading external examiner actions: " + e.getMessage());
 		}
-		return moduleCodes;
+		// System.out stays open for the rest of the menu, so only flush.
+		out.flush();
 	}
 
-	public void loadExternalExaminersFromFile() {
-		List<ExternalExaminer> loadedExaminers = FileUtil.loadFromFile(externalExaminerActionsDataFile);
+	/**
+	 * Streams every recorded action, in the order the actions were recorded.
+	 * Actions are decoded from the journal as the stream is consumed; the stream
+	 * must be closed.
+	 *
+	 * @return A stream of all ExternalExaminerActions.
+	 * @throws UncheckedIOException If the journal cannot be read.
+	 */
+	@Override
+	public Stream<ExternalExaminerAction> streamActions() {
+		return streamActions(0);
+	}
 
-		if (loadedExaminers != null) {
-			for (ExternalExaminer examiner : loadedExaminers) {
-				externalExaminers.put(examiner.getName(), examiner);
-			}
-			System.out.println("External examiners loaded successfully.");
-		} else {
-			System.out.println("No external examiners found in the file.");
+	private Stream<ExternalExaminerAction> streamActions(long skip) {
+		try {
+			return actionJournal.stream(skip);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
 	}
 
+	/**
+	 * Retrieves one page of the recorded actions, in the order the actions were
+	 * recorded. Only the actions on the page are decoded.
+	 *
+	 * @param cursor The cursor of the page, or null for the first page.
+	 * @param limit  The largest number of actions on the page.
+	 * @return The page.
+	 * @throws IllegalArgumentException If the cursor or limit is invalid.
+	 * @throws UncheckedIOException     If the journal cannot be read.
+	 */
 	@Override
-	public void listAllExternalExaminerActions() {
-		List<ExternalExaminerAction> loadedActions = loadExternalExaminerActionsFromFile();
-		// System.out.println(loadedActions);
-		if (loadedActions != null && !loadedActions.isEmpty()) {
-			System.out.println("List of External Examiner Actions:");
-			for (ExternalExaminerAction action : loadedActions) {
-				System.out.println(action);
-			}
-		} else {
-			System.out.println("No external examiner actions found.");
+	public Page<ExternalExaminerAction> getActions(String cursor, int limit) {
+		long position = Page.position(cursor);
+		Page.checkLimit(limit);
+		try (Stream<ExternalExaminerAction> actions = streamActions(position)) {
+			return Page.of(actions.limit(limit + 1L).toList(), position, limit);
 		}
 	}
 
-	private List<ExternalExaminerAction> loadExternalExaminerActionsFromFile() {
+	private List<ExternalExaminerAction> replayActions() {
 		try {
-
-			return FileUtil.loadFromFile(externalExaminerActionsDataFile);
-		} catch (Exception e) {
+			return actionJournal.replay();
+		} catch (IOException e) {
 			System.err.println("Error loading external examiner actions: " + e.getMessage());
 			return new ArrayList<>();
 		}
 	}
 
-	private void saveExternalExaminerActionsToFile() {
-
-		List<ExternalExaminerAction> allActions = new ArrayList<>();
-		// System.out.println("*************************" + allActions);
-		for (List<ExternalExaminerAction> actionsList : actionsByPaperId.values()) {
-			allActions.addAll(actionsList);
+	/**
+	 * Appends a single action to the action journal. Only the new action is
+	 * written; actions already on disk are left untouched.
+	 *
+	 * @param action The action to persist.
+	 * @return true if the action was appended.
+	 */
+	private boolean appendToJournal(ExternalExaminerAction action) {
+		try {
+			actionJournal.append(action);
+			return true;
+		} catch (IOException e) {
+			System.err.println("Error saving external examiner action: " + e.getMessage());
+			return false;
 		}
-		FileUtil.saveToFile(externalExaminerActionsDataFile, allActions);
 	}
 
 	/**
 	 * Records an action for a specific examination paper.
 	 * This method adds the given action to the list of actions associated with a particular paper
-	 * and updates the examination paper with this new action.
+	 * and updates the examination paper with this new action. The paper is located through the
+	 * {@link PaperIndex}, so only that paper is read and rewritten. The update is made under
+	 * the module's lock from {@link Storage#moduleLocks()} and the module's lock file, so
+	 * concurrent actions on the same module, from this process or another sharing the data
+	 * directory, are applied one after the other and none is lost; the module's papers are
+	 * refreshed from disk before the paper is read.
 	 * If the paper is not found, an error message is displayed.
 	 *
 	 * @param paperId The ID of the examination paper for which the action is being recorded.
@@ -270,62 +560,94 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 	 * @param action The ExternalExaminerAction to be recorded for the paper.
 	 */
 	public void recordActionForPaper(String paperId, String moduleCode, ExternalExaminerAction action) {
-		actionsByPaperId.putIfAbsent(paperId, new ArrayList<>());
-		actionsByPaperId.get(paperId).add(action);
-		// System.out.println("****************"+actionsByPaperId);
+		WorkflowEvent event = new WorkflowEvent();
+		event.begin();
+		PaperIndex paperIndex = Storage.paperIndex();
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+		lock.lock();
+		try (LockFile fileLock = ModuleLocks.fileLockFor(moduleCode)) {
+			try {
+				fileLock.lock();
+			} catch (IOException e) {
+				System.err.println("Error locking module " + moduleCode + ": " + e.getMessage());
+				return;
+			}
+			try {
+				recordLocked(paperIndex, paperId, moduleCode, action);
+			} finally {
+				fileLock.unlock();
+			}
+		} finally {
+			lock.unlock();
+			event.finish("recordActionForPaper", moduleCode, paperId, 1);
+		}
+	}
 
-		String fileName = moduleCode + "_examination_papers.dat";
-		// System.out.println(fileName);
-		List<ExaminationPaper> papersList = FileUtil.loadFromFile(fileName);
-		// System.out.println(papersList);
+	/*
+	 * Records an action on a paper, holding the module's lock and lock file.
+	 */
+	private void recordLocked(PaperIndex paperIndex, String paperId, String moduleCode,
+			ExternalExaminerAction action) {
+		paperIndex.refresh(moduleCode);
+		ExaminationPaper paper = paperIndex.find(paperId, moduleCode);
 
-		if (papersList == null) {
-			System.out.println("Error: No papers found for the module.");
+		if (paper == null) {
+			System.out.println("Error: Paper " + paperId + " not found for module " + moduleCode + ".");
 			return;
 		}
 
-		for (ExaminationPaper paper : papersList) {
-			if (paper.getPaperId().equals(paperId)) {
-				List<ExternalExaminerAction> updatedActions = new ArrayList<>(paper.actions());
-				updatedActions.add(action);
-				ExaminationPaper updatedPaper = new ExaminationPaper(paper.paperId(), paper.moduleCode(),
-						paper.allowLogTables(), paper.allowActuarialTables(), paper.allowStatisticalTables(),
-						paper.allowGraphPaper(), paper.allowDictionaries(), paper.allowAttachedAnswerSheet(),
-						paper.allowThermodynamicTables(), paper.allowNonProgrammableCalculators(),
-						paper.allowRateTables(), paper.totalQuestions(), paper.requiredAnswers(), paper.questions(),
-						updatedActions);
-				papersList.set(papersList.indexOf(paper), updatedPaper);
-
-				break;
-			}
+		// Journaled first, so that an action that could not be journaled is not
+		// left on the paper.
+		if (appendToJournal(action)) {
+			paperIndex.save(withActions(paper, List.of(action)));
 		}
-		FileUtil.saveToFile(fileName, papersList);
-		saveExternalExaminerActionsToFile();
 	}
 
 
+	/**
+	 * Commits any submitted actions and closes the action journal, waiting for any
+	 * background compaction to finish.
+	 */
+	public void close() {
+		actionCommitter.close();
+		actionJournal.close();
+	}
+
+	/**
+	 * Groups actions by the ID of the paper they were recorded against.
+	 *
+	 * @param actions The actions to group.
+	 * @return A map from paper ID to the actions recorded for that paper, in the
+	 *         order they were recorded.
+	 */
+	public static Map<String, List<ExternalExaminerAction>> groupActionsByPaper(List<ExternalExaminerAction> actions) {
+		Map<String, List<ExternalExaminerAction>> paperActionsMap = new HashMap<>();
+		for (ExternalExaminerAction action : actions) {
+			String paperId = action.getPaperId();
+			paperActionsMap.putIfAbsent(paperId, new ArrayList<>());
+			paperActionsMap.get(paperId).add(action);
+		}
+		return paperActionsMap;
+	}
+
 	/**
      * Lists all actions recorded for a specific examination paper.
      * Prompts the user to select a paper and then displays all actions associated with it.
      */
 	@Override
 	public void listActionsPerPaper() {
-		List<ExternalExaminerAction> loadedActions = loadExternalExaminerActionsFromFile();
-		// System.out.println(loadedActions);
-		if (loadedActions == null || loadedActions.isEmpty()) {
+		Set<String> paperIds = new LinkedHashSet<>();
+		try (Stream<ExternalExaminerAction> actions = streamActions()) {
+			actions.forEach(action -> paperIds.add(action.getPaperId()));
+		} catch (UncheckedIOException e) {
+			System.err.println("Error loading external examiner actions: " + e.getMessage());
+		}
+		if (paperIds.isEmpty()) {
 			System.out.println("No external examiner actions found.");
 			return;
 		}
 
-		Map<String, List<ExternalExaminerAction>> paperActionsMap = new HashMap<>();
-		for (ExternalExaminerAction action : loadedActions) {
-			String paperId = action.getPaperId();
-			paperActionsMap.putIfAbsent(paperId, new ArrayList<>());
-			paperActionsMap.get(paperId).add(action);
-		}
-
 		System.out.println("\t\nList of Available Papers:");
-		Set<String> paperIds = paperActionsMap.keySet();
 		List<String> paperIdList = new ArrayList<>(paperIds);
 		for (int i = 0; i < paperIdList.size(); i++) {
 			System.out.println("\t" + (i + 1) + ". " + paperIdList.get(i));
@@ -337,8 +659,8 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 		if (choice >= 1 && choice <= paperIdList.size()) {
 			String selectedPaperId = paperIdList.get(choice - 1);
 
-			if (paperActionsMap.containsKey(selectedPaperId)) {
-				List<ExternalExaminerAction> actionsForPaper = paperActionsMap.get(selectedPaperId);
+			if (Storage.paperIndex().moduleOf(selectedPaperId) != null) {
+				List<ExternalExaminerAction> actionsForPaper = getActionsForPaper(selectedPaperId);
 
 				if (actionsForPaper != null && !actionsForPaper.isEmpty()) {
 					System.out.println(
@@ -358,8 +680,19 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 		}
 	}
 
+	/**
+	 * Retrieves the actions recorded for one examination paper. The actions are
+	 * read from the paper itself through the {@link PaperIndex}, so the journal is
+	 * not scanned.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return A list of the paper's ExternalExaminerActions, empty if there is no
+	 *         such paper.
+	 */
+	@Override
 	public List<ExternalExaminerAction> getActionsForPaper(String paperId) {
-		return actionsByPaperId.getOrDefault(paperId, new ArrayList<>());
+		ExaminationPaper paper = Storage.paperIndex().find(paperId);
+		return paper == null ? new ArrayList<>() : new ArrayList<>(paper.actions());
 	}
 
 	@Override
@@ -380,9 +713,13 @@ public class ExaminerServiceImpl implements ExternalExaminerService, Serializabl
 
 	}
 
+	/**
+	 * Retrieves every recorded action, in the order the actions were recorded.
+	 *
+	 * @return A list of all ExternalExaminerActions.
+	 */
 	@Override
 	public List<ExternalExaminerAction> getAllActions() {
-		// TODO Auto-generated method stub
-		return null;
+		return replayActions();
 	}
 }
\ No newline at end of file
@@ -1,15 +1,12 @@
 package ie.atu.sw.model;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Scanner;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 import ie.atu.sw.services.Examiner;
 
@@ -20,8 +17,11 @@ import ie.atu.sw.services.Examiner;
  */
 public class ExaminerUtil implements Serializable {
 	private static final long serialVersionUID = 1L;
-	private static final Scanner scanner = new Scanner(System.in);
-	private static final String examinerDataFile = "examiner_data.dat";
+	private static final Scanner defaultScanner = new Scanner(System.in);
+	private static final Metrics.Timer addTimer = Metrics.timer("ExaminerUtil.addExaminer");
+	private static final Metrics.Timer findTimer = Metrics.timer("ExaminerUtil.findExaminer");
+	private static final Metrics.Timer loadTimer = Metrics.timer("ExaminerUtil.loadExaminers");
+	private static final Metrics.Timer updateTimer = Metrics.timer("ExaminerUtil.updateExaminer");
 
 	/**
 	 * Creates a new examiner based on user input. Prompts the user for details such
@@ -31,6 +31,66 @@ public class ExaminerUtil implements Serializable {
 	 * @return The newly created Examiner object.
 	 */
 	public static Examiner createExaminer() {
+		return createExaminer(defaultScanner);
+	}
+
+	/**
+	 * Creates a new examiner based on user input read from the given scanner.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 * @return The newly created Examiner object.
+	 */
+	public static Examiner createExaminer(Scanner scanner) {
+		Examiner examiner = readExaminer(scanner);
+		saveExaminer(examiner);
+		return examiner;
+	}
+
+	/**
+	 * Lets the user pick a stored examiner and enter new details for it. The
+	 * examiner keeps its ID, so its modules and actions show the new details.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 */
+	public static void editExaminer(Scanner scanner) {
+		List<Examiner> examiners = loadExaminers();
+		if (examiners == null || examiners.isEmpty()) {
+			System.out.println("\tNo examiners found.\n");
+			return;
+		}
+		System.out.println("List of Examiners:");
+		for (int i = 0; i < examiners.size(); i++) {
+			System.out.println((i + 1) + ". " + examiners.get(i).getName() + " (" + examiners.get(i).getType() + ")");
+		}
+		System.out.println("Select the examiner to edit (enter the number): ");
+		int choice = scanner.nextInt();
+		scanner.nextLine();
+		if (choice < 1 || choice > examiners.size()) {
+			System.out.println("Invalid selection.");
+			return;
+		}
+
+		String examinerId = examinerId(examiners.get(choice - 1));
+		Examiner examiner = readExaminer(scanner);
+		try {
+			updateExaminer(examinerId, examiner);
+			System.out.println("Examiner updated successfully.");
+		} catch (IllegalArgumentException e) {
+			System.out.println("Error: " + e.getMessage());
+		} catch (UncheckedIOException e) {
+			e.printStackTrace();
+			System.out.println("Error saving examiner.");
+		}
+	}
+
+	/**
+	 * Reads the details of an examiner from the user. Prompts for the name,
+	 * department and type, then for the details specific to the type.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 * @return The examiner entered.
+	 */
+	private static Examiner readExaminer(Scanner scanner) {
 
 		System.out.println("Enter Examiner Name: ");
 		String name = scanner.nextLine();
@@ -44,9 +104,9 @@ public class ExaminerUtil implements Serializable {
 		ExaminerType type = (typeChoice == 1) ? ExaminerType.INTERNAL : ExaminerType.EXTERNAL;
 
 		if (type == ExaminerType.INTERNAL) {
-			return createInternalExaminer(name, type, department);
+			return createInternalExaminer(scanner, name, type, department);
 		} else {
-			return createExternalExaminer(name, type, department);
+			return createExternalExaminer(scanner, name, type, department);
 		}
 
 	}
@@ -55,12 +115,14 @@ public class ExaminerUtil implements Serializable {
 	 * Creates and returns an InternalExaminer based on user inputs. Prompts the
 	 * user for additional details specific to internal examiners.
 	 *
+	 * @param scanner    The scanner for reading user input.
 	 * @param name       The name of the internal examiner.
 	 * @param type       The type of the examiner.
 	 * @param department The department of the examiner.
 	 * @return The newly created InternalExaminer object.
 	 */
-	private static InternalExaminer createInternalExaminer(String name, ExaminerType type, String department) {
+	private static InternalExaminer createInternalExaminer(Scanner scanner, String name, ExaminerType type,
+			String department) {
 
 		System.out.println("Enter School: ");
 		String school = scanner.nextLine();
@@ -82,70 +144,205 @@ public class ExaminerUtil implements Serializable {
 			scanner.nextLine();
 		}
 
-		InternalExaminer internalExaminer = new InternalExaminer(name, type, department, school, email, crn);
-		saveExaminer(internalExaminer);
-		return internalExaminer;
+		return new InternalExaminer(name, type, department, school, email, crn);
 	}
 
 	 /**
      * Creates and returns an ExternalExaminer based on user inputs.
      * Prompts the user for additional details specific to external examiners.
      *
+     * @param scanner The scanner for reading user input.
      * @param name The name of the external examiner.
      * @param type The type of the examiner.
      * @param department The department of the examiner.
      * @return The newly created ExternalExaminer object.
      */
-	private static ExternalExaminer createExternalExaminer(String name, ExaminerType type, String department) {
+	private static ExternalExaminer createExternalExaminer(Scanner scanner, String name, ExaminerType type,
+			String department) {
 
 		System.out.println("Enter Institution: ");
 		String institution = scanner.nextLine();
-		ExternalExaminer externalExaminer = new ExternalExaminer(name, type, department, institution);
-		saveExaminer(externalExaminer);
-		return externalExaminer;
+		return new ExternalExaminer(name, type, department, institution);
 	}
 
 	/**
-     * Saves a given examiner to a file.
-     * Serializes the examiner object and writes it to the specified data file.
+     * Saves a given examiner through the active storage engine.
+     * Only the new examiner record is written.
      *
      * @param examiner The Examiner object to be saved.
      */
 	private static void saveExaminer(Examiner examiner) {
-		List<Examiner> examinerList = loadExaminers();
-		if (examinerList == null) {
-			examinerList = new ArrayList<>();
-		}
-		examinerList.add(examiner);
-		try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(examinerDataFile))) {
-			outputStream.writeObject(examinerList);
+		try {
+			addExaminer(examiner);
 			System.out.println("Examiner saved successfully.");
-		} catch (IOException e) {
+		} catch (IllegalArgumentException e) {
+			System.out.println("Error: " + e.getMessage());
+		} catch (UncheckedIOException e) {
 			e.printStackTrace();
 			System.out.println("Error saving examiner.");
 		}
 	}
 
 	/**
-     * Loads and returns a list of examiners from a file.
-     * Deserialises the examiner objects from the specified data file.
+	 * Stores an examiner without user interaction, unless an equal examiner is
+	 * already stored.
+	 *
+	 * @param examiner The examiner to store.
+	 * @return The ID the examiner is stored under, see {@link ExaminerRegistry}.
+	 * @throws IllegalArgumentException If the engine derives IDs from the
+	 *                                  examiners' details and a different
+	 *                                  examiner is stored under the same
+	 *                                  {@link #examinerKey}.
+	 * @throws UncheckedIOException     If the examiner cannot be written.
+	 */
+	public static String addExaminer(Examiner examiner) {
+		long started = System.nanoTime();
+		try {
+			return Storage.engine().examinerRegistry().register(examiner);
+		} finally {
+			addTimer.record(started);
+		}
+	}
+
+	/**
+	 * Stores a new examiner without user interaction, failing if an equal
+	 * examiner is already stored. Unlike {@link #addExaminer(Examiner)}, two
+	 * callers adding the same examiner at once cannot both succeed.
+	 *
+	 * @param examiner The examiner to store.
+	 * @return The ID the examiner is stored under, see {@link ExaminerRegistry}.
+	 * @throws ExaminerExistsException  If an equal examiner is already stored.
+	 * @throws IllegalArgumentException If the engine derives IDs from the
+	 *                                  examiners' details and a different
+	 *                                  examiner is stored under the same
+	 *                                  {@link #examinerKey}.
+	 * @throws UncheckedIOException     If the examiner cannot be written.
+	 */
+	public static String addNewExaminer(Examiner examiner) {
+		long started = System.nanoTime();
+		try {
+			return Storage.engine().examinerRegistry().registerNew(examiner);
+		} finally {
+			addTimer.record(started);
+		}
+	}
+
+	/**
+	 * Changes the details of a stored examiner without user interaction, keeping
+	 * its ID. Modules and actions refer to the examiner by ID, so nothing else is
+	 * written. An engine that embeds examiners in modules has the examiner's
+	 * modules rewritten, keeps the copies in recorded actions as they were, and
+	 * moves the examiner to a new ID if its {@link #examinerKey} changes.
+	 *
+	 * @param examinerId The ID of the examiner.
+	 * @param examiner   The new details, of the same type as the stored examiner.
+	 * @return The ID of the examiner from now on.
+	 * @throws IllegalArgumentException If no examiner has the ID, the type would
+	 *                                  change, or another examiner is stored
+	 *                                  under the ID the examiner would take.
+	 * @throws UncheckedIOException     If the examiner cannot be written.
+	 */
+	public static String updateExaminer(String examinerId, Examiner examiner) {
+		long started = System.nanoTime();
+		try {
+			StorageEngine engine = Storage.engine();
+			String newId = engine.examinerRegistry().update(examinerId, examiner);
+			if (!newId.equals(examinerId)) {
+				Storage.examinerModuleIndex().examinerMoved(examinerId, newId);
+			}
+			if (engine.embedsExaminers()) {
+				for (String moduleCode : Storage.examinerModuleIndex().modulesFor(newId)) {
+					replaceExaminer(engine, moduleCode, examiner);
+				}
+			}
+			return newId;
+		} finally {
+			updateTimer.record(started);
+		}
+	}
+
+	private static void replaceExaminer(StorageEngine engine, String moduleCode, Examiner examiner) {
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+		lock.lock();
+		try {
+			ModuleInfo module = engine.modules().get(moduleCode);
+			if (module != null) {
+				boolean internal = examiner instanceof InternalExaminer;
+				ModuleInfoFileHandler.saveModule(new ModuleInfo(module.moduleCode(), module.moduleTitle(),
+						module.registrations(), module.programCode(), module.programTitle(), module.year(),
+						module.school(), module.department(), internal ? examiner : module.internalExaminer(),
+						internal ? module.externalExaminer() : examiner));
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Finds a stored examiner by ID. Examiners are held in memory by the
+	 * {@link ExaminerRegistry}, so nothing is read.
+	 *
+	 * @param examinerId The ID of the examiner.
+	 * @return The examiner, or null if there is none with that ID.
+	 */
+	public static Examiner findExaminer(String examinerId) {
+		long started = System.nanoTime();
+		try {
+			return Storage.engine().examinerRegistry().get(examinerId);
+		} finally {
+			findTimer.record(started);
+		}
+	}
+
+	/**
+	 * Returns the ID of an examiner, which stays the same when the examiner's
+	 * details change. Modules, actions and indexes refer to examiners by this ID.
+	 *
+	 * @param examiner The examiner, or null.
+	 * @return The ID of the examiner, or null if the examiner is null or not
+	 *         stored.
+	 */
+	public static String examinerId(Examiner examiner) {
+		return Storage.engine().examinerRegistry().idOf(examiner);
+	}
+
+	/**
+     * Loads and returns a list of examiners from the active storage engine.
      *
-     * @return A list of Examiner objects loaded from the file.
+     * @return A list of Examiner objects, or null if they could not be loaded.
      */
 	public static List<Examiner> loadExaminers() {
-		File file = new File(examinerDataFile);
-		if (!file.exists()) {
-			return new ArrayList<>();
-		}
-
-		try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(file))) {
-			List<Examiner> examinerList = (List<Examiner>) inputStream.readObject();
-			// System.out.println("Examiners loaded successfully.");
-			return examinerList;
-		} catch (IOException | ClassNotFoundException e) {
+		long started = System.nanoTime();
+		try {
+			return Storage.engine().examinerRegistry().examiners();
+		} catch (UncheckedIOException e) {
 			System.out.println("Error loading examiners: " + e.getMessage());
 			return null;
+		} finally {
+			loadTimer.record(started);
+		}
+	}
+
+	/**
+	 * Returns the key of an examiner: a name-based UUID of all of the examiner's
+	 * details, so that two examiners have the same key only if they are equal.
+	 * Repositories that store no keys, such as the legacy list files, store
+	 * examiners under their keys, and imported examiners keep their key as their
+	 * ID; use {@link #examinerId(Examiner)} to find the ID of a stored examiner.
+	 *
+	 * @param examiner The examiner.
+	 * @return The key of the examiner.
+	 */
+	public static String examinerKey(Examiner examiner) {
+		StringBuilder details = new StringBuilder().append(examiner.getType()).append('\0')
+				.append(examiner.getName()).append('\0').append(examiner.getDepartment());
+		if (examiner instanceof InternalExaminer internal) {
+			details.append('\0').append(internal.school()).append('\0').append(internal.email()).append('\0')
+					.append(internal.crn());
+		} else if (examiner instanceof ExternalExaminer external) {
+			details.append('\0').append(external.institution());
 		}
+		return UUID.nameUUIDFromBytes(details.toString().getBytes(StandardCharsets.UTF_8)).toString();
 	}
 
 	/**
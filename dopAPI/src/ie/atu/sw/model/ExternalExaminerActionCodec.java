@@ -0,0 +1,112 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+import ie.atu.sw.services.Examiner;
+
+/**
+ * Binary {@link RecordCodec} for {@link ExternalExaminerAction}. A record is a
+ * version byte followed by the module code, a reference to the examiner in the
+ * {@link ExaminerRegistry}, the comment, the action ordinal and the paper ID.
+ * Records of version 1, which embed the examiner's name, type, department and
+ * institution, are still read.
+ */
+public class ExternalExaminerActionCodec implements RecordCodec<ExternalExaminerAction> {
+	/**
+	 * Current format version.
+	 */
+	public static final int VERSION = 2;
+
+	static final int EMBEDDED_EXAMINER_VERSION = 1;
+	private static final int NONE = 0xFF;
+
+	private final Supplier<ExaminerRegistry> examinerRegistry;
+
+	/**
+	 * Creates a codec that refers to the examiners of actions by ID.
+	 *
+	 * @param examinerRegistry Supplies the registry holding the examiners the
+	 *                         records refer to.
+	 */
+	public ExternalExaminerActionCodec(Supplier<ExaminerRegistry> examinerRegistry) {
+		this.examinerRegistry = examinerRegistry;
+	}
+
+	@Override
+	public void write(ExternalExaminerAction action, DataOutput out) throws IOException {
+		out.writeByte(VERSION);
+		writeFields(action, out);
+	}
+
+	@Override
+	public ExternalExaminerAction read(DataInput in) throws IOException {
+		int version = in.readUnsignedByte();
+		return switch (version) {
+		case BinaryFormat.SERIALIZED_RECORD -> BinaryFormat.readSerialized(in);
+		case VERSION, EMBEDDED_EXAMINER_VERSION -> readFields(in, version);
+		default -> throw new IOException("Unsupported action format version " + version);
+		};
+	}
+
+	@Override
+	public void beforeImport(ExternalExaminerAction action) {
+		examinerRegistry.get().importExaminer(action.getExaminer());
+	}
+
+	/**
+	 * Writes an action without a version byte, for embedding in other records.
+	 *
+	 * @param action The action to write.
+	 * @param out    The output to write to.
+	 * @throws IOException If the action cannot be written.
+	 */
+	void writeFields(ExternalExaminerAction action, DataOutput out) throws IOException {
+		BinaryFormat.writeString(out, action.getModuleCode());
+		examinerRegistry.get().writeReference(action.getExaminer(), out);
+		BinaryFormat.writeString(out, action.getComment());
+		out.writeByte(action.getAction() == null ? NONE : action.getAction().ordinal());
+		BinaryFormat.writeString(out, action.getPaperId());
+	}
+
+	/**
+	 * Reads an action written by
+	 * {@link #writeFields(ExternalExaminerAction, DataOutput)}, or by an earlier
+	 * version of it.
+	 *
+	 * @param in      The input to read from.
+	 * @param version The format version the action was written with.
+	 * @return The action read.
+	 * @throws IOException If the action cannot be read.
+	 */
+	ExternalExaminerAction readFields(DataInput in, int version) throws IOException {
+		String moduleCode = BinaryFormat.readCanonicalString(in);
+		ExternalExaminer examiner = version == EMBEDDED_EXAMINER_VERSION
+				? examinerRegistry.get().canonical(readEmbeddedExaminer(in))
+				: external(examinerRegistry.get().readReference(in));
+		String comment = BinaryFormat.readString(in);
+		int action = in.readUnsignedByte();
+		return new ExternalExaminerAction(moduleCode, examiner, comment,
+				action == NONE ? null : ExternalExaminerActions.values()[action], BinaryFormat.readString(in));
+	}
+
+	private static ExternalExaminer readEmbeddedExaminer(DataInput in) throws IOException {
+		if (!in.readBoolean()) {
+			return null;
+		}
+		String name = BinaryFormat.readCanonicalString(in);
+		int type = in.readUnsignedByte();
+		return new ExternalExaminer(name, type == NONE ? null : ExaminerType.values()[type],
+				BinaryFormat.readCanonicalString(in), BinaryFormat.readCanonicalString(in));
+	}
+
+	private static ExternalExaminer external(Examiner examiner) throws IOException {
+		if (examiner != null && !(examiner instanceof ExternalExaminer)) {
+			throw new IOException("Examiner " + examiner.getName() + " of an action is not an external examiner");
+		}
+		return (ExternalExaminer) examiner;
+	}
+}
@@ -0,0 +1,46 @@
+package ie.atu.sw.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * The size, modification time and identity of a data file, read with one call.
+ * A repository compares the stamp of its file with the one it noted when it
+ * last read or wrote the file to tell whether another process has changed the
+ * file since.
+ *
+ * @param size     The size of the file in bytes, or -1 if it does not exist.
+ * @param modified The time the file was last modified.
+ * @param fileKey  The identity of the file, which changes when another file is
+ *                 renamed over it; null if the file does not exist or the file
+ *                 system has no such identity.
+ */
+record FileStamp(long size, FileTime modified, Object fileKey) {
+	/**
+	 * The stamp of a file that does not exist.
+	 */
+	static final FileStamp MISSING = new FileStamp(-1, FileTime.fromMillis(0), null);
+
+	/**
+	 * Reads the stamp of a file.
+	 *
+	 * @param file The file.
+	 * @return The stamp, or {@link #MISSING} if the file does not exist.
+	 * @throws UncheckedIOException If the attributes of the file cannot be read.
+	 */
+	static FileStamp of(File file) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+			return new FileStamp(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey());
+		} catch (NoSuchFileException e) {
+			return MISSING;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error reading the attributes of " + file.getName(), e);
+		}
+	}
+}
@@ -1,11 +1,14 @@
 package ie.atu.sw.model;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 /**
@@ -15,26 +18,50 @@ import java.util.List;
  */
 public class FileUtil implements Serializable {
 	private static final long serialVersionUID = 1L;
+	private static final Metrics.Timer saveTimer = Metrics.timer("FileUtil.saveToFile");
+	private static final Metrics.Timer loadTimer = Metrics.timer("FileUtil.loadFromFile");
 
 	/**
 	 * Saves a list of objects to a file. This method serializes a list of objects
-	 * and writes them to the specified file.
+	 * to a temporary file of its own beside the specified file and renames it
+	 * over that file, so that other processes reading the file never see it half written.
 	 *
 	 * @param fileName The name of the file to save the data to.
 	 * @param data     The list of objects to be saved.
 	 * @throws IOException If an I/O error occurs while writing to the file.
 	 */
 	public static void saveToFile(String fileName, List<?> data) {
-		try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(fileName))) {
-			outputStream.writeObject(data);
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		long started = System.nanoTime();
+		File tempFile = null;
+		try {
+			File target = new File(fileName).getAbsoluteFile();
+			// Each save has its own temporary file, so that processes saving at once do
+			// not write into or rename away each other's.
+			tempFile = File.createTempFile(target.getName() + ".", ".tmp", target.getParentFile());
+			try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(tempFile))) {
+				outputStream.writeObject(data);
+			}
+			Files.move(tempFile.toPath(), new File(fileName).toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
 		} catch (IOException e) {
 			e.printStackTrace();
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		} finally {
+			File file = new File(fileName);
+			Metrics.bytesWritten(file.getName()).add(file.length());
+			saveTimer.record(started);
+			event.finish("serialize", file, data == null ? 0 : data.size(), file.length());
 		}
 	}
 
 	/**
 	 * Loads and returns a list of objects from a file. This method deserializes a
-	 * list of objects from the specified file.
+	 * list of objects from the specified file. The repeated fields of the model
+	 * records read share their {@link StringTable} instances.
 	 *
 	 * @param <T>      The type of objects in the returned list.
 	 * @param fileName The name of the file to load the data from.
@@ -46,11 +73,21 @@ public class FileUtil implements Serializable {
 	 */
 	public static <T> List<T> loadFromFile(String fileName) {
 		// System.out.println(fileName);
-		try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(fileName))) {
-			return (List<T>) inputStream.readObject();
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		long started = System.nanoTime();
+		File file = new File(fileName);
+		List<T> loaded = null;
+		try (ObjectInputStream inputStream = new CanonicalObjectInputStream(new FileInputStream(file))) {
+			Metrics.bytesRead(file.getName()).add(file.length());
+			loaded = (List<T>) inputStream.readObject();
+			return loaded;
 		} catch (IOException | ClassNotFoundException e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			loadTimer.record(started);
+			event.finish("deserialize", file, loaded == null ? 0 : loaded.size(), file.length());
 		}
 	}
 }
@@ -0,0 +1,267 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects items submitted by concurrent callers and commits them in batches
+ * on a single committer thread. After the first item of a batch arrives, the
+ * committer keeps collecting for up to the maximum delay or until the batch is
+ * full, then hands the whole batch to the {@link BatchWriter}, which writes it
+ * and makes it durable once. Every caller holds a future that completes when
+ * the batch containing its item has been committed, so the cost of the durable
+ * flush is shared by all the callers in the batch and throughput grows with
+ * the number of concurrent callers. Closing the committer, or interrupting its
+ * thread, commits every item already submitted before the thread stops.
+ *
+ * <p>
+ * If the writer throws an {@link Error}, or the committer thread otherwise
+ * fails, the batch and every item still queued fail with it and the committer
+ * closes, so that no caller is left waiting on a future that will never
+ * complete and later submissions are rejected.
+ *
+ * @param <T> The type of item committed.
+ */
+public class GroupCommitter<T> {
+	private static final Object SHUTDOWN = new Object();
+
+	private final BatchWriter<T> writer;
+	private final int maxBatch;
+	private final long maxDelayNanos;
+	private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+	private final Thread committer;
+	private final ReentrantLock lock = new ReentrantLock();
+	private boolean closed;
+
+	/**
+	 * Writes a batch of items and makes it durable.
+	 *
+	 * @param <T> The type of item written.
+	 */
+	@FunctionalInterface
+	public interface BatchWriter<T> {
+		/**
+		 * Writes a batch of items, in submission order, and makes it durable.
+		 *
+		 * @param batch The items to write.
+		 * @throws PartialCommitException If only some of the items could not be
+		 *                                committed; the others are.
+		 * @throws Exception              If the batch could not be committed;
+		 *                                every item in it then fails.
+		 */
+		void write(List<T> batch) throws Exception;
+	}
+
+	/**
+	 * Thrown by a {@link BatchWriter} that committed part of a batch. Only the
+	 * items it names fail; every other item of the batch was committed.
+	 */
+	public static class PartialCommitException extends Exception {
+		private static final long serialVersionUID = 1L;
+		private final transient Map<Integer, Exception> failures;
+
+		/**
+		 * Creates the exception.
+		 *
+		 * @param failures The cause of each failed item, keyed by the item's
+		 *                 position in the batch.
+		 */
+		public PartialCommitException(Map<Integer, Exception> failures) {
+			super(failures.size() + " items could not be committed");
+			this.failures = failures;
+		}
+
+		/**
+		 * Returns the items that failed.
+		 *
+		 * @return The cause of each failed item, keyed by the item's position in
+		 *         the batch.
+		 */
+		public Map<Integer, Exception> failures() {
+			return failures;
+		}
+	}
+
+	/**
+	 * Starts a committer.
+	 *
+	 * @param name          The name of the committer thread.
+	 * @param writer        Writes each batch.
+	 * @param maxBatch      The largest number of items committed together.
+	 * @param maxDelayNanos How long to keep collecting after the first item of a
+	 *                      batch arrives, in nanoseconds.
+	 */
+	public GroupCommitter(String name, BatchWriter<T> writer, int maxBatch, long maxDelayNanos) {
+		this.writer = writer;
+		this.maxBatch = maxBatch;
+		this.maxDelayNanos = maxDelayNanos;
+		this.committer = new Thread(this::run, name);
+		committer.setDaemon(true);
+		committer.start();
+	}
+
+	/**
+	 * Submits an item for the next batch.
+	 *
+	 * @param item The item to commit.
+	 * @return A future completed with the item once its batch is committed, or
+	 *         exceptionally if the batch fails.
+	 * @throws RejectedExecutionException If the committer has been closed or has
+	 *                                    failed.
+	 */
+	public CompletableFuture<T> submit(T item) {
+		Pending<T> pending = new Pending<>(item, new CompletableFuture<>());
+		// Checked and queued together, so nothing is queued behind the shutdown
+		// marker.
+		lock.lock();
+		try {
+			if (closed) {
+				throw new RejectedExecutionException("Committer is closed");
+			}
+			queue.add(pending);
+		} finally {
+			lock.unlock();
+		}
+		return pending.future();
+	}
+
+	/**
+	 * Commits every item already submitted and stops the committer thread.
+	 */
+	public void close() {
+		lock.lock();
+		try {
+			if (!closed) {
+				closed = true;
+				queue.add(SHUTDOWN);
+			}
+		} finally {
+			lock.unlock();
+		}
+		try {
+			committer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run() {
+		List<Pending<T>> batch = new ArrayList<>(maxBatch);
+		try {
+			commitUntilClosed(batch);
+		} catch (Throwable t) {
+			fail(batch, t);
+			throw t;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void commitUntilClosed(List<Pending<T>> batch) {
+		try {
+			while (true) {
+				Object next = queue.take();
+				long deadline = System.nanoTime() + maxDelayNanos;
+				while (next != SHUTDOWN) {
+					batch.add((Pending<T>) next);
+					if (batch.size() >= maxBatch) {
+						break;
+					}
+					next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+				}
+				if (!batch.isEmpty()) {
+					commit(batch);
+					batch.clear();
+				}
+				if (next == SHUTDOWN) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			lock.lock();
+			try {
+				closed = true;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		// Commit whatever was submitted before the committer was closed, including
+		// any part of a batch collected when it was interrupted.
+		Object next;
+		while ((next = queue.poll()) != null) {
+			if (next != SHUTDOWN) {
+				batch.add((Pending<T>) next);
+			}
+			if (batch.size() >= maxBatch) {
+				commit(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			commit(batch);
+		}
+	}
+
+	private void commit(List<Pending<T>> batch) {
+		List<T> items = new ArrayList<>(batch.size());
+		for (Pending<T> pending : batch) {
+			items.add(pending.item());
+		}
+		try {
+			writer.write(items);
+			for (Pending<T> pending : batch) {
+				pending.future().complete(pending.item());
+			}
+		} catch (PartialCommitException e) {
+			for (int i = 0; i < batch.size(); i++) {
+				Exception failure = e.failures().get(i);
+				if (failure == null) {
+					batch.get(i).future().complete(batch.get(i).item());
+				} else {
+					batch.get(i).future().completeExceptionally(failure);
+				}
+			}
+		} catch (Exception e) {
+			for (Pending<T> pending : batch) {
+				pending.future().completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Closes the committer after its thread failed, failing the batch being
+	 * committed and every item still queued.
+	 */
+	@SuppressWarnings("unchecked")
+	private void fail(List<Pending<T>> batch, Throwable cause) {
+		lock.lock();
+		try {
+			closed = true;
+		} finally {
+			lock.unlock();
+		}
+		RejectedExecutionException failure = new RejectedExecutionException("Committer failed", cause);
+		for (Pending<T> pending : batch) {
+			pending.future().completeExceptionally(failure);
+		}
+		Object next;
+		while ((next = queue.poll()) != null) {
+			if (next != SHUTDOWN) {
+				((Pending<T>) next).future().completeExceptionally(failure);
+			}
+		}
+	}
+
+	private record Pending<T>(T item, CompletableFuture<T> future) {
+	}
+}
@@ -0,0 +1,74 @@
+package ie.atu.sw.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Storage engine that keeps the original file layout: every repository is a
+ * single {@code .dat} file holding a serialized list, rewritten in full on
+ * every change through {@link FileUtil}. Useful for compatibility with data
+ * written by earlier versions of the application. Papers keep their own copy of
+ * each question, as in the original files; only questions added through the
+ * question service are kept in the {@link QuestionBank}. Likewise modules and
+ * actions keep their own copy of each examiner, and examiners are stored under
+ * keys derived from their details.
+ */
+public class LegacyStorageEngine implements StorageEngine {
+	private final Map<String, Repository<?>> repositories = new ConcurrentHashMap<>();
+	private volatile QuestionBank questionBank;
+	private volatile ExaminerRegistry examinerRegistry;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <V> Repository<V> open(String name, RecordCodec<V> codec, Function<? super V, String> keyFunction) {
+		return (Repository<V>) repositories.computeIfAbsent(name,
+				n -> new SerializedListRepository<>(Storage.file(n + ".dat").getPath(), keyFunction));
+	}
+
+	@Override
+	public Map<String, Repository<?>> openRepositories() {
+		return new HashMap<>(repositories);
+	}
+
+	@Override
+	public QuestionBank questionBank() {
+		QuestionBank bank = questionBank;
+		if (bank == null) {
+			synchronized (this) {
+				if (questionBank == null) {
+					questionBank = new QuestionBank(open(QUESTIONS, RecordCodecs.questions(), QuestionBank::questionId));
+				}
+				bank = questionBank;
+			}
+		}
+		return bank;
+	}
+
+	@Override
+	public ExaminerRegistry examinerRegistry() {
+		ExaminerRegistry registry = examinerRegistry;
+		if (registry == null) {
+			synchronized (this) {
+				if (examinerRegistry == null) {
+					examinerRegistry = new ExaminerRegistry(examiners(), examinerAliases(), false);
+				}
+				registry = examinerRegistry;
+			}
+		}
+		return registry;
+	}
+
+	@Override
+	public boolean embedsExaminers() {
+		return true;
+	}
+
+	@Override
+	public void close() {
+		repositories.clear();
+		questionBank = null;
+		examinerRegistry = null;
+	}
+}
@@ -0,0 +1,127 @@
+package ie.atu.sw.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An exclusive lock taken on a lock file beside a data file, so that the
+ * processes sharing the data directory take turns changing the data file.
+ *
+ * <p>
+ * The operating system grants the lock to a whole process, so within one
+ * process the lock is first taken on a {@link ReentrantLock} shared by every
+ * {@code LockFile} on the same path: threads, and separate objects locking the
+ * same file, then wait for one another as other processes do. The lock is
+ * reentrant; only the outermost hold takes the lock on the file. The lock file
+ * is opened on first use and stays open until {@link #close()}.
+ */
+final class LockFile implements AutoCloseable {
+	private static final Map<String, ReentrantLock> processLocks = new ConcurrentHashMap<>();
+
+	private final File file;
+	private final ReentrantLock processLock;
+	private FileChannel channel;
+	private FileLock held;
+
+	/**
+	 * Creates a lock on a lock file. The file is created when first locked.
+	 *
+	 * @param file The lock file.
+	 */
+	LockFile(File file) {
+		this.file = file;
+		this.processLock = processLocks.computeIfAbsent(file.getAbsolutePath(), path -> new ReentrantLock());
+	}
+
+	/**
+	 * Takes the lock, waiting for other threads and processes holding it.
+	 *
+	 * @throws IOException If the lock file cannot be opened or locked.
+	 */
+	void lock() throws IOException {
+		processLock.lock();
+		if (processLock.getHoldCount() > 1) {
+			return;
+		}
+		try {
+			held = channel().lock();
+		} catch (IOException | RuntimeException e) {
+			processLock.unlock();
+			throw e;
+		}
+	}
+
+	/**
+	 * Takes the lock only if no other thread or process holds it.
+	 *
+	 * @return true if the lock was taken.
+	 * @throws IOException If the lock file cannot be opened or locked.
+	 */
+	boolean tryLock() throws IOException {
+		if (!processLock.tryLock()) {
+			return false;
+		}
+		if (processLock.getHoldCount() > 1) {
+			return true;
+		}
+		try {
+			held = channel().tryLock();
+		} catch (IOException | RuntimeException e) {
+			processLock.unlock();
+			throw e;
+		}
+		if (held == null) {
+			processLock.unlock();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Releases one hold of the lock, and the lock on the file with the last one.
+	 */
+	void unlock() {
+		try {
+			if (processLock.getHoldCount() == 1 && held != null) {
+				held.release();
+				held = null;
+			}
+		} catch (IOException e) {
+			System.err.println("Error unlocking " + file.getName() + ": " + e.getMessage());
+		} finally {
+			processLock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the lock file. It is opened again if the lock is taken again.
+	 */
+	@Override
+	public void close() {
+		processLock.lock();
+		try {
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+		} catch (IOException e) {
+			System.err.println("Error closing " + file.getName() + ": " + e.getMessage());
+		} finally {
+			processLock.unlock();
+		}
+	}
+
+	private FileChannel channel() throws IOException {
+		// An interrupted lock closes the channel.
+		if (channel == null || !channel.isOpen()) {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		}
+		return channel;
+	}
+}
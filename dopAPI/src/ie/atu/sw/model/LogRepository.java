@@ -0,0 +1,1000 @@
+package ie.atu.sw.model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Repository stored as an append-only log of binary records. The file starts
+ * with an 8 byte header ({@code "ATUD"} and a format version) followed by
+ * records laid out as
+ * {@code [byte op][int keyLength][key][int valueLength][value][int crc32][int recordLength]},
+ * where the checksum covers the value bytes. Replacing a value appends a new
+ * record; removing one appends a tombstone.
+ *
+ * <p>
+ * The trailing record length lets the repository verify the last record
+ * without reading the rest of the log, so opening a repository and appending
+ * to it, or reading a record at a known {@link RecordLocation}, costs the same
+ * however many records the log holds. The in-memory key index is only built,
+ * by one sequential pass over the log, when a keyed lookup or scan first needs
+ * it. A torn record at the end of the file is truncated away.
+ *
+ * <p>
+ * So that the pass does not grow with the history of the log, the key index is
+ * snapshotted to {@code <file>.idx} when the repository is closed or
+ * {@link #snapshot()} is called. The snapshot records the log length it
+ * covers, so building the index loads the snapshot and replays only the
+ * records appended after it. Once superseded records and tombstones make up
+ * most of the log, {@link #compact()} rewrites it with only the live records.
+ *
+ * <p>
+ * A read that starts shortly after the previous one ended, as when a scan
+ * walks the log or records written together are read together, fetches the
+ * bytes after it at once, so that the records that follow are served from
+ * memory. The window starts at {@value #MIN_READ_AHEAD_BYTES} bytes and doubles
+ * while reads stay sequential, up to {@value #MAX_READ_AHEAD_BYTES} bytes.
+ *
+ * <p>
+ * Other processes sharing the data directory may append to the log or compact
+ * it. {@link #refresh()} notices either from the size and identity of the file:
+ * records appended by another process are replayed into the key index, and a
+ * log renamed over this one is reopened from scratch. Appending, compacting,
+ * snapshotting and truncating a torn tail are done holding a {@link LockFile}
+ * on {@code <file>.lock}, and every append and compaction first makes the same
+ * check, so that no process writes over records another appended, writes to a
+ * log that was replaced, or compacts away records it has not seen. Every read
+ * checks the key and checksum of the whole record, so a location held from
+ * before another process compacted the log is noticed and the key looked up
+ * again rather than decoding whatever now lies at that offset.
+ *
+ * <p>
+ * Access is serialised by a {@link ReentrantLock} rather than the object
+ * monitor, so virtual threads waiting for the repository do not pin their
+ * carrier threads.
+ *
+ * @param <V> The type of value stored in the repository.
+ */
+public class LogRepository<V> implements Repository<V> {
+	private static final int MAGIC = 0x41545544;
+	private static final int VERSION = 2;
+	private static final int HEADER_BYTES = 8;
+	private static final int RECORD_OVERHEAD = 1 + 4 + 4 + 4 + 4;
+	private static final byte OP_PUT = 1;
+	private static final byte OP_REMOVE = 2;
+	private static final int SNAPSHOT_MAGIC = 0x41545549;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final long COMPACT_MIN_GARBAGE_BYTES = 64 * 1024;
+	private static final int MIN_READ_AHEAD_BYTES = 4 * 1024;
+	private static final int MAX_READ_AHEAD_BYTES = 64 * 1024;
+
+	private final File file;
+	private final File snapshotFile;
+	private final RecordCodec<V> codec;
+	private final LongAdder bytesRead;
+	private final LongAdder bytesWritten;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final LockFile lockFile;
+	private Map<String, RecordLocation> index;
+	private FileChannel channel;
+	private Object fileKey;
+	private boolean caughtUp;
+	private long end = -1;
+	private long liveBytes;
+	private long snapshotEnd = -1;
+	private ByteBuffer readAhead;
+	private long readAheadStart = -1;
+	private long lastReadEnd = -1;
+	private int readAheadBytes = MIN_READ_AHEAD_BYTES;
+	private boolean unsynced;
+
+	/**
+	 * Opens the repository. If the log does not exist yet but a legacy list file
+	 * does, the legacy values are imported.
+	 *
+	 * @param file        The log file backing the repository.
+	 * @param legacyFile  A legacy list file to import from, or null.
+	 * @param codec       The codec used to encode values.
+	 * @param keyFunction Extracts the key of each imported legacy value.
+	 */
+	public LogRepository(File file, File legacyFile, RecordCodec<V> codec, Function<? super V, String> keyFunction) {
+		this.file = file;
+		this.snapshotFile = new File(file.getPath() + ".idx");
+		this.lockFile = new LockFile(new File(file.getPath() + ".lock"));
+		this.codec = codec;
+		this.bytesRead = Metrics.bytesRead(file.getName());
+		this.bytesWritten = Metrics.bytesWritten(file.getName());
+		if (!file.exists()) {
+			// A snapshot without its log describes some earlier, deleted log.
+			snapshotFile.delete();
+		}
+		if (!file.exists() && legacyFile != null && legacyFile.exists() && legacyFile.length() > 0) {
+			List<V> legacy = FileUtil.loadFromFile(legacyFile.getPath());
+			if (legacy != null) {
+				for (V value : legacy) {
+					codec.beforeImport(value);
+					write(keyFunction.apply(value), value);
+				}
+			}
+		}
+	}
+
+	@Override
+	public V get(String key) {
+		lock.lock();
+		try {
+			RecordLocation location = index().get(key);
+			return location == null ? null : read(key, location);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean containsKey(String key) {
+		lock.lock();
+		try {
+			return index().containsKey(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public RecordLocation put(String key, V value) {
+		lock.lock();
+		try {
+			return write(key, value);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(String key) {
+		lock.lock();
+		try {
+			if (!index().containsKey(key)) {
+				return false;
+			}
+			append(OP_REMOVE, key, new byte[0]);
+			// Another process may have removed the key before the append caught up.
+			RecordLocation removed = index.remove(key);
+			if (removed != null) {
+				liveBytes -= recordSize(key, removed);
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing to " + file.getName(), e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the record at a location, first checking that the record there is
+	 * intact and stores a value for the key. If it is not, as when another process
+	 * compacted the log since the location was handed out, the log is refreshed
+	 * and the key looked up again.
+	 */
+	@Override
+	public V read(String key, RecordLocation location) {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		lock.lock();
+		try {
+			V value = decode(key, location);
+			if (value != null) {
+				return value;
+			}
+			refresh();
+			RecordLocation current = index().get(key);
+			if (current == null) {
+				return null;
+			}
+			value = decode(key, current);
+			if (value == null) {
+				throw corrupt(key, current);
+			}
+			return value;
+		} finally {
+			lock.unlock();
+			event.finish("read", file, 1, location.length());
+		}
+	}
+
+	/**
+	 * Returns the location of the latest value stored under a key.
+	 *
+	 * @param key The key to look up.
+	 * @return The record location, or null if there is no value for the key.
+	 */
+	@Override
+	public RecordLocation locate(String key) {
+		lock.lock();
+		try {
+			return index().get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void scan(BiConsumer<String, ? super V> visitor) {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		int count = 0;
+		long bytes = 0;
+		lock.lock();
+		try {
+			for (Map.Entry<String, RecordLocation> entry : index().entrySet()) {
+				V value = decode(entry.getKey(), entry.getValue());
+				if (value == null) {
+					throw corrupt(entry.getKey(), entry.getValue());
+				}
+				visitor.accept(entry.getKey(), value);
+				count++;
+				bytes += entry.getValue().length();
+			}
+		} finally {
+			lock.unlock();
+			event.finish("scan", file, count, bytes);
+		}
+	}
+
+	@Override
+	public List<V> values() {
+		lock.lock();
+		try {
+			List<V> values = new ArrayList<>(index().size());
+			scan((key, value) -> values.add(value));
+			return values;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the values at a range of positions. Skipping walks the in-memory key
+	 * index, so only the returned values are read from the log.
+	 */
+	@Override
+	public List<V> values(long offset, int limit) {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		List<V> values = new ArrayList<>();
+		long bytes = 0;
+		lock.lock();
+		try {
+			long skipped = 0;
+			for (Map.Entry<String, RecordLocation> entry : index().entrySet()) {
+				if (values.size() == limit) {
+					break;
+				}
+				if (skipped++ >= offset) {
+					V value = decode(entry.getKey(), entry.getValue());
+					if (value == null) {
+						throw corrupt(entry.getKey(), entry.getValue());
+					}
+					values.add(value);
+					bytes += entry.getValue().length();
+				}
+			}
+			return values;
+		} finally {
+			lock.unlock();
+			event.finish("scan", file, values.size(), bytes);
+		}
+	}
+
+	@Override
+	public Set<String> keys() {
+		lock.lock();
+		try {
+			return new LinkedHashSet<>(index().keySet());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return index().size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forces the records appended so far to the storage device.
+	 */
+	@Override
+	public void sync() {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		lock.lock();
+		try {
+			// Repositories that were only read since the last sync have nothing to force.
+			if (channel != null && unsynced) {
+				channel.force(false);
+				unsynced = false;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error syncing " + file.getName(), e);
+		} finally {
+			lock.unlock();
+			event.finish("sync", file, 0, 0);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the key index if it has changed since the last one, so
+	 * that the next time the index is built only later records are replayed.
+	 */
+	@Override
+	public void snapshot() {
+		lock.lock();
+		try {
+			if (index != null && end != snapshotEnd) {
+				writeSnapshot();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error snapshotting " + file.getName(), e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Rewrites the log with only the latest record of every live key once
+	 * superseded records and tombstones take up more than half of it, and
+	 * snapshots the new index. The compacted log is written beside the old one
+	 * and renamed over it, so a crash leaves one complete log or the other. The
+	 * lock file is held throughout, after replaying the records other processes
+	 * appended, so none of them is left behind in the old log.
+	 *
+	 * @return true if the log was compacted, in which case every location handed
+	 *         out earlier is invalid.
+	 */
+	@Override
+	public boolean compact() {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		lock.lock();
+		try {
+			lockFile.lock();
+		} catch (IOException e) {
+			lock.unlock();
+			throw new UncheckedIOException("Error locking " + file.getName(), e);
+		}
+		try {
+			follow();
+			Map<String, RecordLocation> live = index();
+			long garbage = end - HEADER_BYTES - liveBytes;
+			if (garbage < COMPACT_MIN_GARBAGE_BYTES || garbage < liveBytes) {
+				return false;
+			}
+
+			File compactFile = new File(file.getPath() + ".compact");
+			Map<String, RecordLocation> compacted = new LinkedHashMap<>();
+			long position = HEADER_BYTES;
+			try (FileChannel out = FileChannel.open(compactFile.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				writeFully(out, header(), 0);
+				for (Map.Entry<String, RecordLocation> entry : live.entrySet()) {
+					byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+					RecordLocation location = entry.getValue();
+					byte[] value = readBytes(location.offset(), location.length());
+					ByteBuffer record = encodeRecord(OP_PUT, keyBytes, value);
+					writeFully(out, record, position);
+					compacted.put(entry.getKey(), new RecordLocation(position + valueStart(keyBytes), value.length));
+					position += record.limit();
+				}
+				out.force(false);
+			}
+			bytesWritten.add(position);
+
+			// Until the new snapshot is written, opening falls back to a full scan.
+			Files.deleteIfExists(snapshotFile.toPath());
+			snapshotEnd = -1;
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+			readAheadStart = -1;
+			Files.move(compactFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			fileKey = FileStamp.of(file).fileKey();
+			index = compacted;
+			end = position;
+			liveBytes = position - HEADER_BYTES;
+			event.finish("compact", file, compacted.size(), position);
+			writeSnapshot();
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error compacting " + file.getName(), e);
+		} finally {
+			lockFile.unlock();
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Replays the records another process appended to the log since this
+	 * repository last read or wrote it, or reopens the log if another process
+	 * replaced it, as compaction does. The log is unchanged while it is the same
+	 * file and ends where this repository last saw it end. Nothing is done if
+	 * the log has not been opened yet.
+	 */
+	@Override
+	public boolean refresh() {
+		lock.lock();
+		try {
+			boolean changed = caughtUp;
+			caughtUp = false;
+			if (end < 0) {
+				return changed;
+			}
+			FileStamp stamp = FileStamp.of(file);
+			boolean sameFile = fileKey == null || Objects.equals(stamp.fileKey(), fileKey);
+			if (sameFile && stamp.size() == end) {
+				return changed;
+			}
+			if (sameFile && stamp.size() > end) {
+				catchUp(stamp.size());
+			} else {
+				reopen();
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error refreshing " + file.getName(), e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Snapshots the key index if it has changed and closes the underlying file.
+	 * The repository reopens it on the next access.
+	 */
+	public void close() {
+		lock.lock();
+		try {
+			if (index != null && end != snapshotEnd) {
+				try {
+					writeSnapshot();
+				} catch (IOException e) {
+					System.err.println("Error snapshotting " + file.getName() + ": " + e.getMessage());
+				}
+			}
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					System.err.println("Error closing " + file.getName() + ": " + e.getMessage());
+				}
+				channel = null;
+			}
+			readAheadStart = -1;
+			lockFile.close();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private RecordLocation write(String key, V value) {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+			codec.write(value, new DataOutputStream(bytes));
+			RecordLocation location = append(OP_PUT, key, bytes.toByteArray());
+			event.finish("write", file, 1, location.length());
+			if (index != null) {
+				RecordLocation previous = index.put(key, location);
+				liveBytes += recordSize(key, location) - (previous == null ? 0 : recordSize(key, previous));
+			}
+			return location;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing to " + file.getName(), e);
+		}
+	}
+
+	private FileChannel channel() throws IOException {
+		if (channel == null) {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			fileKey = FileStamp.of(file).fileKey();
+			if (channel.size() == 0) {
+				writeFully(channel, header(), 0);
+				unsynced = true;
+			}
+		}
+		return channel;
+	}
+
+	private RecordLocation append(byte op, String key, byte[] value) throws IOException {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer record = encodeRecord(op, keyBytes, value);
+		lockFile.lock();
+		try {
+			follow();
+			long start = end;
+			writeFully(channel(), record, start);
+			unsynced = true;
+			bytesWritten.add(record.limit());
+			end += record.limit();
+			return new RecordLocation(start + valueStart(keyBytes), value.length);
+		} finally {
+			lockFile.unlock();
+		}
+	}
+
+	/**
+	 * Brings this repository up to date with the log before changing it: a log
+	 * another process renamed over this one is reopened, records other processes
+	 * appended are replayed, and a torn record left by a process that crashed
+	 * while appending is truncated. Called holding the lock file, so no other
+	 * process is writing to the log meanwhile.
+	 */
+	private void follow() throws IOException {
+		open();
+		FileStamp stamp = FileStamp.of(file);
+		if (fileKey != null && (!Objects.equals(stamp.fileKey(), fileKey) || stamp.size() < end)) {
+			reopen();
+			open();
+			caughtUp = true;
+		} else if (stamp.size() > end) {
+			catchUp(stamp.size());
+			caughtUp = true;
+			if (end < stamp.size()) {
+				System.err.println("Truncating torn tail of " + file.getName() + " at byte " + end);
+				channel().truncate(end);
+				unsynced = true;
+			}
+		}
+	}
+
+	/**
+	 * Replays the records appended after the end this repository knows of. A
+	 * record still being written by another process ends the replay without
+	 * being truncated.
+	 */
+	private void catchUp(long length) throws IOException {
+		readAheadStart = -1;
+		long position = replay(index, end, length);
+		bytesRead.add(position - end);
+		end = position;
+		if (index != null) {
+			liveBytes = liveBytes(index);
+		}
+	}
+
+	/**
+	 * Forgets everything read from the log, so that the next access opens it
+	 * again.
+	 */
+	private void reopen() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+		fileKey = null;
+		index = null;
+		end = -1;
+		liveBytes = 0;
+		snapshotEnd = -1;
+		readAheadStart = -1;
+		lastReadEnd = -1;
+		unsynced = false;
+	}
+
+	private static ByteBuffer header() {
+		return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+	}
+
+	private static ByteBuffer encodeRecord(byte op, byte[] keyBytes, byte[] value) {
+		CRC32 crc = new CRC32();
+		crc.update(value);
+		int recordLength = RECORD_OVERHEAD + keyBytes.length + value.length;
+		ByteBuffer record = ByteBuffer.allocate(recordLength);
+		record.put(op).putInt(keyBytes.length).put(keyBytes).putInt(value.length).put(value)
+				.putInt((int) crc.getValue()).putInt(recordLength).flip();
+		return record;
+	}
+
+	private static int valueStart(byte[] keyBytes) {
+		return 1 + 4 + keyBytes.length + 4;
+	}
+
+	private static long recordSize(String key, RecordLocation location) {
+		return RECORD_OVERHEAD + key.getBytes(StandardCharsets.UTF_8).length + location.length();
+	}
+
+	private static void writeFully(FileChannel fileChannel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			fileChannel.write(buffer, position + buffer.position());
+		}
+	}
+
+	/**
+	 * Reads and decodes the value of the whole record around a location, or
+	 * returns null if the log ends before the record does, or the record is not
+	 * an intact record storing a value of the location's length for the key.
+	 */
+	private V decode(String key, RecordLocation location) {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		long start = location.offset() - valueStart(keyBytes);
+		int size = RECORD_OVERHEAD + keyBytes.length + location.length();
+		if (start < HEADER_BYTES) {
+			return null;
+		}
+		try {
+			byte[] bytes;
+			try {
+				bytes = readBytes(start, size);
+			} catch (EOFException e) {
+				return null;
+			}
+			Record record = readRecord(new DataInputStream(new ByteArrayInputStream(bytes)), start, size);
+			if (record == null || record.op() != OP_PUT || !record.key().equals(key)
+					|| record.valueOffset() != location.offset() || record.valueLength() != location.length()) {
+				return null;
+			}
+			return codec.read(new DataInputStream(
+					new ByteArrayInputStream(bytes, valueStart(keyBytes), location.length())));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error reading from " + file.getName(), e);
+		}
+	}
+
+	private UncheckedIOException corrupt(String key, RecordLocation location) {
+		return new UncheckedIOException(new IOException(
+				"Corrupt record for " + key + " at byte " + location.offset() + " of " + file.getName()));
+	}
+
+	private byte[] readBytes(long offset, int length) throws IOException {
+		boolean sequential = offset >= lastReadEnd && offset - lastReadEnd < MAX_READ_AHEAD_BYTES;
+		lastReadEnd = offset + length;
+		if (!sequential) {
+			readAheadBytes = MIN_READ_AHEAD_BYTES;
+		} else if (!inReadAhead(offset, length) && length < readAheadBytes) {
+			fillReadAhead(offset);
+			readAheadBytes = Math.min(2 * readAheadBytes, MAX_READ_AHEAD_BYTES);
+		}
+		if (inReadAhead(offset, length)) {
+			byte[] value = new byte[length];
+			readAhead.get((int) (offset - readAheadStart), value);
+			return value;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		readFully(buffer, offset);
+		bytesRead.add(length);
+		return buffer.array();
+	}
+
+	private boolean inReadAhead(long offset, int length) {
+		return readAheadStart >= 0 && offset >= readAheadStart && offset + length <= readAheadStart + readAhead.limit();
+	}
+
+	private void fillReadAhead(long offset) throws IOException {
+		if (readAhead == null || readAhead.capacity() < readAheadBytes) {
+			readAhead = ByteBuffer.allocate(readAheadBytes);
+		}
+		readAhead.clear();
+		readAhead.limit((int) Math.min(readAheadBytes, Math.max(0, end - offset)));
+		FileChannel fileChannel = channel();
+		while (readAhead.hasRemaining()) {
+			if (fileChannel.read(readAhead, offset + readAhead.position()) < 0) {
+				break;
+			}
+		}
+		readAhead.flip();
+		readAheadStart = offset;
+		bytesRead.add(readAhead.limit());
+	}
+
+	private Map<String, RecordLocation> index() {
+		open();
+		if (index == null) {
+			try {
+				loadIndex();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Error reading " + file.getName(), e);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Finds the end of the log. When the last record is intact, only that record
+	 * is read and the key index stays unloaded; otherwise the whole log is
+	 * scanned so that the torn tail can be truncated.
+	 */
+	private void open() {
+		if (end >= 0) {
+			return;
+		}
+		try {
+			long length = file.length();
+			if (!file.exists() || length < HEADER_BYTES) {
+				// Nothing but a partial header was ever written.
+				if (file.exists() && !file.delete()) {
+					throw new IOException("Cannot reset " + file.getName());
+				}
+				snapshotFile.delete();
+				index = new LinkedHashMap<>();
+				end = HEADER_BYTES;
+				return;
+			}
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			readFully(header, 0);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				throw new IOException(file.getName() + " is not a supported record log");
+			}
+			if (length == HEADER_BYTES || lastRecordIntact(length)) {
+				end = length;
+			} else {
+				loadIndex();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error opening " + file.getName(), e);
+		}
+	}
+
+	private boolean lastRecordIntact(long length) throws IOException {
+		ByteBuffer trailer = ByteBuffer.allocate(4);
+		readFully(trailer, length - 4);
+		int recordLength = trailer.getInt(0);
+		if (recordLength < RECORD_OVERHEAD || recordLength > length - HEADER_BYTES) {
+			return false;
+		}
+
+		ByteBuffer record = ByteBuffer.allocate(recordLength);
+		readFully(record, length - recordLength);
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()))) {
+			return readRecord(in, 0, recordLength) != null;
+		}
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		FileChannel fileChannel = channel();
+		while (buffer.hasRemaining()) {
+			if (fileChannel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of " + file.getName());
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the key index from the index snapshot, if there is a usable one,
+	 * and the records appended after it, reading only record headers and
+	 * verifying value checksums without decoding any values. Truncates a torn
+	 * tail.
+	 */
+	private void loadIndex() throws IOException {
+		PersistenceEvent event = new PersistenceEvent();
+		event.begin();
+		long length = file.length();
+		Map<String, RecordLocation> loaded = readSnapshot(length);
+		long position = snapshotEnd;
+		if (loaded == null) {
+			loaded = new LinkedHashMap<>();
+			position = HEADER_BYTES;
+			snapshotEnd = -1;
+		}
+		long replayedFrom = position;
+		position = replay(loaded, position, length);
+
+		if (position < length) {
+			lockFile.lock();
+			try {
+				// The record may have been one another process was still appending.
+				length = file.length();
+				position = replay(loaded, position, length);
+				if (position < length) {
+					System.err.println("Truncating torn tail of " + file.getName() + " at byte " + position);
+					channel().truncate(position);
+					unsynced = true;
+					readAheadStart = -1;
+				}
+			} finally {
+				lockFile.unlock();
+			}
+		}
+		bytesRead.add(position - replayedFrom);
+		event.finish("load-index", file, loaded.size(), position - replayedFrom);
+		index = loaded;
+		end = position;
+		liveBytes = liveBytes(loaded);
+	}
+
+	/**
+	 * Applies the intact records from a position of the log to a key index.
+	 *
+	 * @param index    The key index to update, or null to only find where the
+	 *                 intact records end.
+	 * @param position The file offset of the first record.
+	 * @param length   The length of the log.
+	 * @return The file offset just after the last intact record.
+	 */
+	private long replay(Map<String, RecordLocation> index, long position, long length) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			in.skipNBytes(position);
+			Record record;
+			while ((record = readRecord(in, position, length - position)) != null) {
+				if (index != null && record.op() == OP_PUT) {
+					index.put(record.key(), new RecordLocation(record.valueOffset(), record.valueLength()));
+				} else if (index != null) {
+					index.remove(record.key());
+				}
+				position += record.size();
+			}
+		}
+		return position;
+	}
+
+	private static long liveBytes(Map<String, RecordLocation> index) {
+		long live = 0;
+		for (Map.Entry<String, RecordLocation> entry : index.entrySet()) {
+			live += recordSize(entry.getKey(), entry.getValue());
+		}
+		return live;
+	}
+
+	/**
+	 * Reads the index snapshot. The snapshot is used only if its checksum holds,
+	 * the log is at least as long as the snapshot says, and a whole record ends
+	 * exactly where the snapshot says the log ended.
+	 *
+	 * @param length The current length of the log.
+	 * @return The snapshotted index, or null if there is no usable snapshot.
+	 */
+	private Map<String, RecordLocation> readSnapshot(long length) throws IOException {
+		if (!snapshotFile.exists()) {
+			return null;
+		}
+		byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+		if (bytes.length < 24) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 4);
+		if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+				return null;
+			}
+			long logEnd = in.readLong();
+			if (logEnd < HEADER_BYTES || logEnd > length || (logEnd > HEADER_BYTES && !lastRecordIntact(logEnd))) {
+				return null;
+			}
+			int count = in.readInt();
+			Map<String, RecordLocation> loaded = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+			for (int i = 0; i < count; i++) {
+				loaded.put(in.readUTF(), new RecordLocation(in.readLong(), in.readInt()));
+			}
+			snapshotEnd = logEnd;
+			return loaded;
+		}
+	}
+
+	/**
+	 * Writes the key index and the log length it covers to a temporary file and
+	 * renames it over the snapshot. The log is forced first, so the snapshot
+	 * never describes records that are not on disk. Nothing is written once
+	 * another process has renamed a compacted log over this one, since the
+	 * offsets in the index belong to the old log.
+	 */
+	private void writeSnapshot() throws IOException {
+		lockFile.lock();
+		try {
+			if (!Objects.equals(FileStamp.of(file).fileKey(), fileKey)) {
+				return;
+			}
+			PersistenceEvent event = new PersistenceEvent();
+			event.begin();
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(24 + index.size() * 64);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeLong(end);
+			out.writeInt(index.size());
+			for (Map.Entry<String, RecordLocation> entry : index.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue().offset());
+				out.writeInt(entry.getValue().length());
+			}
+			CRC32 crc = new CRC32();
+			crc.update(bytes.toByteArray());
+			out.writeInt((int) crc.getValue());
+
+			channel().force(false);
+			File tempFile = new File(snapshotFile.getPath() + ".tmp");
+			try (FileChannel snapshotChannel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				writeFully(snapshotChannel, ByteBuffer.wrap(bytes.toByteArray()), 0);
+				snapshotChannel.force(false);
+			}
+			Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			snapshotEnd = end;
+			event.finish("snapshot", snapshotFile, index.size(), bytes.size());
+		} finally {
+			lockFile.unlock();
+		}
+	}
+
+	/**
+	 * Reads and verifies one record.
+	 *
+	 * @param in        The input positioned at the start of the record.
+	 * @param position  The file offset of the start of the record.
+	 * @param remaining The number of bytes left in the file.
+	 * @return The record, or null if it is incomplete or corrupt.
+	 */
+	private static Record readRecord(DataInputStream in, long position, long remaining) throws IOException {
+		try {
+			byte op = in.readByte();
+			int keyLength = in.readInt();
+			if ((op != OP_PUT && op != OP_REMOVE) || keyLength < 0 || keyLength > remaining) {
+				return null;
+			}
+			byte[] keyBytes = new byte[keyLength];
+			in.readFully(keyBytes);
+			int valueLength = in.readInt();
+			if (valueLength < 0 || valueLength > remaining) {
+				return null;
+			}
+			byte[] value = new byte[valueLength];
+			in.readFully(value);
+			int checksum = in.readInt();
+			int recordLength = in.readInt();
+
+			CRC32 crc = new CRC32();
+			crc.update(value);
+			if ((int) crc.getValue() != checksum || recordLength != RECORD_OVERHEAD + keyLength + valueLength) {
+				return null;
+			}
+			return new Record(op, new String(keyBytes, StandardCharsets.UTF_8),
+					position + 1 + 4 + keyLength + 4, valueLength, recordLength);
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	private record Record(byte op, String key, long valueOffset, int valueLength, int size) {
+	}
+}
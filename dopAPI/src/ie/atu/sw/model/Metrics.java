@@ -0,0 +1,206 @@
+package ie.atu.sw.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of the application's metrics: latency histograms of
+ * the persistence utilities, bytes read and written per data file, call counts
+ * of the service methods and the hits, misses and evictions of the paper
+ * cache. Every metric is a set of {@link LongAdder}s,
+ * so recording never takes a lock and concurrent threads do not contend; a
+ * caller looks a metric up once and keeps it in a field. The registry is
+ * rendered in the Prometheus text exposition format by {@link #prometheus()}.
+ */
+public final class Metrics {
+	private static final String OPERATION_SECONDS = "atu_storage_operation_seconds";
+	private static final String READ_BYTES = "atu_file_read_bytes_total";
+	private static final String WRITTEN_BYTES = "atu_file_written_bytes_total";
+	private static final String SERVICE_CALLS = "atu_service_calls_total";
+	private static final String PAPER_CACHE_EVENTS = "atu_paper_cache_events_total";
+
+	private static final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LongAdder> bytesRead = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LongAdder> bytesWritten = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LongAdder> serviceCalls = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LongAdder> paperCacheEvents = new ConcurrentHashMap<>();
+
+	private Metrics() {
+	}
+
+	/**
+	 * A latency histogram. Bucket {@code i} counts the calls that took at most
+	 * 2<sup>i</sup> microseconds, up to about 17 seconds; slower calls are only
+	 * counted in the total.
+	 */
+	public static final class Timer {
+		private static final int BUCKETS = 25;
+
+		private final LongAdder[] buckets = new LongAdder[BUCKETS];
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+
+		private Timer() {
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * Records a call that started at the given time.
+		 *
+		 * @param startNanos The {@link System#nanoTime()} at which the call started.
+		 */
+		public void record(long startNanos) {
+			long nanos = Math.max(0, System.nanoTime() - startNanos);
+			long micros = (nanos + 999) / 1000;
+			int bucket = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(micros - 1);
+			if (bucket < BUCKETS) {
+				buckets[bucket].increment();
+			}
+			count.increment();
+			totalNanos.add(nanos);
+		}
+
+		/**
+		 * Returns the number of calls recorded.
+		 *
+		 * @return The count.
+		 */
+		public long count() {
+			return count.sum();
+		}
+
+		/**
+		 * Returns the total time of the calls recorded.
+		 *
+		 * @return The total, in nanoseconds.
+		 */
+		public long totalNanos() {
+			return totalNanos.sum();
+		}
+	}
+
+	/**
+	 * Returns the latency histogram of an operation, creating it on first use.
+	 *
+	 * @param operation The operation, for example {@code FileUtil.loadFromFile}.
+	 * @return The histogram.
+	 */
+	public static Timer timer(String operation) {
+		return timers.computeIfAbsent(operation, name -> new Timer());
+	}
+
+	/**
+	 * Returns the counter of bytes read from a data file.
+	 *
+	 * @param fileName The name of the file, without its directory.
+	 * @return The counter.
+	 */
+	public static LongAdder bytesRead(String fileName) {
+		return bytesRead.computeIfAbsent(fileName, name -> new LongAdder());
+	}
+
+	/**
+	 * Returns the counter of bytes written to a data file.
+	 *
+	 * @param fileName The name of the file, without its directory.
+	 * @return The counter.
+	 */
+	public static LongAdder bytesWritten(String fileName) {
+		return bytesWritten.computeIfAbsent(fileName, name -> new LongAdder());
+	}
+
+	/**
+	 * Returns the counter of calls to a service method.
+	 *
+	 * @param method The method, for example {@code recordAction}.
+	 * @return The counter.
+	 */
+	public static LongAdder calls(String method) {
+		return serviceCalls.computeIfAbsent(method, name -> new LongAdder());
+	}
+
+	/**
+	 * Returns the counter of an event of the {@link PaperCache}.
+	 *
+	 * @param event The event: {@code hit}, {@code miss} or {@code eviction}.
+	 * @return The counter.
+	 */
+	public static LongAdder paperCacheEvents(String event) {
+		return paperCacheEvents.computeIfAbsent(event, name -> new LongAdder());
+	}
+
+	/**
+	 * Renders every metric in the Prometheus text exposition format, with the
+	 * series of each metric sorted by label.
+	 *
+	 * @return The metrics.
+	 */
+	public static String prometheus() {
+		StringBuilder out = new StringBuilder();
+		writePrometheus(out);
+		return out.toString();
+	}
+
+	/**
+	 * Writes every metric in the Prometheus text exposition format.
+	 *
+	 * @param out Where to write the metrics.
+	 * @throws UncheckedIOException If the metrics cannot be written.
+	 */
+	public static void writePrometheus(Appendable out) {
+		try {
+			out.append("# HELP ").append(OPERATION_SECONDS).append(" Latency of persistence operations.\n");
+			out.append("# TYPE ").append(OPERATION_SECONDS).append(" histogram\n");
+			for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+				writeHistogram(out, entry.getKey(), entry.getValue());
+			}
+			writeCounters(out, READ_BYTES, "Bytes read per data file.", "file", bytesRead);
+			writeCounters(out, WRITTEN_BYTES, "Bytes written per data file.", "file", bytesWritten);
+			writeCounters(out, SERVICE_CALLS, "Calls per service method.", "method", serviceCalls);
+			writeCounters(out, PAPER_CACHE_EVENTS, "Hits, misses and evictions of the paper cache.", "event",
+					paperCacheEvents);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeHistogram(Appendable out, String operation, Timer timer) throws IOException {
+		String label = "operation=\"" + escape(operation) + "\"";
+		// Read the total first so that the cumulative buckets never exceed it.
+		long count = timer.count();
+		long cumulative = 0;
+		for (int i = 0; i < Timer.BUCKETS; i++) {
+			cumulative = Math.min(count, cumulative + timer.buckets[i].sum());
+			out.append(OPERATION_SECONDS).append("_bucket{").append(label).append(",le=\"")
+					.append(Double.toString((1L << i) / 1e6)).append("\"} ").append(Long.toString(cumulative))
+					.append('\n');
+		}
+		out.append(OPERATION_SECONDS).append("_bucket{").append(label).append(",le=\"+Inf\"} ")
+				.append(Long.toString(count)).append('\n');
+		out.append(OPERATION_SECONDS).append("_sum{").append(label).append("} ")
+				.append(Double.toString(timer.totalNanos() / 1e9)).append('\n');
+		out.append(OPERATION_SECONDS).append("_count{").append(label).append("} ").append(Long.toString(count))
+				.append('\n');
+	}
+
+	private static void writeCounters(Appendable out, String metric, String help, String labelName,
+			Map<String, LongAdder> counters) throws IOException {
+		out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(metric).append(" counter\n");
+		for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+			out.append(metric).append('{').append(labelName).append("=\"").append(escape(entry.getKey()))
+					.append("\"} ").append(Long.toString(entry.getValue().sum())).append('\n');
+		}
+	}
+
+	private static String escape(String labelValue) {
+		return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
@@ -0,0 +1,76 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary {@link RecordCodec} for {@link ModuleInfo}. A record is a version
+ * byte followed by the module code and title, the registrations, the programme
+ * code and title, the year, the school, the department and references to the
+ * internal and external examiners.
+ *
+ * <p>
+ * The examiners are written as references into the {@link ExaminerRegistry},
+ * so a module follows changes to its examiners without being rewritten.
+ * Modules written with Java serialization, which embed both examiners, are
+ * still read.
+ */
+public class ModuleInfoCodec implements RecordCodec<ModuleInfo> {
+	/**
+	 * Current format version.
+	 */
+	public static final int VERSION = 1;
+
+	private final ExaminerRegistry examinerRegistry;
+
+	/**
+	 * Creates a codec that refers to the examiners of modules by ID.
+	 *
+	 * @param examinerRegistry The registry holding the examiners the records
+	 *                         refer to.
+	 */
+	public ModuleInfoCodec(ExaminerRegistry examinerRegistry) {
+		this.examinerRegistry = examinerRegistry;
+	}
+
+	@Override
+	public void write(ModuleInfo module, DataOutput out) throws IOException {
+		out.writeByte(VERSION);
+		BinaryFormat.writeString(out, module.moduleCode());
+		BinaryFormat.writeString(out, module.moduleTitle());
+		out.writeInt(module.registrations());
+		BinaryFormat.writeString(out, module.programCode());
+		BinaryFormat.writeString(out, module.programTitle());
+		out.writeInt(module.year());
+		BinaryFormat.writeString(out, module.school());
+		BinaryFormat.writeString(out, module.department());
+		examinerRegistry.writeReference(module.internalExaminer(), out);
+		examinerRegistry.writeReference(module.externalExaminer(), out);
+	}
+
+	@Override
+	public void beforeImport(ModuleInfo module) {
+		examinerRegistry.importExaminer(module.internalExaminer());
+		examinerRegistry.importExaminer(module.externalExaminer());
+	}
+
+	@Override
+	public ModuleInfo read(DataInput in) throws IOException {
+		int version = in.readUnsignedByte();
+		if (version == BinaryFormat.SERIALIZED_RECORD) {
+			ModuleInfo module = BinaryFormat.readSerialized(in);
+			return new ModuleInfo(module.moduleCode(), module.moduleTitle(), module.registrations(),
+					module.programCode(), module.programTitle(), module.year(), module.school(), module.department(),
+					examinerRegistry.canonical(module.internalExaminer()),
+					examinerRegistry.canonical(module.externalExaminer()));
+		}
+		if (version != VERSION) {
+			throw new IOException("Unsupported module format version " + version);
+		}
+		return new ModuleInfo(BinaryFormat.readCanonicalString(in), BinaryFormat.readString(in), in.readInt(),
+				BinaryFormat.readCanonicalString(in), BinaryFormat.readCanonicalString(in), in.readInt(),
+				BinaryFormat.readCanonicalString(in), BinaryFormat.readCanonicalString(in),
+				examinerRegistry.readReference(in), examinerRegistry.readReference(in));
+	}
+}
@@ -1,59 +1,80 @@
 package ie.atu.sw.model;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Utility class for handling file operations related to ModuleInfo objects.
- * Provides functionality to serialize (save) and deserialize (load) ModuleInfo
- * objects to and from a file.
+ * Utility class for handling persistence of ModuleInfo objects. Saves and
+ * loads modules through the module repository of the active
+ * {@link StorageEngine}.
  */
 public class ModuleInfoFileHandler implements Serializable {
-	private static final String MODULE_INFO_FILE = "module_data.dat";
 	private static final long serialVersionUID = 1L;
+	private static final Metrics.Timer saveAllTimer = Metrics.timer("ModuleInfoFileHandler.saveModuleInfo");
+	private static final Metrics.Timer saveTimer = Metrics.timer("ModuleInfoFileHandler.saveModule");
+	private static final Metrics.Timer loadTimer = Metrics.timer("ModuleInfoFileHandler.loadModuleInfo");
 
 	/**
-	 * Saves a list of ModuleInfo objects to a file. Serializes the provided list of
-	 * ModuleInfo objects and writes them to a predefined file.
+	 * Saves a list of ModuleInfo objects. Only modules that differ from the
+	 * stored version are written.
 	 *
 	 * @param moduleInfoList The list of ModuleInfo objects to be saved.
-	 * @throws IOException If an I/O error occurs during writing to the file.
 	 */
 	public static void saveModuleInfo(List<ModuleInfo> moduleInfoList) {
-		try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(MODULE_INFO_FILE))) {
-			outputStream.writeObject(moduleInfoList);
+		long started = System.nanoTime();
+		try {
+			for (ModuleInfo moduleInfo : moduleInfoList) {
+				saveModule(moduleInfo);
+			}
 			System.out.println("\n\tAll files saved successfully.");
-		} catch (IOException e) {
+		} catch (UncheckedIOException e) {
 			System.err.println("Error saving module information: " + e.getMessage());
+		} finally {
+			saveAllTimer.record(started);
 		}
 	}
 
 	/**
-	 * Loads and returns a list of ModuleInfo objects from a file. Deserializes the
-	 * ModuleInfo objects from a predefined file and returns them as a list.
+	 * Saves a single module if it differs from the stored version, and updates the
+	 * examiner to module index accordingly, holding the module's lock throughout.
 	 *
-	 * @return A list of ModuleInfo objects loaded from the file.
-	 * @throws IOException            If an I/O error occurs during reading from the
-	 *                                file.
-	 * @throws ClassNotFoundException If the class of a serialized object cannot be
-	 *                                found.
+	 * @param moduleInfo The module to save.
+	 * @throws UncheckedIOException If the module cannot be written.
 	 */
-	public static List<ModuleInfo> loadModuleInfo() {
-		List<ModuleInfo> moduleInfoList = new ArrayList<>();
+	public static void saveModule(ModuleInfo moduleInfo) {
+		long started = System.nanoTime();
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleInfo.moduleCode());
+		lock.lock();
+		try {
+			Repository<ModuleInfo> modules = Storage.engine().modules();
+			ModuleInfo previous = modules.get(moduleInfo.moduleCode());
+			if (!moduleInfo.equals(previous)) {
+				modules.put(moduleInfo.moduleCode(), moduleInfo);
+				Storage.examinerModuleIndex().moduleSaved(previous, moduleInfo);
+			}
+		} finally {
+			lock.unlock();
+			saveTimer.record(started);
+		}
+	}
 
-		try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(MODULE_INFO_FILE))) {
-			moduleInfoList = (List<ModuleInfo>) inputStream.readObject();
-			// System.out.println("Module information loaded successfully.");
-		} catch (IOException | ClassNotFoundException e) {
+	/**
+	 * Loads and returns every stored ModuleInfo object.
+	 *
+	 * @return A list of ModuleInfo objects, empty if they could not be loaded.
+	 */
+	public static List<ModuleInfo> loadModuleInfo() {
+		long started = System.nanoTime();
+		try {
+			return Storage.engine().modules().values();
+		} catch (UncheckedIOException e) {
 			System.err.println("Error loading module information: " + e.getMessage());
+			return new ArrayList<>();
+		} finally {
+			loadTimer.record(started);
 		}
-
-		return moduleInfoList;
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed on module code. Every change to a module or to one of its
+ * examination papers is made while holding the module's lock, so two writers
+ * to the same module never lose each other's updates, while writers to
+ * different modules usually hold different stripes and proceed in parallel.
+ * The shared instance is obtained from {@link Storage#moduleLocks()}.
+ *
+ * <p>
+ * The locks are reentrant, so a method holding a module's lock can call other
+ * methods that take it again. A writer that needs several modules at once
+ * takes the locks from {@link #locksFor(Iterable)} in the order given, so that
+ * two such writers never wait for each other.
+ *
+ * <p>
+ * The stripes only exclude threads of this process. A read-modify-write of a
+ * module's papers that must also exclude the other processes sharing the data
+ * directory takes the module's lock file from {@link #fileLockFor(String)} as
+ * well, after the stripe; a writer needing several takes them in module code
+ * order.
+ */
+public class ModuleLocks {
+	private static final int DEFAULT_STRIPES = 64;
+
+	private final ReentrantLock[] stripes;
+
+	/**
+	 * Creates 64 lock stripes.
+	 */
+	public ModuleLocks() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates the given number of lock stripes, rounded up to a power of two.
+	 *
+	 * @param stripeCount The number of stripes.
+	 */
+	public ModuleLocks(int stripeCount) {
+		int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+		stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Returns the lock guarding a module.
+	 *
+	 * @param moduleCode The module code.
+	 * @return The lock of the stripe the module falls in.
+	 */
+	public ReentrantLock lockFor(String moduleCode) {
+		return stripes[stripe(moduleCode)];
+	}
+
+	/**
+	 * Returns the locks guarding several modules, each stripe once and in stripe
+	 * order.
+	 *
+	 * @param moduleCodes The module codes.
+	 * @return The locks, to be taken in the order returned.
+	 */
+	public List<ReentrantLock> locksFor(Iterable<String> moduleCodes) {
+		BitSet used = new BitSet(stripes.length);
+		for (String moduleCode : moduleCodes) {
+			used.set(stripe(moduleCode));
+		}
+		List<ReentrantLock> locks = new ArrayList<>(used.cardinality());
+		for (int i = used.nextSetBit(0); i >= 0; i = used.nextSetBit(i + 1)) {
+			locks.add(stripes[i]);
+		}
+		return locks;
+	}
+
+	/**
+	 * Returns a lock on the lock file of a module, beside its paper repository.
+	 * The lock must be closed once released.
+	 *
+	 * @param moduleCode The module code.
+	 * @return The module's lock file.
+	 */
+	static LockFile fileLockFor(String moduleCode) {
+		return new LockFile(Storage.file(moduleCode + StorageEngine.PAPERS_SUFFIX + ".lock"));
+	}
+
+	private int stripe(String moduleCode) {
+		int hash = moduleCode.hashCode();
+		hash ^= hash >>> 16;
+		return hash & (stripes.length - 1);
+	}
+}
@@ -2,10 +2,11 @@ package ie.atu.sw.model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 import ie.atu.sw.services.Examiner;
 import ie.atu.sw.services.ModuleService;
@@ -18,10 +19,27 @@ import ie.atu.sw.services.ModuleService;
  */
 public class ModuleServiceImpl implements ModuleService, Serializable {
 	private static final long serialVersionUID = 1L;
+	private static final LongAdder createModuleCalls = Metrics.calls("createModule");
+	// Module codes name the files of the module's papers, see Storage#file.
+	private static final Pattern MODULE_CODE = Pattern.compile("[A-Za-z0-9_-]{1,32}");
 
-	private final Scanner scanner = new Scanner(System.in);
-	private final Map<String, ModuleInfo> modules = new HashMap<>();
-	private static final String moduleDataFile = "module_data.dat";
+	private final Scanner scanner;
+
+	/**
+	 * Constructs the service reading user input from standard input.
+	 */
+	public ModuleServiceImpl() {
+		this(new Scanner(System.in));
+	}
+
+	/**
+	 * Constructs the service reading user input from the given scanner.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 */
+	public ModuleServiceImpl(Scanner scanner) {
+		this.scanner = scanner;
+	}
 
 	/**
 	 * Creates a new module and adds it to the module list and file storage. It
@@ -38,7 +56,11 @@ public class ModuleServiceImpl implements ModuleService, Serializable {
 		System.out.println("Enter Module Code: ");
 		String moduleCode = scanner.nextLine();
 
-		if (modules.containsKey(moduleCode)) {
+		if (!MODULE_CODE.matcher(moduleCode).matches()) {
+			System.out.println(invalidModuleCode(moduleCode));
+			return;
+		}
+		if (getModuleInfo(moduleCode) != null) {
 			System.out.println("Module already exists.");
 			return;
 		}
@@ -121,55 +143,122 @@ public class ModuleServiceImpl implements ModuleService, Serializable {
 			}
 		}
 
-		ModuleInfo moduleInfo = new ModuleInfo(moduleCode, moduleTitle, reg, programCode, programTitle, year, school,
-				department, selectedInternalExaminer, selectedExternalExaminer);
+		try {
+			ModuleInfo moduleInfo = createModule(new ModuleSpec(moduleCode, moduleTitle, reg, programCode,
+					programTitle, year, school, department, ExaminerUtil.examinerId(selectedInternalExaminer),
+					ExaminerUtil.examinerId(selectedExternalExaminer)));
+			moduleInfoList.add(moduleInfo);
+			System.out.println("Module created successfully.");
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates a new module without user interaction, resolving its examiners by
+	 * ID and persisting it.
+	 *
+	 * @param spec The details of the module and the IDs of its examiners.
+	 * @return The stored ModuleInfo.
+	 * @throws IllegalArgumentException If the module code is not 1 to 32
+	 *                                  letters, digits, underscores or hyphens,
+	 *                                  the module already exists or an examiner
+	 *                                  ID does not name an examiner of the right
+	 *                                  type.
+	 */
+	@Override
+	public ModuleInfo createModule(ModuleSpec spec) {
+		createModuleCalls.increment();
+		if (spec.moduleCode() == null || !MODULE_CODE.matcher(spec.moduleCode()).matches()) {
+			throw new IllegalArgumentException(invalidModuleCode(spec.moduleCode()));
+		}
+		ExaminerRegistry examiners = Storage.engine().examinerRegistry();
+		if (!(examiners.get(spec.internalExaminerId()) instanceof InternalExaminer internalExaminer)) {
+			throw new IllegalArgumentException("No internal examiner with ID " + spec.internalExaminerId());
+		}
+		if (!(examiners.get(spec.externalExaminerId()) instanceof ExternalExaminer externalExaminer)) {
+			throw new IllegalArgumentException("No external examiner with ID " + spec.externalExaminerId());
+		}
+
+		ModuleInfo moduleInfo = new ModuleInfo(spec.moduleCode(), spec.moduleTitle(), spec.registrations(),
+				spec.programCode(), spec.programTitle(), spec.year(), spec.school(), spec.department(),
+				internalExaminer, externalExaminer);
 
-		modules.put(moduleCode, moduleInfo);
-		moduleInfoList.add(moduleInfo);
-		FileUtil.saveToFile(moduleDataFile, moduleInfoList);
-		System.out.println("Module created successfully.");
+		WorkflowEvent event = new WorkflowEvent();
+		event.begin();
+		ReentrantLock lock = Storage.moduleLocks().lockFor(spec.moduleCode());
+		lock.lock();
+		try {
+			if (getModuleInfo(spec.moduleCode()) != null) {
+				throw new IllegalArgumentException("Module already exists.");
+			}
+			ModuleInfoFileHandler.saveModule(moduleInfo);
+		} finally {
+			lock.unlock();
+		}
+		event.finish("createModule", spec.moduleCode(), null, 1);
+		return moduleInfo;
+	}
 
+	private static String invalidModuleCode(String moduleCode) {
+		return "Invalid module code '" + moduleCode
+				+ "': use 1 to 32 letters, digits, underscores or hyphens.";
 	}
 
 	/**
-	 * Retrieves the information of a specific module based on its code.
+	 * Retrieves the information of a specific module based on its code, from the
+	 * module repository, which is refreshed when another process changes it.
 	 *
 	 * @param moduleCode The code of the module to be retrieved.
 	 * @return The ModuleInfo object associated with the given module code.
 	 */
 	@Override
 	public ModuleInfo getModuleInfo(String moduleCode) {
-		return modules.get(moduleCode);
+		return Storage.engine().modules().get(moduleCode);
 	}
 
 	/**
-	 * Updates the information of an existing module.
+	 * Retrieves every stored module.
+	 *
+	 * @return A list of all ModuleInfo objects.
+	 */
+	@Override
+	public List<ModuleInfo> getAllModules() {
+		return ModuleInfoFileHandler.loadModuleInfo();
+	}
+
+	/**
+	 * Updates the information of an existing module, persisting it and updating
+	 * the examiner to module index.
 	 *
 	 * @param moduleCode The code of the module to be updated.
 	 * @param newInfo    The new information to be updated in the module.
 	 */
 	@Override
 	public void updateModuleInfo(String moduleCode, ModuleInfo newInfo) {
-		if (modules.containsKey(moduleCode)) {
-			modules.put(moduleCode, newInfo);
-			System.out.println("Module information updated successfully.");
-		} else {
-			System.out.println("Module not found.");
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+		lock.lock();
+		try {
+			if (getModuleInfo(moduleCode) != null) {
+				ModuleInfoFileHandler.saveModule(newInfo);
+				System.out.println("Module information updated successfully.");
+			} else {
+				System.out.println("Module not found.");
+			}
+		} finally {
+			lock.unlock();
 		}
 	}
 
 	/**
 	 * Lists all the modules currently stored. This method retrieves and displays
-	 * the list of modules from file storage.
+	 * the list of modules from the module repository.
 	 *
 	 * @param moduleInfoList The list of ModuleInfo objects to be displayed.
 	 */
 	@Override
 	public void listAllModules(List<ModuleInfo> moduleInfoList) {
-		moduleInfoList = FileUtil.loadFromFile(moduleDataFile);
-		if (moduleInfoList == null) {
-			moduleInfoList = new ArrayList<>();
-		}
+		moduleInfoList = getAllModules();
 
 		System.out.println("\nList of Modules:\n");
 		for (ModuleInfo module : moduleInfoList) {
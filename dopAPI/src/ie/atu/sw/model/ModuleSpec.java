@@ -0,0 +1,21 @@
+package ie.atu.sw.model;
+
+/**
+ * The input needed to create a module without user interaction. Examiners are
+ * referred to by their examiner ID, see {@link ExaminerUtil#examinerId}.
+ *
+ * @param moduleCode         Code of the module.
+ * @param moduleTitle        Title of the module.
+ * @param registrations      Number of registered students.
+ * @param programCode        Code of the program the module belongs to.
+ * @param programTitle       Title of the program.
+ * @param year               Academic year.
+ * @param school             School running the module.
+ * @param department         Department running the module.
+ * @param internalExaminerId ID of the internal examiner.
+ * @param externalExaminerId ID of the external examiner.
+ */
+public record ModuleSpec(String moduleCode, String moduleTitle, int registrations, String programCode,
+		String programTitle, int year, String school, String department, String internalExaminerId,
+		String externalExaminerId) {
+}
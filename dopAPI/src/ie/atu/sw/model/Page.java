@@ -0,0 +1,115 @@
+package ie.atu.sw.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One page of a listing, with the cursor from which the next page is read.
+ * Cursors are opaque to callers: a null cursor reads the first page, and the
+ * {@link #nextCursor()} of a page reads the page after it.
+ *
+ * @param <T>        The type of item listed.
+ * @param items      The items on the page.
+ * @param nextCursor The cursor of the next page, or null if this is the last
+ *                   page.
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+	/**
+	 * The largest number of items a page may hold.
+	 */
+	public static final int MAX_LIMIT = 1000;
+
+	/**
+	 * Returns the position a cursor refers to.
+	 *
+	 * @param cursor The cursor, or null for the first page.
+	 * @return The number of items before the cursor.
+	 * @throws IllegalArgumentException If the cursor is malformed.
+	 */
+	public static long position(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return 0;
+		}
+		try {
+			long position = Long.parseLong(cursor);
+			if (position < 0) {
+				throw new IllegalArgumentException("Invalid cursor: " + cursor);
+			}
+			return position;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+	}
+
+	/**
+	 * Checks a requested page size.
+	 *
+	 * @param limit The requested number of items.
+	 * @return The limit.
+	 * @throws IllegalArgumentException If the limit is not between 1 and
+	 *                                  {@link #MAX_LIMIT}.
+	 */
+	public static int checkLimit(int limit) {
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_LIMIT);
+		}
+		return limit;
+	}
+
+	/**
+	 * Builds a page from up to {@code limit + 1} items read at a position; the
+	 * extra item, if present, only shows that there is a next page.
+	 *
+	 * @param <T>      The type of item listed.
+	 * @param items    The items read, at most {@code limit + 1}.
+	 * @param position The position the items were read from.
+	 * @param limit    The page size.
+	 * @return The page.
+	 */
+	public static <T> Page<T> of(List<T> items, long position, int limit) {
+		if (items.size() <= limit) {
+			return new Page<>(items, null);
+		}
+		return new Page<>(items.subList(0, limit), Long.toString(position + limit));
+	}
+
+	/**
+	 * Streams every item of a listing by reading it one page at a time, so that
+	 * only one page is held in memory.
+	 *
+	 * @param <T>      The type of item listed.
+	 * @param fetch    Reads the page at a cursor with a given size.
+	 * @param pageSize The number of items to read per page.
+	 * @return A stream of the items.
+	 */
+	public static <T> Stream<T> stream(BiFunction<String, Integer, Page<T>> fetch, int pageSize) {
+		Iterator<T> iterator = new Iterator<>() {
+			private Page<T> page = fetch.apply(null, pageSize);
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				while (index == page.items().size() && page.nextCursor() != null) {
+					page = fetch.apply(page.nextCursor(), pageSize);
+					index = 0;
+				}
+				return index < page.items().size();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return page.items().get(index++);
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+	}
+}
@@ -0,0 +1,316 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory-bounded cache of the examination papers of each module, as read from
+ * the module's paper repository. Listing a module's papers a second time, or
+ * finding one of its papers by ID, is then served from memory without touching
+ * the disk.
+ *
+ * <p>
+ * Each module is cached as a whole and weighed by an estimate of the heap its
+ * papers take. When the total weight exceeds the budget, the modules used
+ * least recently are evicted until it fits again; a module heavier than the
+ * whole budget is never cached. The budget is set in megabytes with the system
+ * property {@value #BUDGET_PROPERTY} (64 by default); 0 turns the cache off.
+ *
+ * <p>
+ * The cache is written through: the {@link PaperIndex} reports every paper it
+ * saves through {@link #paperSaved(ExaminationPaper)}, which replaces or adds
+ * the paper in its module's cached papers. Since papers are only saved under
+ * their module's lock from {@link Storage#moduleLocks()}, a module is read into
+ * the cache under the same lock, so a save can never be lost between reading
+ * the module and caching it.
+ *
+ * <p>
+ * Hits, misses and evictions are counted in the {@link Metrics} registry.
+ */
+public class PaperCache {
+	/**
+	 * System property holding the budget of the cache, in megabytes.
+	 */
+	public static final String BUDGET_PROPERTY = "atu.paper.cache.mb";
+	private static final long DEFAULT_BUDGET_MB = 64;
+
+	private static final LongAdder hits = Metrics.paperCacheEvents("hit");
+	private static final LongAdder misses = Metrics.paperCacheEvents("miss");
+	private static final LongAdder evictions = Metrics.paperCacheEvents("eviction");
+
+	private final StorageEngine engine;
+	private final long budget;
+	private final LinkedHashMap<String, Entry> modules = new LinkedHashMap<>(16, 0.75f, true);
+	private final ReentrantLock lock = new ReentrantLock();
+	private long weight;
+
+	/**
+	 * Creates a cache over the papers of a storage engine, with the budget set by
+	 * {@value #BUDGET_PROPERTY}.
+	 *
+	 * @param engine The storage engine holding the papers.
+	 */
+	public PaperCache(StorageEngine engine) {
+		this(engine, Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_MB) * 1024 * 1024);
+	}
+
+	/**
+	 * Creates a cache over the papers of a storage engine.
+	 *
+	 * @param engine The storage engine holding the papers.
+	 * @param budget The largest estimated weight of the cached papers, in bytes.
+	 */
+	public PaperCache(StorageEngine engine, long budget) {
+		this.engine = engine;
+		this.budget = Math.max(0, budget);
+	}
+
+	/**
+	 * Lists a module's examination papers, in the order they were added, reading
+	 * them from the module's repository only if they are not cached.
+	 *
+	 * @param moduleCode The module.
+	 * @return A new list of the module's papers.
+	 */
+	public List<ExaminationPaper> papers(String moduleCode) {
+		lock.lock();
+		try {
+			Entry entry = modules.get(moduleCode);
+			if (entry != null) {
+				hits.increment();
+				return entry.papers();
+			}
+		} finally {
+			lock.unlock();
+		}
+		misses.increment();
+		ReentrantLock moduleLock = Storage.moduleLocks().lockFor(moduleCode);
+		moduleLock.lock();
+		try {
+			lock.lock();
+			try {
+				Entry entry = modules.get(moduleCode);
+				if (entry != null) {
+					return entry.papers();
+				}
+			} finally {
+				lock.unlock();
+			}
+			List<ExaminationPaper> papers = engine.papers(moduleCode).values();
+			Entry entry = new Entry(papers);
+			lock.lock();
+			try {
+				if (entry.weight <= budget) {
+					modules.put(moduleCode, entry);
+					weight += entry.weight;
+					evict();
+				}
+			} finally {
+				lock.unlock();
+			}
+			return papers;
+		} finally {
+			moduleLock.unlock();
+		}
+	}
+
+	/**
+	 * Finds an examination paper among its module's cached papers. The module is
+	 * not read if it is not cached.
+	 *
+	 * @param moduleCode The module the paper belongs to.
+	 * @param paperId    The ID of the paper.
+	 * @return The paper, or null if the module is not cached or has no such
+	 *         paper.
+	 */
+	public ExaminationPaper find(String moduleCode, String paperId) {
+		lock.lock();
+		try {
+			Entry entry = modules.get(moduleCode);
+			if (entry == null) {
+				return null;
+			}
+			ExaminationPaper paper = entry.papers.get(paperId);
+			if (paper != null) {
+				hits.increment();
+			}
+			return paper;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces or adds a saved paper in its module's cached papers. Does nothing
+	 * if the module is not cached.
+	 *
+	 * @param paper The paper that was saved.
+	 */
+	public void paperSaved(ExaminationPaper paper) {
+		lock.lock();
+		try {
+			Entry entry = modules.get(paper.moduleCode());
+			if (entry == null) {
+				return;
+			}
+			weight -= entry.weight;
+			entry.put(paper);
+			weight += entry.weight;
+			if (entry.weight > budget) {
+				modules.remove(paper.moduleCode());
+				weight -= entry.weight;
+				evictions.increment();
+			}
+			evict();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops a module's cached papers, so that they are read again on next use.
+	 * The module's lock is taken, so that papers being read into the cache when
+	 * the module changed are dropped too.
+	 *
+	 * @param moduleCode The module.
+	 */
+	public void invalidate(String moduleCode) {
+		ReentrantLock moduleLock = Storage.moduleLocks().lockFor(moduleCode);
+		moduleLock.lock();
+		try {
+			lock.lock();
+			try {
+				Entry entry = modules.remove(moduleCode);
+				if (entry != null) {
+					weight -= entry.weight;
+				}
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			moduleLock.unlock();
+		}
+	}
+
+	/**
+	 * Drops every cached paper.
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			modules.clear();
+			weight = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of modules whose papers are cached.
+	 *
+	 * @return The number of cached modules.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return modules.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the estimated weight of the cached papers.
+	 *
+	 * @return The weight, in bytes.
+	 */
+	public long weight() {
+		lock.lock();
+		try {
+			return weight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the budget of the cache.
+	 *
+	 * @return The largest weight of the cached papers, in bytes.
+	 */
+	public long budget() {
+		return budget;
+	}
+
+	private void evict() {
+		Iterator<Entry> eldest = modules.values().iterator();
+		while (weight > budget && eldest.hasNext()) {
+			weight -= eldest.next().weight;
+			eldest.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Estimates the heap taken by a paper: the record itself, its ID, its lists
+	 * and the text of its questions and action comments. Strings shared with
+	 * other records, such as module codes, allowances and examiners, are not
+	 * counted; questions are, even when the question bank shares them between
+	 * papers, so the estimate errs on the heavy side.
+	 *
+	 * @param paper The paper.
+	 * @return The estimated weight, in bytes.
+	 */
+	static long weigh(ExaminationPaper paper) {
+		long weight = 96 + text(paper.paperId()) + list(paper.questions()) + list(paper.actions());
+		for (Question question : paper.questions()) {
+			weight += 24 + text(question.questionText()) + list(question.parts());
+			for (String part : question.parts()) {
+				weight += text(part);
+			}
+		}
+		for (ExternalExaminerAction action : paper.actions()) {
+			weight += 32 + text(action.getComment());
+		}
+		return weight;
+	}
+
+	private static long text(String value) {
+		return value == null ? 0 : 40 + value.length();
+	}
+
+	private static long list(List<?> values) {
+		return values == null ? 0 : 40 + 4L * values.size();
+	}
+
+	/**
+	 * The cached papers of one module, keyed by ID in the order they were added,
+	 * and their total weight, including the map entries.
+	 */
+	private static final class Entry {
+		private static final long ENTRY_WEIGHT = 48;
+
+		private final Map<String, ExaminationPaper> papers = new LinkedHashMap<>();
+		private long weight;
+
+		Entry(List<ExaminationPaper> papers) {
+			for (ExaminationPaper paper : papers) {
+				put(paper);
+			}
+		}
+
+		void put(ExaminationPaper paper) {
+			ExaminationPaper previous = papers.put(paper.paperId(), paper);
+			weight += previous == null ? ENTRY_WEIGHT + weigh(paper) : weigh(paper) - weigh(previous);
+		}
+
+		List<ExaminationPaper> papers() {
+			return new ArrayList<>(papers.values());
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import ie.atu.sw.enums.PaperStatus;
+
+/**
+ * The small, fixed part of an examination paper: everything a listing or a
+ * selection screen shows, without the questions and actions. Headers are
+ * stored in their own per-module repository beside the papers, so listing a
+ * module's papers reads a few bytes per paper, and the full paper is loaded
+ * through the {@link PaperIndex} only once one is selected.
+ *
+ * @param paperId         Unique identifier for the examination paper.
+ * @param moduleCode      Code of the module to which the paper belongs.
+ * @param allowances      The paper's allowances packed as by
+ *                        {@link ExaminationPaperCodec#allowanceBits}.
+ * @param totalQuestions  Total number of questions in the paper.
+ * @param requiredAnswers Number of answers required.
+ * @param questionCount   Number of questions stored with the paper.
+ * @param actionCount     Number of external examiner actions recorded.
+ * @param status          The review status decided by the latest approval or
+ *                        rejection.
+ */
+public record PaperHeader(String paperId, String moduleCode, int allowances, int totalQuestions, int requiredAnswers,
+		int questionCount, int actionCount, PaperStatus status) implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the header of an examination paper.
+	 *
+	 * @param paper The paper.
+	 * @return The paper's header.
+	 */
+	public static PaperHeader of(ExaminationPaper paper) {
+		return new PaperHeader(paper.paperId(), paper.moduleCode(), ExaminationPaperCodec.allowanceBits(paper),
+				paper.totalQuestions(), paper.requiredAnswers(), paper.questions().size(), paper.actions().size(),
+				statusOf(paper.actions()));
+	}
+
+	/**
+	 * Works out the review status from a paper's actions.
+	 *
+	 * @param actions The actions, in the order they were recorded.
+	 * @return The status decided by the latest approval or rejection, or
+	 *         {@link PaperStatus#PENDING} if there is none.
+	 */
+	public static PaperStatus statusOf(List<ExternalExaminerAction> actions) {
+		for (int i = actions.size() - 1; i >= 0; i--) {
+			switch (actions.get(i).getAction()) {
+			case APPROVE:
+				return PaperStatus.APPROVED;
+			case REJECT:
+				return PaperStatus.REJECTED;
+			default:
+				break;
+			}
+		}
+		return PaperStatus.PENDING;
+	}
+
+	@Override
+	public String toString() {
+		return "ExaminationPaper " + paperId + " (" + moduleCode + "): " + questionCount + " questions, "
+				+ actionCount + " actions, " + status;
+	}
+}
@@ -0,0 +1,56 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import ie.atu.sw.enums.PaperStatus;
+
+/**
+ * Binary {@link RecordCodec} for {@link PaperHeader}. A record is a version
+ * byte followed by the paper ID, module code, allowance bitmask, the question
+ * and answer counts, the number of questions and actions stored with the paper
+ * and the status ordinal.
+ */
+public class PaperHeaderCodec implements RecordCodec<PaperHeader> {
+	/**
+	 * Current format version.
+	 */
+	public static final int VERSION = 1;
+
+	private static final PaperStatus[] STATUSES = PaperStatus.values();
+
+	@Override
+	public void write(PaperHeader header, DataOutput out) throws IOException {
+		out.writeByte(VERSION);
+		BinaryFormat.writeString(out, header.paperId());
+		BinaryFormat.writeString(out, header.moduleCode());
+		out.writeShort(header.allowances());
+		BinaryFormat.writeVarInt(out, header.totalQuestions());
+		BinaryFormat.writeVarInt(out, header.requiredAnswers());
+		BinaryFormat.writeVarInt(out, header.questionCount());
+		BinaryFormat.writeVarInt(out, header.actionCount());
+		out.writeByte(header.status().ordinal());
+	}
+
+	@Override
+	public PaperHeader read(DataInput in) throws IOException {
+		int version = in.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported paper header format version " + version);
+		}
+		String paperId = BinaryFormat.readString(in);
+		String moduleCode = BinaryFormat.readCanonicalString(in);
+		int allowances = in.readUnsignedShort();
+		int totalQuestions = BinaryFormat.readVarInt(in);
+		int requiredAnswers = BinaryFormat.readVarInt(in);
+		int questionCount = BinaryFormat.readVarInt(in);
+		int actionCount = BinaryFormat.readVarInt(in);
+		int status = in.readUnsignedByte();
+		if (status >= STATUSES.length) {
+			throw new IOException("Unknown paper status " + status);
+		}
+		return new PaperHeader(paperId, moduleCode, allowances, totalQuestions, requiredAnswers, questionCount,
+				actionCount, STATUSES[status]);
+	}
+}
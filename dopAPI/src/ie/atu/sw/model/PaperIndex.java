@@ -0,0 +1,321 @@
+package ie.atu.sw.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistent index from paper ID to the module and record location of the
+ * latest version of each examination paper. A single paper can be read with
+ * one positional read and updated with one append to its module repository
+ * plus one append to the index, however many papers the module holds.
+ *
+ * <p>
+ * The index is itself a repository of the active storage engine
+ * ({@code paper_index}). It is rebuilt from the module repositories when it is
+ * empty, and papers missing from it are indexed the first time they are looked
+ * up through their module.
+ *
+ * <p>
+ * Saving a paper through the index also stores its {@link PaperHeader} in the
+ * module's header repository, which {@link #headers(String)} lists without
+ * reading any paper, updates its view in the {@link PaperStatusIndex} and
+ * writes it through to the {@link PaperCache}, which lookups consult before
+ * reading the paper's record.
+ *
+ * <p>
+ * Compacting a module's paper repository moves its records, so
+ * {@link #compact(String)} does it under the module's lock and re-indexes the
+ * module before releasing it. Lookups do not take the lock: they note a
+ * compaction counter that is odd while any compaction is in progress, and
+ * read again under the module's lock if the counter changed while they read.
+ * Compactions are made one at a time so that the counter stays odd throughout
+ * each one.
+ */
+public class PaperIndex {
+	/**
+	 * Name of the repository holding the index.
+	 */
+	public static final String NAME = "paper_index";
+
+	private final StorageEngine engine;
+	private final Repository<PaperLocation> locations;
+	private final AtomicLong compactions = new AtomicLong();
+	private final ReentrantLock compactionLock = new ReentrantLock();
+
+	/**
+	 * Opens the paper index of a storage engine, building it if it is empty.
+	 *
+	 * @param engine The storage engine holding the papers.
+	 */
+	public PaperIndex(StorageEngine engine) {
+		this.engine = engine;
+		this.locations = engine.open(NAME, RecordCodecs.paperLocations(), PaperLocation::paperId);
+		if (locations.size() == 0) {
+			rebuild(engine, locations);
+		}
+	}
+
+	/**
+	 * Finds an examination paper by ID.
+	 *
+	 * @param paperId The ID of the paper.
+	 * @return The paper, or null if it is not indexed.
+	 */
+	public ExaminationPaper find(String paperId) {
+		long generation = compactions.get();
+		if ((generation & 1) == 0) {
+			try {
+				ExaminationPaper paper = read(paperId);
+				if (compactions.get() == generation) {
+					return paper;
+				}
+			} catch (RuntimeException e) {
+				if (compactions.get() == generation) {
+					throw e;
+				}
+			}
+		}
+
+		String moduleCode = moduleOf(paperId);
+		if (moduleCode == null) {
+			return null;
+		}
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+		lock.lock();
+		try {
+			return read(paperId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ExaminationPaper read(String paperId) {
+		PaperLocation location = locations.get(paperId);
+		if (location == null) {
+			return null;
+		}
+		ExaminationPaper cached = Storage.paperCache().find(location.moduleCode(), paperId);
+		if (cached != null) {
+			return cached;
+		}
+		Repository<ExaminationPaper> papers = engine.papers(location.moduleCode());
+		RecordLocation recordLocation = location.recordLocation();
+		return recordLocation == null ? papers.get(paperId) : papers.read(paperId, recordLocation);
+	}
+
+	/**
+	 * Finds an examination paper by ID, falling back to the given module's
+	 * repository and indexing the paper if the index does not know it yet. If
+	 * the module's papers are cached, nothing is read.
+	 *
+	 * @param paperId    The ID of the paper.
+	 * @param moduleCode The module the paper is expected to belong to.
+	 * @return The paper, or null if it does not exist.
+	 */
+	public ExaminationPaper find(String paperId, String moduleCode) {
+		ExaminationPaper paper = Storage.paperCache().find(moduleCode, paperId);
+		if (paper != null) {
+			return paper;
+		}
+		paper = find(paperId);
+		if (paper == null) {
+			Repository<ExaminationPaper> papers = engine.papers(moduleCode);
+			paper = papers.get(paperId);
+			if (paper != null) {
+				index(paperId, moduleCode, papers.locate(paperId));
+			}
+		}
+		return paper;
+	}
+
+	/**
+	 * Returns the module an examination paper belongs to.
+	 *
+	 * @param paperId The ID of the paper.
+	 * @return The module code, or null if the paper is not indexed.
+	 */
+	public String moduleOf(String paperId) {
+		PaperLocation location = locations.get(paperId);
+		return location == null ? null : location.moduleCode();
+	}
+
+	/**
+	 * Stores an examination paper in its module repository, records its new
+	 * location, stores its header, updates its status view and replaces it in
+	 * the paper cache.
+	 *
+	 * @param paper The paper to store.
+	 */
+	public void save(ExaminationPaper paper) {
+		RecordLocation location = engine.papers(paper.moduleCode()).put(paper.paperId(), paper);
+		index(paper.paperId(), paper.moduleCode(), location);
+		engine.paperHeaders(paper.moduleCode()).put(paper.paperId(), PaperHeader.of(paper));
+		Storage.paperStatusIndex().paperSaved(paper);
+		Storage.paperCache().paperSaved(paper);
+	}
+
+	/**
+	 * Brings what this process holds of a module's papers up to date with the
+	 * changes other processes sharing the data directory made to them: the
+	 * module's paper and header repositories, the index itself and the status
+	 * views are refreshed, and the module's cached papers are dropped if its
+	 * paper repository changed. Called holding the module's lock file before
+	 * reading papers that are to be rewritten.
+	 *
+	 * @param moduleCode The module.
+	 * @throws java.io.UncheckedIOException If a repository cannot be refreshed.
+	 */
+	public void refresh(String moduleCode) {
+		boolean changed = engine.papers(moduleCode).refresh();
+		engine.paperHeaders(moduleCode).refresh();
+		locations.refresh();
+		Storage.paperStatusIndex().refresh();
+		if (changed) {
+			Storage.paperCache().invalidate(moduleCode);
+		}
+	}
+
+	/**
+	 * Lists the headers of a module's examination papers, in the order the papers
+	 * were added. If the module has papers but no headers, as with data written
+	 * before headers existed, the headers are built from the papers first.
+	 *
+	 * @param moduleCode The module.
+	 * @return The headers of the module's papers.
+	 */
+	public List<PaperHeader> headers(String moduleCode) {
+		return headerRepository(moduleCode).values();
+	}
+
+	/**
+	 * Lists a range of the headers of a module's examination papers, in the order
+	 * the papers were added, building the headers first as
+	 * {@link #headers(String)} does.
+	 *
+	 * @param moduleCode The module.
+	 * @param offset     The number of headers to skip.
+	 * @param limit      The largest number of headers to return.
+	 * @return At most {@code limit} headers.
+	 */
+	public List<PaperHeader> headers(String moduleCode, long offset, int limit) {
+		return headerRepository(moduleCode).values(offset, limit);
+	}
+
+	private Repository<PaperHeader> headerRepository(String moduleCode) {
+		Repository<PaperHeader> headers = engine.paperHeaders(moduleCode);
+		if (headers.size() == 0) {
+			ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+			lock.lock();
+			try {
+				if (headers.size() == 0) {
+					engine.papers(moduleCode).scan((paperId, paper) -> headers.put(paperId, PaperHeader.of(paper)));
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return headers;
+	}
+
+	/**
+	 * Forces the question bank, the index, the status views and the paper and
+	 * header repositories of the given modules to the storage device. The
+	 * questions go first, since the papers refer to them.
+	 *
+	 * @param moduleCodes The modules whose papers have been saved.
+	 */
+	public void sync(Iterable<String> moduleCodes) {
+		engine.questionBank().sync();
+		for (String moduleCode : moduleCodes) {
+			engine.papers(moduleCode).sync();
+			engine.paperHeaders(moduleCode).sync();
+		}
+		Storage.paperStatusIndex().sync();
+		locations.sync();
+	}
+
+	/**
+	 * Compacts a module's paper repository if it is mostly superseded versions of
+	 * its papers, re-indexing the module's papers if it was, and otherwise
+	 * snapshots the repository's key index. The module's lock file is held
+	 * throughout, so that other processes rewriting the module's papers read the
+	 * new locations.
+	 *
+	 * @param moduleCode The module whose papers to compact.
+	 * @return true if the repository was compacted.
+	 * @throws UncheckedIOException If the module's lock file cannot be taken.
+	 */
+	public boolean compact(String moduleCode) {
+		compactionLock.lock();
+		ReentrantLock lock = Storage.moduleLocks().lockFor(moduleCode);
+		lock.lock();
+		compactions.incrementAndGet();
+		try (LockFile fileLock = ModuleLocks.fileLockFor(moduleCode)) {
+			fileLock.lock();
+			try {
+				return compactLocked(moduleCode);
+			} finally {
+				fileLock.unlock();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error locking module " + moduleCode, e);
+		} finally {
+			compactions.incrementAndGet();
+			lock.unlock();
+			compactionLock.unlock();
+		}
+	}
+
+	private boolean compactLocked(String moduleCode) {
+		refresh(moduleCode);
+		Repository<ExaminationPaper> papers = engine.papers(moduleCode);
+		if (!papers.compact()) {
+			papers.snapshot();
+			return false;
+		}
+		for (String paperId : papers.keys()) {
+			index(paperId, moduleCode, papers.locate(paperId));
+		}
+		return true;
+	}
+
+	/**
+	 * Compacts the index's own repository if it is mostly superseded locations,
+	 * and otherwise snapshots its key index.
+	 */
+	public void checkpoint() {
+		if (!locations.compact()) {
+			locations.snapshot();
+		}
+	}
+
+	/**
+	 * Rebuilds the index from every module's paper repository.
+	 */
+	public void rebuild() {
+		rebuild(engine, locations);
+	}
+
+	private void index(String paperId, String moduleCode, RecordLocation location) {
+		index(locations, paperId, moduleCode, location);
+	}
+
+	private static void rebuild(StorageEngine engine, Repository<PaperLocation> locations) {
+		List<ModuleInfo> modules = engine.modules().values();
+		for (ModuleInfo module : modules) {
+			Repository<ExaminationPaper> papers = engine.papers(module.moduleCode());
+			for (String paperId : papers.keys()) {
+				index(locations, paperId, module.moduleCode(), papers.locate(paperId));
+			}
+		}
+	}
+
+	private static void index(Repository<PaperLocation> locations, String paperId, String moduleCode,
+			RecordLocation location) {
+		locations.put(paperId, new PaperLocation(paperId, moduleCode, location == null ? -1 : location.offset(),
+				location == null ? 0 : location.length()));
+	}
+}
@@ -0,0 +1,26 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+
+/**
+ * An entry of the {@link PaperIndex}: where the latest version of an
+ * examination paper is stored.
+ *
+ * @param paperId    The ID of the examination paper.
+ * @param moduleCode The module whose paper repository holds the paper.
+ * @param offset     Byte offset of the encoded paper, or -1 if the storage
+ *                   engine does not store records at stable locations.
+ * @param length     Length of the encoded paper in bytes.
+ */
+public record PaperLocation(String paperId, String moduleCode, long offset, int length) implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Returns the position of the paper within its module repository.
+	 *
+	 * @return The record location, or null if the position is unknown.
+	 */
+	public RecordLocation recordLocation() {
+		return offset < 0 ? null : new RecordLocation(offset, length);
+	}
+}
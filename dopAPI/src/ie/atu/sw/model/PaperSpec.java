@@ -0,0 +1,28 @@
+package ie.atu.sw.model;
+
+import java.util.List;
+
+/**
+ * The input needed to add an examination paper without user interaction. The
+ * paper ID, question count and required answers are filled in by the service.
+ *
+ * @param moduleCode                      Code of the module the paper belongs to.
+ * @param allowLogTables                  Whether log tables are allowed.
+ * @param allowActuarialTables            Whether actuarial tables are allowed.
+ * @param allowStatisticalTables          Whether statistical tables are allowed.
+ * @param allowGraphPaper                 Whether graph paper is allowed.
+ * @param allowDictionaries               Whether dictionaries are allowed.
+ * @param allowAttachedAnswerSheet        Whether attached answer sheets are allowed.
+ * @param allowThermodynamicTables        Whether thermodynamic tables are allowed.
+ * @param allowNonProgrammableCalculators Whether non-programmable calculators are
+ *                                        allowed.
+ * @param allowRateTables                 Whether rate tables are allowed.
+ * @param questions                       The questions of the paper, whose marks
+ *                                        must add up to
+ *                                        {@link Rules#DEFAULT_TOTAL_MARKS}.
+ */
+public record PaperSpec(String moduleCode, boolean allowLogTables, boolean allowActuarialTables,
+		boolean allowStatisticalTables, boolean allowGraphPaper, boolean allowDictionaries,
+		boolean allowAttachedAnswerSheet, boolean allowThermodynamicTables, boolean allowNonProgrammableCalculators,
+		boolean allowRateTables, List<Question> questions) {
+}
@@ -0,0 +1,251 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ie.atu.sw.enums.PaperStatus;
+
+/**
+ * Persistent, incrementally maintained view of the review status of every
+ * examination paper, partitioned by status. Each status has its own repository
+ * of the active storage engine ({@code paper_status_pending},
+ * {@code paper_status_approved} and {@code paper_status_rejected}) holding the
+ * {@link PaperStatusView} of each paper in that status, keyed by paper ID.
+ * Listing the pending papers reads exactly the pending repository; no paper,
+ * header or action is read.
+ *
+ * <p>
+ * The {@link PaperIndex} reports every paper it saves through
+ * {@link #paperSaved(ExaminationPaper)}, which folds only the actions added
+ * since the stored view and moves the view to another repository when the
+ * status changes. The view is put into its new repository before it is removed
+ * from the old one, so that a paper is never without a view; a crash or another
+ * process caught in between can leave it in two repositories for a while, and
+ * the view that has folded more actions is then the one read. The views are
+ * rebuilt from the module repositories when all three repositories are empty.
+ */
+public class PaperStatusIndex {
+	/**
+	 * Prefix of the names of the repositories holding the views; the lower-case
+	 * status name follows it.
+	 */
+	public static final String NAME_PREFIX = "paper_status_";
+
+	private final Map<PaperStatus, Repository<PaperStatusView>> views = new EnumMap<>(PaperStatus.class);
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Opens the status views of a storage engine, building them if they are
+	 * empty.
+	 *
+	 * @param engine The storage engine holding the papers.
+	 */
+	public PaperStatusIndex(StorageEngine engine) {
+		boolean empty = true;
+		for (PaperStatus status : PaperStatus.values()) {
+			Repository<PaperStatusView> repository = engine.open(NAME_PREFIX + status.name().toLowerCase(),
+					RecordCodecs.paperStatusViews(), PaperStatusView::paperId);
+			views.put(status, repository);
+			empty &= repository.size() == 0;
+		}
+		if (empty) {
+			Map<PaperStatus, Map<String, PaperStatusView>> built = new EnumMap<>(PaperStatus.class);
+			for (ModuleInfo module : engine.modules().values()) {
+				engine.papers(module.moduleCode()).scan((paperId, paper) -> {
+					PaperStatusView view = PaperStatusView.of(paper);
+					built.computeIfAbsent(view.status(), status -> new LinkedHashMap<>()).put(paperId, view);
+				});
+			}
+			built.forEach((status, statusViews) -> views.get(status).putAll(statusViews));
+		} else {
+			Set<String> seen = new HashSet<>();
+			for (Repository<PaperStatusView> repository : views.values()) {
+				for (String paperId : repository.keys()) {
+					if (!seen.add(paperId)) {
+						removeSuperseded(paperId);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the status view of a paper.
+	 *
+	 * @param paperId The ID of the paper.
+	 * @return The view, or null if the paper has none.
+	 */
+	public PaperStatusView view(String paperId) {
+		PaperStatusView latest = null;
+		for (Repository<PaperStatusView> repository : views.values()) {
+			PaperStatusView view = repository.get(paperId);
+			if (view != null && (latest == null || isNewer(view, latest))) {
+				latest = view;
+			}
+		}
+		return latest;
+	}
+
+	/**
+	 * Lists the views of the papers in a status, in the order they entered it.
+	 *
+	 * @param status The status.
+	 * @return The views.
+	 */
+	public List<PaperStatusView> papersWith(PaperStatus status) {
+		return current(views.get(status).values());
+	}
+
+	/**
+	 * Lists a range of the views of the papers in a status.
+	 *
+	 * @param status The status.
+	 * @param offset The number of views to skip.
+	 * @param limit  The largest number of views to return.
+	 * @return At most {@code limit} views.
+	 */
+	public List<PaperStatusView> papersWith(PaperStatus status, long offset, int limit) {
+		List<PaperStatusView> page = views.get(status).values(offset, limit);
+		boolean removed = false;
+		for (PaperStatusView view : page) {
+			removed |= isSuperseded(view) && removeSuperseded(view.paperId());
+		}
+		if (removed) {
+			// Read the page again so that the views after it keep their offsets.
+			page = views.get(status).values(offset, limit);
+		}
+		return current(page);
+	}
+
+	/**
+	 * Returns the number of papers in a status.
+	 *
+	 * @param status The status.
+	 * @return The number of papers.
+	 */
+	public int count(PaperStatus status) {
+		Repository<PaperStatusView> repository = views.get(status);
+		int count = repository.size();
+		for (PaperStatus other : PaperStatus.values()) {
+			if (other == status) {
+				continue;
+			}
+			for (String paperId : views.get(other).keys()) {
+				PaperStatusView view = repository.containsKey(paperId) ? repository.get(paperId) : null;
+				if (view != null && isSuperseded(view)) {
+					count--;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Updates the view of a paper after it has been saved. Only the actions
+	 * recorded after those already folded into the stored view are read, and
+	 * nothing is written if the view is unchanged.
+	 *
+	 * @param paper The version of the paper that was saved.
+	 */
+	public void paperSaved(ExaminationPaper paper) {
+		lock.lock();
+		try {
+			PaperStatusView previous = view(paper.paperId());
+			PaperStatusView current;
+			if (previous == null) {
+				current = PaperStatusView.of(paper);
+			} else if (previous.actionCount() <= paper.actions().size()) {
+				current = previous.withActions(paper.actions(), previous.actionCount());
+			} else {
+				// Actions were removed, so the view cannot be brought forward.
+				current = PaperStatusView.of(paper);
+			}
+			if (current.equals(previous)) {
+				return;
+			}
+			views.get(current.status()).put(paper.paperId(), current);
+			if (previous != null && previous.status() != current.status()) {
+				views.get(previous.status()).remove(paper.paperId());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private List<PaperStatusView> current(List<PaperStatusView> statusViews) {
+		List<PaperStatusView> current = new ArrayList<>(statusViews.size());
+		for (PaperStatusView view : statusViews) {
+			if (!isSuperseded(view)) {
+				current.add(view);
+			}
+		}
+		return current;
+	}
+
+	/*
+	 * Removes the views of a paper left behind in their old repository by a move
+	 * that did not finish. Returns whether any was removed.
+	 */
+	private boolean removeSuperseded(String paperId) {
+		boolean removed = false;
+		lock.lock();
+		try {
+			PaperStatusView latest = view(paperId);
+			for (PaperStatus status : PaperStatus.values()) {
+				if (latest != null && status != latest.status()) {
+					removed |= views.get(status).remove(paperId);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		return removed;
+	}
+
+	private boolean isSuperseded(PaperStatusView view) {
+		for (PaperStatus status : PaperStatus.values()) {
+			Repository<PaperStatusView> repository = views.get(status);
+			if (status != view.status() && repository.containsKey(view.paperId())) {
+				PaperStatusView other = repository.get(view.paperId());
+				if (other != null && isNewer(other, view)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * A view that has folded more actions is the newer; on a tie the order of the
+	 * statuses decides, so that exactly one of two views is current.
+	 */
+	private static boolean isNewer(PaperStatusView view, PaperStatusView other) {
+		return view.actionCount() != other.actionCount() ? view.actionCount() > other.actionCount()
+				: view.status().ordinal() > other.status().ordinal();
+	}
+
+	/**
+	 * Brings the status views up to date with the changes other processes
+	 * sharing the data directory made to them.
+	 */
+	public void refresh() {
+		for (Repository<PaperStatusView> repository : views.values()) {
+			repository.refresh();
+		}
+	}
+
+	/**
+	 * Forces the status views to the storage device.
+	 */
+	public void sync() {
+		for (Repository<PaperStatusView> repository : views.values()) {
+			repository.sync();
+		}
+	}
+}
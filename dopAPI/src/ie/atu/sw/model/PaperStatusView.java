@@ -0,0 +1,98 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import ie.atu.sw.enums.PaperStatus;
+
+/**
+ * The review state of one examination paper, folded from its external examiner
+ * actions: the latest decision, how many approvals, rejections and comments it
+ * has had, and who acted on it last. Views are maintained by the
+ * {@link PaperStatusIndex} as actions are recorded, so the state of a paper is
+ * read without going through its actions.
+ *
+ * @param paperId        Unique identifier for the examination paper.
+ * @param moduleCode     Code of the module to which the paper belongs.
+ * @param status         The status decided by the latest approval or
+ *                       rejection.
+ * @param approvals      Number of approvals recorded.
+ * @param rejections     Number of rejections recorded.
+ * @param comments       Number of comments recorded.
+ * @param lastExaminerId The ID of the examiner of the latest action, see
+ *                       {@link ExaminerUtil#examinerId}, or null if there is
+ *                       none.
+ */
+public record PaperStatusView(String paperId, String moduleCode, PaperStatus status, int approvals, int rejections,
+		int comments, String lastExaminerId) implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the view of a paper no action has been recorded on.
+	 *
+	 * @param paperId    The ID of the paper.
+	 * @param moduleCode The code of the paper's module.
+	 * @return The pending view.
+	 */
+	public static PaperStatusView pending(String paperId, String moduleCode) {
+		return new PaperStatusView(paperId, moduleCode, PaperStatus.PENDING, 0, 0, 0, null);
+	}
+
+	/**
+	 * Folds every action of a paper into a new view.
+	 *
+	 * @param paper The paper.
+	 * @return The paper's view.
+	 */
+	public static PaperStatusView of(ExaminationPaper paper) {
+		return pending(paper.paperId(), paper.moduleCode()).withActions(paper.actions(), 0);
+	}
+
+	/**
+	 * Returns the number of actions folded into the view.
+	 *
+	 * @return The number of approvals, rejections and comments.
+	 */
+	public int actionCount() {
+		return approvals + rejections + comments;
+	}
+
+	/**
+	 * Folds actions recorded after the ones already in the view.
+	 *
+	 * @param actions The actions of the paper, in the order they were recorded.
+	 * @param from    The index of the first action to fold.
+	 * @return The updated view.
+	 */
+	public PaperStatusView withActions(List<ExternalExaminerAction> actions, int from) {
+		PaperStatus latest = status;
+		int approved = approvals;
+		int rejected = rejections;
+		int commented = comments;
+		String examinerId = lastExaminerId;
+		for (ExternalExaminerAction action : actions.subList(from, actions.size())) {
+			switch (action.getAction()) {
+			case APPROVE -> {
+				latest = PaperStatus.APPROVED;
+				approved++;
+			}
+			case REJECT -> {
+				latest = PaperStatus.REJECTED;
+				rejected++;
+			}
+			case ADD_COMMENT -> commented++;
+			}
+			if (action.getExaminer() != null) {
+				examinerId = ExaminerUtil.examinerId(action.getExaminer());
+			}
+		}
+		return new PaperStatusView(paperId, moduleCode, latest, approved, rejected, commented, examinerId);
+	}
+
+	@Override
+	public String toString() {
+		return "ExaminationPaper " + paperId + " (" + moduleCode + "): " + status + ", " + approvals + " approvals, "
+				+ rejections + " rejections, " + comments + " comments"
+				+ (lastExaminerId == null ? "" : ", last action by " + lastExaminerId);
+	}
+}
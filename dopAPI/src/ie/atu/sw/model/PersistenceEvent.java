@@ -0,0 +1,66 @@
+package ie.atu.sw.model;
+
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one operation of the persistence layer: a read,
+ * write, scan, sync, index load, snapshot or compaction of a repository, or a
+ * serialization of a list file. The event is disabled by default; enable it
+ * with {@code -XX:StartFlightRecording:+ie.atu.sw.Persistence#enabled=true} or
+ * a custom settings file. While it is disabled the calls below do no work
+ * beyond the checks JFR compiles away.
+ *
+ * <p>
+ * Usage: create the event and call {@link #begin()} before the operation, then
+ * call {@link #finish(String, File, int, long)} after it.
+ */
+@Name("ie.atu.sw.Persistence")
+@Label("Persistence Operation")
+@Category({ "ATU", "Persistence" })
+@Description("A read, write or maintenance operation on a data file")
+@Enabled(false)
+@StackTrace(false)
+final class PersistenceEvent extends Event {
+	@Label("Operation")
+	String operation;
+
+	@Label("Path")
+	String path;
+
+	@Label("Entity Count")
+	@Description("The number of records or values read or written")
+	int entityCount;
+
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+
+	/**
+	 * Ends the event and commits it if it is enabled and above its threshold. The
+	 * fields are only filled in when the event is committed.
+	 *
+	 * @param operation   The operation, for example {@code write}.
+	 * @param file        The data file operated on.
+	 * @param entityCount The number of records or values read or written.
+	 * @param bytes       The number of bytes read or written.
+	 */
+	void finish(String operation, File file, int entityCount, long bytes) {
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.path = file.getPath();
+			this.entityCount = entityCount;
+			this.bytes = bytes;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed store of examination questions. A question's ID is derived
+ * from its content: the first {@value #ID_BYTES} bytes of the SHA-256 hash of
+ * its text, parts and marks, as 32 hexadecimal digits. Equal questions have the
+ * same ID and are stored once, in the {@link StorageEngine#QUESTIONS}
+ * repository, however many papers use them.
+ *
+ * <p>
+ * The binary paper codec writes each question of a paper as a reference of
+ * {@value #ID_BYTES} bytes through {@link #writeReference(Question, DataOutput)}
+ * and resolves it through {@link #readReference(DataInput)}. Recently used
+ * questions are kept in two small direct-mapped caches, one by ID and one by
+ * identity: resolving a reused question costs no read and every paper that uses
+ * it shares one instance, and writing back a paper that was just read needs no
+ * hashing.
+ */
+public class QuestionBank {
+	/**
+	 * Number of bytes of a question reference.
+	 */
+	public static final int ID_BYTES = 16;
+
+	private static final int CACHE_SLOTS = 1 << 15;
+	private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.ISO_8859_1);
+
+	private final Repository<Question> repository;
+	private final AtomicReferenceArray<Entry> byId = new AtomicReferenceArray<>(CACHE_SLOTS);
+	private final AtomicReferenceArray<Entry> byIdentity = new AtomicReferenceArray<>(CACHE_SLOTS);
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Creates a question bank over a repository of questions keyed by
+	 * {@link #questionId(Question)}.
+	 *
+	 * @param repository The repository holding the questions.
+	 */
+	public QuestionBank(Repository<Question> repository) {
+		this.repository = repository;
+	}
+
+	/**
+	 * Computes the content ID of a question.
+	 *
+	 * @param question The question.
+	 * @return The 32 hexadecimal digit ID of the question.
+	 */
+	public static String questionId(Question question) {
+		ByteBuffer hash = hash(question);
+		return id(hash.getLong(0), hash.getLong(8));
+	}
+
+	/**
+	 * Stores a question unless an equal question is already stored.
+	 *
+	 * @param question The question to store.
+	 * @return The ID of the question.
+	 */
+	public String add(Question question) {
+		ByteBuffer hash = hash(question);
+		Entry entry = new Entry(hash.getLong(0), hash.getLong(8), question);
+		store(entry);
+		return id(entry.high(), entry.low());
+	}
+
+	/**
+	 * Retrieves a question by its ID.
+	 *
+	 * @param questionId The ID of the question.
+	 * @return The question, or null if no question has that ID.
+	 */
+	public Question get(String questionId) {
+		return repository.get(questionId);
+	}
+
+	/**
+	 * Checks whether a question with the given ID is stored.
+	 *
+	 * @param questionId The ID of the question.
+	 * @return true if the question is stored.
+	 */
+	public boolean contains(String questionId) {
+		return repository.containsKey(questionId);
+	}
+
+	/**
+	 * Retrieves every stored question, in the order they were first stored.
+	 *
+	 * @return A new list of the questions.
+	 */
+	public List<Question> questions() {
+		return repository.values();
+	}
+
+	/**
+	 * Returns the number of stored questions.
+	 *
+	 * @return The number of questions.
+	 */
+	public int size() {
+		return repository.size();
+	}
+
+	/**
+	 * Forces the stored questions to the storage device. Papers that refer to
+	 * questions must only be forced after the questions are.
+	 */
+	public void sync() {
+		repository.sync();
+	}
+
+	/**
+	 * Stores a question if needed and writes a reference to it.
+	 *
+	 * @param question The question.
+	 * @param out      The output to write the reference to.
+	 * @throws IOException If the reference cannot be written.
+	 */
+	void writeReference(Question question, DataOutput out) throws IOException {
+		Entry entry = byIdentity.get(identitySlot(question));
+		if (entry == null || entry.question() != question) {
+			ByteBuffer hash = hash(question);
+			entry = new Entry(hash.getLong(0), hash.getLong(8), question);
+			store(entry);
+		}
+		out.writeLong(entry.high());
+		out.writeLong(entry.low());
+	}
+
+	/**
+	 * Reads a reference written by {@link #writeReference(Question, DataOutput)}
+	 * and resolves it to its question.
+	 *
+	 * @param in The input to read the reference from.
+	 * @return The referenced question.
+	 * @throws IOException If the reference cannot be read or the question is not
+	 *                     stored.
+	 */
+	Question readReference(DataInput in) throws IOException {
+		long high = in.readLong();
+		long low = in.readLong();
+		Entry entry = byId.get(idSlot(high));
+		if (entry != null && entry.high() == high && entry.low() == low) {
+			return entry.question();
+		}
+		String questionId = id(high, low);
+		Question question = repository.get(questionId);
+		if (question == null) {
+			throw new IOException("Question " + questionId + " is missing from the question bank");
+		}
+		cache(new Entry(high, low, question));
+		return question;
+	}
+
+	private void store(Entry entry) {
+		Entry cached = byId.get(idSlot(entry.high()));
+		if (cached != null && cached.high() == entry.high() && cached.low() == entry.low()) {
+			return;
+		}
+		lock.lock();
+		try {
+			String questionId = id(entry.high(), entry.low());
+			if (!repository.containsKey(questionId)) {
+				repository.put(questionId, entry.question());
+			}
+			cache(entry);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void cache(Entry entry) {
+		byId.set(idSlot(entry.high()), entry);
+		byIdentity.set(identitySlot(entry.question()), entry);
+	}
+
+	private static ByteBuffer hash(Question question) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			QuestionCodec.writeFields(question,
+					new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest)));
+			return ByteBuffer.wrap(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String id(long high, long low) {
+		int half = Long.SIZE / 4;
+		byte[] digits = new byte[2 * half];
+		for (int i = 0; i < half; i++) {
+			digits[i] = HEX_DIGITS[(int) (high >>> (Long.SIZE - 4 - 4 * i)) & 0xf];
+			digits[half + i] = HEX_DIGITS[(int) (low >>> (Long.SIZE - 4 - 4 * i)) & 0xf];
+		}
+		return new String(digits, StandardCharsets.ISO_8859_1);
+	}
+
+	private static int idSlot(long high) {
+		return (int) high & (CACHE_SLOTS - 1);
+	}
+
+	private static int identitySlot(Question question) {
+		return System.identityHashCode(question) & (CACHE_SLOTS - 1);
+	}
+
+	/**
+	 * A cached question and the two halves of its ID.
+	 */
+	private record Entry(long high, long low, Question question) {
+	}
+}
@@ -0,0 +1,67 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary {@link RecordCodec} for {@link Question}. A record is a version byte
+ * followed by the question text, the number of parts, each part and the marks.
+ */
+public class QuestionCodec implements RecordCodec<Question> {
+	/**
+	 * Current format version.
+	 */
+	public static final int VERSION = 1;
+
+	@Override
+	public void write(Question question, DataOutput out) throws IOException {
+		out.writeByte(VERSION);
+		writeFields(question, out);
+	}
+
+	@Override
+	public Question read(DataInput in) throws IOException {
+		int version = in.readUnsignedByte();
+		return switch (version) {
+		case BinaryFormat.SERIALIZED_RECORD -> BinaryFormat.readSerialized(in);
+		case VERSION -> readFields(in);
+		default -> throw new IOException("Unsupported question format version " + version);
+		};
+	}
+
+	/**
+	 * Writes a question without a version byte, for embedding in other records.
+	 *
+	 * @param question The question to write.
+	 * @param out      The output to write to.
+	 * @throws IOException If the question cannot be written.
+	 */
+	static void writeFields(Question question, DataOutput out) throws IOException {
+		BinaryFormat.writeString(out, question.questionText());
+		BinaryFormat.writeVarInt(out, question.parts().size());
+		for (String part : question.parts()) {
+			BinaryFormat.writeString(out, part);
+		}
+		BinaryFormat.writeVarInt(out, question.marks());
+	}
+
+	/**
+	 * Reads a question written by {@link #writeFields(Question, DataOutput)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The question read.
+	 * @throws IOException If the question cannot be read.
+	 */
+	static Question readFields(DataInput in) throws IOException {
+		String questionText = BinaryFormat.readString(in);
+		int partCount = BinaryFormat.readVarInt(in);
+		List<String> parts = new ArrayList<>(partCount);
+		for (int i = 0; i < partCount; i++) {
+			parts.add(BinaryFormat.readString(in));
+		}
+		return new Question(questionText, parts, BinaryFormat.readVarInt(in));
+	}
+}
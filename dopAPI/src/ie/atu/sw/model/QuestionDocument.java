@@ -0,0 +1,27 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The searchable text of an examination paper: its questions, without the
+ * allowances and actions of the paper. Documents are stored by the
+ * {@link QuestionSearchIndex}, which builds its inverted index from them.
+ *
+ * @param paperId    Unique identifier for the examination paper.
+ * @param moduleCode Code of the module to which the paper belongs.
+ * @param questions  The paper's questions, in order.
+ */
+public record QuestionDocument(String paperId, String moduleCode, List<Question> questions) implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Extracts the searchable text of a paper.
+	 *
+	 * @param paper The paper.
+	 * @return The paper's document.
+	 */
+	public static QuestionDocument of(ExaminationPaper paper) {
+		return new QuestionDocument(paper.paperId(), paper.moduleCode(), List.copyOf(paper.questions()));
+	}
+}
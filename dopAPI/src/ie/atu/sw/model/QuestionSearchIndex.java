@@ -0,0 +1,358 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Full-text index over the text and parts of every examination question, for
+ * finding the papers that ask about a subject. Each question text and each
+ * question part is a separate field, tokenized into lower-case runs of letters
+ * and digits. The index maps each token to its postings: the field and position
+ * of every occurrence, in the order the fields were added.
+ *
+ * <p>
+ * Queries are ranked with BM25 over the fields. Words in double quotes form a
+ * phrase that a field must contain, word for word and in order; the remaining
+ * words are optional and only raise the ranking of the fields that contain
+ * them. For example {@code "linked list" complexity} finds the fields that
+ * contain the phrase <i>linked list</i>, ranking first those that also mention
+ * <i>complexity</i>.
+ *
+ * <p>
+ * The questions of each paper are stored once as a {@link QuestionDocument} in
+ * a repository of the active storage engine ({@code question_text}), which is
+ * built from the module repositories when it is empty. The postings are held
+ * in memory and built from that repository when the index is opened, so a
+ * search never reads an examination paper. Papers are added through
+ * {@link #paperAdded(ExaminationPaper)} when they are created.
+ */
+public class QuestionSearchIndex {
+	/**
+	 * Name of the repository holding the question documents.
+	 */
+	public static final String NAME = "question_text";
+
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+
+	private final Repository<QuestionDocument> documents;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Postings> postings = new HashMap<>();
+	private final Map<String, Integer> paperSlots = new HashMap<>();
+	private final List<String> paperIds = new ArrayList<>();
+	private final List<String> moduleCodes = new ArrayList<>();
+	private int[] fieldPaper = new int[64];
+	private int[] fieldQuestion = new int[64];
+	private int[] fieldPart = new int[64];
+	private int[] fieldLength = new int[64];
+	private int fieldCount;
+	private long totalLength;
+
+	/**
+	 * Opens the question index of a storage engine, storing the questions of
+	 * every paper first if none are stored.
+	 *
+	 * @param engine The storage engine holding the papers.
+	 */
+	public QuestionSearchIndex(StorageEngine engine) {
+		this.documents = engine.open(NAME, RecordCodecs.questionDocuments(), QuestionDocument::paperId);
+		if (documents.size() == 0) {
+			Map<String, QuestionDocument> built = new LinkedHashMap<>();
+			for (ModuleInfo module : engine.modules().values()) {
+				engine.papers(module.moduleCode())
+						.scan((paperId, paper) -> built.put(paperId, QuestionDocument.of(paper)));
+			}
+			documents.putAll(built);
+		}
+		documents.scan((paperId, document) -> add(document));
+	}
+
+	/**
+	 * Adds the questions of a new paper to the index. Papers already in the index
+	 * are left as they are, since the questions of a paper do not change.
+	 *
+	 * @param paper The paper that was created.
+	 */
+	public void paperAdded(ExaminationPaper paper) {
+		QuestionDocument document = QuestionDocument.of(paper);
+		lock.writeLock().lock();
+		try {
+			if (!paperSlots.containsKey(document.paperId())) {
+				documents.put(document.paperId(), document);
+				add(document);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds to the index the papers another process stored in the document
+	 * repository since the index was opened.
+	 *
+	 * @return The documents of the papers added.
+	 */
+	public List<QuestionDocument> refresh() {
+		List<QuestionDocument> added = new ArrayList<>();
+		lock.writeLock().lock();
+		try {
+			documents.scan((paperId, document) -> {
+				if (!paperSlots.containsKey(paperId)) {
+					add(document);
+					added.add(document);
+				}
+			});
+		} finally {
+			lock.writeLock().unlock();
+		}
+		return added;
+	}
+
+	/**
+	 * Visits the stored questions of every paper in the index, in the order the
+	 * papers were added.
+	 *
+	 * @param visitor Receives each paper's document.
+	 */
+	public void scanDocuments(Consumer<QuestionDocument> visitor) {
+		documents.scan((paperId, document) -> visitor.accept(document));
+	}
+
+	/**
+	 * Returns the number of papers in the index.
+	 *
+	 * @return The number of papers.
+	 */
+	public int paperCount() {
+		lock.readLock().lock();
+		try {
+			return paperIds.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the question texts and parts that best match a query.
+	 *
+	 * @param query The words to look for; words in double quotes must appear as
+	 *              a phrase.
+	 * @param limit The largest number of matches to return.
+	 * @return The matches, best first; empty if the query has no words.
+	 */
+	public List<SearchHit> search(String query, int limit) {
+		Set<String> terms = new LinkedHashSet<>();
+		List<List<String>> phrases = new ArrayList<>();
+		parse(query, terms, phrases);
+		if (terms.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		lock.readLock().lock();
+		try {
+			BitSet required = null;
+			for (List<String> phrase : phrases) {
+				BitSet fields = phraseFields(phrase);
+				if (required == null) {
+					required = fields;
+				} else {
+					required.and(fields);
+				}
+			}
+
+			double[] scores = new double[fieldCount];
+			BitSet matched = new BitSet(fieldCount);
+			double averageLength = (double) totalLength / Math.max(1, fieldCount);
+			for (String term : terms) {
+				Postings list = postings.get(term);
+				if (list != null) {
+					score(list, required, averageLength, scores, matched);
+				}
+			}
+			return top(scores, matched, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void score(Postings list, BitSet required, double averageLength, double[] scores, BitSet matched) {
+		double idf = Math.log(1 + (fieldCount - list.fields + 0.5) / (list.fields + 0.5));
+		int i = 0;
+		while (i < list.size) {
+			int field = field(list.entries[i]);
+			int frequency = 0;
+			while (i < list.size && field(list.entries[i]) == field) {
+				frequency++;
+				i++;
+			}
+			if (required == null || required.get(field)) {
+				double norm = K1 * (1 - B + B * fieldLength[field] / averageLength);
+				scores[field] += idf * frequency * (K1 + 1) / (frequency + norm);
+				matched.set(field);
+			}
+		}
+	}
+
+	private List<SearchHit> top(double[] scores, BitSet matched, int limit) {
+		// Keep the best matches in a min-heap; on equal scores the earlier field wins.
+		PriorityQueue<Integer> best = new PriorityQueue<>(
+				(a, b) -> scores[a] != scores[b] ? Double.compare(scores[a], scores[b]) : Integer.compare(b, a));
+		for (int field = matched.nextSetBit(0); field >= 0; field = matched.nextSetBit(field + 1)) {
+			// Fields come in increasing order, so a field no better than the worst kept one loses.
+			if (best.size() == limit && scores[field] <= scores[best.peek()]) {
+				continue;
+			}
+			best.add(field);
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+		SearchHit[] hits = new SearchHit[best.size()];
+		for (int i = hits.length - 1; i >= 0; i--) {
+			int field = best.poll();
+			int paper = fieldPaper[field];
+			hits[i] = new SearchHit(paperIds.get(paper), moduleCodes.get(paper), fieldQuestion[field],
+					fieldPart[field], scores[field]);
+		}
+		return new ArrayList<>(Arrays.asList(hits));
+	}
+
+	private BitSet phraseFields(List<String> phrase) {
+		BitSet fields = new BitSet();
+		List<Postings> lists = new ArrayList<>(phrase.size());
+		for (String term : phrase) {
+			Postings list = postings.get(term);
+			if (list == null) {
+				return fields;
+			}
+			lists.add(list);
+		}
+		// Walk every list in step: the occurrence that would continue the phrase
+		// only grows as the first word's occurrences do.
+		int[] cursors = new int[lists.size()];
+		Postings first = lists.get(0);
+		for (int i = 0; i < first.size; i++) {
+			long entry = first.entries[i];
+			boolean match = true;
+			for (int t = 1; t < lists.size() && match; t++) {
+				Postings list = lists.get(t);
+				while (cursors[t] < list.size && list.entries[cursors[t]] < entry + t) {
+					cursors[t]++;
+				}
+				match = cursors[t] < list.size && list.entries[cursors[t]] == entry + t;
+			}
+			if (match) {
+				fields.set(field(entry));
+			}
+		}
+		return fields;
+	}
+
+	private void add(QuestionDocument document) {
+		int paper = paperIds.size();
+		paperSlots.put(document.paperId(), paper);
+		paperIds.add(document.paperId());
+		moduleCodes.add(document.moduleCode());
+		List<Question> questions = document.questions();
+		for (int q = 0; q < questions.size(); q++) {
+			Question question = questions.get(q);
+			addField(paper, q + 1, 0, question.questionText());
+			for (int p = 0; p < question.parts().size(); p++) {
+				addField(paper, q + 1, p + 1, question.parts().get(p));
+			}
+		}
+	}
+
+	private void addField(int paper, int question, int part, String text) {
+		if (fieldCount == fieldPaper.length) {
+			int capacity = fieldCount * 2;
+			fieldPaper = Arrays.copyOf(fieldPaper, capacity);
+			fieldQuestion = Arrays.copyOf(fieldQuestion, capacity);
+			fieldPart = Arrays.copyOf(fieldPart, capacity);
+			fieldLength = Arrays.copyOf(fieldLength, capacity);
+		}
+		int field = fieldCount++;
+		List<String> tokens = tokens(text);
+		fieldPaper[field] = paper;
+		fieldQuestion[field] = question;
+		fieldPart[field] = part;
+		fieldLength[field] = tokens.size();
+		totalLength += tokens.size();
+		for (int position = 0; position < tokens.size(); position++) {
+			postings.computeIfAbsent(tokens.get(position), token -> new Postings()).add(field, position);
+		}
+	}
+
+	/**
+	 * Splits text into lower-case tokens: maximal runs of letters and digits.
+	 *
+	 * @param text The text, which may be null.
+	 * @return The tokens, in order.
+	 */
+	static List<String> tokens(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	private static void parse(String query, Set<String> terms, List<List<String>> phrases) {
+		String[] segments = query == null ? new String[0] : query.split("\"", -1);
+		for (int i = 0; i < segments.length; i++) {
+			List<String> tokens = tokens(segments[i]);
+			terms.addAll(tokens);
+			// Odd segments lie between a pair of quotes.
+			if (i % 2 == 1 && !tokens.isEmpty()) {
+				phrases.add(tokens);
+			}
+		}
+	}
+
+	private static int field(long entry) {
+		return (int) (entry >>> 32);
+	}
+
+	/**
+	 * The occurrences of one token, each packed into a {@code long} as the field
+	 * in the high half and the position in the low half. Fields are added in
+	 * increasing order, so the entries stay sorted and lists can be walked in step.
+	 */
+	private static final class Postings {
+		private long[] entries = new long[2];
+		private int size;
+		private int fields;
+
+		private void add(int field, int position) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+			}
+			if (size == 0 || field(entries[size - 1]) != field) {
+				fields++;
+			}
+			entries[size++] = ((long) field << 32) | position;
+		}
+	}
+}
@@ -2,9 +2,7 @@ package ie.atu.sw.model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 
 import ie.atu.sw.services.QuestionService;
@@ -14,12 +12,32 @@ import ie.atu.sw.services.QuestionService;
  * functionality to manage questions, including adding, updating, retrieving,
  * and listing questions. Interacts with the user through the command line for
  * input and displays information accordingly.
+ *
+ * <p>
+ * Questions are kept in the {@link QuestionBank} of the active storage engine,
+ * under IDs derived from their content, so they persist and each distinct
+ * question is stored once.
  */
 public class QuestionServiceImpl implements QuestionService, Serializable {
 	private static final long serialVersionUID = 1L;
 
-	private final Scanner scanner = new Scanner(System.in);
-	private final Map<String, Question> questions = new HashMap<>();
+	private final Scanner scanner;
+
+	/**
+	 * Constructs the service reading user input from standard input.
+	 */
+	public QuestionServiceImpl() {
+		this(new Scanner(System.in));
+	}
+
+	/**
+	 * Constructs the service reading user input from the given scanner.
+	 *
+	 * @param scanner The scanner for reading user input.
+	 */
+	public QuestionServiceImpl(Scanner scanner) {
+		this.scanner = scanner;
+	}
 
 	/**
 	 * Adds a new question based on user inputs. Prompts the user for the question
@@ -34,11 +52,22 @@ public class QuestionServiceImpl implements QuestionService, Serializable {
 		List<String> parts = gatherParts();
 		int marks = gatherMarks();
 
-		// String questionId = UUID.randomUUID().toString();
 		Question question = new Question(questionText, parts, marks);
+		addQuestion(question);
 		return question;
 	}
 
+	/**
+	 * Stores a question in the question bank under its content ID.
+	 *
+	 * @param question The question to store.
+	 * @return The ID the question is stored under.
+	 */
+	@Override
+	public String addQuestion(Question question) {
+		return Storage.engine().questionBank().add(question);
+	}
+
 	/**
 	 * Gathers parts of a question from user input.
 	 *
@@ -75,25 +104,30 @@ public class QuestionServiceImpl implements QuestionService, Serializable {
 	}
 
 	/**
-	 * Retrieves a question by its ID.
+	 * Retrieves a question by its ID from the question bank.
 	 *
 	 * @param questionId The ID of the question to retrieve.
 	 * @return The Question object corresponding to the provided ID.
 	 */
 	@Override
 	public Question getQuestion(String questionId) {
-		return questions.get(questionId);
+		return Storage.engine().questionBank().get(questionId);
 	}
 
 	/**
-	 * Updates a question identified by its ID.
+	 * Stores the updated version of a question under its own content ID.
 	 *
 	 * @param questionId The ID of the question to be updated.
 	 * @param question   The updated Question object.
+	 * @return The ID of the updated question.
 	 */
 	@Override
-	public void updateQuestion(String questionId, Question question) {
-		questions.put(questionId, question);
+	public String updateQuestion(String questionId, Question question) {
+		QuestionBank questionBank = Storage.engine().questionBank();
+		if (!questionBank.contains(questionId)) {
+			throw new IllegalArgumentException("No question with ID " + questionId);
+		}
+		return questionBank.add(question);
 	}
 
 	/**
@@ -103,7 +137,7 @@ public class QuestionServiceImpl implements QuestionService, Serializable {
 	 */
 	@Override
 	public List<Question> getAllQuestions() {
-		return new ArrayList<>(questions.values());
+		return Storage.engine().questionBank().questions();
 	}
 
 	/**
@@ -113,7 +147,7 @@ public class QuestionServiceImpl implements QuestionService, Serializable {
 	@Override
 	public void listAllQuestions() {
 		System.out.println("List of Questions:");
-		for (Question question : questions.values()) {
+		for (Question question : getAllQuestions()) {
 			System.out.println(question);
 		}
 	}
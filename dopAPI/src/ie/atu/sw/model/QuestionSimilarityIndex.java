@@ -0,0 +1,293 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds near-duplicate questions across examination papers, such as a question
+ * reused from an earlier year or another module, without comparing every pair
+ * of questions.
+ *
+ * <p>
+ * Each question, its text and parts together, is reduced to its set of word
+ * shingles (runs of {@value #SHINGLE_WORDS} consecutive words) and summarised
+ * by a MinHash signature of {@value #HASHES} values: the share of positions at
+ * which two signatures agree estimates the Jaccard similarity of the two
+ * shingle sets. The signature is cut into {@value #BANDS} bands of
+ * {@value #ROWS} values, and each band is hashed into a bucket. Questions that
+ * share a bucket are candidates, and candidates whose signatures agree on at
+ * least {@value #THRESHOLD} of their positions are reported; with these
+ * settings pairs with a similarity of 0.8 are found almost always, and pairs
+ * below 0.3 are rarely even compared.
+ *
+ * <p>
+ * The signatures are held in memory and computed from the documents of the
+ * {@link QuestionSearchIndex} when the index is opened. New papers are added
+ * through {@link #paperAdded(ExaminationPaper)} when they are created.
+ */
+public class QuestionSimilarityIndex {
+	/**
+	 * The lowest estimated similarity reported.
+	 */
+	public static final double THRESHOLD = 0.7;
+
+	private static final int SHINGLE_WORDS = 3;
+	private static final int BANDS = 16;
+	private static final int ROWS = 4;
+	private static final int HASHES = BANDS * ROWS;
+	/**
+	 * Buckets up to this size are compared pairwise in a full scan; members of
+	 * larger buckets are compared with the bucket's first question only.
+	 */
+	private static final int PAIRWISE_BUCKET = 32;
+	private static final long[] SEEDS = new SplittableRandom(0x5EED).longs(HASHES).toArray();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Bucket> buckets = new HashMap<>();
+	private final Map<String, Integer> paperSlots = new HashMap<>();
+	private final List<String> paperIds = new ArrayList<>();
+	private final List<String> moduleCodes = new ArrayList<>();
+	// The questions of each paper are added together: paper p holds questions
+	// paperStart[p] up to paperStart[p + 1], or up to questionCount for the last.
+	private int[] paperStart = new int[64];
+	private int[] questionPaper = new int[64];
+	private int[] questionNumber = new int[64];
+	private int[] signatures = new int[64 * HASHES];
+	private int questionCount;
+
+	/**
+	 * Opens the similarity index over the questions of a search index.
+	 *
+	 * @param questions The question search index holding every paper's
+	 *                  questions.
+	 */
+	public QuestionSimilarityIndex(QuestionSearchIndex questions) {
+		questions.scanDocuments(this::add);
+	}
+
+	/**
+	 * Adds the questions of a new paper to the index. Papers already in the index
+	 * are left as they are.
+	 *
+	 * @param paper The paper that was created.
+	 */
+	public void paperAdded(ExaminationPaper paper) {
+		documentAdded(QuestionDocument.of(paper));
+	}
+
+	/**
+	 * Adds the questions of a paper, as stored by the question search index.
+	 * Papers already in the index are left as they are.
+	 *
+	 * @param document The questions of the paper.
+	 */
+	public void documentAdded(QuestionDocument document) {
+		lock.writeLock().lock();
+		try {
+			if (!paperSlots.containsKey(document.paperId())) {
+				add(document);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the questions of earlier papers that the questions of a paper
+	 * resemble.
+	 *
+	 * @param paperId The ID of the paper.
+	 * @return The near-duplicates, by question and then by decreasing similarity;
+	 *         empty if the paper is not in the index.
+	 */
+	public List<DuplicateQuestion> duplicatesOf(String paperId) {
+		lock.readLock().lock();
+		try {
+			List<DuplicateQuestion> duplicates = new ArrayList<>();
+			Integer paper = paperSlots.get(paperId);
+			if (paper == null) {
+				return duplicates;
+			}
+			int end = paper + 1 < paperIds.size() ? paperStart[paper + 1] : questionCount;
+			for (int question = paperStart[paper]; question < end; question++) {
+				List<DuplicateQuestion> found = new ArrayList<>();
+				BitSet compared = new BitSet();
+				for (int band = 0; band < BANDS; band++) {
+					Bucket bucket = buckets.get(bandKey(question, band));
+					for (int i = 0; i < bucket.size; i++) {
+						int other = bucket.questions[i];
+						if (questionPaper[other] < paper && !compared.get(other)) {
+							compared.set(other);
+							double similarity = similarity(question, other);
+							if (similarity >= THRESHOLD) {
+								found.add(duplicate(question, other, similarity));
+							}
+						}
+					}
+				}
+				found.sort((a, b) -> Double.compare(b.similarity(), a.similarity()));
+				duplicates.addAll(found);
+			}
+			return duplicates;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Scans every bucket for near-duplicate questions in different papers. Each
+	 * pair is reported once, with the question of the later paper first.
+	 *
+	 * @return The near-duplicates, in the order the later papers were added.
+	 */
+	public List<DuplicateQuestion> allDuplicates() {
+		lock.readLock().lock();
+		try {
+			Set<Long> reported = new HashSet<>();
+			List<DuplicateQuestion> duplicates = new ArrayList<>();
+			for (Bucket bucket : buckets.values()) {
+				int pivots = bucket.size <= PAIRWISE_BUCKET ? bucket.size : 1;
+				for (int i = 0; i < pivots; i++) {
+					for (int j = i + 1; j < bucket.size; j++) {
+						int earlier = bucket.questions[i];
+						int later = bucket.questions[j];
+						if (questionPaper[earlier] == questionPaper[later]) {
+							continue;
+						}
+						// A pair may share several buckets, so only the pairs found similar are remembered.
+						double similarity = similarity(later, earlier);
+						if (similarity >= THRESHOLD && reported.add(((long) later << 32) | earlier)) {
+							duplicates.add(duplicate(later, earlier, similarity));
+						}
+					}
+				}
+			}
+			duplicates.sort((a, b) -> {
+				int byPaper = Integer.compare(paperSlots.get(a.paperId()), paperSlots.get(b.paperId()));
+				return byPaper != 0 ? byPaper : Integer.compare(a.question(), b.question());
+			});
+			return duplicates;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private DuplicateQuestion duplicate(int question, int other, double similarity) {
+		return new DuplicateQuestion(paperIds.get(questionPaper[question]), moduleCodes.get(questionPaper[question]),
+				questionNumber[question], paperIds.get(questionPaper[other]), moduleCodes.get(questionPaper[other]),
+				questionNumber[other], similarity);
+	}
+
+	private double similarity(int a, int b) {
+		int agree = 0;
+		for (int i = 0; i < HASHES; i++) {
+			if (signatures[a * HASHES + i] == signatures[b * HASHES + i]) {
+				agree++;
+			}
+		}
+		return (double) agree / HASHES;
+	}
+
+	private long bandKey(int question, int band) {
+		long key = band;
+		for (int row = 0; row < ROWS; row++) {
+			key = mix(key * 31 + signatures[question * HASHES + band * ROWS + row]);
+		}
+		return key;
+	}
+
+	private void add(QuestionDocument document) {
+		int paper = paperIds.size();
+		if (paper == paperStart.length) {
+			paperStart = Arrays.copyOf(paperStart, paper * 2);
+		}
+		paperStart[paper] = questionCount;
+		paperSlots.put(document.paperId(), paper);
+		paperIds.add(document.paperId());
+		moduleCodes.add(document.moduleCode());
+		List<Question> questions = document.questions();
+		for (int q = 0; q < questions.size(); q++) {
+			long[] shingles = shingles(questions.get(q));
+			if (shingles.length > 0) {
+				addQuestion(paper, q + 1, shingles);
+			}
+		}
+	}
+
+	private void addQuestion(int paper, int number, long[] shingles) {
+		if (questionCount == questionPaper.length) {
+			int capacity = questionCount * 2;
+			questionPaper = Arrays.copyOf(questionPaper, capacity);
+			questionNumber = Arrays.copyOf(questionNumber, capacity);
+			signatures = Arrays.copyOf(signatures, capacity * HASHES);
+		}
+		int question = questionCount++;
+		questionPaper[question] = paper;
+		questionNumber[question] = number;
+		for (int i = 0; i < HASHES; i++) {
+			long min = Long.MAX_VALUE;
+			for (long shingle : shingles) {
+				min = Math.min(min, mix(shingle ^ SEEDS[i]));
+			}
+			signatures[question * HASHES + i] = (int) (min >>> 32);
+		}
+		for (int band = 0; band < BANDS; band++) {
+			buckets.computeIfAbsent(bandKey(question, band), key -> new Bucket()).add(question);
+		}
+	}
+
+	/**
+	 * Hashes the word shingles of a question's text and parts. Text with fewer
+	 * words than a shingle is a single shingle.
+	 */
+	private static long[] shingles(Question question) {
+		List<String> words = new ArrayList<>(QuestionSearchIndex.tokens(question.questionText()));
+		for (String part : question.parts()) {
+			words.addAll(QuestionSearchIndex.tokens(part));
+		}
+		if (words.isEmpty()) {
+			return new long[0];
+		}
+		int count = Math.max(1, words.size() - SHINGLE_WORDS + 1);
+		long[] shingles = new long[count];
+		for (int i = 0; i < count; i++) {
+			long hash = 0;
+			for (int w = i; w < Math.min(words.size(), i + SHINGLE_WORDS); w++) {
+				hash = mix(hash * 31 + words.get(w).hashCode());
+			}
+			shingles[i] = hash;
+		}
+		return shingles;
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+
+	/**
+	 * The questions whose signatures hash to the same value in one band, in the
+	 * order they were added.
+	 */
+	private static final class Bucket {
+		private int[] questions = new int[2];
+		private int size;
+
+		private void add(int question) {
+			if (size == questions.length) {
+				questions = Arrays.copyOf(questions, size * 2);
+			}
+			questions[size++] = question;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts a single stored value to and from bytes. Storage engines use a codec
+ * per repository so that each record can be written and read on its own,
+ * without serializing the rest of the data set.
+ *
+ * @param <V> The type of value handled by the codec.
+ */
+public interface RecordCodec<V> {
+
+	/**
+	 * Writes a value to the given output.
+	 *
+	 * @param value The value to write.
+	 * @param out   The output to write to.
+	 * @throws IOException If the value cannot be written.
+	 */
+	void write(V value, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a value previously written by {@link #write(Object, DataOutput)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The decoded value.
+	 * @throws IOException If the value cannot be read.
+	 */
+	V read(DataInput in) throws IOException;
+
+	/**
+	 * Prepares for a value imported from a legacy list file to be written, by
+	 * storing what the record will refer to. Does nothing by default.
+	 *
+	 * @param value The value about to be imported.
+	 */
+	default void beforeImport(V value) {
+	}
+}
@@ -0,0 +1,215 @@
+package ie.atu.sw.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import ie.atu.sw.enums.PaperStatus;
+import ie.atu.sw.services.Examiner;
+
+/**
+ * Provides the {@link RecordCodec} used for each kind of stored record.
+ */
+public class RecordCodecs {
+	private static final RecordCodec<PaperHeader> PAPER_HEADERS = new PaperHeaderCodec();
+	private static final RecordCodec<Question> QUESTIONS = new QuestionCodec();
+	private static final RecordCodec<ExternalExaminerAction> ACTIONS = new ExternalExaminerActionCodec(
+			() -> Storage.engine().examinerRegistry());
+	private static final PaperStatus[] STATUSES = PaperStatus.values();
+
+	private RecordCodecs() {
+	}
+
+	/**
+	 * Returns the codec for module records, whose examiners are stored in the
+	 * given examiner registry.
+	 *
+	 * @param examinerRegistry The examiner registry of the storage engine.
+	 * @return The module codec.
+	 */
+	public static RecordCodec<ModuleInfo> modules(ExaminerRegistry examinerRegistry) {
+		return new ModuleInfoCodec(examinerRegistry);
+	}
+
+	/**
+	 * Returns the codec for examiner records.
+	 *
+	 * @return The examiner codec.
+	 */
+	public static RecordCodec<Examiner> examiners() {
+		return new SerializedRecordCodec<>();
+	}
+
+	/**
+	 * Returns the codec for examiner alias records.
+	 *
+	 * @return The examiner alias codec.
+	 */
+	public static RecordCodec<ExaminerAlias> examinerAliases() {
+		return new SerializedRecordCodec<>();
+	}
+
+	/**
+	 * Returns the codec for examination paper records, whose questions are
+	 * stored in the given question bank and the examiners of whose actions are
+	 * stored in the given examiner registry.
+	 *
+	 * @param questionBank     The question bank of the storage engine.
+	 * @param examinerRegistry The examiner registry of the storage engine.
+	 * @return The examination paper codec.
+	 */
+	public static RecordCodec<ExaminationPaper> papers(QuestionBank questionBank,
+			ExaminerRegistry examinerRegistry) {
+		return new ExaminationPaperCodec(questionBank, examinerRegistry);
+	}
+
+	/**
+	 * Returns the codec for examination paper header records.
+	 *
+	 * @return The paper header codec.
+	 */
+	public static RecordCodec<PaperHeader> paperHeaders() {
+		return PAPER_HEADERS;
+	}
+
+	/**
+	 * Returns the codec for external examiner action records, whose examiners
+	 * are resolved through the examiner registry of the active storage engine.
+	 *
+	 * @return The action codec.
+	 */
+	public static RecordCodec<ExternalExaminerAction> actions() {
+		return ACTIONS;
+	}
+
+	/**
+	 * Returns the codec for question records.
+	 *
+	 * @return The question codec.
+	 */
+	public static RecordCodec<Question> questions() {
+		return QUESTIONS;
+	}
+
+	/**
+	 * Returns the codec for paper index entries.
+	 *
+	 * @return The paper location codec.
+	 */
+	public static RecordCodec<PaperLocation> paperLocations() {
+		return new RecordCodec<>() {
+			@Override
+			public void write(PaperLocation location, DataOutput out) throws IOException {
+				out.writeUTF(location.paperId());
+				out.writeUTF(location.moduleCode());
+				out.writeLong(location.offset());
+				out.writeInt(location.length());
+			}
+
+			@Override
+			public PaperLocation read(DataInput in) throws IOException {
+				return new PaperLocation(in.readUTF(), StringTable.canonical(in.readUTF()), in.readLong(),
+						in.readInt());
+			}
+		};
+	}
+
+	/**
+	 * Returns the codec for examiner to module index entries.
+	 *
+	 * @return The examiner modules codec.
+	 */
+	public static RecordCodec<ExaminerModules> examinerModules() {
+		return new RecordCodec<>() {
+			@Override
+			public void write(ExaminerModules entry, DataOutput out) throws IOException {
+				out.writeUTF(entry.examinerKey());
+				out.writeInt(entry.moduleCodes().size());
+				for (String moduleCode : entry.moduleCodes()) {
+					out.writeUTF(moduleCode);
+				}
+			}
+
+			@Override
+			public ExaminerModules read(DataInput in) throws IOException {
+				String examinerKey = in.readUTF();
+				int count = in.readInt();
+				List<String> moduleCodes = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					moduleCodes.add(StringTable.canonical(in.readUTF()));
+				}
+				return new ExaminerModules(examinerKey, moduleCodes);
+			}
+		};
+	}
+
+	/**
+	 * Returns the codec for paper status views. A record is the paper ID, module
+	 * code, status ordinal, the approval, rejection and comment counts and the
+	 * last examiner ID, which may be null.
+	 *
+	 * @return The paper status view codec.
+	 */
+	public static RecordCodec<PaperStatusView> paperStatusViews() {
+		return new RecordCodec<>() {
+			@Override
+			public void write(PaperStatusView view, DataOutput out) throws IOException {
+				BinaryFormat.writeString(out, view.paperId());
+				BinaryFormat.writeString(out, view.moduleCode());
+				out.writeByte(view.status().ordinal());
+				BinaryFormat.writeVarInt(out, view.approvals());
+				BinaryFormat.writeVarInt(out, view.rejections());
+				BinaryFormat.writeVarInt(out, view.comments());
+				BinaryFormat.writeString(out, view.lastExaminerId());
+			}
+
+			@Override
+			public PaperStatusView read(DataInput in) throws IOException {
+				String paperId = BinaryFormat.readString(in);
+				String moduleCode = BinaryFormat.readCanonicalString(in);
+				int status = in.readUnsignedByte();
+				if (status >= STATUSES.length) {
+					throw new IOException("Unknown paper status " + status);
+				}
+				return new PaperStatusView(paperId, moduleCode, STATUSES[status], BinaryFormat.readVarInt(in),
+						BinaryFormat.readVarInt(in), BinaryFormat.readVarInt(in),
+						BinaryFormat.readCanonicalString(in));
+			}
+		};
+	}
+
+	/**
+	 * Returns the codec for the question documents of the question search index.
+	 * A record is the paper ID, the module code, the number of questions and each
+	 * question without a version byte.
+	 *
+	 * @return The question document codec.
+	 */
+	public static RecordCodec<QuestionDocument> questionDocuments() {
+		return new RecordCodec<>() {
+			@Override
+			public void write(QuestionDocument document, DataOutput out) throws IOException {
+				BinaryFormat.writeString(out, document.paperId());
+				BinaryFormat.writeString(out, document.moduleCode());
+				BinaryFormat.writeVarInt(out, document.questions().size());
+				for (Question question : document.questions()) {
+					QuestionCodec.writeFields(question, out);
+				}
+			}
+
+			@Override
+			public QuestionDocument read(DataInput in) throws IOException {
+				String paperId = BinaryFormat.readString(in);
+				String moduleCode = BinaryFormat.readCanonicalString(in);
+				int count = BinaryFormat.readVarInt(in);
+				List<Question> questions = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					questions.add(QuestionCodec.readFields(in));
+				}
+				return new QuestionDocument(paperId, moduleCode, questions);
+			}
+		};
+	}
+}
@@ -0,0 +1,15 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+
+/**
+ * The position of a single encoded record inside a repository file. Engines
+ * that store records at stable positions hand out locations so that one record
+ * can be read again without consulting the rest of the file.
+ *
+ * @param offset Byte offset of the encoded value within the file.
+ * @param length Length of the encoded value in bytes.
+ */
+public record RecordLocation(long offset, int length) implements Serializable {
+	private static final long serialVersionUID = 1L;
+}
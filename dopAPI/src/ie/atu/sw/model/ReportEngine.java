@@ -0,0 +1,168 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import ie.atu.sw.enums.PaperStatus;
+
+/**
+ * Computes the {@link BoardReport} from the stored modules and the
+ * {@link PaperStatusIndex}, whose views already hold each paper's decision
+ * and action counts, so no paper or action is read.
+ *
+ * <p>
+ * The report is built in two parallel passes over the common fork-join pool.
+ * The first folds the status views of every paper into one tally per module;
+ * the second rolls the modules up into their school, department, programme and
+ * external examiner. Each worker folds into its own maps of {@code Tally}
+ * objects, which hold plain {@code long} counters, and the partial results are
+ * merged pairwise, so no counter is shared between threads and nothing is
+ * boxed per paper.
+ */
+public class ReportEngine {
+	private static final String NO_EXAMINER = "(none)";
+
+	private final StorageEngine engine;
+	private final PaperStatusIndex statuses;
+
+	/**
+	 * Creates a report engine over the given storage.
+	 *
+	 * @param engine   The storage engine holding the modules.
+	 * @param statuses The status views of the engine's papers.
+	 */
+	public ReportEngine(StorageEngine engine, PaperStatusIndex statuses) {
+		this.engine = engine;
+		this.statuses = statuses;
+	}
+
+	/**
+	 * Computes the report from the current state of the storage.
+	 *
+	 * @return The report.
+	 */
+	public BoardReport generate() {
+		Map<String, Tally> perModule = new HashMap<>();
+		for (PaperStatus status : PaperStatus.values()) {
+			List<PaperStatusView> views = statuses.papersWith(status);
+			merge(perModule, views.parallelStream().collect(HashMap::new,
+					(tallies, view) -> tallies.computeIfAbsent(view.moduleCode(), code -> new Tally()).add(view),
+					ReportEngine::merge));
+		}
+
+		Groups groups = engine.modules().values().parallelStream().collect(() -> new Groups(perModule), Groups::add,
+				Groups::merge);
+		return new BoardReport(rows(groups.bySchool), rows(groups.byDepartment), rows(groups.byProgram),
+				rows(groups.byExternalExaminer), groups.totals.row("Total"));
+	}
+
+	private static List<ReportRow> rows(Map<String, Tally> tallies) {
+		List<ReportRow> rows = new ArrayList<>(tallies.size());
+		for (Map.Entry<String, Tally> entry : new TreeMap<>(tallies).entrySet()) {
+			rows.add(entry.getValue().row(entry.getKey()));
+		}
+		return rows;
+	}
+
+	private static void merge(Map<String, Tally> into, Map<String, Tally> from) {
+		from.forEach((key, tally) -> into.merge(key, tally, Tally::merge));
+	}
+
+	/**
+	 * The tallies of one worker in the roll-up pass, keyed by group.
+	 */
+	private static final class Groups {
+		private final Map<String, Tally> perModule;
+		private final Map<String, Tally> bySchool = new HashMap<>();
+		private final Map<String, Tally> byDepartment = new HashMap<>();
+		private final Map<String, Tally> byProgram = new HashMap<>();
+		private final Map<String, Tally> byExternalExaminer = new HashMap<>();
+		private final Tally totals = new Tally();
+
+		private Groups(Map<String, Tally> perModule) {
+			this.perModule = perModule;
+		}
+
+		private void add(ModuleInfo module) {
+			Tally papers = perModule.getOrDefault(module.moduleCode(), Tally.EMPTY);
+			String examinerId = ExaminerUtil.examinerId(module.getExternalExaminer());
+			String examiner = examinerId == null ? NO_EXAMINER : examinerId;
+			bySchool.computeIfAbsent(String.valueOf(module.school()), key -> new Tally()).addModule(module, papers);
+			byDepartment.computeIfAbsent(String.valueOf(module.department()), key -> new Tally()).addModule(module,
+					papers);
+			byProgram.computeIfAbsent(String.valueOf(module.programCode()), key -> new Tally()).addModule(module,
+					papers);
+			byExternalExaminer.computeIfAbsent(examiner, key -> new Tally()).addModule(module, papers);
+			totals.addModule(module, papers);
+		}
+
+		private void merge(Groups other) {
+			ReportEngine.merge(bySchool, other.bySchool);
+			ReportEngine.merge(byDepartment, other.byDepartment);
+			ReportEngine.merge(byProgram, other.byProgram);
+			ReportEngine.merge(byExternalExaminer, other.byExternalExaminer);
+			totals.merge(other.totals);
+		}
+	}
+
+	/**
+	 * Mutable counters of one group, owned by a single worker until merged.
+	 */
+	private static final class Tally {
+		private static final Tally EMPTY = new Tally();
+
+		private int modules;
+		private long papers;
+		private long approved;
+		private long rejected;
+		private long pending;
+		private long approvals;
+		private long rejections;
+		private long comments;
+		private long registrations;
+		private long registrationsCovered;
+
+		private void add(PaperStatusView view) {
+			papers++;
+			switch (view.status()) {
+			case APPROVED -> approved++;
+			case REJECTED -> rejected++;
+			case PENDING -> pending++;
+			}
+			approvals += view.approvals();
+			rejections += view.rejections();
+			comments += view.comments();
+		}
+
+		private void addModule(ModuleInfo module, Tally moduleTally) {
+			merge(moduleTally);
+			modules++;
+			registrations += module.registrations();
+			if (moduleTally.approved > 0) {
+				registrationsCovered += module.registrations();
+			}
+		}
+
+		private Tally merge(Tally other) {
+			modules += other.modules;
+			papers += other.papers;
+			approved += other.approved;
+			rejected += other.rejected;
+			pending += other.pending;
+			approvals += other.approvals;
+			rejections += other.rejections;
+			comments += other.comments;
+			registrations += other.registrations;
+			registrationsCovered += other.registrationsCovered;
+			return this;
+		}
+
+		private ReportRow row(String group) {
+			return new ReportRow(group, modules, papers, approved, rejected, pending, approvals, rejections, comments,
+					registrations, registrationsCovered);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+
+/**
+ * One line of a {@link BoardReport}: the examination papers and registrations
+ * of a group of modules, such as the modules of one school, and the decisions
+ * their external examiners have made.
+ *
+ * @param group                The group, for example the name of the school.
+ * @param modules              Number of modules in the group.
+ * @param papers               Number of examination papers of those modules.
+ * @param approved             Number of papers whose latest decision is an
+ *                             approval.
+ * @param rejected             Number of papers whose latest decision is a
+ *                             rejection.
+ * @param pending              Number of papers with no decision yet.
+ * @param approvals            Number of approvals recorded.
+ * @param rejections           Number of rejections recorded.
+ * @param comments             Number of comments recorded.
+ * @param registrations        Students registered on the modules.
+ * @param registrationsCovered Students registered on the modules that have an
+ *                             approved paper.
+ */
+public record ReportRow(String group, int modules, long papers, long approved, long rejected, long pending,
+		long approvals, long rejections, long comments, long registrations, long registrationsCovered)
+		implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Returns the share of the group's papers that are approved.
+	 *
+	 * @return The approval rate, from 0 to 1; 0 if the group has no papers.
+	 */
+	public double approvalRate() {
+		return papers == 0 ? 0 : (double) approved / papers;
+	}
+
+	/**
+	 * Returns the share of the group's papers that are rejected.
+	 *
+	 * @return The rejection rate, from 0 to 1; 0 if the group has no papers.
+	 */
+	public double rejectionRate() {
+		return papers == 0 ? 0 : (double) rejected / papers;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-40s %7d %7d %8.1f%% %8.1f%% %7d %13d %9d", group, modules, papers,
+				approvalRate() * 100, rejectionRate() * 100, pending, registrations, registrationsCovered);
+	}
+}
@@ -0,0 +1,67 @@
+package ie.atu.sw.model;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import ie.atu.sw.services.ReportService;
+
+/**
+ * Implementation of the ReportService interface. Reports are computed by a
+ * {@link ReportEngine} over the active storage and printed to the console.
+ */
+public class ReportServiceImpl implements ReportService, Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final LongAdder getBoardReportCalls = Metrics.calls("getBoardReport");
+	private static final int LISTING_BUFFER_CHARS = 64 * 1024;
+
+	/**
+	 * Computes the board report over the active storage engine.
+	 *
+	 * @return The report.
+	 */
+	@Override
+	public BoardReport getBoardReport() {
+		getBoardReportCalls.increment();
+		return new ReportEngine(Storage.engine(), Storage.paperStatusIndex()).generate();
+	}
+
+	/**
+	 * Prints the board report: a table of modules, papers, approval and rejection
+	 * rates, pending papers and registrations for each school, department,
+	 * programme and external examiner, followed by the totals.
+	 */
+	@Override
+	public void printBoardReport() {
+		BoardReport report;
+		try {
+			report = getBoardReport();
+		} catch (UncheckedIOException e) {
+			System.err.println("An error occurred while computing the report: " + e.getMessage());
+			return;
+		}
+
+		PrintWriter out = new PrintWriter(
+				new BufferedWriter(new OutputStreamWriter(System.out), LISTING_BUFFER_CHARS));
+		printTable(out, "School", report.bySchool());
+		printTable(out, "Department", report.byDepartment());
+		printTable(out, "Program", report.byProgram());
+		printTable(out, "External Examiner", report.byExternalExaminer());
+		out.println("\n" + report.totals());
+		// System.out stays open for the rest of the menu, so only flush.
+		out.flush();
+	}
+
+	private static void printTable(PrintWriter out, String grouping, List<ReportRow> rows) {
+		out.printf("%n%-40s %7s %7s %9s %9s %7s %13s %9s%n", grouping, "Modules", "Papers", "Approved", "Rejected",
+				"Pending", "Registrations", "Covered");
+		if (rows.isEmpty()) {
+			out.println("\tNo modules found.");
+		}
+		rows.forEach(out::println);
+	}
+}
@@ -0,0 +1,174 @@
+package ie.atu.sw.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A keyed collection of persistent values, provided by a {@link StorageEngine}.
+ * Business code reads and writes single records through a repository instead
+ * of loading and saving whole files. I/O failures are reported as
+ * {@link java.io.UncheckedIOException}.
+ *
+ * @param <V> The type of value stored in the repository.
+ */
+public interface Repository<V> {
+
+	/**
+	 * Retrieves the value stored under the given key.
+	 *
+	 * @param key The key to look up.
+	 * @return The stored value, or null if there is none.
+	 */
+	V get(String key);
+
+	/**
+	 * Checks whether a value is stored under the given key, without reading it.
+	 *
+	 * @param key The key to look up.
+	 * @return true if a value is stored under the key.
+	 */
+	default boolean containsKey(String key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Stores a value under the given key, replacing any previous value.
+	 *
+	 * @param key   The key to store the value under.
+	 * @param value The value to store.
+	 * @return The location of the stored record, or null if the engine does not
+	 *         store records at stable locations.
+	 */
+	RecordLocation put(String key, V value);
+
+	/**
+	 * Stores several values, replacing any previous values under their keys.
+	 * Engines that rewrite a whole file on every change write it once for the
+	 * batch.
+	 *
+	 * @param entries The values to store, by key, in the order to store them.
+	 */
+	default void putAll(Map<String, ? extends V> entries) {
+		entries.forEach(this::put);
+	}
+
+	/**
+	 * Removes the value stored under the given key.
+	 *
+	 * @param key The key to remove.
+	 * @return true if a value was removed.
+	 */
+	boolean remove(String key);
+
+	/**
+	 * Visits every stored key and value in insertion order.
+	 *
+	 * @param visitor The callback receiving each key and value.
+	 */
+	void scan(BiConsumer<String, ? super V> visitor);
+
+	/**
+	 * Retrieves every stored value in insertion order.
+	 *
+	 * @return A new list containing all values.
+	 */
+	List<V> values();
+
+	/**
+	 * Retrieves the values at a range of positions in insertion order.
+	 *
+	 * @param offset The number of values to skip.
+	 * @param limit  The largest number of values to return.
+	 * @return A new list of at most {@code limit} values.
+	 */
+	default List<V> values(long offset, int limit) {
+		List<V> all = values();
+		int from = (int) Math.min(offset, all.size());
+		return new ArrayList<>(all.subList(from, (int) Math.min((long) from + limit, all.size())));
+	}
+
+	/**
+	 * Retrieves every stored key.
+	 *
+	 * @return A snapshot of the stored keys.
+	 */
+	Set<String> keys();
+
+	/**
+	 * Returns the number of stored values.
+	 *
+	 * @return The number of values in the repository.
+	 */
+	int size();
+
+	/**
+	 * Returns the location of the value stored under the given key.
+	 *
+	 * @param key The key to look up.
+	 * @return The record location, or null if there is no value for the key or
+	 *         the engine does not store records at stable locations.
+	 */
+	default RecordLocation locate(String key) {
+		return null;
+	}
+
+	/**
+	 * Reads the record stored under a key at a location previously returned by
+	 * {@link #put(String, Object)}. If the record there is not intact, or is not
+	 * one for the key, the key is looked up again, so a location made stale by a
+	 * compaction still reads the key's latest value.
+	 *
+	 * @param key      The key the record was stored under.
+	 * @param location The location of the record.
+	 * @return The value stored at that location, or the latest value for the key
+	 *         if the location is stale, or null if there is none.
+	 * @throws UnsupportedOperationException If the engine does not store records
+	 *                                       at stable locations.
+	 */
+	default V read(String key, RecordLocation location) {
+		throw new UnsupportedOperationException("Repository does not support positional reads");
+	}
+
+	/**
+	 * Forces every write made so far to the storage device, so that it survives
+	 * a crash of the operating system. Engines that replace the whole file on
+	 * every write have nothing left to force and do nothing.
+	 */
+	default void sync() {
+	}
+
+	/**
+	 * Persists whatever lets the repository open quickly next time, such as a
+	 * snapshot of its key index. Engines without such state do nothing.
+	 */
+	default void snapshot() {
+	}
+
+	/**
+	 * Rewrites the repository without superseded records if they take up most of
+	 * its storage. Engines that never keep superseded records do nothing.
+	 *
+	 * @return true if the repository was compacted, in which case every location
+	 *         returned earlier by {@link #put(String, Object)} or
+	 *         {@link #locate(String)} is invalid.
+	 */
+	default boolean compact() {
+		return false;
+	}
+
+	/**
+	 * Brings what the repository holds in memory up to date with changes another
+	 * process, such as another instance of the application sharing the data
+	 * directory, made to its storage since the repository last read or wrote
+	 * it. Engines that hold nothing in memory do nothing.
+	 *
+	 * @return true if changes made by another process were picked up, by this
+	 *         call or by a write since the previous call.
+	 */
+	default boolean refresh() {
+		return false;
+	}
+}
@@ -11,6 +11,8 @@ public record Rules(int minQuestions, int maxQuestions, int minParts, int maxPar
 		implements Serializable {
 	public static final int DEFAULT_MAX_QUESTIONS = 6;
 	public static final int DEFAULT_MIN_QUESTIONS = 2;
+	public static final int DEFAULT_MIN_PARTS = 1;
+	public static final int DEFAULT_MAX_PARTS = 5;
 	public static final int DEFAULT_REQUIRED_ANSWERS = 4;
 	public static final int DEFAULT_TOTAL_MARKS = 100;
 	private static final long serialVersionUID = 1L;
@@ -0,0 +1,25 @@
+package ie.atu.sw.model;
+
+import java.io.Serializable;
+
+/**
+ * A match of a question search: the question text or question part that
+ * matched, and how well it matched.
+ *
+ * @param paperId    Unique identifier for the examination paper.
+ * @param moduleCode Code of the module to which the paper belongs.
+ * @param question   The number of the question in the paper, from 1.
+ * @param part       The number of the part within the question, from 1, or 0
+ *                   if the question text itself matched.
+ * @param score      The BM25 relevance of the match; higher is better.
+ */
+public record SearchHit(String paperId, String moduleCode, int question, int part, double score)
+		implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String toString() {
+		return String.format("ExaminationPaper %s (%s): question %d%s, score %.3f", paperId, moduleCode, question,
+				part == 0 ? "" : " part (" + (char) ('a' + part - 1) + ")", score);
+	}
+}
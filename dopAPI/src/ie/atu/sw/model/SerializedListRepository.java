@@ -0,0 +1,187 @@
+package ie.atu.sw.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Repository backed by one file containing a serialized list of values. The
+ * list is loaded once when the repository is opened and rewritten in full on
+ * every change.
+ *
+ * <p>
+ * The repository notes the size, modification time and identity of the file
+ * whenever it reads or writes it. If they no longer match, another process has rewritten
+ * the file, and {@link #refresh()} loads the list again. Every change makes
+ * the same check first, so that rewriting the file does not discard what
+ * another process wrote.
+ *
+ * @param <V> The type of value stored in the repository.
+ */
+public class SerializedListRepository<V> implements Repository<V> {
+	private final String fileName;
+	private final Function<? super V, String> keyFunction;
+	private final Map<String, V> values = new LinkedHashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private FileStamp stamp = FileStamp.MISSING;
+	private boolean reloaded;
+
+	/**
+	 * Opens the repository, loading the list file if it exists.
+	 *
+	 * @param fileName    The list file backing the repository.
+	 * @param keyFunction Extracts the key of each value in the list.
+	 */
+	public SerializedListRepository(String fileName, Function<? super V, String> keyFunction) {
+		this.fileName = fileName;
+		this.keyFunction = keyFunction;
+		load(FileStamp.of(new File(fileName)));
+	}
+
+	@Override
+	public V get(String key) {
+		lock.lock();
+		try {
+			return values.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean containsKey(String key) {
+		lock.lock();
+		try {
+			return values.containsKey(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public RecordLocation put(String key, V value) {
+		lock.lock();
+		try {
+			reloaded |= reload();
+			values.put(key, value);
+			save();
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void putAll(Map<String, ? extends V> entries) {
+		lock.lock();
+		try {
+			reloaded |= reload();
+			values.putAll(entries);
+			save();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(String key) {
+		lock.lock();
+		try {
+			reloaded |= reload();
+			if (values.remove(key) == null) {
+				return false;
+			}
+			save();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void scan(BiConsumer<String, ? super V> visitor) {
+		lock.lock();
+		try {
+			values.forEach(visitor);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public List<V> values() {
+		lock.lock();
+		try {
+			return new ArrayList<>(values.values());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Set<String> keys() {
+		lock.lock();
+		try {
+			return new LinkedHashSet<>(values.keySet());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return values.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Loads the list again if the file's size, modification time or identity
+	 * changed since the repository last read or wrote it. A file that cannot be
+	 * read is left for the next refresh.
+	 */
+	@Override
+	public boolean refresh() {
+		lock.lock();
+		try {
+			boolean changed = reload() | reloaded;
+			reloaded = false;
+			return changed;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean reload() {
+		FileStamp current = FileStamp.of(new File(fileName));
+		return !current.equals(stamp) && load(current);
+	}
+
+	private boolean load(FileStamp current) {
+		List<V> loaded = current.size() > 0 ? FileUtil.loadFromFile(fileName) : new ArrayList<>();
+		if (loaded == null) {
+			return false;
+		}
+		values.clear();
+		for (V value : loaded) {
+			values.put(keyFunction.apply(value), value);
+		}
+		stamp = current;
+		return true;
+	}
+
+	private void save() {
+		FileUtil.saveToFile(fileName, new ArrayList<>(values.values()));
+		stamp = FileStamp.of(new File(fileName));
+	}
+}
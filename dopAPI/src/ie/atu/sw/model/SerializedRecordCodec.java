@@ -0,0 +1,43 @@
+package ie.atu.sw.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * A {@link RecordCodec} that stores each value with default Java
+ * serialization. Every record carries its own class descriptors, so this codec
+ * is compact only for small records, but it works for any serializable type.
+ * Records are read through a {@link CanonicalObjectInputStream}, so the
+ * repeated fields of model records share their {@link StringTable} instances.
+ *
+ * @param <V> The type of value handled by the codec.
+ */
+public class SerializedRecordCodec<V> implements RecordCodec<V> {
+
+	@Override
+	public void write(V value, DataOutput out) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+			objectOut.writeObject(value);
+		}
+		out.writeInt(bytes.size());
+		out.write(bytes.toByteArray());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V read(DataInput in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		try (ObjectInputStream objectIn = new CanonicalObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return (V) objectIn.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Unknown class in serialized record", e);
+		}
+	}
+}
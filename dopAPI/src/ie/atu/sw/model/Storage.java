@@ -0,0 +1,321 @@
+package ie.atu.sw.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the storage engine used by the application. The engine is chosen with
+ * the {@code atu.storage} system property ({@code binary}, the default, or
+ * {@code legacy}) and data files are resolved against the directory named by
+ * {@code atu.data.dir}, which defaults to the working directory.
+ */
+public class Storage {
+	/**
+	 * System property selecting the storage engine.
+	 */
+	public static final String ENGINE_PROPERTY = "atu.storage";
+	/**
+	 * System property naming the data directory.
+	 */
+	public static final String DATA_DIR_PROPERTY = "atu.data.dir";
+	/**
+	 * System property holding the number of minutes between periodic
+	 * checkpoints; 0 disables them.
+	 */
+	public static final String CHECKPOINT_PROPERTY = "atu.checkpoint.minutes";
+	private static final long DEFAULT_CHECKPOINT_MINUTES = 5;
+	/**
+	 * System property that stops the data directory from being watched for
+	 * changes made by other processes when set to {@code false}.
+	 */
+	public static final String WATCH_PROPERTY = "atu.watch";
+
+	private static final ModuleLocks MODULE_LOCKS = new ModuleLocks();
+
+	private static StorageEngine engine;
+	private static PaperIndex paperIndex;
+	private static PaperCache paperCache;
+	private static ExaminerModuleIndex examinerModuleIndex;
+	private static PaperStatusIndex paperStatusIndex;
+	private static QuestionSearchIndex questionSearchIndex;
+	private static QuestionSimilarityIndex questionSimilarityIndex;
+	private static ScheduledExecutorService checkpointer;
+	private static DataDirectoryWatcher watcher;
+
+	private Storage() {
+	}
+
+	/**
+	 * Returns the active storage engine, creating it on first use.
+	 *
+	 * @return The active storage engine.
+	 */
+	public static synchronized StorageEngine engine() {
+		if (engine == null) {
+			engine = createEngine(System.getProperty(ENGINE_PROPERTY, "binary"));
+		}
+		return engine;
+	}
+
+	/**
+	 * Replaces the active storage engine, closing the previous one.
+	 *
+	 * @param newEngine The engine to use from now on.
+	 */
+	public static synchronized void use(StorageEngine newEngine) {
+		if (engine != null && engine != newEngine) {
+			engine.close();
+		}
+		engine = newEngine;
+		paperIndex = null;
+		paperCache = null;
+		examinerModuleIndex = null;
+		paperStatusIndex = null;
+		questionSearchIndex = null;
+		questionSimilarityIndex = null;
+	}
+
+	/**
+	 * Returns the paper index of the active storage engine, opening it on first
+	 * use.
+	 *
+	 * @return The paper index.
+	 */
+	public static synchronized PaperIndex paperIndex() {
+		if (paperIndex == null) {
+			paperIndex = new PaperIndex(engine());
+		}
+		return paperIndex;
+	}
+
+	/**
+	 * Returns the cache of the examination papers of each module of the active
+	 * storage engine, creating it on first use.
+	 *
+	 * @return The paper cache.
+	 */
+	public static synchronized PaperCache paperCache() {
+		if (paperCache == null) {
+			paperCache = new PaperCache(engine());
+		}
+		return paperCache;
+	}
+
+	/**
+	 * Creates a storage engine by name.
+	 *
+	 * @param name Either {@code binary} or {@code legacy}.
+	 * @return A new storage engine.
+	 * @throws IllegalArgumentException If the name is not a known engine.
+	 */
+	public static StorageEngine createEngine(String name) {
+		return switch (name) {
+		case "binary" -> new BinaryStorageEngine();
+		case "legacy" -> new LegacyStorageEngine();
+		default -> throw new IllegalArgumentException("Unknown storage engine: " + name);
+		};
+	}
+
+	/**
+	 * Resolves a data file name against the data directory.
+	 *
+	 * @param fileName The name of the data file.
+	 * @return The data file.
+	 */
+	public static File file(String fileName) {
+		return new File(System.getProperty(DATA_DIR_PROPERTY, "."), fileName);
+	}
+
+	/**
+	 * Returns the examiner to module index of the active storage engine, opening
+	 * it on first use.
+	 *
+	 * @return The examiner to module index.
+	 */
+	public static synchronized ExaminerModuleIndex examinerModuleIndex() {
+		if (examinerModuleIndex == null) {
+			examinerModuleIndex = new ExaminerModuleIndex(engine());
+		}
+		return examinerModuleIndex;
+	}
+
+	/**
+	 * Returns the paper status views of the active storage engine, opening them
+	 * on first use.
+	 *
+	 * @return The paper status index.
+	 */
+	public static synchronized PaperStatusIndex paperStatusIndex() {
+		if (paperStatusIndex == null) {
+			paperStatusIndex = new PaperStatusIndex(engine());
+		}
+		return paperStatusIndex;
+	}
+
+	/**
+	 * Returns the question search index of the active storage engine, opening it
+	 * on first use.
+	 *
+	 * @return The question search index.
+	 */
+	public static synchronized QuestionSearchIndex questionSearchIndex() {
+		if (questionSearchIndex == null) {
+			questionSearchIndex = new QuestionSearchIndex(engine());
+		}
+		return questionSearchIndex;
+	}
+
+	/**
+	 * Returns the question similarity index of the active storage engine, opening
+	 * it on first use.
+	 *
+	 * @return The question similarity index.
+	 */
+	public static synchronized QuestionSimilarityIndex questionSimilarityIndex() {
+		if (questionSimilarityIndex == null) {
+			questionSimilarityIndex = new QuestionSimilarityIndex(questionSearchIndex());
+		}
+		return questionSimilarityIndex;
+	}
+
+	/**
+	 * Returns the striped locks that serialise changes to each module and its
+	 * examination papers. The locks are shared by every service and survive a
+	 * change of engine.
+	 *
+	 * @return The module locks.
+	 */
+	public static ModuleLocks moduleLocks() {
+		return MODULE_LOCKS;
+	}
+
+	/**
+	 * Checkpoints every open repository of the active engine. Repositories that
+	 * are mostly superseded records are compacted; the rest have their key index
+	 * snapshotted, so that the next start loads the snapshot and replays only the
+	 * records written after it. Paper repositories are compacted through the
+	 * {@link PaperIndex}, which re-indexes the papers they move. The external
+	 * examiner actions are compacted by their {@link ActionJournal}.
+	 *
+	 * @throws UncheckedIOException If a repository cannot be checkpointed.
+	 */
+	public static void checkpoint() {
+		StorageEngine current = engine();
+		PaperIndex index = paperIndex();
+		for (Map.Entry<String, Repository<?>> entry : current.openRepositories().entrySet()) {
+			String name = entry.getKey();
+			if (name.equals(PaperIndex.NAME)) {
+				continue;
+			}
+			if (name.endsWith(StorageEngine.PAPERS_SUFFIX)) {
+				index.compact(name.substring(0, name.length() - StorageEngine.PAPERS_SUFFIX.length()));
+			} else if (!entry.getValue().compact()) {
+				entry.getValue().snapshot();
+			}
+		}
+		// Last, since compacting papers re-indexes them.
+		index.checkpoint();
+	}
+
+	/**
+	 * Starts checkpointing the active engine in the background every
+	 * {@code atu.checkpoint.minutes} minutes (5 by default). Does nothing if
+	 * checkpoints are already running or the interval is 0.
+	 */
+	public static synchronized void startCheckpoints() {
+		long minutes = Long.getLong(CHECKPOINT_PROPERTY, DEFAULT_CHECKPOINT_MINUTES);
+		if (checkpointer != null || minutes <= 0) {
+			return;
+		}
+		checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "storage-checkpoint");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checkpointer.scheduleWithFixedDelay(() -> {
+			try {
+				checkpoint();
+			} catch (UncheckedIOException e) {
+				System.err.println("Error checkpointing storage: " + e.getMessage());
+			}
+		}, minutes, minutes, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Starts watching the data directory, so that changes other processes sharing
+	 * it make to the data files are picked up through {@link #refresh(Set)}.
+	 * Does nothing if the directory is already watched or
+	 * {@code atu.watch} is {@code false}.
+	 */
+	public static synchronized void startWatching() {
+		if (watcher != null || "false".equalsIgnoreCase(System.getProperty(WATCH_PROPERTY))) {
+			return;
+		}
+		try {
+			watcher = new DataDirectoryWatcher(file("."), Storage::refresh);
+		} catch (IOException e) {
+			System.err.println("Error watching the data directory: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Brings the open repositories with the given names up to date with changes
+	 * other processes made to their files, and then refreshes what is derived
+	 * from the ones that changed: the examiner registry when the examiners
+	 * changed, a module's cached papers when its papers changed, and the question
+	 * search and similarity indexes when papers were added. Repositories that
+	 * are not open, or whose files only changed through this process, are left
+	 * alone.
+	 *
+	 * @param names The names of the repositories whose files changed.
+	 * @throws UncheckedIOException If a repository cannot be refreshed.
+	 */
+	public static void refresh(Set<String> names) {
+		StorageEngine current;
+		PaperCache cache;
+		QuestionSearchIndex search;
+		QuestionSimilarityIndex similarity;
+		synchronized (Storage.class) {
+			current = engine();
+			cache = paperCache;
+			search = questionSearchIndex;
+			similarity = questionSimilarityIndex;
+		}
+		// The examiners and questions go first, since other records refer to them.
+		List<String> ordered = new ArrayList<>();
+		for (String name : names) {
+			if (name.equals(StorageEngine.EXAMINERS) || name.equals(StorageEngine.EXAMINER_ALIASES)
+					|| name.equals(StorageEngine.QUESTIONS)) {
+				ordered.add(0, name);
+			} else {
+				ordered.add(name);
+			}
+		}
+		Map<String, Repository<?>> open = current.openRepositories();
+		for (String name : ordered) {
+			Repository<?> repository = open.get(name);
+			if (repository == null || !repository.refresh()) {
+				continue;
+			}
+			if (name.equals(StorageEngine.EXAMINERS) || name.equals(StorageEngine.EXAMINER_ALIASES)) {
+				current.examinerRegistry().refresh();
+			} else if (name.endsWith(StorageEngine.PAPERS_SUFFIX) && cache != null) {
+				cache.invalidate(name.substring(0, name.length() - StorageEngine.PAPERS_SUFFIX.length()));
+			} else if (name.equals(QuestionSearchIndex.NAME) && search != null) {
+				for (QuestionDocument document : search.refresh()) {
+					if (similarity != null) {
+						similarity.documentAdded(document);
+					}
+				}
+			}
+		}
+	}
+}
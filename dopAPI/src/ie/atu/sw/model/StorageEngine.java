@@ -0,0 +1,161 @@
+package ie.atu.sw.model;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import ie.atu.sw.services.Examiner;
+
+/**
+ * A pluggable persistence backend. An engine hands out named
+ * {@link Repository} instances with keyed get, put and scan operations, so
+ * that services never depend on how or where the data is stored. The active
+ * engine is obtained from {@link Storage#engine()}.
+ */
+public interface StorageEngine {
+	/**
+	 * Name of the repository holding every module, keyed by module code.
+	 */
+	String MODULES = "module_data";
+	/**
+	 * Name of the repository holding every examiner, keyed by the ID the
+	 * {@link ExaminerRegistry} assigned it.
+	 */
+	String EXAMINERS = "examiner_data";
+	/**
+	 * Name of the repository holding the details examiners had before they were
+	 * updated, keyed by {@link ExaminerUtil#examinerKey(Examiner)} of those
+	 * details.
+	 */
+	String EXAMINER_ALIASES = "examiner_aliases";
+	/**
+	 * Suffix of the per-module repositories holding examination papers, keyed by
+	 * paper ID.
+	 */
+	String PAPERS_SUFFIX = "_examination_papers";
+	/**
+	 * Suffix of the per-module repositories holding examination paper headers,
+	 * keyed by paper ID.
+	 */
+	String PAPER_HEADERS_SUFFIX = "_paper_headers";
+	/**
+	 * Name of the repository holding every stored question once, keyed by
+	 * {@link QuestionBank#questionId(Question)}.
+	 */
+	String QUESTIONS = "question_bank";
+	/**
+	 * Name of the external examiner action snapshot, which the
+	 * {@link ActionJournal} appends to.
+	 */
+	String ACTIONS = "external_examiner_actions";
+
+	/**
+	 * Opens, or returns the already open, repository with the given name.
+	 *
+	 * @param <V>         The type of value stored in the repository.
+	 * @param name        The repository name, used to derive its file name.
+	 * @param codec       The codec used to encode single records.
+	 * @param keyFunction Extracts the key of a value when importing existing data.
+	 * @return The repository.
+	 */
+	<V> Repository<V> open(String name, RecordCodec<V> codec, Function<? super V, String> keyFunction);
+
+	/**
+	 * Returns the repositories opened so far, by name.
+	 *
+	 * @return A snapshot of the open repositories.
+	 */
+	Map<String, Repository<?>> openRepositories();
+
+	/**
+	 * Returns the engine's question bank, opening it on first use.
+	 *
+	 * @return The question bank.
+	 */
+	QuestionBank questionBank();
+
+	/**
+	 * Returns the engine's examiner registry, opening it on first use.
+	 *
+	 * @return The examiner registry.
+	 */
+	ExaminerRegistry examinerRegistry();
+
+	/**
+	 * Tells whether the engine stores a copy of each examiner in every module
+	 * that refers to it, so that the modules must be rewritten when the examiner
+	 * changes. Engines that encode records store references into the
+	 * {@link #examinerRegistry()} instead.
+	 *
+	 * @return true if modules embed their examiners.
+	 */
+	default boolean embedsExaminers() {
+		return false;
+	}
+
+	/**
+	 * Releases every file held by the engine's repositories.
+	 */
+	void close();
+
+	/**
+	 * Returns the repository of modules, keyed by module code. Engines that
+	 * encode records refer to the modules' examiners by ID.
+	 *
+	 * @return The module repository.
+	 */
+	default Repository<ModuleInfo> modules() {
+		// The registry is opened first, since importing modules registers their examiners
+		// before writing references to them.
+		ExaminerRegistry examinerRegistry = examinerRegistry();
+		return open(MODULES, RecordCodecs.modules(examinerRegistry), ModuleInfo::moduleCode);
+	}
+
+	/**
+	 * Returns the repository of examiners. Examiners are read and written through
+	 * the {@link #examinerRegistry()}.
+	 *
+	 * @return The examiner repository.
+	 */
+	default Repository<Examiner> examiners() {
+		return open(EXAMINERS, RecordCodecs.examiners(), ExaminerUtil::examinerKey);
+	}
+
+	/**
+	 * Returns the repository of the earlier details of updated examiners. Aliases
+	 * are read and written through the {@link #examinerRegistry()}.
+	 *
+	 * @return The examiner alias repository.
+	 */
+	default Repository<ExaminerAlias> examinerAliases() {
+		return open(EXAMINER_ALIASES, RecordCodecs.examinerAliases(),
+				alias -> ExaminerUtil.examinerKey(alias.examiner()));
+	}
+
+	/**
+	 * Returns the repository of examination papers for one module, keyed by
+	 * paper ID. Engines that encode records store the papers' questions in the
+	 * {@link #questionBank()} and refer to the examiners of their actions by ID.
+	 *
+	 * @param moduleCode The module the papers belong to.
+	 * @return The paper repository for the module.
+	 */
+	default Repository<ExaminationPaper> papers(String moduleCode) {
+		// The bank and the registry are opened first, since importing papers stores
+		// their questions and registers the examiners of their actions.
+		QuestionBank questionBank = questionBank();
+		ExaminerRegistry examinerRegistry = examinerRegistry();
+		return open(moduleCode + PAPERS_SUFFIX, RecordCodecs.papers(questionBank, examinerRegistry),
+				ExaminationPaper::paperId);
+	}
+
+	/**
+	 * Returns the repository of examination paper headers for one module, keyed
+	 * by paper ID. Headers are kept up to date by {@link PaperIndex}.
+	 *
+	 * @param moduleCode The module the papers belong to.
+	 * @return The paper header repository for the module.
+	 */
+	default Repository<PaperHeader> paperHeaders(String moduleCode) {
+		return open(moduleCode + PAPER_HEADERS_SUFFIX, RecordCodecs.paperHeaders(), PaperHeader::paperId);
+	}
+}
@@ -0,0 +1,72 @@
+package ie.atu.sw.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of the strings that repeat from record to record: module
+ * codes, programme titles, schools, departments, institutions, examiner names
+ * and the "Yes"/"No" allowances. The record decoders pass these fields through
+ * {@link #canonical(String)}, so every record loaded from disk shares one
+ * instance of each distinct value instead of holding a copy of its own.
+ *
+ * <p>
+ * The table only grows, so it must only be given fields with few distinct
+ * values; free text such as comments and question texts is left alone. Once it
+ * holds {@value #MAX_ENTRIES} strings, values it has not seen are returned as
+ * they are. Setting the system property {@value #ENABLED_PROPERTY} to
+ * {@code false} turns canonicalization off, for comparing heap footprints.
+ */
+public class StringTable {
+	/**
+	 * System property that turns canonicalization off when set to {@code false}.
+	 */
+	public static final String ENABLED_PROPERTY = "atu.strings.canonical";
+
+	private static final int MAX_ENTRIES = 1 << 16;
+	private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+	private static final ConcurrentHashMap<String, String> TABLE = new ConcurrentHashMap<>();
+
+	private StringTable() {
+	}
+
+	/**
+	 * Returns the canonical instance of a string, adding it to the table if it is
+	 * not there yet.
+	 *
+	 * @param value The string, or null.
+	 * @return An equal string shared by every caller, or the string itself if the
+	 *         table is disabled or full; null if the string is null.
+	 */
+	public static String canonical(String value) {
+		if (value == null || !ENABLED) {
+			return value;
+		}
+		String canonical = TABLE.get(value);
+		if (canonical != null) {
+			return canonical;
+		}
+		if (TABLE.size() >= MAX_ENTRIES) {
+			return value;
+		}
+		canonical = TABLE.putIfAbsent(value, value);
+		return canonical == null ? value : canonical;
+	}
+
+	/**
+	 * Returns the number of canonical strings held.
+	 *
+	 * @return The number of strings in the table.
+	 */
+	public static int size() {
+		return TABLE.size();
+	}
+
+	/**
+	 * Checks whether canonicalization is on.
+	 *
+	 * @return false if {@value #ENABLED_PROPERTY} is set to {@code false}.
+	 */
+	public static boolean enabled() {
+		return ENABLED;
+	}
+}
@@ -0,0 +1,57 @@
+package ie.atu.sw.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for one step of the approval workflow: creating a
+ * module, saving an examination paper or recording external examiner actions.
+ * Disabled by default like {@link PersistenceEvent}; enable it with
+ * {@code -XX:StartFlightRecording:+ie.atu.sw.Workflow#enabled=true}.
+ *
+ * <p>
+ * Usage: create the event and call {@link #begin()} before the step, then
+ * call {@link #finish(String, String, String, int)} after it.
+ */
+@Name("ie.atu.sw.Workflow")
+@Label("Workflow Operation")
+@Category({ "ATU", "Workflow" })
+@Description("A step of the examination paper approval workflow")
+@Enabled(false)
+final class WorkflowEvent extends Event {
+	@Label("Operation")
+	String operation;
+
+	@Label("Module Code")
+	String moduleCode;
+
+	@Label("Paper ID")
+	String paperId;
+
+	@Label("Entity Count")
+	@Description("The number of papers, modules or actions saved")
+	int entityCount;
+
+	/**
+	 * Ends the event and commits it if it is enabled and above its threshold.
+	 *
+	 * @param operation   The workflow step, for example {@code createModule}.
+	 * @param moduleCode  The module concerned.
+	 * @param paperId     The paper concerned, or null.
+	 * @param entityCount The number of papers, modules or actions saved.
+	 */
+	void finish(String operation, String moduleCode, String paperId, int entityCount) {
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.moduleCode = moduleCode;
+			this.paperId = paperId;
+			this.entityCount = entityCount;
+			commit();
+		}
+	}
+}
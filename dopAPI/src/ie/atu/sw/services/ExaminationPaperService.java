@@ -1,8 +1,16 @@
 package ie.atu.sw.services;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import ie.atu.sw.enums.PaperStatus;
+import ie.atu.sw.model.DuplicateQuestion;
 import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.Page;
+import ie.atu.sw.model.PaperHeader;
+import ie.atu.sw.model.PaperSpec;
+import ie.atu.sw.model.PaperStatusView;
+import ie.atu.sw.model.SearchHit;
 
 /**
  * Interface for services handling examination papers. Defines the operations
@@ -15,6 +23,125 @@ public interface ExaminationPaperService {
 	 */
 	void addExaminationPaper();
 
+	/**
+	 * Adds a new examination paper without user interaction.
+	 *
+	 * @param spec The module, allowances and questions of the paper.
+	 * @return The stored ExaminationPaper, with a newly generated paper ID.
+	 * @throws IllegalArgumentException If the module does not exist or the
+	 *                                  questions break the examination rules.
+	 * @throws java.io.UncheckedIOException If the paper could not be stored.
+	 */
+	ExaminationPaper addExaminationPaper(PaperSpec spec);
+
+	/**
+	 * Retrieves an examination paper by its ID.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return The ExaminationPaper, or null if not found.
+	 */
+	ExaminationPaper findExaminationPaper(String paperId);
+
+	/**
+	 * Retrieves the examination papers of one module.
+	 *
+	 * @param moduleCode The code of the module.
+	 * @return A list of the module's ExaminationPaper objects.
+	 */
+	List<ExaminationPaper> getExaminationPapers(String moduleCode);
+
+	/**
+	 * Retrieves the headers of one module's examination papers, without their
+	 * questions and actions.
+	 *
+	 * @param moduleCode The code of the module.
+	 * @return A list of the module's PaperHeader objects.
+	 */
+	List<PaperHeader> getPaperHeaders(String moduleCode);
+
+	/**
+	 * Retrieves one page of the headers of a module's examination papers, in the
+	 * order the papers were added.
+	 *
+	 * @param moduleCode The code of the module.
+	 * @param cursor     The cursor of the page, or null for the first page.
+	 * @param limit      The largest number of headers on the page, at most
+	 *                   {@link Page#MAX_LIMIT}.
+	 * @return The page, whose next cursor reads the following page.
+	 * @throws IllegalArgumentException If the cursor or limit is invalid.
+	 */
+	Page<PaperHeader> getPaperHeaders(String moduleCode, String cursor, int limit);
+
+	/**
+	 * Retrieves the review status of an examination paper from its materialized
+	 * status view, without reading its actions.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return The paper's status view, or null if there is no such paper.
+	 */
+	PaperStatusView getPaperStatus(String paperId);
+
+	/**
+	 * Retrieves one page of the status views of the papers in a status, in the
+	 * order the papers entered it.
+	 *
+	 * @param status The status, for example {@link PaperStatus#PENDING}.
+	 * @param cursor The cursor of the page, or null for the first page.
+	 * @param limit  The largest number of views on the page, at most
+	 *               {@link Page#MAX_LIMIT}.
+	 * @return The page, whose next cursor reads the following page.
+	 * @throws IllegalArgumentException If the cursor or limit is invalid.
+	 */
+	Page<PaperStatusView> getPapersByStatus(PaperStatus status, String cursor, int limit);
+
+	/**
+	 * Lists the papers in a status chosen by the user, with their approval,
+	 * rejection and comment counts.
+	 */
+	void listPapersByStatus();
+
+	/**
+	 * Searches the text and parts of every examination question.
+	 *
+	 * @param query The words to look for; words in double quotes must appear as
+	 *              a phrase.
+	 * @param limit The largest number of matches to return, at most
+	 *              {@link Page#MAX_LIMIT}.
+	 * @return The matching question texts and parts, best first.
+	 * @throws IllegalArgumentException If the limit is invalid.
+	 */
+	List<SearchHit> searchQuestions(String query, int limit);
+
+	/**
+	 * Searches the examination questions for words entered by the user and lists
+	 * the best matches.
+	 */
+	void searchQuestions();
+
+	/**
+	 * Finds the questions of earlier examination papers that the questions of a
+	 * paper closely resemble.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return The near-duplicate questions; empty if there are none or no such
+	 *         paper.
+	 */
+	List<DuplicateQuestion> findDuplicateQuestions(String paperId);
+
+	/**
+	 * Finds every pair of closely resembling questions in different examination
+	 * papers.
+	 *
+	 * @return The near-duplicate questions.
+	 */
+	List<DuplicateQuestion> findAllDuplicateQuestions();
+
+	/**
+	 * Lists every pair of closely resembling questions in different examination
+	 * papers.
+	 */
+	void listDuplicateQuestions();
+
 	/**
 	 * Retrieves an examination paper based on the given module code.
 	 *
@@ -39,6 +166,13 @@ public interface ExaminationPaperService {
 	 */
 	List<ExaminationPaper> getAllExaminationPapers();
 
+	/**
+	 * Streams every examination paper without holding them all in memory.
+	 *
+	 * @return A stream of all ExaminationPaper objects.
+	 */
+	Stream<ExaminationPaper> streamExaminationPapers();
+
 	/**
 	 * Lists all the examination papers. This method should display the details of
 	 * all examination papers.
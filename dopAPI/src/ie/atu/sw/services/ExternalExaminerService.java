@@ -1,8 +1,12 @@
 package ie.atu.sw.services;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import ie.atu.sw.enums.ExternalExaminerActions;
 import ie.atu.sw.model.ExternalExaminerAction;
+import ie.atu.sw.model.Page;
 
 
 /**
@@ -17,6 +21,40 @@ public interface ExternalExaminerService {
 	 */
 	void recordAction();
 
+	/**
+	 * Records an action taken by an external examiner without user interaction.
+	 *
+	 * @param examinerId The ID of the external examiner, see
+	 *                   {@link ie.atu.sw.model.ExaminerUtil#examinerId}.
+	 * @param paperId    The ID of the examination paper.
+	 * @param action     The type of action.
+	 * @param comment    The examiner's comment.
+	 * @return The recorded action.
+	 * @throws IllegalArgumentException If the examiner or paper does not exist,
+	 *                                  or the examiner is not the external
+	 *                                  examiner of the paper's module.
+	 */
+	ExternalExaminerAction recordAction(String examinerId, String paperId, ExternalExaminerActions action,
+			String comment);
+
+	/**
+	 * Submits an action taken by an external examiner for recording without
+	 * waiting for it to reach the disk. Actions submitted at about the same time
+	 * are written and made durable together.
+	 *
+	 * @param examinerId The ID of the external examiner, see
+	 *                   {@link ie.atu.sw.model.ExaminerUtil#examinerId}.
+	 * @param paperId    The ID of the examination paper.
+	 * @param action     The type of action.
+	 * @param comment    The examiner's comment.
+	 * @return A future completed with the recorded action once it is durable.
+	 * @throws IllegalArgumentException If the examiner or paper does not exist,
+	 *                                  or the examiner is not the external
+	 *                                  examiner of the paper's module.
+	 */
+	CompletableFuture<ExternalExaminerAction> submitAction(String examinerId, String paperId,
+			ExternalExaminerActions action, String comment);
+
 	void approveAction();
 
 	void rejectAction();
@@ -34,6 +72,34 @@ public interface ExternalExaminerService {
 	 */
 	List<ExternalExaminerAction> getAllActions();
 
+	/**
+	 * Retrieves one page of the recorded actions, in the order the actions were
+	 * recorded.
+	 *
+	 * @param cursor The cursor of the page, or null for the first page.
+	 * @param limit  The largest number of actions on the page, at most
+	 *               {@link Page#MAX_LIMIT}.
+	 * @return The page, whose next cursor reads the following page.
+	 * @throws IllegalArgumentException If the cursor or limit is invalid.
+	 */
+	Page<ExternalExaminerAction> getActions(String cursor, int limit);
+
+	/**
+	 * Streams every recorded action, in the order the actions were recorded,
+	 * without holding them all in memory. The stream must be closed.
+	 *
+	 * @return A stream of all ExternalExaminerActions.
+	 */
+	Stream<ExternalExaminerAction> streamActions();
+
+	/**
+	 * Retrieves the actions recorded for one examination paper.
+	 *
+	 * @param paperId The ID of the examination paper.
+	 * @return A list of the paper's ExternalExaminerActions.
+	 */
+	List<ExternalExaminerAction> getActionsForPaper(String paperId);
+
 	/**
 	 * Lists all actions taken by external examiners. This method should display the
 	 * details of all recorded actions.
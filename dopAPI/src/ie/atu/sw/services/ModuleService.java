@@ -3,6 +3,7 @@ package ie.atu.sw.services;
 import java.util.List;
 
 import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleSpec;
 
 /**
  * Interface for services handling module operations. Defines operations for
@@ -35,6 +36,26 @@ public interface ModuleService {
 	 */
 	void createModule(List<ModuleInfo> moduleInfoList);
 
+	/**
+	 * Creates a new module without user interaction.
+	 *
+	 * @param spec The details of the module and the IDs of its examiners.
+	 * @return The stored ModuleInfo.
+	 * @throws IllegalArgumentException If the module code is not 1 to 32
+	 *                                  letters, digits, underscores or hyphens,
+	 *                                  the module already exists or an examiner
+	 *                                  ID does not name an examiner of the right
+	 *                                  type.
+	 */
+	ModuleInfo createModule(ModuleSpec spec);
+
+	/**
+	 * Retrieves every stored module.
+	 *
+	 * @return A list of all ModuleInfo objects.
+	 */
+	List<ModuleInfo> getAllModules();
+
 	/**
 	 * Lists all the modules. This method should display the details of all modules
 	 * in the provided module list.
@@ -17,6 +17,15 @@ public interface QuestionService {
 	 */
 	Question addQuestion();
 
+	/**
+	 * Stores a question without user interaction. Storing a question equal to a
+	 * stored one returns the stored question's ID.
+	 *
+	 * @param question The question to store.
+	 * @return The ID the question is stored under.
+	 */
+	String addQuestion(Question question);
+
 	/**
 	 * Retrieves a question based on its unique identifier.
 	 *
@@ -27,12 +36,16 @@ public interface QuestionService {
 	Question getQuestion(String questionId);
 
 	/**
-	 * Updates the information of an existing question.
+	 * Updates the information of an existing question. Questions are identified
+	 * by their content, so the updated question is stored under its own ID and
+	 * the earlier version stays available to the papers that use it.
 	 *
 	 * @param questionId The identifier of the question to be updated.
 	 * @param question   The updated Question object.
+	 * @return The identifier of the updated question.
+	 * @throws IllegalArgumentException If no question has the given identifier.
 	 */
-	void updateQuestion(String questionId, Question question);
+	String updateQuestion(String questionId, Question question);
 
 	/**
 	 * Retrieves a list of all questions.
@@ -0,0 +1,24 @@
+package ie.atu.sw.services;
+
+import ie.atu.sw.model.BoardReport;
+
+/**
+ * Interface for services producing board-level reports: approval and rejection
+ * rates and registrations covered per school, department and programme, and
+ * the papers of each external examiner.
+ */
+public interface ReportService {
+
+	/**
+	 * Computes the board report from the current state of the storage.
+	 *
+	 * @return The report.
+	 */
+	BoardReport getBoardReport();
+
+	/**
+	 * Prints the board report, one table per grouping.
+	 */
+	void printBoardReport();
+
+}
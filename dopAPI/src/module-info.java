@@ -7,7 +7,7 @@ open module atu.software {
 	/**
      * Package containing enumerations used on the application.
      * This includes enums defining types and actions specific to the examination paper approval process.
-     
+     */
 	exports ie.atu.sw.enums;
 	/**
      * Package containing the main application runner.
@@ -25,4 +25,16 @@ open module atu.software {
      * These services define the business logic for managing modules, exam papers, and examiners.
      */
 	exports ie.atu.sw.services;
+	/**
+     * Package containing the embedded HTTP API.
+     * This includes the server and the JSON resources exposing modules, examiners, papers and actions.
+     */
+	exports ie.atu.sw.http;
+
+	requires transitive jdk.httpserver;
+	/**
+     * Flight Recorder, for the persistence and workflow events.
+     * The events are disabled unless a recording enables them.
+     */
+	requires jdk.jfr;
 }
@@ -0,0 +1,190 @@
+package ie.atu.sw.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ie.atu.sw.model.ExaminationPaper;
+import ie.atu.sw.model.ExaminationPaperServiceImpl;
+import ie.atu.sw.model.ExaminerServiceImpl;
+import ie.atu.sw.model.ExaminerType;
+import ie.atu.sw.model.ExaminerUtil;
+import ie.atu.sw.model.ExternalExaminer;
+import ie.atu.sw.model.FileUtil;
+import ie.atu.sw.model.InternalExaminer;
+import ie.atu.sw.model.ModuleInfo;
+import ie.atu.sw.model.ModuleServiceImpl;
+import ie.atu.sw.model.Question;
+import ie.atu.sw.model.ReportServiceImpl;
+import ie.atu.sw.model.Rules;
+import ie.atu.sw.model.Storage;
+import ie.atu.sw.model.StorageEngine;
+
+/**
+ * Checks that the API refuses unauthenticated callers, keeps external
+ * examiners to reading and recording their own actions, and leaves everything
+ * else to members of staff; and that examiners are created once and keep their
+ * type.
+ */
+class ApiServerTest {
+	private static final String MODULE = "M000001";
+	private static final String PAPER = "M000001-paper";
+
+	@TempDir
+	File dir;
+
+	private ApiServer server;
+	private ExaminerServiceImpl examinerService;
+	private String staffToken;
+	private String examinerToken;
+	private String examinerId;
+	private String otherExaminerId;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		System.setProperty(Storage.DATA_DIR_PROPERTY, dir.getPath());
+		Storage.use(null);
+		InternalExaminer internal = new InternalExaminer("Internal Examiner", ExaminerType.INTERNAL, "Computing",
+				"Science", "internal@atu.ie", 10_000);
+		ExternalExaminer external = new ExternalExaminer("External Examiner", ExaminerType.EXTERNAL, "Computing",
+				"University");
+		ExternalExaminer other = new ExternalExaminer("Other Examiner", ExaminerType.EXTERNAL, "Computing",
+				"College");
+		FileUtil.saveToFile(file(StorageEngine.EXAMINERS), List.of(internal, external, other));
+		FileUtil.saveToFile(file(StorageEngine.MODULES), List.of(new ModuleInfo(MODULE, "Module", 50, "P1",
+				"Programme", 1, "Science", "Computing", internal, external)));
+		FileUtil.saveToFile(file(MODULE + StorageEngine.PAPERS_SUFFIX), List.of(paper()));
+		Storage.use(Storage.createEngine("binary"));
+		examinerId = ExaminerUtil.examinerId(external);
+		otherExaminerId = ExaminerUtil.examinerId(other);
+
+		ApiTokens tokens = new ApiTokens(new File(dir, ApiTokens.FILE_NAME));
+		staffToken = tokens.issue(ApiTokens.STAFF);
+		examinerToken = tokens.issue(examinerId);
+		examinerService = new ExaminerServiceImpl();
+		server = new ApiServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), tokens,
+				new ModuleServiceImpl(), new ExaminationPaperServiceImpl(), examinerService, new ReportServiceImpl());
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+		examinerService.close();
+		Storage.use(null);
+		System.clearProperty(Storage.DATA_DIR_PROPERTY);
+	}
+
+	@Test
+	void requestsWithoutAKnownTokenAreRefused() throws IOException {
+		assertEquals(401, request("GET", "/api/modules", null, null));
+		assertEquals(401, request("GET", "/api/modules", "not-a-token", null));
+		assertEquals(200, request("GET", "/api/modules", staffToken, null));
+		assertEquals(200, request("GET", "/api/modules", examinerToken, null));
+	}
+
+	@Test
+	void examinersRecordActionsOnlyAsThemselves() throws IOException {
+		assertEquals(201, request("POST", "/api/actions", examinerToken, action(null)));
+		assertEquals(201, request("POST", "/api/actions", examinerToken, action(examinerId)));
+		assertEquals(403, request("POST", "/api/actions", examinerToken, action(otherExaminerId)));
+		assertEquals(201, request("POST", "/api/actions", staffToken, action(examinerId)));
+		assertEquals(3, examinerService.getActionsForPaper(PAPER).size());
+	}
+
+	@Test
+	void onlyStaffChangeOtherResources() throws IOException {
+		String examiner = "{\"name\": \"New Examiner\", \"type\": \"EXTERNAL\", \"department\": \"Computing\","
+				+ " \"institution\": \"Institute\"}";
+		assertEquals(403, request("POST", "/api/examiners", examinerToken, examiner));
+		assertEquals(201, request("POST", "/api/examiners", staffToken, examiner));
+	}
+
+	@Test
+	void racingCreatesOfOneExaminerCreateItOnce() throws Exception {
+		String examiner = "{\"name\": \"Raced Examiner\", \"type\": \"EXTERNAL\", \"department\": \"Computing\","
+				+ " \"institution\": \"Institute\"}";
+		List<Future<Integer>> statuses = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int i = 0; i < 8; i++) {
+				statuses.add(executor.submit(() -> request("POST", "/api/examiners", staffToken, examiner)));
+			}
+		}
+		int created = 0;
+		for (Future<Integer> status : statuses) {
+			if (status.get() == 201) {
+				created++;
+			} else {
+				assertEquals(409, status.get());
+			}
+		}
+		assertEquals(1, created);
+	}
+
+	@Test
+	void examinerTypeCannotChange() throws IOException {
+		String internal = "{\"name\": \"External Examiner\", \"type\": \"INTERNAL\", \"department\": \"Computing\","
+				+ " \"school\": \"Science\", \"email\": \"external@atu.ie\", \"crn\": 1}";
+		assertEquals(400, request("PUT", "/api/examiners/" + examinerId, staffToken, internal));
+	}
+
+	private int request(String method, String path, String token, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) URI.create("http://127.0.0.1:" + server.port() + path)
+				.toURL().openConnection();
+		connection.setRequestMethod(method);
+		if (token != null) {
+			connection.setRequestProperty("Authorization", "Bearer " + token);
+		}
+		if (body != null) {
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", "application/json");
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		try {
+			return connection.getResponseCode();
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private String file(String repositoryName) {
+		return new File(dir, repositoryName + ".dat").getPath();
+	}
+
+	private static String action(String examinerId) {
+		return "{" + (examinerId == null ? "" : "\"examinerId\": \"" + examinerId + "\", ") + "\"paperId\": \""
+				+ PAPER + "\", \"action\": \"ADD_COMMENT\", \"comment\": \"Looks fine\"}";
+	}
+
+	private static ExaminationPaper paper() {
+		List<Question> questions = new ArrayList<>();
+		int marks = Rules.DEFAULT_TOTAL_MARKS / Rules.DEFAULT_MAX_QUESTIONS;
+		for (int q = 0; q < Rules.DEFAULT_MAX_QUESTIONS; q++) {
+			int questionMarks = q == Rules.DEFAULT_MAX_QUESTIONS - 1
+					? Rules.DEFAULT_TOTAL_MARKS - marks * (Rules.DEFAULT_MAX_QUESTIONS - 1)
+					: marks;
+			questions.add(new Question("Question " + (q + 1), List.of("Explain part a."), questionMarks));
+		}
+		return new ExaminationPaper(PAPER, MODULE, "Yes", "No", "No", "Yes", "No", "No", "No", "Yes", "No",
+				questions.size(), Rules.DEFAULT_REQUIRED_ANSWERS, questions, new ArrayList<>());
+	}
+}
@@ -0,0 +1,194 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+
+/**
+ * Checks the services' concurrency model on both storage engines. Many threads
+ * record external examiner actions at once, half of them against a single hot
+ * module, some through the group committer and some straight onto the paper,
+ * and every action must be on its paper, both through the service and after
+ * the storage engine is reopened, and in the action journal. Many threads
+ * racing to create the same module must create it exactly once.
+ */
+class ConcurrencyTest {
+	private static final int THREADS = 32;
+	private static final int ACTIONS_PER_THREAD = 25;
+	private static final int MODULES = 8;
+	private static final int PAPERS_PER_MODULE = 8;
+
+	@TempDir
+	File dir;
+
+	private final List<ExaminationPaper> papers = new ArrayList<>();
+	private InternalExaminer internal;
+	private ExternalExaminer external;
+
+	@BeforeEach
+	void writeData() {
+		System.setProperty(Storage.DATA_DIR_PROPERTY, dir.getPath());
+		Storage.use(null);
+		internal = new InternalExaminer("Internal Examiner", ExaminerType.INTERNAL, "Computing", "Science",
+				"internal@atu.ie", 10_000);
+		external = new ExternalExaminer("External Examiner", ExaminerType.EXTERNAL, "Computing", "University");
+		List<ModuleInfo> modules = new ArrayList<>();
+		for (int m = 0; m < MODULES; m++) {
+			String moduleCode = String.format("M%06d", m);
+			modules.add(new ModuleInfo(moduleCode, "Module " + m, 50, "P1", "Programme", 1, "Science", "Computing",
+					internal, external));
+			List<ExaminationPaper> modulePapers = new ArrayList<>();
+			for (int p = 0; p < PAPERS_PER_MODULE; p++) {
+				modulePapers.add(paper(moduleCode, moduleCode + "-paper-" + p));
+			}
+			FileUtil.saveToFile(file(moduleCode + StorageEngine.PAPERS_SUFFIX), modulePapers);
+			papers.addAll(modulePapers);
+		}
+		FileUtil.saveToFile(file(StorageEngine.EXAMINERS), List.of(internal, external));
+		FileUtil.saveToFile(file(StorageEngine.MODULES), modules);
+	}
+
+	@AfterEach
+	void closeStorage() {
+		Storage.use(null);
+		System.clearProperty(Storage.DATA_DIR_PROPERTY);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "binary", "legacy" })
+	void concurrentActionsAreAllStored(String engine) throws Exception {
+		Storage.use(Storage.createEngine(engine));
+		String examinerId = ExaminerUtil.examinerId(external);
+		String hotModule = papers.get(0).moduleCode();
+		List<ExaminationPaper> hotPapers = papers.stream().filter(p -> p.moduleCode().equals(hotModule)).toList();
+
+		ExaminerServiceImpl service = new ExaminerServiceImpl(new Scanner(""));
+		Map<String, LongAdder> recorded = new ConcurrentHashMap<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+			for (int t = 0; t < THREADS; t++) {
+				SplittableRandom random = new SplittableRandom(t);
+				List<ExaminationPaper> targets = t % 2 == 0 ? hotPapers : papers;
+				boolean direct = t % 4 == 2;
+				results.add(executor.submit(() -> {
+					start.await();
+					for (int a = 0; a < ACTIONS_PER_THREAD; a++) {
+						ExaminationPaper paper = targets.get(random.nextInt(targets.size()));
+						if (direct) {
+							service.recordActionForPaper(paper.paperId(), paper.moduleCode(),
+									new ExternalExaminerAction(paper.moduleCode(), external, "Comment " + a,
+											ExternalExaminerActions.ADD_COMMENT, paper.paperId()));
+						} else {
+							service.recordAction(examinerId, paper.paperId(), ExternalExaminerActions.ADD_COMMENT,
+									"Comment " + a);
+						}
+						recorded.computeIfAbsent(paper.paperId(), id -> new LongAdder()).increment();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get();
+			}
+		}
+		for (ExaminationPaper paper : papers) {
+			assertEquals(recordedCount(recorded, paper.paperId()),
+					service.getActionsForPaper(paper.paperId()).size(), paper.paperId());
+		}
+		service.close();
+
+		// Reopen everything so that only what reached the disk is checked.
+		Storage.use(Storage.createEngine(engine));
+		for (ExaminationPaper paper : papers) {
+			ExaminationPaper stored = Storage.engine().papers(paper.moduleCode()).get(paper.paperId());
+			assertEquals(recordedCount(recorded, paper.paperId()), stored.actions().size(), paper.paperId());
+		}
+		ExaminerServiceImpl reopened = new ExaminerServiceImpl(new Scanner(""));
+		try {
+			assertEquals(THREADS * ACTIONS_PER_THREAD, reopened.getAllActions().size());
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "binary", "legacy" })
+	void concurrentModuleCreationCreatesOnce(String engine) throws Exception {
+		Storage.use(Storage.createEngine(engine));
+		ModuleSpec spec = new ModuleSpec("RACE00001", "Contended Module", 10, "P1", "Programme", 1, "Science",
+				"Computing", ExaminerUtil.examinerId(internal), ExaminerUtil.examinerId(external));
+
+		AtomicInteger created = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+			for (int t = 0; t < THREADS; t++) {
+				results.add(executor.submit(() -> {
+					ModuleServiceImpl moduleService = new ModuleServiceImpl(new Scanner(""));
+					start.await();
+					try {
+						moduleService.createModule(spec);
+						created.incrementAndGet();
+					} catch (IllegalArgumentException e) {
+						// Another thread created it first.
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get();
+			}
+		}
+		assertEquals(1, created.get());
+
+		Storage.use(Storage.createEngine(engine));
+		assertEquals(1, ModuleInfoFileHandler.loadModuleInfo().stream()
+				.filter(m -> m.moduleCode().equals(spec.moduleCode())).count());
+	}
+
+	private String file(String repositoryName) {
+		return new File(dir, repositoryName + ".dat").getPath();
+	}
+
+	private static ExaminationPaper paper(String moduleCode, String paperId) {
+		int questionCount = Rules.DEFAULT_MAX_QUESTIONS;
+		List<Question> questions = new ArrayList<>(questionCount);
+		int remaining = Rules.DEFAULT_TOTAL_MARKS;
+		for (int q = 0; q < questionCount; q++) {
+			int marks = q == questionCount - 1 ? remaining : Rules.DEFAULT_TOTAL_MARKS / questionCount;
+			remaining -= marks;
+			questions.add(new Question("Question " + (q + 1) + " of " + paperId,
+					List.of("Explain part a.", "Discuss part b."), marks));
+		}
+		return new ExaminationPaper(paperId, moduleCode, "Yes", "No", "No", "Yes", "No", "No", "No", "Yes", "No",
+				questionCount, Rules.DEFAULT_REQUIRED_ANSWERS, questions, new ArrayList<>());
+	}
+
+	private static long recordedCount(Map<String, LongAdder> recorded, String paperId) {
+		LongAdder count = recorded.get(paperId);
+		return count == null ? 0 : count.sum();
+	}
+}
@@ -0,0 +1,140 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ie.atu.sw.enums.ExternalExaminerActions;
+
+/**
+ * Checks that processes sharing a data directory do not lose each other's
+ * external examiner actions. Several processes record actions on the papers of
+ * one module at once, some through the group committer and some straight onto
+ * the paper, and every action must be on its paper afterwards.
+ */
+class CrossProcessTest {
+	private static final String MODULE = "M000001";
+	private static final int PROCESSES = 4;
+	private static final int ACTIONS_PER_PROCESS = 40;
+	private static final int PAPERS = 2;
+
+	@TempDir
+	File dir;
+
+	@BeforeEach
+	void writeData() {
+		System.setProperty(Storage.DATA_DIR_PROPERTY, dir.getPath());
+		Storage.use(null);
+		InternalExaminer internal = new InternalExaminer("Internal Examiner", ExaminerType.INTERNAL, "Computing",
+				"Science", "internal@atu.ie", 10_000);
+		ExternalExaminer external = new ExternalExaminer("External Examiner", ExaminerType.EXTERNAL, "Computing",
+				"University");
+		List<ExaminationPaper> papers = new ArrayList<>();
+		for (int p = 0; p < PAPERS; p++) {
+			papers.add(paper(paperId(p)));
+		}
+		FileUtil.saveToFile(file(StorageEngine.EXAMINERS), List.of(internal, external));
+		FileUtil.saveToFile(file(StorageEngine.MODULES), List.of(new ModuleInfo(MODULE, "Module", 50, "P1",
+				"Programme", 1, "Science", "Computing", internal, external)));
+		FileUtil.saveToFile(file(MODULE + StorageEngine.PAPERS_SUFFIX), papers);
+	}
+
+	@AfterEach
+	void closeStorage() {
+		Storage.use(null);
+		System.clearProperty(Storage.DATA_DIR_PROPERTY);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "binary", "legacy" })
+	void actionsFromSeveralProcessesAreAllStored(String engine) throws Exception {
+		// Import the legacy files once, before the processes share them.
+		Storage.use(Storage.createEngine(engine));
+		Storage.paperIndex();
+		Storage.use(null);
+
+		String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+		String classPath = System.getProperty("java.class.path") + File.pathSeparator
+				+ System.getProperty("jdk.module.path", "");
+		List<Process> processes = new ArrayList<>();
+		for (int i = 0; i < PROCESSES; i++) {
+			processes.add(new ProcessBuilder(java, "-cp", classPath, "-D" + Storage.DATA_DIR_PROPERTY + "=" + dir,
+					CrossProcessTest.class.getName(), engine, Integer.toString(i)).inheritIO().start());
+		}
+		for (Process process : processes) {
+			if (!process.waitFor(2, TimeUnit.MINUTES)) {
+				process.destroyForcibly();
+			}
+			assertEquals(0, process.exitValue());
+		}
+
+		Storage.use(Storage.createEngine(engine));
+		int stored = 0;
+		for (int p = 0; p < PAPERS; p++) {
+			stored += Storage.engine().papers(MODULE).get(paperId(p)).actions().size();
+		}
+		assertEquals(PROCESSES * ACTIONS_PER_PROCESS, stored);
+	}
+
+	/**
+	 * Records actions as one of the processes of the test.
+	 *
+	 * @param args The storage engine and the number of the process.
+	 * @throws IOException If the data cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		Storage.use(Storage.createEngine(args[0]));
+		int process = Integer.parseInt(args[1]);
+		ExternalExaminer external = (ExternalExaminer) ExaminerUtil.loadExaminers().stream()
+				.filter(examiner -> examiner instanceof ExternalExaminer).findFirst().orElseThrow();
+		String examinerId = ExaminerUtil.examinerId(external);
+		ExaminerServiceImpl service = new ExaminerServiceImpl(new Scanner(""));
+		try {
+			for (int a = 0; a < ACTIONS_PER_PROCESS; a++) {
+				String paperId = paperId(a % PAPERS);
+				String comment = "Comment " + a + " from process " + process;
+				if (process % 2 == 0) {
+					service.recordActionForPaper(paperId, MODULE, new ExternalExaminerAction(MODULE, external,
+							comment, ExternalExaminerActions.ADD_COMMENT, paperId));
+				} else {
+					service.recordAction(examinerId, paperId, ExternalExaminerActions.ADD_COMMENT, comment);
+				}
+			}
+		} finally {
+			service.close();
+			Storage.checkpoint();
+		}
+	}
+
+	private String file(String repositoryName) {
+		return new File(dir, repositoryName + ".dat").getPath();
+	}
+
+	private static String paperId(int paper) {
+		return MODULE + "-paper-" + paper;
+	}
+
+	private static ExaminationPaper paper(String paperId) {
+		List<Question> questions = new ArrayList<>();
+		int marks = Rules.DEFAULT_TOTAL_MARKS / Rules.DEFAULT_MAX_QUESTIONS;
+		for (int q = 0; q < Rules.DEFAULT_MAX_QUESTIONS; q++) {
+			int questionMarks = q == Rules.DEFAULT_MAX_QUESTIONS - 1
+					? Rules.DEFAULT_TOTAL_MARKS - marks * (Rules.DEFAULT_MAX_QUESTIONS - 1)
+					: marks;
+			questions.add(new Question("Question " + (q + 1), List.of("Explain part a."), questionMarks));
+		}
+		return new ExaminationPaper(paperId, MODULE, "Yes", "No", "No", "Yes", "No", "No", "No", "Yes", "No",
+				questions.size(), Rules.DEFAULT_REQUIRED_ANSWERS, questions, new ArrayList<>());
+	}
+}
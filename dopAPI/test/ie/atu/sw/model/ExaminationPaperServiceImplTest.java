@@ -0,0 +1,109 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Checks that papers added without user interaction are held to the
+ * examination rules, question by question.
+ */
+class ExaminationPaperServiceImplTest {
+	private static final String MODULE = "M000001";
+
+	@TempDir
+	File dir;
+
+	private ExaminationPaperServiceImpl service;
+
+	@BeforeEach
+	void openStorage() {
+		System.setProperty(Storage.DATA_DIR_PROPERTY, dir.getPath());
+		Storage.use(null);
+		InternalExaminer internal = new InternalExaminer("Internal Examiner", ExaminerType.INTERNAL, "Computing",
+				"Science", "internal@atu.ie", 10_000);
+		ExternalExaminer external = new ExternalExaminer("External Examiner", ExaminerType.EXTERNAL, "Computing",
+				"University");
+		FileUtil.saveToFile(new File(dir, StorageEngine.EXAMINERS + ".dat").getPath(), List.of(internal, external));
+		FileUtil.saveToFile(new File(dir, StorageEngine.MODULES + ".dat").getPath(), List.of(new ModuleInfo(MODULE,
+				"Module", 50, "P1", "Programme", 1, "Science", "Computing", internal, external)));
+		Storage.use(Storage.createEngine("binary"));
+		service = new ExaminationPaperServiceImpl(new Scanner(""));
+	}
+
+	@AfterEach
+	void closeStorage() {
+		Storage.use(null);
+		System.clearProperty(Storage.DATA_DIR_PROPERTY);
+	}
+
+	@Test
+	void validPaperIsStored() {
+		ExaminationPaper paper = service.addExaminationPaper(spec(question("Q1", 40), question("Q2", 60)));
+		assertEquals(2, paper.totalQuestions());
+		assertEquals(List.of(paper.paperId()), paperIds());
+	}
+
+	static Stream<Arguments> invalidQuestions() {
+		return Stream.of(Arguments.of("zero marks", List.of(question("Q1", 0), question("Q2", 100))),
+				Arguments.of("negative marks", List.of(question("Q1", -20), question("Q2", 120))),
+				Arguments.of("missing question", Arrays.asList(question("Q1", 100), null)),
+				Arguments.of("null text", List.of(new Question(null, List.of("a"), 100))),
+				Arguments.of("blank text", List.of(new Question("  ", List.of("a"), 100))),
+				Arguments.of("no parts", List.of(new Question("Q1", List.of(), 100))),
+				Arguments.of("null parts", List.of(new Question("Q1", null, 100))),
+				Arguments.of("six parts", List.of(new Question("Q1", List.of("a", "b", "c", "d", "e", "f"), 100))),
+				Arguments.of("blank part", List.of(new Question("Q1", List.of("a", " "), 100))),
+				Arguments.of("null part", List.of(new Question("Q1", Arrays.asList("a", null), 100))),
+				Arguments.of("wrong total", List.of(question("Q1", 40), question("Q2", 40))),
+				Arguments.of("no questions", List.of()));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("invalidQuestions")
+	void invalidPaperIsRejected(String name, List<Question> questions) {
+		assertThrows(IllegalArgumentException.class, () -> service.addExaminationPaper(spec(questions)));
+		assertEquals(List.of(), paperIds());
+	}
+
+	@Test
+	void unknownModuleIsRejected() {
+		PaperSpec spec = new PaperSpec("NOPE", false, false, false, false, false, false, false, false, false,
+				List.of(question("Q1", 100)));
+		assertThrows(IllegalArgumentException.class, () -> service.addExaminationPaper(spec));
+	}
+
+	private List<String> paperIds() {
+		List<String> paperIds = new ArrayList<>();
+		for (ExaminationPaper paper : Storage.engine().papers(MODULE).values()) {
+			paperIds.add(paper.paperId());
+		}
+		return paperIds;
+	}
+
+	private static Question question(String text, int marks) {
+		return new Question(text, List.of("Explain part a.", "Discuss part b."), marks);
+	}
+
+	private static PaperSpec spec(Question... questions) {
+		return spec(Arrays.asList(questions));
+	}
+
+	private static PaperSpec spec(List<Question> questions) {
+		return new PaperSpec(MODULE, true, false, false, false, false, false, false, true, false, questions);
+	}
+}
@@ -0,0 +1,128 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that examiners are only referred to once registered, that legacy
+ * imports register them explicitly, and that the details an examiner had
+ * before an update stay attributed to it after the registry is reopened.
+ */
+class ExaminerRegistryTest {
+	@TempDir
+	File dir;
+
+	private final List<LogRepository<?>> repositories = new ArrayList<>();
+	private final InternalExaminer internal = new InternalExaminer("Internal Examiner", ExaminerType.INTERNAL,
+			"Computing", "Science", "internal@atu.ie", 10_000);
+	private final ExternalExaminer external = new ExternalExaminer("External Examiner", ExaminerType.EXTERNAL,
+			"Computing", "University");
+	private ExaminerRegistry registry;
+
+	@BeforeEach
+	void openRepositories() {
+		registry = openRegistry();
+	}
+
+	@AfterEach
+	void closeRepositories() {
+		repositories.forEach(LogRepository::close);
+	}
+
+	@Test
+	void unregisteredExaminerIsNotWritten() {
+		registry.register(internal);
+		ModuleInfo module = module(internal, external);
+		RecordCodec<ModuleInfo> codec = RecordCodecs.modules(registry);
+		assertThrows(IllegalArgumentException.class,
+				() -> codec.write(module, new DataOutputStream(new ByteArrayOutputStream())));
+		assertNull(registry.idOf(external));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	void examinerRegisteredByAnotherProcessIsWritten() throws Exception {
+		registry.register(internal);
+		ExaminerRegistry other = openRegistry();
+		other.register(external);
+		RecordCodecs.modules(registry).write(module(internal, external),
+				new DataOutputStream(new ByteArrayOutputStream()));
+		assertEquals(other.idOf(external), registry.idOf(external));
+	}
+
+	@Test
+	void newExaminerIsRegisteredOnce() {
+		String examinerId = registry.registerNew(external);
+		assertEquals(examinerId, registry.register(external));
+		ExaminerExistsException e = assertThrows(ExaminerExistsException.class, () -> registry.registerNew(external));
+		assertEquals(examinerId, e.examinerId());
+		ExaminerExistsException other = assertThrows(ExaminerExistsException.class,
+				() -> openRegistry().registerNew(external));
+		assertEquals(examinerId, other.examinerId());
+	}
+
+	@Test
+	void importRegistersTheExaminersOfLegacyModules() {
+		File legacy = new File(dir, "legacy_modules.dat");
+		FileUtil.saveToFile(legacy.getPath(), List.of(module(internal, external)));
+		LogRepository<ModuleInfo> modules = open("modules", RecordCodecs.modules(registry), ModuleInfo::moduleCode,
+				legacy);
+		assertNotNull(registry.idOf(internal));
+		assertNotNull(registry.idOf(external));
+		assertEquals(module(internal, external), modules.get("M000001"));
+	}
+
+	@Test
+	void earlierDetailsSurviveReopening() {
+		String examinerId = registry.register(external);
+		ExternalExaminer renamed = new ExternalExaminer("Renamed Examiner", ExaminerType.EXTERNAL, "Computing",
+				"University");
+		registry.update(examinerId, renamed);
+		closeRepositories();
+		repositories.clear();
+
+		ExaminerRegistry reopened = openRegistry();
+		assertEquals(examinerId, reopened.idOf(renamed));
+		assertEquals(examinerId, reopened.idOf(external));
+
+		// Registering a new examiner with the earlier details takes them over.
+		String newId = reopened.register(external);
+		closeRepositories();
+		repositories.clear();
+		assertEquals(newId, openRegistry().idOf(external));
+	}
+
+	private ExaminerRegistry openRegistry() {
+		return new ExaminerRegistry(open("examiners", RecordCodecs.examiners(), ExaminerUtil::examinerKey, null),
+				open("examiner_aliases", RecordCodecs.examinerAliases(),
+						alias -> ExaminerUtil.examinerKey(alias.examiner()), null),
+				true);
+	}
+
+	private <V> LogRepository<V> open(String name, RecordCodec<V> codec, Function<? super V, String> keyFunction,
+			File legacyFile) {
+		LogRepository<V> repository = new LogRepository<>(new File(dir, name + ".db"), legacyFile, codec,
+				keyFunction);
+		repositories.add(repository);
+		return repository;
+	}
+
+	private static ModuleInfo module(InternalExaminer internal, ExternalExaminer external) {
+		return new ModuleInfo("M000001", "Module", 50, "P1", "Programme", 1, "Science", "Computing", internal,
+				external);
+	}
+}
@@ -0,0 +1,77 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that every future handed out by a {@link GroupCommitter} completes,
+ * whether its batch is committed, partly committed or fails.
+ */
+class GroupCommitterTest {
+	private static final long DELAY = TimeUnit.MILLISECONDS.toNanos(2);
+
+	@Test
+	void committedItemsComplete() throws Exception {
+		List<Integer> written = new ArrayList<>();
+		GroupCommitter<Integer> committer = new GroupCommitter<>("test", written::addAll, 16, DELAY);
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			futures.add(committer.submit(i));
+		}
+		committer.close();
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, futures.get(i).get(1, TimeUnit.SECONDS));
+		}
+		assertEquals(100, written.size());
+		assertThrows(RejectedExecutionException.class, () -> committer.submit(100));
+	}
+
+	@Test
+	void partialCommitFailsOnlyTheNamedItems() throws Exception {
+		GroupCommitter<Integer> committer = new GroupCommitter<>("test", batch -> {
+			throw new GroupCommitter.PartialCommitException(Map.of(0, new IOException("first")));
+		}, 16, TimeUnit.SECONDS.toNanos(1));
+		CompletableFuture<Integer> first = committer.submit(1);
+		CompletableFuture<Integer> second = committer.submit(2);
+		committer.close();
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+		assertInstanceOf(IOException.class, failure.getCause());
+		assertEquals(2, second.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void errorFailsTheBatchAndClosesTheCommitter() throws Exception {
+		GroupCommitter<Integer> committer = new GroupCommitter<>("test", batch -> {
+			throw new AssertionError("writer failed");
+		}, 16, DELAY);
+		CompletableFuture<Integer> future = committer.submit(1);
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+		assertInstanceOf(AssertionError.class, failure.getCause().getCause());
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		boolean rejected = false;
+		while (!rejected && System.nanoTime() < deadline) {
+			try {
+				committer.submit(2).get(5, TimeUnit.SECONDS);
+			} catch (RejectedExecutionException | ExecutionException e) {
+				rejected = e instanceof RejectedExecutionException;
+			}
+		}
+		assertTrue(rejected, "submissions after the failure are rejected");
+		committer.close();
+	}
+}
@@ -0,0 +1,104 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ie.atu.sw.enums.PaperStatus;
+
+/**
+ * Checks that a paper whose view was put into its new status but not yet
+ * removed from its old one, as a crash or another process can leave it, is
+ * read in its new status only, and that the old view is cleaned up.
+ */
+class PaperStatusIndexTest {
+	private static final String MODULE = "M000001";
+	private static final String MOVED = MODULE + "-moved";
+	private static final String STAYED = MODULE + "-stayed";
+
+	@TempDir
+	File dir;
+
+	private StorageEngine engine;
+	private PaperStatusIndex index;
+
+	@BeforeEach
+	void openIndex() {
+		System.setProperty(Storage.DATA_DIR_PROPERTY, dir.getPath());
+		Storage.use(null);
+		InternalExaminer internal = new InternalExaminer("Internal Examiner", ExaminerType.INTERNAL, "Computing",
+				"Science", "internal@atu.ie", 10_000);
+		ExternalExaminer external = new ExternalExaminer("External Examiner", ExaminerType.EXTERNAL, "Computing",
+				"University");
+		FileUtil.saveToFile(new File(dir, StorageEngine.EXAMINERS + ".dat").getPath(), List.of(internal, external));
+		FileUtil.saveToFile(new File(dir, StorageEngine.MODULES + ".dat").getPath(), List.of(new ModuleInfo(MODULE,
+				"Module", 50, "P1", "Programme", 1, "Science", "Computing", internal, external)));
+		FileUtil.saveToFile(new File(dir, MODULE + StorageEngine.PAPERS_SUFFIX + ".dat").getPath(),
+				List.of(paper(MOVED), paper(STAYED)));
+		engine = Storage.createEngine("binary");
+		Storage.use(engine);
+		index = new PaperStatusIndex(engine);
+
+		// The move of MOVED to approved stopped after the put.
+		repository(PaperStatus.APPROVED).put(MOVED,
+				new PaperStatusView(MOVED, MODULE, PaperStatus.APPROVED, 1, 0, 0, null));
+	}
+
+	@AfterEach
+	void closeStorage() {
+		Storage.use(null);
+		System.clearProperty(Storage.DATA_DIR_PROPERTY);
+	}
+
+	@Test
+	void newerViewIsRead() {
+		assertEquals(PaperStatus.APPROVED, index.view(MOVED).status());
+		assertEquals(List.of(STAYED), paperIds(index.papersWith(PaperStatus.PENDING)));
+		assertEquals(List.of(MOVED), paperIds(index.papersWith(PaperStatus.APPROVED)));
+		assertEquals(1, index.count(PaperStatus.PENDING));
+		assertEquals(1, index.count(PaperStatus.APPROVED));
+	}
+
+	@Test
+	void readingAPageRemovesTheOlderView() {
+		assertEquals(List.of(STAYED), paperIds(index.papersWith(PaperStatus.PENDING, 0, 10)));
+		assertFalse(repository(PaperStatus.PENDING).containsKey(MOVED));
+	}
+
+	@Test
+	void reopeningRemovesTheOlderView() {
+		new PaperStatusIndex(engine);
+		assertFalse(repository(PaperStatus.PENDING).containsKey(MOVED));
+		assertEquals(PaperStatus.APPROVED, index.view(MOVED).status());
+	}
+
+	private Repository<PaperStatusView> repository(PaperStatus status) {
+		return engine.open(PaperStatusIndex.NAME_PREFIX + status.name().toLowerCase(),
+				RecordCodecs.paperStatusViews(), PaperStatusView::paperId);
+	}
+
+	private static List<String> paperIds(List<PaperStatusView> views) {
+		return views.stream().map(PaperStatusView::paperId).toList();
+	}
+
+	private static ExaminationPaper paper(String paperId) {
+		List<Question> questions = new ArrayList<>();
+		int marks = Rules.DEFAULT_TOTAL_MARKS / Rules.DEFAULT_MAX_QUESTIONS;
+		for (int q = 0; q < Rules.DEFAULT_MAX_QUESTIONS; q++) {
+			int questionMarks = q == Rules.DEFAULT_MAX_QUESTIONS - 1
+					? Rules.DEFAULT_TOTAL_MARKS - marks * (Rules.DEFAULT_MAX_QUESTIONS - 1)
+					: marks;
+			questions.add(new Question("Question " + (q + 1), List.of("Explain part a."), questionMarks));
+		}
+		return new ExaminationPaper(paperId, MODULE, "Yes", "No", "No", "Yes", "No", "No", "No", "Yes", "No",
+				questions.size(), Rules.DEFAULT_REQUIRED_ANSWERS, questions, new ArrayList<>());
+	}
+}
@@ -0,0 +1,215 @@
+package ie.atu.sw.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ie.atu.sw.services.Examiner;
+
+/**
+ * Round-trips the records of the shipped data files through the binary codecs
+ * and the record log, and checks that a record location made stale by a
+ * compaction reads the latest value.
+ */
+class RecordCodecsTest {
+	@TempDir
+	File dir;
+
+	private final List<LogRepository<?>> repositories = new ArrayList<>();
+	private ExaminerRegistry examinerRegistry;
+	private QuestionBank questionBank;
+
+	@BeforeEach
+	void openRegistries() {
+		examinerRegistry = new ExaminerRegistry(
+				open("examiners", RecordCodecs.examiners(), ExaminerUtil::examinerKey, null),
+				open("examiner_aliases", RecordCodecs.examinerAliases(),
+						alias -> ExaminerUtil.examinerKey(alias.examiner()), null),
+				true);
+		questionBank = new QuestionBank(open("questions", RecordCodecs.questions(), QuestionBank::questionId, null));
+	}
+
+	@AfterEach
+	void closeRepositories() {
+		repositories.forEach(LogRepository::close);
+	}
+
+	@Test
+	void modulesRoundTrip() throws IOException {
+		RecordCodec<ModuleInfo> codec = RecordCodecs.modules(examinerRegistry);
+		for (ModuleInfo module : this.<ModuleInfo>load("module_data.dat")) {
+			registerExaminers(module);
+			assertEquals(module, roundTrip(codec, module));
+		}
+	}
+
+	@Test
+	void examinersRoundTrip() throws IOException {
+		RecordCodec<Examiner> codec = RecordCodecs.examiners();
+		for (Examiner examiner : this.<Examiner>load("examiner_data.dat")) {
+			assertEquals(examiner, roundTrip(codec, examiner));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "a", "b", "c" })
+	void papersRoundTrip(String module) throws IOException {
+		RecordCodec<ExaminationPaper> codec = RecordCodecs.papers(questionBank, examinerRegistry);
+		for (ExaminationPaper paper : this.<ExaminationPaper>load(module + "_examination_papers.dat")) {
+			paper.actions().forEach(action -> examinerRegistry.register(action.getExaminer()));
+			assertSamePaper(paper, roundTrip(codec, paper));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "a", "b", "c" })
+	void paperHeadersRoundTrip(String module) throws IOException {
+		RecordCodec<PaperHeader> codec = RecordCodecs.paperHeaders();
+		for (ExaminationPaper paper : this.<ExaminationPaper>load(module + "_examination_papers.dat")) {
+			PaperHeader header = PaperHeader.of(paper);
+			assertEquals(header, roundTrip(codec, header));
+		}
+	}
+
+	@Test
+	void importedModulesSurviveReopening() {
+		List<ModuleInfo> modules = load("module_data.dat");
+		modules.forEach(this::registerExaminers);
+		File legacy = new File("module_data.dat");
+		LogRepository<ModuleInfo> imported = open("modules", RecordCodecs.modules(examinerRegistry),
+				ModuleInfo::moduleCode, legacy);
+		assertEquals(modules.size(), imported.size());
+		imported.close();
+
+		LogRepository<ModuleInfo> reopened = open("modules", RecordCodecs.modules(examinerRegistry),
+				ModuleInfo::moduleCode, legacy);
+		assertEquals(modules.size(), reopened.size());
+		for (ModuleInfo module : modules) {
+			assertEquals(module, reopened.get(module.moduleCode()));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "a", "b", "c" })
+	void importedPapersSurviveReopening(String module) {
+		List<ExaminationPaper> papers = load(module + "_examination_papers.dat");
+		File legacy = new File(module + "_examination_papers.dat");
+		papers.forEach(paper -> paper.actions().forEach(action -> examinerRegistry.register(action.getExaminer())));
+		open("papers", RecordCodecs.papers(questionBank, examinerRegistry), ExaminationPaper::paperId, legacy)
+				.close();
+
+		LogRepository<ExaminationPaper> reopened = open("papers", RecordCodecs.papers(questionBank, examinerRegistry),
+				ExaminationPaper::paperId, legacy);
+		assertEquals(papers.size(), reopened.size());
+		for (ExaminationPaper paper : papers) {
+			assertSamePaper(paper, reopened.get(paper.paperId()));
+		}
+	}
+
+	@Test
+	void staleLocationReadsTheLatestValue() {
+		ModuleInfo module = this.<ModuleInfo>load("module_data.dat").get(0);
+		registerExaminers(module);
+		LogRepository<ModuleInfo> modules = open("modules", RecordCodecs.modules(examinerRegistry),
+				ModuleInfo::moduleCode, null);
+		LogRepository<ModuleInfo> other = open("modules", RecordCodecs.modules(examinerRegistry),
+				ModuleInfo::moduleCode, null);
+		// A record ahead of the module's that shrinks, so the module's moves.
+		ModuleInfo filler = new ModuleInfo("FILLER", "Filler ".repeat(100), 0, "", "", 1, "", "",
+				module.internalExaminer(), module.externalExaminer());
+		modules.put(filler.moduleCode(), filler);
+		RecordLocation location = modules.put(module.moduleCode(), module);
+		modules.put(filler.moduleCode(), retitled(filler, "Filler"));
+		ModuleInfo latest = module;
+		for (int i = 0; i < 2_000; i++) {
+			latest = retitled(module, "Version " + i);
+			modules.put(module.moduleCode(), latest);
+		}
+
+		// Another repository on the log compacts it, moving the module's record.
+		assertTrue(other.compact());
+		modules.refresh();
+		assertEquals(latest, modules.read(module.moduleCode(), location));
+	}
+
+	private static ModuleInfo retitled(ModuleInfo module, String title) {
+		return new ModuleInfo(module.moduleCode(), title, module.registrations(), module.programCode(),
+				module.programTitle(), module.year(), module.school(), module.department(), module.internalExaminer(),
+				module.externalExaminer());
+	}
+
+	private <V> List<V> load(String fileName) {
+		List<V> values = FileUtil.loadFromFile(fileName);
+		assertNotNull(values, fileName + " could not be read");
+		assertFalse(values.isEmpty(), fileName + " is empty");
+		return values;
+	}
+
+	private <V> LogRepository<V> open(String name, RecordCodec<V> codec, Function<? super V, String> keyFunction,
+			File legacyFile) {
+		LogRepository<V> repository = new LogRepository<>(new File(dir, name + ".db"), legacyFile, codec,
+				keyFunction);
+		repositories.add(repository);
+		return repository;
+	}
+
+	private void registerExaminers(ModuleInfo module) {
+		if (module.internalExaminer() != null) {
+			examinerRegistry.register(module.internalExaminer());
+		}
+		if (module.getExternalExaminer() != null) {
+			examinerRegistry.register(module.getExternalExaminer());
+		}
+	}
+
+	private static <V> V roundTrip(RecordCodec<V> codec, V value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		codec.write(value, new DataOutputStream(bytes));
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		V decoded = codec.read(in);
+		assertEquals(0, in.available(), "trailing bytes after " + value);
+		return decoded;
+	}
+
+	/*
+	 * Allowances are stored as one bit each, so only whether each one is "Yes"
+	 * survives; actions have no equality of their own.
+	 */
+	private static void assertSamePaper(ExaminationPaper expected, ExaminationPaper actual) {
+		assertNotNull(actual, expected.paperId());
+		assertEquals(expected.paperId(), actual.paperId());
+		assertEquals(expected.moduleCode(), actual.moduleCode());
+		assertEquals(ExaminationPaperCodec.allowanceBits(expected), ExaminationPaperCodec.allowanceBits(actual));
+		assertEquals(expected.totalQuestions(), actual.totalQuestions());
+		assertEquals(expected.requiredAnswers(), actual.requiredAnswers());
+		assertEquals(expected.questions(), actual.questions());
+		assertEquals(expected.actions().size(), actual.actions().size());
+		for (int i = 0; i < expected.actions().size(); i++) {
+			ExternalExaminerAction want = expected.actions().get(i);
+			ExternalExaminerAction got = actual.actions().get(i);
+			assertEquals(want.getModuleCode(), got.getModuleCode());
+			assertEquals(want.getPaperId(), got.getPaperId());
+			assertEquals(want.getExaminer(), got.getExaminer());
+			assertEquals(want.getAction(), got.getAction());
+			assertEquals(want.getComment(), got.getComment());
+		}
+	}
+}